@@ -0,0 +1,36 @@
+package com.jwt.demo;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * CdsTrainingRun은 CDS(Class Data Sharing) 아카이브를 만들기 위한 학습 실행(training run)을 지원합니다.
+ * cds.training-run=true 이면 애플리케이션 기동이 끝나자마자 종료하여,
+ * -XX:ArchiveClassesAtExit 옵션으로 기동 중 로드된 클래스를 아카이브에 기록하게 합니다. (mvn -Pcds package 참고)
+ *
+ * AOT 처리 시에는 조건부 빈(@ConditionalOnProperty)이 빌드 시점에 결정되므로, 속성은 실행 시점에 확인합니다.
+ */
+@Slf4j
+@Component
+public class CdsTrainingRun {
+
+    private final boolean trainingRun;
+
+    public CdsTrainingRun(@Value("${cds.training-run:false}") boolean trainingRun) {
+        this.trainingRun = trainingRun;
+    }
+
+    @EventListener
+    public void exitAfterStartup(ApplicationReadyEvent event) {
+        if (!trainingRun) {
+            return;
+        }
+        log.info("CDS 학습 실행이 끝났습니다. 애플리케이션을 종료합니다.");
+        System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+}
@@ -0,0 +1,47 @@
+package com.jwt.demo;
+
+import java.time.Duration;
+
+import org.apache.coyote.UpgradeProtocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Http2ConnectorCustomizer는 server.http2.enabled=true 일 때 Tomcat이 추가하는 HTTP/2 프로토콜을 짧은 인증 요청에 맞게 조정합니다.
+ * TLS 없이 켜면 h2c(Upgrade: h2c 또는 prior knowledge)로 동작하므로 내부 게이트웨이 트래픽에 사용합니다.
+ *
+ * - keep-alive: HTTP/1.1과 같은 server.tomcat.keep-alive-timeout을 사용합니다. (Tomcat HTTP/2 기본값은 20초)
+ * - max-concurrent-streams: 게이트웨이가 연결 하나로 동시에 보낼 수 있는 요청 수 (Tomcat 기본값은 100)
+ *
+ * HTTP/2가 꺼져 있으면 아무것도 바꾸지 않습니다.
+ */
+@Component
+public class Http2ConnectorCustomizer implements WebServerFactoryCustomizer<TomcatServletWebServerFactory> {
+
+    private final Duration keepAliveTimeout;
+    private final int maxConcurrentStreams;
+
+    public Http2ConnectorCustomizer(
+            @Value("${server.tomcat.keep-alive-timeout:30s}") Duration keepAliveTimeout,
+            @Value("${jwt.http2.max-concurrent-streams:200}") int maxConcurrentStreams) {
+        this.keepAliveTimeout = keepAliveTimeout;
+        this.maxConcurrentStreams = maxConcurrentStreams;
+    }
+
+    @Override
+    public void customize(TomcatServletWebServerFactory factory) {
+        // 커넥터 커스터마이저는 Spring Boot가 Http2Protocol을 추가한 뒤에 실행됩니다.
+        factory.addConnectorCustomizers(connector -> {
+            for (UpgradeProtocol protocol : connector.findUpgradeProtocols()) {
+                if (protocol instanceof Http2Protocol http2) {
+                    http2.setKeepAliveTimeout(keepAliveTimeout.toMillis());
+                    http2.setMaxConcurrentStreams(maxConcurrentStreams);
+                    http2.setMaxConcurrentStreamExecution(maxConcurrentStreams);
+                }
+            }
+        });
+    }
+}
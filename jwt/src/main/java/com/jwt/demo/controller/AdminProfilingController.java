@@ -0,0 +1,63 @@
+package com.jwt.demo.controller;
+
+import java.io.IOException;
+import java.text.ParseException;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.jwt.demo.handler.ErrorBody;
+import com.jwt.demo.profiling.JfrRecordings;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@RequiredArgsConstructor
+@RequestMapping("/api/admin/profiling")
+public class AdminProfilingController {   // 운영 중 로그인/토큰 검증 지연을 진단하기 위한 JFR 녹화 API (ADMIN 권한 필요)
+    private final JfrRecordings jfrRecordings;
+
+    // 정해진 시간 동안 JFR 녹화를 시작 (이미 녹화 중이면 409)
+    @PostMapping("/recording")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<?> start(@RequestParam(defaultValue = "60") long seconds,
+            @RequestParam(defaultValue = "0") long thresholdMs) throws IOException, ParseException {
+        return jfrRecordings.start(seconds, thresholdMs)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(ErrorBody.CONFLICT::toResponseEntity);
+    }
+
+    // 녹화 파일(.jfr)을 내려받음. 녹화 중이면 지금까지의 내용 (녹화한 적이 없으면 404)
+    @GetMapping("/recording")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<?> dump() throws IOException {
+        return jfrRecordings.dump()
+                .<ResponseEntity<?>>map(file -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .header(HttpHeaders.CONTENT_DISPOSITION,
+                                ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                        .body(new FileSystemResource(file)))
+                .orElseGet(ErrorBody.NOT_FOUND::toResponseEntity);
+    }
+
+    // 마지막 녹화의 상태 (녹화한 적이 없으면 404)
+    @GetMapping("/recording/status")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<?> status() {
+        return jfrRecordings.status()
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(ErrorBody.NOT_FOUND::toResponseEntity);
+    }
+}
@@ -0,0 +1,31 @@
+package com.jwt.demo.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.jwt.demo.sharding.ShardRebalancer;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/admin")
+@ConditionalOnProperty(name = "jwt.sharding.urls")
+@ConditionalOnWebApplication(type = Type.SERVLET)
+public class AdminShardController {   // 샤드 수를 바꾼 뒤 사용자와 리프레시 토큰을 새 샤드로 옮기는 관리자 전용 API
+    private final ShardRebalancer shardRebalancer;
+
+    // 잘못된 샤드에 있는 행을 batchSize개씩 옮기고 처리 건수를 반환 (ADMIN 권한 필요)
+    @PostMapping("/shards/rebalance")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<ShardRebalancer.Result> rebalance(@RequestParam(defaultValue = "500") int batchSize) {
+        return ResponseEntity.ok(shardRebalancer.rebalance(batchSize));
+    }
+}
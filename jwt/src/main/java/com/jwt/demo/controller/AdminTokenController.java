@@ -0,0 +1,43 @@
+package com.jwt.demo.controller;
+
+import java.io.IOException;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.jwt.demo.service.BatchTokenRequestReader;
+import com.jwt.demo.service.BatchTokenService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@RequiredArgsConstructor
+@RequestMapping("/api/admin")
+public class AdminTokenController {   // 서비스 간 호출과 부하 테스트 클라이언트를 위한 관리자 전용 API
+    private final BatchTokenService batchTokenService;
+
+    // 여러 사용자의 토큰을 한 번에 발급하고 결과를 스트리밍으로 반환 (ADMIN 권한 필요)
+    // 요청 본문은 @RequestBody로 한 번에 바인딩하지 않고 청크 단위로 읽습니다. 첫 청크의 형식 오류는 여기서 400으로 응답합니다.
+    @PostMapping(value = "/tokens/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> issueTokens(HttpServletRequest request) throws IOException {
+        BatchTokenRequestReader reader = batchTokenService.openRequest(request.getInputStream());
+        StreamingResponseBody body = out -> {
+            try (reader) {
+                batchTokenService.issueTokens(reader, out);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
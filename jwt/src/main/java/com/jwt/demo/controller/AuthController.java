@@ -2,15 +2,19 @@ package com.jwt.demo.controller;
 
 import java.util.Optional;
 
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -18,41 +22,60 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import com.jwt.demo.dto.LoginDto;
 import com.jwt.demo.dto.LogoutDto;
 import com.jwt.demo.dto.TokenDto;
-import com.jwt.demo.entities.RefreshToken;
+import com.jwt.demo.handler.ErrorBody;
 import com.jwt.demo.jwt.JwtFilter;
 import com.jwt.demo.jwt.TokenProvider;
-import com.jwt.demo.repository.RefreshTokenRepository;
 import com.jwt.demo.service.AuthenticationService;
+import com.jwt.demo.service.RefreshResult;
 
 import jakarta.validation.Valid;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j // 로깅을 위한 애노테이션
 @RestController // REST API 요청을 처리하는 컨트롤러 클래스임을 선언
+@ConditionalOnWebApplication(type = Type.SERVLET) // 리액티브 배포에서는 ReactiveAuthController가 같은 API를 제공합니다.
 @RequestMapping("/api") // 이 컨트롤러의 공통 요청 경로 설정
-@RequiredArgsConstructor // final 필드에 대한 생성자 자동 생성 (DI를 위한 필드)
 public class AuthController {  //이 컨트롤러는 로그인과 토큰 갱신 같은 인증 관련 작업을 처리하는 역할
    
     private final AuthenticationService authenticationService; // 인증 관련 서비스를 의존성 주입
-    private final RefreshTokenRepository refreshTokenRepository; // 주입을 위한 필드 추가
+    private final TokenProvider tokenProvider; // 발급한 액세스 토큰의 갱신 시각(rat)을 응답 헤더로 알려 주기 위해 사용
+    // 로그인 응답에 본문과 같은 엑세스 토큰을 Authorization 헤더로도 보낼지 여부 (기존 클라이언트 호환을 위해 기본값 true)
+    private final boolean authorizationHeader;
+
+    public AuthController(AuthenticationService authenticationService,
+            TokenProvider tokenProvider,
+            @Value("${jwt.login.authorization-header:true}") boolean authorizationHeader) {
+        this.authenticationService = authenticationService;
+        this.tokenProvider = tokenProvider;
+        this.authorizationHeader = authorizationHeader;
+    }
 
     /**
      * 로그인 요청을 처리하는 메소드
-     * @param loginDto 클라이언트에서 받은 로그인 정보 (ID, 비밀번호)
-     * @return 엑세스 및 리프레시 토큰을 포함한 응답
+     * @param loginDto 클라이언트에서 받은 로그인 정보 (ID, 비밀번호, 선택적인 기기 이름)
+     * @param userAgent 세션 목록에 표시할 User-Agent 헤더
+     * @return 엑세스 및 리프레시 토큰을 포함한 응답. 아이디나 비밀번호가 틀리면 401
      */
     @PostMapping("/login") // /api/login 경로로 POST 요청을 처리
-    public ResponseEntity<TokenResponse> login(@Valid @RequestBody LoginDto loginDto) {
+    @RegisterReflectionForBinding(TokenResponse.class) // 반환 타입이 ResponseEntity<?>이므로 native image용 직렬화 힌트를 직접 등록
+    public ResponseEntity<?> login(@Valid @RequestBody LoginDto loginDto,
+            @RequestHeader(value = HttpHeaders.USER_AGENT, required = false) String userAgent) {
 
         // loginDto의 로그인 정보를 이용해 토큰을 생성
         Optional<TokenResponse> optTokenResponse = 
-                authenticationService.makeTokens(loginDto);
+                authenticationService.makeTokens(loginDto, userAgent);
+        if (optTokenResponse.isEmpty()) {
+            return ErrorBody.UNAUTHORIZED.toResponseEntity();
+        }
         
         // HttpHeaders를 생성하고, Authorization 헤더에 Bearer + AccessToken을 추가
+        // 응답마다 값이 다른 헤더는 HTTP/2 HPACK 동적 테이블에서 재사용되지 않고 자리만 차지하므로 끌 수 있습니다.
         HttpHeaders httpHeaders = new HttpHeaders();
-        httpHeaders.add(JwtFilter.AUTHORIZATION_HEADER, "Bearer " + 
-                optTokenResponse.get().getAccessToken());
+        if (authorizationHeader) {
+            httpHeaders.add(JwtFilter.AUTHORIZATION_HEADER, "Bearer " + 
+                    optTokenResponse.get().getAccessToken());
+        }
+        addRefreshAtHeader(httpHeaders, optTokenResponse.get().getAccessToken());
         
         // 생성된 토큰을 포함한 응답을 반환
         ResponseEntity<TokenResponse> ret = new ResponseEntity<>(
@@ -64,47 +87,52 @@ public class AuthController {  //이 컨트롤러는 로그인과 토큰 갱신
     } 
     
     @PostMapping("/logout")
-    public ResponseEntity<String> logout(@RequestBody LogoutDto logoutDto) {
-        // refreshTokenRepository 인스턴스를 사용하여 리프레시 토큰을 조회
-        Optional<RefreshToken> refreshToken = refreshTokenRepository.findByToken(logoutDto.getRefreshToken());
-        
-        if (refreshToken.isPresent()) {
-            refreshTokenRepository.delete(refreshToken.get()); // DB에서 토큰 삭제
+    public ResponseEntity<?> logout(@RequestBody LogoutDto logoutDto) {
+        // 리프레시 토큰을 DB에서 삭제합니다. (리액티브 배포와 같은 서비스 메서드를 사용)
+        if (authenticationService.logout(logoutDto.getRefreshToken())) {
             return ResponseEntity.ok("Successfully logged out");
         } else {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid refresh token");
+            // 토큰 재발급 실패와 같은 JSON 본문을 반환
+            return ErrorBody.INVALID_REFRESH_TOKEN.toResponseEntity();
         }
     }
     
     /**
      * 리프레시 토큰을 사용해 새로운 엑세스 토큰을 발급하는 메소드
      * @param refreshTokenRequest 리프레시 토큰 요청 정보 (리프레시 토큰 값 포함)
-     * @param authentication 현재 인증 정보
-     * @return 새롭게 발급된 엑세스 토큰 또는 에러 메시지
+     * @return 새롭게 발급된 엑세스 토큰 또는 오류 본문 (잘못되었거나 만료된 토큰이면 400)
      */
     @PostMapping("/refresh-token") // /api/refresh-token 경로로 POST 요청을 처리
+    @RegisterReflectionForBinding(TokenDto.class) // 반환 타입이 ResponseEntity<?>이므로 native image용 직렬화 힌트를 직접 등록
     public ResponseEntity<?> refreshToken(@RequestBody 
-            RefreshTokenRequest refreshTokenRequest,
-            Authentication authentication) {      
+            RefreshTokenRequest refreshTokenRequest) {      
         
-        try {
-            // 리프레시 토큰을 이용해 새로운 엑세스 토큰을 발급 요청
-            Optional<TokenDto> tokenDto = 
-                    authenticationService.makeNewAccessToken(
-                            refreshTokenRequest, authentication);
-            
-            // 토큰 생성 성공 시 새 엑세스 토큰 반환
-            if (!tokenDto.isEmpty()) {
-                return ResponseEntity.ok(tokenDto.get());
-            } else {
-                // 리프레시 토큰 만료 시 400 Bad Request 상태 코드를 반환, 오류 메시지 반환
-                return ResponseEntity.badRequest().body("Refresh token expired. Please login again.");
-            }            
+        // 리프레시 토큰을 이용해 새로운 엑세스 토큰을 발급 요청
+        // 실패는 예외가 아니라 결과로 돌아오며, 예상하지 못한 예외는 GlobalExceptionHandler가 처리합니다.
+        RefreshResult result = 
+                authenticationService.makeNewAccessToken(refreshTokenRequest);
         
-        } catch (Exception e) {
-            // 예외 발생 시 에러 메시지 반환
-            return ResponseEntity.badRequest().body(e.getMessage());
-        }        
+        return switch (result.getStatus()) {
+            // 토큰 생성 성공 시 새 엑세스 토큰 반환
+            case ISSUED -> {
+                HttpHeaders httpHeaders = new HttpHeaders();
+                addRefreshAtHeader(httpHeaders, result.getToken().getToken());
+                yield ResponseEntity.ok().headers(httpHeaders).body(result.getToken());
+            }
+            // 잘못되었거나 만료된 리프레시 토큰이면 400과 고정된 JSON 본문을 반환
+            case EXPIRED -> ErrorBody.REFRESH_TOKEN_EXPIRED.toResponseEntity();
+            case INVALID -> ErrorBody.INVALID_REFRESH_TOKEN.toResponseEntity();
+        };
     }
-    
-}
\ No newline at end of file
+
+    /**
+     * 액세스 토큰의 갱신 시각(rat 클레임)을 X-Refresh-At 헤더로 알려 줍니다. 클라이언트는 이 시각에 갱신하면
+     * 함께 로그인한 다른 클라이언트와 같은 순간에 몰리지 않습니다.
+     */
+    private void addRefreshAtHeader(HttpHeaders httpHeaders, String accessToken) {
+        long refreshAt = tokenProvider.refreshAtSeconds(accessToken);
+        if (refreshAt > 0) {
+            httpHeaders.add(JwtFilter.REFRESH_AT_HEADER, Long.toString(refreshAt));
+        }
+    }
+}
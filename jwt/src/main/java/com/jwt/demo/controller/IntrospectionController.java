@@ -0,0 +1,34 @@
+package com.jwt.demo.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.jwt.demo.dto.IntrospectionRequestDto;
+import com.jwt.demo.dto.IntrospectionResultDto;
+import com.jwt.demo.service.IntrospectionService;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@RequiredArgsConstructor
+@RequestMapping("/api")
+public class IntrospectionController {   // 다운스트림 서비스를 위한 토큰 일괄 검사 API (SERVICE 또는 ADMIN 권한 필요)
+    private final IntrospectionService introspectionService;
+
+    // 여러 토큰을 한 번에 검사하고 요청과 같은 순서로 결과를 반환
+    @PostMapping("/introspect")
+    public ResponseEntity<Map<String, List<IntrospectionResultDto>>> introspect(
+            @Valid @RequestBody IntrospectionRequestDto requestDto) {
+        return ResponseEntity.ok(Map.of("results", introspectionService.introspect(requestDto.getTokens())));
+    }
+}
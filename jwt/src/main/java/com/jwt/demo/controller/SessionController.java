@@ -0,0 +1,54 @@
+package com.jwt.demo.controller;
+
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.jwt.demo.handler.ErrorBody;
+import com.jwt.demo.service.SessionService;
+import com.jwt.demo.util.SecurityUtil;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@RequiredArgsConstructor
+@RequestMapping("/api/sessions")
+public class SessionController {   // 내 로그인 세션(기기) 조회와 로그아웃 API (인증 필요)
+    private final SessionService sessionService;
+
+    // 만료되지 않은 내 세션을 최근 순서로 한 페이지 조회
+    @GetMapping
+    public ResponseEntity<?> sessions(@RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return SecurityUtil.getCurrentUsername()
+                .<ResponseEntity<?>>map(username -> ResponseEntity.ok(sessionService.sessions(username, page, size)))
+                .orElseGet(ErrorBody.UNAUTHORIZED::toResponseEntity);
+    }
+
+    // 모든 기기에서 로그아웃 (로그아웃한 세션 수를 반환)
+    @DeleteMapping
+    public ResponseEntity<?> logoutEverywhere() {
+        return SecurityUtil.getCurrentUsername()
+                .<ResponseEntity<?>>map(username -> ResponseEntity.ok(Map.of("revoked", sessionService.logoutEverywhere(username))))
+                .orElseGet(ErrorBody.UNAUTHORIZED::toResponseEntity);
+    }
+
+    // 세션 하나를 로그아웃 (내 세션이 아니거나 없으면 404)
+    @DeleteMapping("/{sessionId}")
+    public ResponseEntity<?> logout(@PathVariable String sessionId) {
+        return SecurityUtil.getCurrentUsername()
+                .<ResponseEntity<?>>map(username -> sessionService.logout(username, sessionId)
+                        ? ResponseEntity.noContent().build()
+                        : ErrorBody.NOT_FOUND.toResponseEntity())
+                .orElseGet(ErrorBody.UNAUTHORIZED::toResponseEntity);
+    }
+}
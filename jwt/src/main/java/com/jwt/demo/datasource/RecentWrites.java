@@ -0,0 +1,79 @@
+package com.jwt.demo.datasource;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * RecentWrites는 최근에 primary에 쓴 키(리프레시 토큰, 사용자 이름)를 잠시 기억합니다.
+ * 복제 지연 때문에 replica에서 아직 보이지 않을 수 있는 데이터를 읽을 때 primary로 보내기 위해 사용합니다.
+ *
+ * 이 인스턴스에서 쓴 데이터만 알 수 있으므로, 로그인과 후속 요청이 다른 인스턴스로 가는 경우에는
+ * 로드 밸런서의 세션 고정(sticky session)이나 jwt.replica.max-lag-seconds로 보완합니다.
+ */
+@Component
+public class RecentWrites {
+
+    // 비정상적으로 많은 쓰기가 몰려도 메모리가 무한히 늘어나지 않도록 제한합니다.
+    private static final int MAX_ENTRIES = 100_000;
+
+    // 쓰기 후 primary에서 읽는 시간 (밀리초)
+    private final long windowMillis;
+
+    // 키 -> primary에서 읽어야 하는 마감 시각 (epoch 밀리초)
+    private final Map<String, Long> writes = new ConcurrentHashMap<>();
+
+    public RecentWrites(@Value("${jwt.replica.read-your-writes-seconds:10}") long readYourWritesSeconds) {
+        this.windowMillis = readYourWritesSeconds * 1000;
+    }
+
+    /**
+     * 방금 primary에 쓴 키를 기록합니다.
+     * @param key 리프레시 토큰 또는 사용자 이름
+     */
+    public void record(String key) {
+        long now = System.currentTimeMillis();
+        if (writes.size() >= MAX_ENTRIES) {
+            writes.values().removeIf(until -> until < now);
+            if (writes.size() >= MAX_ENTRIES) {
+                writes.clear();
+            }
+        }
+        writes.put(key, now + windowMillis);
+    }
+
+    /**
+     * @param key 확인할 키
+     * @return 최근에 쓴 키이면 true
+     */
+    public boolean isRecent(String key) {
+        Long until = writes.get(key);
+        if (until == null) {
+            return false;
+        }
+        if (until < System.currentTimeMillis()) {
+            writes.remove(key, until);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param keys 확인할 키 목록
+     * @return 하나라도 최근에 쓴 키이면 true
+     */
+    public boolean anyRecent(Collection<String> keys) {
+        if (writes.isEmpty()) {
+            return false;
+        }
+        for (String key : keys) {
+            if (isRecent(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
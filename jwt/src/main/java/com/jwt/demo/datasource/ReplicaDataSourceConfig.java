@@ -0,0 +1,71 @@
+package com.jwt.demo.datasource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * ReplicaDataSourceConfig는 jwt.replica.urls가 설정된 경우 primary/replica 라우팅 DataSource를 구성합니다.
+ * 설정하지 않으면 Spring Boot의 기본 DataSource(spring.datasource.*) 하나만 사용합니다.
+ *
+ * primary는 spring.datasource.* 와 spring.datasource.hikari.* 설정을 그대로 사용하고,
+ * replica는 같은 풀 설정에 URL만 바꾼 읽기 전용 풀입니다.
+ * (AOT/native 빌드에서는 조건이 빌드 시점에 결정되므로 빌드할 때도 jwt.replica.urls를 설정해야 합니다.)
+ */
+@Configuration
+@ConditionalOnProperty(name = "jwt.replica.urls")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaLagMonitor replicaLagMonitor(
+            HikariDataSource primaryDataSource,
+            @Value("${jwt.replica.urls}") String[] urls,
+            @Value("${jwt.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${jwt.replica.password:${spring.datasource.password:}}") String password,
+            @Value("${jwt.replica.max-lag-seconds:5}") long maxLagSeconds,
+            @Value("${jwt.replica.lag-check-interval-ms:1000}") long lagCheckIntervalMillis) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.length; i++) {
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setPoolName("replica-" + i);
+            config.setJdbcUrl(urls[i].trim());
+            config.setUsername(username);
+            config.setPassword(password);
+            config.setReadOnly(true);
+            replicas.add(new HikariDataSource(config));
+        }
+        return new ReplicaLagMonitor(replicas, maxLagSeconds, lagCheckIntervalMillis, ReplicaLagMonitor.MYSQL);
+    }
+
+    /**
+     * JPA와 JdbcTemplate이 사용하는 DataSource입니다.
+     * 트랜잭션의 읽기 전용 여부를 보고 연결을 고를 수 있도록 첫 쿼리 시점까지 연결 획득을 미룹니다.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaLagMonitor replicaLagMonitor) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primaryDataSource, replicaLagMonitor));
+    }
+}
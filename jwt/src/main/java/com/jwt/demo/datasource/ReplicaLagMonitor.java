@@ -0,0 +1,141 @@
+package com.jwt.demo.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import javax.sql.DataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ReplicaLagMonitor는 replica마다 복제 지연 시간을 주기적으로 측정하고, 허용 범위 안에 있는 replica만 읽기에 사용하도록 합니다.
+ * 측정에 실패하거나 복제가 멈춘 replica(지연 시간을 알 수 없음)는 다음 측정에서 회복될 때까지 사용하지 않습니다.
+ * 사용할 수 있는 replica가 없으면 ReplicaRoutingDataSource가 읽기도 primary로 보냅니다.
+ */
+@Slf4j
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    /**
+     * replica 하나의 복제 지연 시간을 측정합니다.
+     */
+    @FunctionalInterface
+    public interface LagProbe {
+        /**
+         * @return 복제 지연 시간 (초). 복제가 멈췄거나 알 수 없으면 null
+         */
+        Long secondsBehind(DataSource replica) throws SQLException;
+    }
+
+    /**
+     * MySQL 8.0.22 이상의 SHOW REPLICA STATUS로 지연 시간을 측정합니다. (REPLICATION CLIENT 권한 필요)
+     */
+    public static final LagProbe MYSQL = replica -> {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SHOW REPLICA STATUS")) {
+            if (!rs.next()) {
+                return null; // replica로 설정되어 있지 않음
+            }
+            long seconds = rs.getLong("Seconds_Behind_Source");
+            return rs.wasNull() ? null : seconds;
+        }
+    };
+
+    private final List<DataSource> replicas;
+    private final long maxLagSeconds;
+    private final LagProbe probe;
+
+    // replica별 사용 가능 여부 (1: 사용 가능). 첫 측정 전에는 사용하지 않습니다.
+    private final AtomicIntegerArray healthy;
+
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * @param replicas 읽기 전용 replica 목록
+     * @param maxLagSeconds 허용하는 최대 복제 지연 시간 (초)
+     * @param checkIntervalMillis 측정 주기 (밀리초). 0 이하이면 주기적으로 측정하지 않습니다. (check()를 직접 호출)
+     * @param probe 지연 시간 측정 방법
+     */
+    public ReplicaLagMonitor(List<DataSource> replicas, long maxLagSeconds, long checkIntervalMillis, LagProbe probe) {
+        this.replicas = List.copyOf(replicas);
+        this.maxLagSeconds = maxLagSeconds;
+        this.probe = probe;
+        this.healthy = new AtomicIntegerArray(replicas.size());
+        if (checkIntervalMillis > 0) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "replica-lag-monitor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.scheduler.scheduleWithFixedDelay(this::check, 0, checkIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    public List<DataSource> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * 모든 replica의 지연 시간을 한 번 측정합니다.
+     */
+    public void check() {
+        for (int i = 0; i < replicas.size(); i++) {
+            boolean ok;
+            try {
+                Long lag = probe.secondsBehind(replicas.get(i));
+                ok = lag != null && lag <= maxLagSeconds;
+                if (!ok) {
+                    log.debug("replica-{} 복제 지연이 허용 범위를 넘었습니다: {}초", i, lag);
+                }
+            } catch (SQLException | RuntimeException e) {
+                ok = false;
+                log.debug("replica-{} 복제 지연을 측정하지 못했습니다: {}", i, e.toString());
+            }
+            int previous = healthy.getAndSet(i, ok ? 1 : 0);
+            if (previous != (ok ? 1 : 0)) {
+                log.info("replica-{}를 읽기에 {}", i, ok ? "사용합니다." : "사용하지 않습니다. (primary로 전환)");
+            }
+        }
+    }
+
+    /**
+     * start 위치부터 순서대로 사용 가능한 replica를 찾습니다. (라운드 로빈)
+     * @param start 시작 위치 (호출할 때마다 증가하는 값)
+     * @return 사용 가능한 replica의 인덱스, 없으면 -1
+     */
+    int nextHealthyReplica(int start) {
+        int size = healthy.length();
+        for (int i = 0; i < size; i++) {
+            int candidate = Math.floorMod(start + i, size);
+            if (healthy.get(candidate) == 1) {
+                return candidate;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.debug("replica 연결 풀을 닫지 못했습니다: {}", e.toString());
+                }
+            }
+        }
+    }
+}
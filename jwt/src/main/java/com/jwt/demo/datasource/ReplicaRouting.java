@@ -0,0 +1,38 @@
+package com.jwt.demo.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * ReplicaRouting은 현재 스레드의 DB 작업을 읽기 전용 트랜잭션이더라도 primary로 보내도록 지정하는 유틸리티 클래스입니다.
+ * 방금 쓴 데이터를 바로 다시 읽어야 할 때(read-your-writes) 사용합니다.
+ *
+ * 라우팅은 실제 JDBC 연결을 얻는 시점(첫 번째 쿼리)에 결정되므로, 트랜잭션 안에서 첫 쿼리 전에 호출해도 적용됩니다.
+ */
+public final class ReplicaRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY_FORCED = new ThreadLocal<>();
+
+    // 인스턴스 생성 방지를 위한 private 생성자
+    private ReplicaRouting() {}
+
+    /**
+     * 주어진 작업을 primary에서 실행합니다.
+     * @param action 실행할 작업
+     * @return 작업의 결과
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        Boolean previous = PRIMARY_FORCED.get();
+        PRIMARY_FORCED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_FORCED.remove();
+            }
+        }
+    }
+
+    static boolean isPrimaryForced() {
+        return PRIMARY_FORCED.get() != null;
+    }
+}
@@ -0,0 +1,55 @@
+package com.jwt.demo.datasource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * ReplicaRoutingDataSource는 읽기 전용 트랜잭션(@Transactional(readOnly = true))을 replica로, 나머지를 primary로 보냅니다.
+ *
+ * 트랜잭션의 읽기 전용 여부는 트랜잭션이 시작된 뒤에 알 수 있으므로,
+ * 반드시 LazyConnectionDataSourceProxy로 감싸 첫 번째 쿼리 시점에 연결을 얻도록 해야 합니다.
+ * 다음 경우에는 읽기 전용 트랜잭션도 primary로 보냅니다.
+ * - ReplicaRouting.onPrimary(...) 안에서 실행되는 경우 (read-your-writes)
+ * - 모든 replica가 복제 지연 허용 범위를 넘었거나 측정에 실패한 경우
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA_PREFIX = "replica-";
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final String[] replicaKeys;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+        List<DataSource> replicas = lagMonitor.getReplicas();
+        this.replicaKeys = new String[replicas.size()];
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            replicaKeys[i] = REPLICA_PREFIX + i;
+            targets.put(replicaKeys[i], replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (ReplicaRouting.isPrimaryForced() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        int replica = lagMonitor.nextHealthyReplica(next.getAndIncrement());
+        return replica < 0 ? PRIMARY : replicaKeys[replica];
+    }
+}
@@ -0,0 +1,32 @@
+package com.jwt.demo.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor     // 일괄 발급 대상 한 명의 정보를 전달하기 위한 DTO
+public class BatchSubjectDto {
+
+    // 토큰의 subject가 될 사용자 이름, null이 아니며 3자 이상 50자 이하로 제한
+    @NotNull
+    @Size(min = 3, max = 50)
+    private String username;
+
+    // 부여할 권한 목록. "USER" 또는 "ROLE_USER" 형식 모두 허용
+    // 권한은 쉼표로 이어 auth 클레임에 넣으므로 영문자, 숫자, 밑줄만 허용합니다. (빈 값이나 쉼표가 들어가면 다른 권한이 됩니다.)
+    @NotEmpty
+    private List<@NotBlank @Pattern(regexp = "[A-Za-z0-9_]+") String> roles;
+}
@@ -0,0 +1,24 @@
+package com.jwt.demo.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor     // 토큰 일괄 검사(RFC 7662 introspection) 요청 DTO
+public class IntrospectionRequestDto {
+
+    // 검사할 토큰 목록, 한 번에 최대 1,000개까지 허용
+    @NotEmpty
+    @Size(max = 1_000)
+    private List<String> tokens;
+}
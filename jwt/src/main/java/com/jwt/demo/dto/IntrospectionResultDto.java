@@ -0,0 +1,36 @@
+package com.jwt.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL) // 비활성 토큰은 RFC 7662에 따라 active 필드만 반환
+public class IntrospectionResultDto {
+
+    // 비활성 토큰에 대한 응답은 항상 같으므로 하나의 인스턴스를 재사용합니다.
+    public static final IntrospectionResultDto INACTIVE = new IntrospectionResultDto(false, null, null, null, null);
+
+    // 토큰이 현재 유효한지 여부
+    private boolean active;
+
+    // 토큰의 subject (사용자 이름)
+    private String sub;
+
+    // 쉼표로 구분된 권한 문자열
+    private String scope;
+
+    // 만료 시간 (epoch 초)
+    private Long exp;
+
+    // access_token 또는 refresh_token
+    @JsonProperty("token_type")
+    private String tokenType;
+}
@@ -24,4 +24,8 @@ public class LoginDto {
     @NotNull
     @Size(min = 3, max = 100)
     private String password;
+
+    // 세션 목록에 표시할 기기 이름 (선택)
+    @Size(max = 100)
+    private String device;
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.jwt.demo.dto;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 세션 목록(/api/sessions)의 한 항목입니다. 리프레시 토큰 값은 포함하지 않습니다.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SessionDto {
+
+    // 세션 로그아웃(DELETE /api/sessions/{sessionId})에 사용하는 ID
+    private String sessionId;
+
+    // 로그인할 때 알려 준 기기 이름
+    private String device;
+
+    // 로그인 요청의 User-Agent
+    private String userAgent;
+
+    // 로그인(리프레시 토큰 발급) 시간
+    private Instant issuedAt;
+
+    // 리프레시 토큰 만료 시간
+    private Instant expiresAt;
+}
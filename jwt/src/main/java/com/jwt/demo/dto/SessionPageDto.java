@@ -0,0 +1,27 @@
+package com.jwt.demo.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 세션 목록(/api/sessions)의 한 페이지입니다. 전체 건수 대신 다음 페이지가 있는지만 알려 줍니다.
+ */
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class SessionPageDto {
+
+    private List<SessionDto> sessions;
+
+    // 0부터 시작하는 페이지 번호
+    private int page;
+
+    // 요청한 페이지 크기 (최대 SessionService.MAX_PAGE_SIZE)
+    private int size;
+
+    // 다음 페이지가 있으면 true
+    private boolean hasNext;
+}
@@ -1,11 +1,14 @@
 package com.jwt.demo.entities;
 
-import java.time.LocalDateTime; // 토큰 만료 시간을 저장하기 위해 사용되는 LocalDateTime 클래스입니다.
+import java.time.Instant; // 토큰 만료 시간을 저장하기 위해 사용되는 Instant 클래스입니다.
 
 import com.jwt.demo.dto.TokenDto; // 토큰 데이터 전송 객체 (DTO)와 연결할 때 사용됩니다.
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -14,8 +17,11 @@ import lombok.Setter;
 
 /**
  * RefreshToken 엔티티는 JWT 리프레시 토큰 정보를 저장하는 클래스입니다.
- * 리프레시 토큰과 관련된 사용자 이름, 만료 시간을 포함합니다.
+ * 리프레시 토큰과 관련된 사용자 이름, 만료 시간과 로그인한 기기 정보(세션)를 포함합니다.
  * 이 클래스는 데이터베이스에 리프레시 토큰을 저장하는 데 사용됩니다.
+ *
+ * 사용자별 세션 조회와 일괄 로그아웃은 (username, expiry_date) 인덱스의 범위만 읽으므로 테이블 크기와 관계없이
+ * 그 사용자의 행 수에만 비례합니다.
  */
 @Getter  // 모든 필드에 대해 getter 메서드를 자동 생성해주는 Lombok 애노테이션입니다.
 @Setter  // 모든 필드에 대해 setter 메서드를 자동 생성해주는 Lombok 애노테이션입니다.
@@ -23,6 +29,7 @@ import lombok.Setter;
 @AllArgsConstructor // 모든 필드를 매개변수로 받는 생성자를 자동 생성합니다.
 @Builder            // 빌더 패턴을 제공하여 RefreshToken 객체 생성 시 가독성을 높여줍니다.
 @Entity             // 이 클래스가 JPA 엔티티임을 나타내는 애노테이션입니다.
+@Table(name = "refresh_token", indexes = @Index(name = "idx_refresh_token_username_expiry", columnList = "username, expiry_date"))
 public class RefreshToken {
 
     /**
@@ -30,6 +37,7 @@ public class RefreshToken {
      * 토큰 자체가 고유한 값으로 기본 키로 설정되었습니다.
      */
     @Id // 이 필드를 엔티티의 기본 키로 지정하여 데이터베이스 내에서 고유성을 보장합니다.
+    @Column(length = 512) // uid, jti 클레임이 포함된 토큰은 기본 길이(255)를 넘습니다.
     private String token;
 
     /**
@@ -39,7 +47,32 @@ public class RefreshToken {
 
     /**
      * 리프레시 토큰의 만료 시간을 저장하는 필드입니다.
-     * LocalDateTime 타입으로 저장하여 날짜와 시간을 함께 관리할 수 있습니다.
+     * 시간대가 없는 시각(Instant)이며, 데이터베이스에는 UTC 기준의 날짜와 시간으로 저장됩니다. (hibernate.jdbc.time_zone)
+     * 따라서 서버의 시간대가 서로 달라도 모든 노드가 같은 만료 시간을 읽습니다.
      */
-    private LocalDateTime expiryDate;
+    @Column(name = "expiry_date") // (username, expiry_date) 인덱스에서 이 이름을 사용합니다.
+    private Instant expiryDate;
+
+    /**
+     * 리프레시 토큰을 발급한 시간입니다.
+     */
+    private Instant issuedAt;
+
+    /**
+     * 세션을 가리키는 ID입니다. 토큰 값 대신 세션 목록과 세션 로그아웃 API에서 사용합니다.
+     */
+    @Column(length = 36)
+    private String sessionId;
+
+    /**
+     * 로그인할 때 클라이언트가 알려 준 기기 이름입니다. (없으면 null)
+     */
+    @Column(length = 100)
+    private String device;
+
+    /**
+     * 로그인 요청의 User-Agent 헤더입니다. (길면 잘라서 저장)
+     */
+    @Column(length = 255)
+    private String userAgent;
 }
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.jwt.demo.handler;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+
+import jakarta.servlet.http.HttpServletResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * ErrorBody는 자주 발생하는 오류 응답의 JSON 본문을 미리 만들어 둔 것입니다. (예: {"error":"unauthorized"})
+ * 본문은 고정된 문자열이므로 예외 메시지나 요청 값이 클라이언트에 노출되지 않습니다.
+ *
+ * 필터 단계(JwtAuthenticationEntryPoint, JwtAccessDeniedHandler)에서는 writeTo로 응답에 바로 씁니다.
+ * sendError와 달리 컨테이너의 오류 페이지(/error)로 다시 디스패치되지 않습니다.
+ * 리액티브 배포에서는 writeTo(ServerHttpResponse)로 같은 본문을 씁니다.
+ */
+public enum ErrorBody {
+
+    BAD_REQUEST(HttpServletResponse.SC_BAD_REQUEST, "bad_request"),
+    UNAUTHORIZED(HttpServletResponse.SC_UNAUTHORIZED, "unauthorized"),
+    FORBIDDEN(HttpServletResponse.SC_FORBIDDEN, "forbidden"),
+    NOT_FOUND(HttpServletResponse.SC_NOT_FOUND, "not_found"),
+    CONFLICT(HttpServletResponse.SC_CONFLICT, "conflict"),
+    INTERNAL_ERROR(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "internal_error"),
+    SERVICE_UNAVAILABLE(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "service_unavailable"),
+    // 토큰 갱신 실패. 같은 400이지만 만료된 토큰은 다시 로그인해야 하므로 구분합니다. (forStatus는 위의 BAD_REQUEST를 찾습니다.)
+    INVALID_REFRESH_TOKEN(HttpServletResponse.SC_BAD_REQUEST, "invalid_refresh_token"),
+    REFRESH_TOKEN_EXPIRED(HttpServletResponse.SC_BAD_REQUEST, "refresh_token_expired");
+
+    private final int status;
+    private final byte[] body;
+
+    ErrorBody(int status, String error) {
+        this.status = status;
+        this.body = ("{\"error\":\"" + error + "\"}").getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * 상태 코드와 본문을 응답에 바로 씁니다.
+     */
+    public void writeTo(HttpServletResponse response) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * 리액티브 응답에 상태 코드와 본문을 씁니다.
+     */
+    public Mono<Void> writeTo(ServerHttpResponse response) {
+        response.setStatusCode(HttpStatusCode.valueOf(status));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    /**
+     * 컨트롤러나 @ExceptionHandler에서 반환할 응답을 만듭니다.
+     */
+    public ResponseEntity<byte[]> toResponseEntity() {
+        return toResponseEntity(HttpStatusCode.valueOf(status));
+    }
+
+    /**
+     * 이 본문을 다른 상태 코드로 반환합니다. (예: 405에 bad_request 본문)
+     */
+    public ResponseEntity<byte[]> toResponseEntity(HttpStatusCode statusCode) {
+        return ResponseEntity.status(statusCode).contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * 상태 코드에 맞는 본문을 찾습니다. 따로 정의하지 않은 4xx는 BAD_REQUEST, 그 외는 INTERNAL_ERROR 본문을 사용합니다.
+     */
+    public static ErrorBody forStatus(HttpStatusCode statusCode) {
+        for (ErrorBody errorBody : values()) {
+            if (errorBody.status == statusCode.value()) {
+                return errorBody;
+            }
+        }
+        return statusCode.is4xxClientError() ? BAD_REQUEST : INTERNAL_ERROR;
+    }
+}
@@ -0,0 +1,32 @@
+package com.jwt.demo.handler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.data.rest.webmvc.config.RepositoryRestConfigurer;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ExceptionHandlerExceptionResolver;
+
+/**
+ * ErrorBodyRestConfigurer는 GlobalExceptionHandler가 반환하는 ErrorBody(byte[])가 그대로 쓰이도록 합니다.
+ *
+ * Spring Data REST는 @ExceptionHandler를 처리하는 리졸버를 맨 앞에 등록하면서 Jackson 컨버터만 넣어 두므로,
+ * 그대로 두면 byte[] 본문이 Base64 문자열("eyJlcnJvciI6...")로 나갑니다.
+ * 이 리졸버의 컨버터 목록 맨 앞에 ByteArrayHttpMessageConverter를 넣습니다.
+ */
+@Component
+@ConditionalOnWebApplication(type = Type.SERVLET)
+public class ErrorBodyRestConfigurer implements RepositoryRestConfigurer {
+
+    @Override
+    public void configureExceptionHandlerExceptionResolver(ExceptionHandlerExceptionResolver exceptionResolver) {
+        List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        converters.add(new ByteArrayHttpMessageConverter());
+        converters.addAll(exceptionResolver.getMessageConverters());
+        exceptionResolver.setMessageConverters(converters);
+    }
+}
@@ -1,26 +1,65 @@
 package com.jwt.demo.handler;
 
-import org.springframework.http.HttpStatus;
+import java.util.concurrent.RejectedExecutionException;
+
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.ErrorResponse;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import lombok.extern.slf4j.Slf4j;
+
 /**
  * GlobalExceptionHandler는 애플리케이션의 전역 예외 처리를 담당하는 클래스입니다.
  * @ControllerAdvice 애노테이션을 통해 모든 컨트롤러에서 발생하는 예외를 처리할 수 있습니다.
+ * 응답 본문은 ErrorBody의 고정된 JSON이며, 예외 메시지는 클라이언트에 보내지 않고 로그에만 남깁니다.
  */
+@Slf4j
 @ControllerAdvice // 전역 예외 처리를 활성화하는 애노테이션
 public class GlobalExceptionHandler {
 
+    /**
+     * 컨트롤러나 서비스에서 발생한 인증 예외는 401로 응답합니다.
+     */
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<byte[]> handleAuthenticationException(AuthenticationException e) {
+        return ErrorBody.UNAUTHORIZED.toResponseEntity();
+    }
+
+    /**
+     * 컨트롤러나 서비스에서 발생한 인가 예외(메소드 보안 등)는 403으로 응답합니다.
+     */
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<byte[]> handleAccessDeniedException(AccessDeniedException e) {
+        return ErrorBody.FORBIDDEN.toResponseEntity();
+    }
+
+    /**
+     * 작업 큐가 가득 차 거절된 요청(리액티브 배포의 BCrypt, JDBC 스케줄러)은 503으로 응답합니다.
+     * 큐에서 오래 기다리게 하지 않고 바로 실패시켜 클라이언트가 다시 시도할 수 있게 합니다.
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<byte[]> handleRejectedExecutionException(RejectedExecutionException e) {
+        log.debug("작업 큐가 가득 차 요청을 거절했습니다: {}", e.getMessage());
+        return ErrorBody.SERVICE_UNAVAILABLE.toResponseEntity();
+    }
+
     /**
      * handleException 메서드는 Exception 클래스의 예외를 처리합니다.
-     * 발생한 예외의 메시지를 클라이언트에게 500 (INTERNAL_SERVER_ERROR) 상태 코드와 함께 반환합니다.
+     * Spring MVC 예외(잘못된 요청 본문, 지원하지 않는 메소드 등)는 원래의 상태 코드로,
+     * 그 외의 예외는 500 (INTERNAL_SERVER_ERROR) 상태 코드로 응답합니다.
      * @param e 처리할 예외 객체
-     * @return 예외 메시지를 포함한 ResponseEntity 객체
+     * @return 고정된 오류 본문을 포함한 ResponseEntity 객체
      */
     @ExceptionHandler(Exception.class) // Exception 타입의 예외가 발생할 때 이 메서드가 호출됩니다.
-    public ResponseEntity<String> handleException(Exception e) {
-        // HTTP 상태 코드 500 (서버 내부 오류)과 예외 메시지를 클라이언트에 반환
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+    public ResponseEntity<byte[]> handleException(Exception e) {
+        if (e instanceof ErrorResponse errorResponse) {
+            log.debug("요청을 처리할 수 없습니다: {}", e.toString());
+            return ErrorBody.forStatus(errorResponse.getStatusCode()).toResponseEntity(errorResponse.getStatusCode());
+        }
+        log.error("처리되지 않은 예외가 발생했습니다.", e);
+        return ErrorBody.INTERNAL_ERROR.toResponseEntity();
     }
-}
\ No newline at end of file
+}
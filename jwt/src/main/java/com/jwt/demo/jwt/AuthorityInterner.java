@@ -0,0 +1,45 @@
+package com.jwt.demo.jwt;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * AuthorityInterner는 auth 클레임 문자열(예: "ROLE_USER,ROLE_ADMIN")을 공유되는 불변 권한 목록으로 바꿔 줍니다.
+ * 권한 조합의 종류는 매우 적으므로, 같은 조합에 대해 요청마다 split과 SimpleGrantedAuthority 생성을 반복하지 않습니다.
+ * 권한 목록과 함께 RoleMask 비트를 합친 값도 한 번만 계산해 둡니다.
+ */
+final class AuthorityInterner {
+
+    // 비정상적으로 많은 조합이 들어와도 메모리가 무한히 늘어나지 않도록 제한합니다.
+    private static final int MAX_ENTRIES = 1_024;
+
+    private final Map<String, Authorities> cache = new ConcurrentHashMap<>();
+
+    /**
+     * @param authorityClaim 쉼표로 구분된 권한 문자열
+     * @return 공유되는 불변 권한 목록과 그 RoleMask
+     */
+    Authorities intern(String authorityClaim) {
+        Authorities interned = cache.get(authorityClaim);
+        if (interned != null) {
+            return interned;
+        }
+        List<GrantedAuthority> authorities = authorityClaim.isEmpty() ? List.of() : Arrays.stream(authorityClaim.split(","))
+                .map(SimpleGrantedAuthority::new)
+                .map(GrantedAuthority.class::cast)
+                .toList();
+        interned = new Authorities(authorities, RoleMask.of(authorities));
+        if (cache.size() < MAX_ENTRIES) {
+            cache.putIfAbsent(authorityClaim, interned);
+        }
+        return interned;
+    }
+
+    record Authorities(List<GrantedAuthority> list, long roleMask) {
+    }
+}
@@ -0,0 +1,269 @@
+package com.jwt.demo.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * HmacJwtSigner는 이 서비스가 발급하는 HS* 토큰을 jjwt 빌더 없이 직접 서명하는 클래스입니다.
+ * Jwts.builder()는 토큰마다 JCA 공급자 목록에서 Mac을 새로 찾고 초기화하며, Jackson으로 헤더와 클레임을 직렬화합니다.
+ * 이 클래스는 스레드마다 미리 초기화된 Mac과 재사용 버퍼를 두어 토큰 하나당 최종 문자열 외의 할당을 최소화합니다.
+ *
+ * 생성되는 토큰은 jjwt 0.11.5가 같은 클레임으로 만드는 토큰과 바이트 단위로 동일합니다.
+ */
+final class HmacJwtSigner {
+
+    private static final byte[] BASE64URL = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_"
+            .getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+    private final SecretKey key;
+    private final String macAlgorithm;
+    private final byte[] encodedHeader; // 고정 헤더의 base64url 값 (예: {"alg":"HS512"})
+    private final int macLength;
+
+    // 스레드마다 초기화된 Mac과 작업용 버퍼를 재사용합니다.
+    private final ThreadLocal<Scratch> scratch;
+
+    /**
+     * @param key jjwt의 Keys.hmacShaKeyFor로 생성한 HMAC 키. 키의 알고리즘으로 서명합니다.
+     */
+    HmacJwtSigner(SecretKey key) {
+        this.key = key;
+        this.macAlgorithm = key.getAlgorithm();
+        String alg = switch (macAlgorithm) {
+            case "HmacSHA256" -> "HS256";
+            case "HmacSHA384" -> "HS384";
+            case "HmacSHA512" -> "HS512";
+            default -> throw new IllegalArgumentException("지원하지 않는 HMAC 알고리즘입니다: " + macAlgorithm);
+        };
+        this.encodedHeader = Base64.getUrlEncoder().withoutPadding()
+                .encode(("{\"alg\":\"" + alg + "\"}").getBytes(StandardCharsets.UTF_8));
+        this.macLength = newMac().getMacLength();
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(newMac(), macLength));
+    }
+
+    /**
+     * sub, auth, uid, jti, exp, rat, typ, sid 클레임으로 토큰을 생성합니다.
+     *
+     * @param subject 토큰의 subject (사용자 이름)
+     * @param authorities 쉼표로 구분된 권한 문자열
+     * @param userId 사용자 ID (uid 클레임). null이면 생략합니다.
+     * @param tokenId 토큰 ID (jti 클레임). null이면 생략합니다.
+     * @param expirationSeconds 만료 시간 (epoch 초)
+     * @param refreshAtSeconds 갱신을 권하는 시각 (rat 클레임, epoch 초). 0 이하이면 생략합니다.
+     * @param tokenType 토큰 종류 (typ 클레임, 예: access, refresh). null이면 생략합니다.
+     * @param sessionId 액세스 토큰을 발급한 세션(리프레시 토큰)의 ID (sid 클레임). null이면 생략합니다.
+     * @return 서명된 compact JWT 문자열
+     */
+    String sign(String subject, String authorities, Long userId, String tokenId, long expirationSeconds,
+                long refreshAtSeconds, String tokenType, String sessionId) {
+        Scratch s = scratch.get();
+
+        // 1. 클레임을 jjwt(Jackson)와 같은 순서와 형식의 JSON으로 재사용 버퍼에 직렬화합니다.
+        ByteArrayBuilder json = s.json;
+        json.reset();
+        // jjwt는 공백뿐인 subject를 클레임에서 제외하므로 동일하게 처리합니다.
+        if (StringUtils.hasText(subject)) {
+            json.append("{\"sub\":");
+            json.appendJsonString(subject);
+            json.append(",\"auth\":");
+        } else {
+            json.append("{\"auth\":");
+        }
+        json.appendJsonString(authorities);
+        if (userId != null) {
+            json.append(",\"uid\":");
+            json.appendLong(userId);
+        }
+        if (StringUtils.hasText(tokenId)) {
+            json.append(",\"jti\":");
+            json.appendJsonString(tokenId);
+        }
+        json.append(",\"exp\":");
+        json.appendLong(expirationSeconds);
+        if (refreshAtSeconds > 0) {
+            json.append(",\"rat\":");
+            json.appendLong(refreshAtSeconds);
+        }
+        if (tokenType != null) {
+            json.append(",\"typ\":");
+            json.appendJsonString(tokenType);
+        }
+        if (sessionId != null) {
+            json.append(",\"sid\":");
+            json.appendJsonString(sessionId);
+        }
+        json.append('}');
+
+        // 2. header.payload 를 base64url로 인코딩합니다.
+        ByteArrayBuilder out = s.out;
+        out.reset();
+        out.append(encodedHeader);
+        out.append('.');
+        out.appendBase64Url(json.bytes, json.length);
+        int signingInputLength = out.length;
+
+        // 3. 스레드 로컬 Mac으로 서명한 뒤 서명을 이어 붙입니다.
+        try {
+            s.mac.update(out.bytes, 0, signingInputLength);
+            s.mac.doFinal(s.signature, 0);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("JWT 서명에 실패했습니다.", e);
+        }
+        out.append('.');
+        out.appendBase64Url(s.signature, s.signature.length);
+
+        // 결과는 모두 ASCII이므로 ISO-8859-1로 한 번에 문자열을 만듭니다.
+        return new String(out.bytes, 0, out.length, StandardCharsets.ISO_8859_1);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(macAlgorithm);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC 초기화에 실패했습니다: " + macAlgorithm, e);
+        }
+    }
+
+    /**
+     * 스레드마다 하나씩 유지되는 작업 공간입니다.
+     */
+    private static final class Scratch {
+        final Mac mac;
+        final byte[] signature;
+        final ByteArrayBuilder json = new ByteArrayBuilder(256);
+        final ByteArrayBuilder out = new ByteArrayBuilder(512);
+
+        Scratch(Mac mac, int macLength) {
+            this.mac = mac;
+            this.signature = new byte[macLength];
+        }
+    }
+
+    /**
+     * 필요할 때만 커지는 단순한 바이트 버퍼입니다.
+     */
+    private static final class ByteArrayBuilder {
+        byte[] bytes;
+        int length;
+
+        ByteArrayBuilder(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        void reset() {
+            length = 0;
+        }
+
+        void ensure(int extra) {
+            if (length + extra > bytes.length) {
+                bytes = java.util.Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+            }
+        }
+
+        void append(char c) {
+            ensure(1);
+            bytes[length++] = (byte) c;
+        }
+
+        void append(String ascii) {
+            ensure(ascii.length());
+            for (int i = 0; i < ascii.length(); i++) {
+                bytes[length++] = (byte) ascii.charAt(i);
+            }
+        }
+
+        void append(byte[] src) {
+            ensure(src.length);
+            System.arraycopy(src, 0, bytes, length, src.length);
+            length += src.length;
+        }
+
+        void appendLong(long value) {
+            if (value < 0) {
+                append('-');
+                value = -value;
+            }
+            long divisor = 1;
+            while (divisor <= value / 10) {
+                divisor *= 10;
+            }
+            ensure(19);
+            for (; divisor > 0; divisor /= 10) {
+                bytes[length++] = (byte) ('0' + (value / divisor) % 10);
+            }
+        }
+
+        /**
+         * Jackson과 같은 규칙으로 JSON 문자열을 씁니다: 따옴표, 역슬래시, 제어 문자만 이스케이프하고 나머지는 UTF-8로 씁니다.
+         */
+        void appendJsonString(String value) {
+            append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    append('\\');
+                    append(c);
+                } else if (c < 0x20) {
+                    switch (c) {
+                        case '\b' -> append("\\b");
+                        case '\t' -> append("\\t");
+                        case '\n' -> append("\\n");
+                        case '\f' -> append("\\f");
+                        case '\r' -> append("\\r");
+                        default -> {
+                            append("\\u00");
+                            append((char) HEX[c >> 4]);
+                            append((char) HEX[c & 0xf]);
+                        }
+                    }
+                } else if (c < 0x80) {
+                    append(c);
+                } else {
+                    // 비ASCII 문자는 드물기 때문에 표준 UTF-8 인코더에 맡깁니다.
+                    int end = i + 1;
+                    while (end < value.length() && value.charAt(end) >= 0x80) {
+                        end++;
+                    }
+                    append(value.substring(i, end).getBytes(StandardCharsets.UTF_8));
+                    i = end - 1;
+                }
+            }
+            append('"');
+        }
+
+        /**
+         * 패딩 없는 base64url로 인코딩하여 이어 씁니다.
+         */
+        void appendBase64Url(byte[] src, int srcLength) {
+            ensure((srcLength * 4 + 2) / 3);
+            int i = 0;
+            for (; i + 3 <= srcLength; i += 3) {
+                int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8 | (src[i + 2] & 0xff);
+                bytes[length++] = BASE64URL[bits >>> 18 & 0x3f];
+                bytes[length++] = BASE64URL[bits >>> 12 & 0x3f];
+                bytes[length++] = BASE64URL[bits >>> 6 & 0x3f];
+                bytes[length++] = BASE64URL[bits & 0x3f];
+            }
+            int remaining = srcLength - i;
+            if (remaining == 1) {
+                int bits = (src[i] & 0xff) << 16;
+                bytes[length++] = BASE64URL[bits >>> 18 & 0x3f];
+                bytes[length++] = BASE64URL[bits >>> 12 & 0x3f];
+            } else if (remaining == 2) {
+                int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8;
+                bytes[length++] = BASE64URL[bits >>> 18 & 0x3f];
+                bytes[length++] = BASE64URL[bits >>> 12 & 0x3f];
+                bytes[length++] = BASE64URL[bits >>> 6 & 0x3f];
+            }
+        }
+    }
+}
@@ -0,0 +1,412 @@
+package com.jwt.demo.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+
+/**
+ * HmacJwtVerifier는 이 서비스가 직접 발급한 HS* 서명 JWT를 위한 경량 검증기입니다.
+ * jjwt 파서는 토큰마다 Jackson Map, Claims(LinkedHashMap), 여러 개의 중간 문자열을 생성하므로,
+ * 헤더와 클레임 구성이 고정된 자체 발급 토큰은 인덱스 기반 분리, 스레드 로컬 Mac, 상수 시간 비교,
+ * 바이트 단위 클레임 스캔으로 직접 검증합니다.
+ *
+ * 형식이 조금이라도 예상과 다르면 {@link Status#FALLBACK}을 반환하며, 이 경우 호출자는 jjwt로 다시 판정해야 합니다.
+ * 즉, 이 클래스가 내리는 판정(VALID, INVALID_SIGNATURE, EXPIRED)은 항상 jjwt의 판정과 같아야 합니다.
+ */
+final class HmacJwtVerifier {
+
+    /**
+     * 검증 결과의 종류입니다.
+     */
+    enum Status {
+        VALID,             // 서명과 만료 시간이 모두 유효함
+        INVALID_SIGNATURE, // 서명이 일치하지 않음 (jjwt의 SecurityException / MalformedJwtException에 해당)
+        EXPIRED,           // 서명은 유효하지만 만료됨 (jjwt의 ExpiredJwtException에 해당)
+        FALLBACK           // 빠른 경로에서 판단할 수 없는 형식이므로 jjwt로 다시 검증해야 함
+    }
+
+    /**
+     * 검증 결과와, 유효한 경우 추출된 클레임을 담는 불변 객체입니다.
+     * 실패 결과는 미리 만들어 둔 상수를 재사용하여 할당을 피합니다.
+     */
+    static final class Result {
+        static final Result INVALID_SIGNATURE = new Result(Status.INVALID_SIGNATURE, null, null, -1L, null, 0L, -1L, null, null);
+        static final Result EXPIRED = new Result(Status.EXPIRED, null, null, -1L, null, 0L, -1L, null, null);
+        static final Result FALLBACK = new Result(Status.FALLBACK, null, null, -1L, null, 0L, -1L, null, null);
+
+        final Status status;
+        final String subject;          // sub 클레임
+        final String authorities;      // auth 클레임 (예: "ROLE_USER,ROLE_ADMIN")
+        final long userId;             // uid 클레임 (없으면 -1)
+        final String tokenId;          // jti 클레임 (없으면 null)
+        final long expirationSeconds;  // exp 클레임 (epoch 초)
+        final long refreshAtSeconds;   // rat 클레임 (epoch 초, 없으면 -1)
+        final String tokenType;        // typ 클레임 (없으면 null)
+        final String sessionId;        // sid 클레임 (없으면 null)
+
+        Result(Status status, String subject, String authorities, long userId, String tokenId, long expirationSeconds,
+               long refreshAtSeconds, String tokenType, String sessionId) {
+            this.status = status;
+            this.subject = subject;
+            this.authorities = authorities;
+            this.userId = userId;
+            this.tokenId = tokenId;
+            this.expirationSeconds = expirationSeconds;
+            this.refreshAtSeconds = refreshAtSeconds;
+            this.tokenType = tokenType;
+            this.sessionId = sessionId;
+        }
+    }
+
+    // base64url 문자 -> 6비트 값 변환 테이블 (알파벳이 아닌 문자는 -1)
+    private static final byte[] BASE64URL = new byte[128];
+
+    static {
+        java.util.Arrays.fill(BASE64URL, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64URL[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    // 빠른 경로에서 허용하는 클레임 키
+    private static final byte[] SUB = "sub".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] AUTH = "auth".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EXP = "exp".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] UID = "uid".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] JTI = "jti".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] RAT = "rat".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TYP = "typ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SID = "sid".getBytes(StandardCharsets.US_ASCII);
+
+    private final SecretKey key;
+    private final String macAlgorithm;   // JCA 알고리즘 이름 (예: HmacSHA512)
+    private final String encodedHeader;  // 이 서비스가 발급하는 고정 헤더의 base64url 값
+    private final int macLength;         // 서명 바이트 길이
+    private final int signatureChars;    // base64url로 인코딩된 서명의 문자 수
+
+    // 스레드마다 초기화된 Mac과 작업용 버퍼를 재사용합니다.
+    private final ThreadLocal<Scratch> scratch;
+
+    /**
+     * @param key jjwt의 Keys.hmacShaKeyFor로 생성한 HMAC 키. 키의 알고리즘과 같은 alg 헤더만 빠른 경로로 처리합니다.
+     */
+    HmacJwtVerifier(SecretKey key) {
+        this.key = key;
+        this.macAlgorithm = key.getAlgorithm();
+        String alg = switch (macAlgorithm) {
+            case "HmacSHA256" -> "HS256";
+            case "HmacSHA384" -> "HS384";
+            case "HmacSHA512" -> "HS512";
+            default -> throw new IllegalArgumentException("지원하지 않는 HMAC 알고리즘입니다: " + macAlgorithm);
+        };
+        // jjwt 0.11.5의 Jwts.builder()가 signWith만 호출했을 때 만드는 헤더와 동일합니다.
+        this.encodedHeader = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("{\"alg\":\"" + alg + "\"}").getBytes(StandardCharsets.UTF_8));
+        this.macLength = newMac().getMacLength();
+        this.signatureChars = (macLength * 4 + 2) / 3;
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(newMac(), macLength));
+    }
+
+    /**
+     * 토큰을 검증합니다.
+     *
+     * @param token 검증할 compact JWT 문자열
+     * @param nowMillis 만료 판정에 사용할 현재 시간 (epoch 밀리초)
+     * @return 검증 결과. FALLBACK이면 jjwt로 다시 검증해야 합니다.
+     */
+    Result verify(String token, long nowMillis) {
+        if (token == null) {
+            return Result.FALLBACK;
+        }
+
+        // 1. 인덱스로 header.payload.signature 를 분리합니다. 헤더는 고정값과 정확히 같아야 합니다.
+        int length = token.length();
+        int firstDot = encodedHeader.length();
+        if (length <= firstDot || token.charAt(firstDot) != '.' || !token.startsWith(encodedHeader)) {
+            return Result.FALLBACK;
+        }
+        int secondDot = token.indexOf('.', firstDot + 1);
+        if (secondDot < 0 || secondDot == firstDot + 1 || length - secondDot - 1 != signatureChars) {
+            return Result.FALLBACK;
+        }
+
+        Scratch s = scratch.get();
+
+        // 2. 서명 대상(header.payload)을 ASCII 바이트로 복사하면서 payload를 미리 디코딩합니다.
+        //    payload가 올바른 base64url이 아니면 jjwt는 서명 검증 전에 다른 예외를 던지므로 FALLBACK 합니다.
+        byte[] signed = s.signed(secondDot);
+        for (int i = 0; i < secondDot; i++) {
+            char c = token.charAt(i);
+            if (c > 0x7f) {
+                return Result.FALLBACK;
+            }
+            signed[i] = (byte) c;
+        }
+        byte[] payload = s.payload(secondDot);
+        int payloadLength = decode(token, firstDot + 1, secondDot, payload);
+        if (payloadLength < 0) {
+            return Result.FALLBACK;
+        }
+        if (decode(token, secondDot + 1, length, s.provided) != macLength) {
+            return Result.FALLBACK;
+        }
+
+        // 3. 스레드 로컬 Mac으로 HMAC을 계산하고 상수 시간으로 비교합니다.
+        try {
+            s.mac.update(signed, 0, secondDot);
+            s.mac.doFinal(s.computed, 0);
+        } catch (GeneralSecurityException e) {
+            return Result.FALLBACK;
+        }
+        if (!MessageDigest.isEqual(s.computed, s.provided)) {
+            return Result.INVALID_SIGNATURE;
+        }
+
+        // 4. 바이트 단위로 sub, auth, exp 클레임을 추출하고 만료 여부를 확인합니다.
+        return scanClaims(payload, payloadLength, nowMillis);
+    }
+
+    /**
+     * 평평한(flat) JSON 객체에서 sub, auth, exp 와 선택적인 uid, jti, rat, typ, sid 만을 추출합니다.
+     * 이스케이프 문자, 비ASCII 문자, 중복 키, 알 수 없는 키 등 예상과 다른 형식은 모두 FALLBACK 합니다.
+     */
+    private static Result scanClaims(byte[] json, int length, long nowMillis) {
+        // jjwt는 첫 글자가 '{', 마지막 글자가 '}' 인 경우에만 클레임으로 해석합니다.
+        if (length < 2 || json[0] != '{' || json[length - 1] != '}') {
+            return Result.FALLBACK;
+        }
+
+        String subject = null;
+        String authorities = null;
+        String tokenId = null;
+        String tokenType = null;
+        String sessionId = null;
+        long userId = -1L;
+        long expiration = -1L;
+        long refreshAt = -1L;
+
+        int i = skipWhitespace(json, 1, length);
+        if (json[i] == '}') {
+            return Result.FALLBACK;
+        }
+        while (true) {
+            // 키
+            if (json[i] != '"') {
+                return Result.FALLBACK;
+            }
+            int keyStart = i + 1;
+            int keyEnd = endOfString(json, keyStart, length);
+            if (keyEnd < 0) {
+                return Result.FALLBACK;
+            }
+            i = skipWhitespace(json, keyEnd + 1, length);
+            if (json[i] != ':') {
+                return Result.FALLBACK;
+            }
+            i = skipWhitespace(json, i + 1, length);
+
+            // 값
+            boolean isSubject = matches(json, keyStart, keyEnd, SUB);
+            boolean isAuthorities = !isSubject && matches(json, keyStart, keyEnd, AUTH);
+            boolean isTokenId = !isSubject && !isAuthorities && matches(json, keyStart, keyEnd, JTI);
+            boolean isTokenType = !isSubject && !isAuthorities && !isTokenId && matches(json, keyStart, keyEnd, TYP);
+            boolean isSessionId = !isSubject && !isAuthorities && !isTokenId && !isTokenType
+                    && matches(json, keyStart, keyEnd, SID);
+            if (isSubject || isAuthorities || isTokenId || isTokenType || isSessionId) {
+                if (json[i] != '"') {
+                    return Result.FALLBACK;
+                }
+                int valueEnd = endOfString(json, i + 1, length);
+                if (valueEnd < 0) {
+                    return Result.FALLBACK;
+                }
+                String value = new String(json, i + 1, valueEnd - i - 1, StandardCharsets.ISO_8859_1);
+                if (isSubject) {
+                    if (subject != null) {
+                        return Result.FALLBACK;
+                    }
+                    subject = value;
+                } else if (isAuthorities) {
+                    if (authorities != null) {
+                        return Result.FALLBACK;
+                    }
+                    authorities = value;
+                } else if (isTokenId) {
+                    if (tokenId != null) {
+                        return Result.FALLBACK;
+                    }
+                    tokenId = value;
+                } else if (isTokenType) {
+                    if (tokenType != null) {
+                        return Result.FALLBACK;
+                    }
+                    tokenType = value;
+                } else {
+                    if (sessionId != null) {
+                        return Result.FALLBACK;
+                    }
+                    sessionId = value;
+                }
+                i = valueEnd + 1;
+            } else if (matches(json, keyStart, keyEnd, EXP) || matches(json, keyStart, keyEnd, UID)
+                    || matches(json, keyStart, keyEnd, RAT)) {
+                byte first = json[keyStart]; // e(exp), u(uid), r(rat)
+                if ((first == 'e' ? expiration : first == 'u' ? userId : refreshAt) >= 0) {
+                    return Result.FALLBACK;
+                }
+                int digitsStart = i;
+                long value = 0;
+                while (i < length && json[i] >= '0' && json[i] <= '9') {
+                    value = value * 10 + (json[i] - '0');
+                    i++;
+                }
+                int digits = i - digitsStart;
+                // 0으로 시작하는 숫자, 소수, 지수 표기, 지나치게 큰 값은 jjwt에 맡깁니다.
+                if (digits == 0 || digits > 12 || (digits > 1 && json[digitsStart] == '0')) {
+                    return Result.FALLBACK;
+                }
+                if (first == 'e') {
+                    expiration = value;
+                } else if (first == 'u') {
+                    userId = value;
+                } else {
+                    refreshAt = value;
+                }
+            } else {
+                return Result.FALLBACK;
+            }
+
+            i = skipWhitespace(json, i, length);
+            if (json[i] == ',') {
+                i = skipWhitespace(json, i + 1, length);
+            } else if (json[i] == '}' && i == length - 1) {
+                break;
+            } else {
+                return Result.FALLBACK;
+            }
+        }
+
+        if (subject == null || authorities == null || expiration < 0) {
+            return Result.FALLBACK;
+        }
+        // jjwt와 동일하게 현재 시간이 exp 이후이면 만료로 판정합니다.
+        if (nowMillis > expiration * 1000L) {
+            return Result.EXPIRED;
+        }
+        return new Result(Status.VALID, subject, authorities, userId, tokenId, expiration, refreshAt, tokenType, sessionId);
+    }
+
+    // JSON 문자열의 닫는 따옴표 위치를 반환합니다. 이스케이프, 제어 문자, 비ASCII 문자가 있으면 -1을 반환합니다.
+    private static int endOfString(byte[] json, int from, int length) {
+        for (int i = from; i < length; i++) {
+            byte b = json[i];
+            if (b == '"') {
+                return i;
+            }
+            if (b == '\\' || b < 0x20) { // 음수(0x80 이상) 바이트도 여기에 포함됩니다.
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    // 공백을 건너뛴 위치를 반환합니다. 마지막 '}' 검사 덕분에 length - 1을 넘지 않습니다.
+    private static int skipWhitespace(byte[] json, int from, int length) {
+        int i = from;
+        while (i < length - 1 && (json[i] == ' ' || json[i] == '\t' || json[i] == '\n' || json[i] == '\r')) {
+            i++;
+        }
+        return Math.min(i, length - 1);
+    }
+
+    private static boolean matches(byte[] json, int start, int end, byte[] key) {
+        if (end - start != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (json[start + i] != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 패딩이 없는 base64url 구간을 dst에 디코딩합니다.
+     * 알파벳 이외의 문자가 있거나, 길이가 올바르지 않거나, dst가 부족하면 -1을 반환합니다.
+     * 마지막 문자의 남는 비트는 jjwt 디코더와 동일하게 무시합니다.
+     */
+    private static int decode(String src, int from, int to, byte[] dst) {
+        int chars = to - from;
+        if (chars % 4 == 1) {
+            return -1;
+        }
+        int decodedLength = chars * 6 >> 3;
+        if (decodedLength > dst.length) {
+            return -1;
+        }
+        int bits = 0;
+        int bitCount = 0;
+        int d = 0;
+        for (int i = from; i < to; i++) {
+            char c = src.charAt(i);
+            int v = c < 128 ? BASE64URL[c] : -1;
+            if (v < 0) {
+                return -1;
+            }
+            bits = (bits << 6) | v;
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                dst[d++] = (byte) (bits >> bitCount);
+            }
+        }
+        return d;
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(macAlgorithm);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC 초기화에 실패했습니다: " + macAlgorithm, e);
+        }
+    }
+
+    /**
+     * 스레드마다 하나씩 유지되는 작업 공간입니다. 버퍼는 필요할 때만 커집니다.
+     */
+    private static final class Scratch {
+        final Mac mac;
+        final byte[] computed;
+        final byte[] provided;
+        byte[] signed = new byte[512];
+        byte[] payload = new byte[512];
+
+        Scratch(Mac mac, int macLength) {
+            this.mac = mac;
+            this.computed = new byte[macLength];
+            this.provided = new byte[macLength];
+        }
+
+        byte[] signed(int length) {
+            if (signed.length < length) {
+                signed = new byte[length];
+            }
+            return signed;
+        }
+
+        byte[] payload(int length) {
+            if (payload.length < length) {
+                payload = new byte[length];
+            }
+            return payload;
+        }
+    }
+}
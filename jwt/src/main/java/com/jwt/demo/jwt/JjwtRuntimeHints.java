@@ -0,0 +1,45 @@
+package com.jwt.demo.jwt;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+/**
+ * JjwtRuntimeHints는 GraalVM native image에서 jjwt가 동작하는 데 필요한 리플렉션/리소스 정보를 등록합니다.
+ * jjwt-api는 컴파일 시점에 jjwt-impl을 알지 못하므로 Jwts.builder(), Jwts.parserBuilder() 등에서
+ * 구현 클래스를 이름으로 찾아 리플렉션으로 생성하고, 직렬화기(jjwt-jackson)와 압축 코덱은 ServiceLoader로 찾습니다.
+ * native image의 정적 분석으로는 이 경로를 알 수 없으므로 여기서 명시합니다.
+ */
+class JjwtRuntimeHints implements RuntimeHintsRegistrar {
+
+    // jjwt-api가 Classes.newInstance(...)로 생성하는 jjwt-impl 클래스
+    private static final String[] IMPL_TYPES = {
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.DefaultHeader",
+            "io.jsonwebtoken.impl.DefaultJwsHeader",
+    };
+
+    // META-INF/services에 등록되어 ServiceLoader로 생성되는 클래스
+    private static final String[] SERVICE_TYPES = {
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer",
+            "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+            "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (String type : IMPL_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type),
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        for (String type : SERVICE_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+    }
+}
@@ -2,10 +2,14 @@ package com.jwt.demo.jwt;
 
 import java.io.IOException;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.web.access.AccessDeniedHandler;
 import org.springframework.stereotype.Component;
 
+import com.jwt.demo.handler.ErrorBody;
+
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
@@ -14,11 +18,13 @@ import jakarta.servlet.http.HttpServletResponse;
  * Spring Security의 AccessDeniedHandler 인터페이스를 구현하여 접근 거부 시의 처리를 담당합니다.
  */
 @Component // Spring이 관리하는 Bean으로 등록되며, 다른 클래스에서 주입하여 사용할 수 있습니다.
+@ConditionalOnWebApplication(type = Type.SERVLET)
 public class JwtAccessDeniedHandler implements AccessDeniedHandler {
 
     /**
      * handle 메서드는 사용자가 접근 권한이 없는 리소스에 접근할 때 호출됩니다.
      * HTTP 응답 코드로 403 FORBIDDEN을 반환하여 클라이언트에게 접근이 금지되었음을 알립니다.
+     * 미리 만들어 둔 JSON 본문을 바로 씁니다. (/error 디스패치 없음)
      *
      * @param request 현재 요청 객체
      * @param response 현재 응답 객체
@@ -28,6 +34,6 @@ public class JwtAccessDeniedHandler implements AccessDeniedHandler {
     @Override
     public void handle(HttpServletRequest request, HttpServletResponse response, AccessDeniedException accessDeniedException) throws IOException {
         // 접근이 거부된 경우, 클라이언트에 403 FORBIDDEN 상태 코드를 응답합니다.
-        response.sendError(HttpServletResponse.SC_FORBIDDEN);
+        ErrorBody.FORBIDDEN.writeTo(response);
     }
 }
\ No newline at end of file
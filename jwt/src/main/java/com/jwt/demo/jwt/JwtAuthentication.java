@@ -0,0 +1,115 @@
+package com.jwt.demo.jwt;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * JwtAuthentication은 서명 검증을 통과한 JWT의 클레임으로 만든 가벼운 불변 인증 객체입니다.
+ * 기존 방식(UserDetails User + UsernamePasswordAuthenticationToken)은 요청마다 권한을 정렬된 Set으로 복사하고
+ * 원본 토큰 문자열을 credentials로 들고 다녔습니다. 이 객체는 미리 공유된(interned) 권한 목록을 그대로 참조하며,
+ * 사용자 이름, 사용자 ID, 토큰 ID에 타입이 있는 접근을 제공합니다.
+ * 권한 목록의 RoleMask(roleMask)도 함께 들고 있어 @PreAuthorize 역할 검사를 AND 연산 한 번으로 할 수 있습니다.
+ *
+ * 불변 객체이므로 같은 토큰에 대해 여러 요청에서 재사용할 수 있습니다.
+ */
+public final class JwtAuthentication implements Authentication {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String username;                          // sub 클레임
+    private final Long userId;                              // uid 클레임 (없으면 null)
+    private final String tokenId;                           // jti 클레임 (없으면 null)
+    private final long expirationSeconds;                   // exp 클레임 (epoch 초)
+    private final long refreshAtSeconds;                    // rat 클레임 (epoch 초, 없으면 0)
+    private final String sessionId;                         // sid 클레임 (없으면 null)
+    private final List<GrantedAuthority> authorities;       // 공유되는 불변 권한 목록
+    private final long roleMask;                            // authorities의 RoleMask 비트
+
+    JwtAuthentication(String username, Long userId, String tokenId, long expirationSeconds, long refreshAtSeconds,
+                      String sessionId, List<GrantedAuthority> authorities, long roleMask) {
+        this.username = username;
+        this.userId = userId;
+        this.tokenId = tokenId;
+        this.expirationSeconds = expirationSeconds;
+        this.refreshAtSeconds = refreshAtSeconds;
+        this.sessionId = sessionId;
+        this.authorities = authorities;
+        this.roleMask = roleMask;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public long getExpirationSeconds() {
+        return expirationSeconds;
+    }
+
+    public long getRefreshAtSeconds() {
+        return refreshAtSeconds;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public long getRoleMask() {
+        return roleMask;
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    // 토큰 원문은 보관하지 않습니다.
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Object getDetails() {
+        return null;
+    }
+
+    // 인증 주체는 이 객체 자신입니다. (SecurityUtil 등에서 타입으로 바로 꺼낼 수 있습니다.)
+    @Override
+    public Object getPrincipal() {
+        return this;
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return true;
+    }
+
+    // 불변 객체이므로 인증 상태를 바꿀 수 없습니다.
+    @Override
+    public void setAuthenticated(boolean isAuthenticated) {
+        if (!isAuthenticated) {
+            throw new IllegalArgumentException("JwtAuthentication은 불변 객체이므로 인증 상태를 변경할 수 없습니다.");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "JwtAuthentication[username=" + username + ", userId=" + userId + ", authorities=" + authorities + "]";
+    }
+}
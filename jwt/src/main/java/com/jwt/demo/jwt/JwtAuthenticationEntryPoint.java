@@ -2,10 +2,14 @@ package com.jwt.demo.jwt;
 
 import java.io.IOException;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.stereotype.Component;
 
+import com.jwt.demo.handler.ErrorBody;
+
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
@@ -14,11 +18,13 @@ import jakarta.servlet.http.HttpServletResponse;
  * Spring Security의 AuthenticationEntryPoint 인터페이스를 구현하여 인증 실패 시의 처리를 담당합니다.
  */
 @Component // Spring이 관리하는 Bean으로 등록하여 다른 클래스에서 주입해 사용할 수 있습니다.
+@ConditionalOnWebApplication(type = Type.SERVLET)
 public class JwtAuthenticationEntryPoint implements AuthenticationEntryPoint {
 
     /**
      * commence 메서드는 인증되지 않은 사용자가 보호된 리소스에 접근할 때 호출됩니다.
      * HTTP 응답 코드로 401 UNAUTHORIZED를 반환하여 클라이언트에게 인증이 필요함을 알립니다.
+     * 잘못된 토큰으로 반복되는 요청에서도 비용이 적도록, 미리 만들어 둔 JSON 본문을 바로 씁니다. (/error 디스패치 없음)
      *
      * @param request 현재 요청 객체
      * @param response 현재 응답 객체
@@ -30,6 +36,7 @@ public class JwtAuthenticationEntryPoint implements AuthenticationEntryPoint {
                          HttpServletResponse response,
                          AuthenticationException authException) throws IOException {
         // 인증이 필요한 리소스에 접근할 때, 클라이언트에 401 UNAUTHORIZED 상태 코드를 응답합니다.
-        response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setHeader("WWW-Authenticate", "Bearer"); // RFC 6750
+        ErrorBody.UNAUTHORIZED.writeTo(response);
     }
 }
\ No newline at end of file
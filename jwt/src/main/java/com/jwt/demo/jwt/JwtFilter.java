@@ -2,28 +2,34 @@ package com.jwt.demo.jwt;
 
 import java.io.IOException;
 
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.GenericFilterBean;
 
+import com.jwt.demo.profiling.JwtFilterEvent;
+import com.jwt.demo.util.StartupMetrics;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * JwtFilter 클래스는 JWT 토큰의 유효성을 검사하고 인증 정보를 설정하는 필터입니다.
  * 모든 요청에 대해 이 필터를 거치며, JWT 토큰이 유효한 경우 SecurityContext에 인증 정보를 저장합니다.
+ * 토큰의 갱신 시각(rat)이 지났으면 새 액세스 토큰을 X-Access-Token 헤더로 함께 돌려줍니다. (jwt.refresh-hint.reissue)
  */
 @Slf4j // 로깅을 위한 Lombok 어노테이션입니다.
 @RequiredArgsConstructor // final 필드를 인자로 받는 생성자를 자동으로 생성합니다.
 public class JwtFilter extends GenericFilterBean {
 
     public static final String AUTHORIZATION_HEADER = "Authorization"; // HTTP 헤더의 Authorization 키
+    public static final String ACCESS_TOKEN_HEADER = "X-Access-Token"; // 갱신 시각이 지난 토큰 대신 사용할 새 액세스 토큰
+    public static final String REFRESH_AT_HEADER = "X-Refresh-At";     // 액세스 토큰의 갱신 시각 (epoch 초, rat 클레임)
     private final TokenProvider tokenProvider; // JWT 생성 및 인증 정보를 제공하는 TokenProvider 객체
 
     /**
@@ -43,13 +49,31 @@ public class JwtFilter extends GenericFilterBean {
         String requestURI = httpServletRequest.getRequestURI(); // 요청 URI를 가져옵니다.
 
         // JWT가 유효하면 인증 정보를 생성하고 SecurityContext에 저장합니다.
-        if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-            Authentication authentication = tokenProvider.getAuthentication(jwt); // JWT로부터 인증 정보를 가져옵니다.
+        // 검증과 인증 객체 생성을 한 번에 처리하므로 토큰을 두 번 파싱하지 않습니다.
+        JwtFilterEvent event = new JwtFilterEvent(); // JFR 녹화 중에만 기록됩니다. 다음 필터의 처리 시간은 포함하지 않습니다.
+        event.begin();
+        JwtAuthentication authentication = StringUtils.hasText(jwt) ? tokenProvider.authenticate(jwt) : null;
+        if (authentication != null) {
             SecurityContextHolder.getContext().setAuthentication(authentication); // SecurityContext에 인증 정보를 설정합니다.
             log.debug("Security Context에 '{}' 인증 정보를 저장했습니다, uri: {}", authentication.getName(), requestURI);
+            StartupMetrics.recordAuthenticatedRequest(); // 기동 후 첫 번째 인증된 요청까지의 시간을 기록합니다.
+
+            // 갱신 시각이 지난 토큰이면 새 액세스 토큰을 헤더로 함께 보내, 클라이언트가 따로 갱신 요청을 보내지 않아도 되게 합니다.
+            TokenProvider.Renewal renewal = tokenProvider.renew(authentication);
+            event.renewed = renewal != null;
+            if (renewal != null) {
+                HttpServletResponse httpServletResponse = (HttpServletResponse) servletResponse;
+                httpServletResponse.setHeader(ACCESS_TOKEN_HEADER, renewal.token());
+                httpServletResponse.setHeader(REFRESH_AT_HEADER, Long.toString(renewal.refreshAtSeconds()));
+            }
         } else {
             log.debug("유효한 JWT 토큰이 없습니다, uri: {}", requestURI);
         }
+        event.end();
+        if (event.shouldCommit()) {
+            event.outcome = authentication != null ? "authenticated" : StringUtils.hasText(jwt) ? "rejected" : "no_token";
+            event.commit();
+        }
 
         // 다음 필터로 요청을 전달합니다.
         // 필터 체인은 여러 필터가 연속적으로 실행되는 구조로, 각 필터는 특정 작업을 수행한 후 요청을 다음 필터로 전달할지 결정합니다.
@@ -63,8 +87,15 @@ public class JwtFilter extends GenericFilterBean {
      * @return 추출한 JWT 토큰 문자열 또는 null
      */
     private String resolveToken(HttpServletRequest request) {
-        String bearerToken = request.getHeader(AUTHORIZATION_HEADER); // Authorization 헤더에서 토큰을 추출합니다.
+        return bearerToken(request.getHeader(AUTHORIZATION_HEADER)); // Authorization 헤더에서 토큰을 추출합니다.
+    }
 
+    /**
+     * Authorization 헤더 값에서 Bearer 토큰을 꺼냅니다. 리액티브 배포의 JwtWebFilter도 사용합니다.
+     * @param bearerToken Authorization 헤더 값 (없으면 null)
+     * @return 추출한 JWT 토큰 문자열 또는 null
+     */
+    public static String bearerToken(String bearerToken) {
         // 토큰이 "Bearer "로 시작하면 앞부분을 제거하고 실제 토큰을 반환합니다.
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
             return bearerToken.substring(7); // "Bearer "를 제외한 순수 토큰을 반환합니다.
@@ -0,0 +1,48 @@
+package com.jwt.demo.jwt;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Advisor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+
+/**
+ * MethodSecurityConfig는 컨트롤러의 @PreAuthorize를 검사하도록 메소드 보안을 켭니다.
+ *
+ * @PreAuthorize 검사는 기본 인터셉터 대신 아래 preAuthorize 어드바이저가 맡습니다.
+ * - jwt.authorization.mode=compiled (기본): RoleMaskAuthorizationManager. 역할 조건은 비트 연산, 나머지는 SpEL
+ * - jwt.authorization.mode=spel: 기존 SpEL 검사 (PreAuthorizeAuthorizationManager)
+ */
+@Configuration
+@EnableMethodSecurity(prePostEnabled = false)
+@ConditionalOnWebApplication(type = Type.SERVLET)
+public class MethodSecurityConfig {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor preAuthorizeAuthorizationAdvisor(
+            ApplicationContext applicationContext,
+            @Value("${jwt.authorization.mode:compiled}") String mode) {
+        DefaultMethodSecurityExpressionHandler expressionHandler = new DefaultMethodSecurityExpressionHandler();
+        expressionHandler.setApplicationContext(applicationContext);
+        PreAuthorizeAuthorizationManager spel = new PreAuthorizeAuthorizationManager();
+        spel.setExpressionHandler(expressionHandler);
+
+        AuthorizationManager<MethodInvocation> manager = switch (mode) {
+            case "compiled" -> new RoleMaskAuthorizationManager(spel);
+            case "spel" -> spel;
+            default -> throw new IllegalArgumentException("jwt.authorization.mode는 compiled 또는 spel이어야 합니다: " + mode);
+        };
+        return AuthorizationManagerBeforeMethodInterceptor.preAuthorize(manager);
+    }
+}
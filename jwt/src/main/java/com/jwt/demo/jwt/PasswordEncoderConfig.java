@@ -0,0 +1,24 @@
+package com.jwt.demo.jwt;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.jwt.demo.profiling.ProfiledPasswordEncoder;
+
+/**
+ * PasswordEncoderConfig는 서블릿과 리액티브 배포가 함께 사용하는 PasswordEncoder 빈을 만듭니다.
+ */
+@Configuration
+public class PasswordEncoderConfig {
+
+    /**
+     * 비밀번호를 암호화하기 위한 PasswordEncoder 빈을 생성합니다.
+     * BCryptPasswordEncoder를 사용하여 암호를 해싱하며, JFR 녹화 중에는 비밀번호 확인 시간을 이벤트로 남깁니다.
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new ProfiledPasswordEncoder(new BCryptPasswordEncoder());
+    }
+}
@@ -0,0 +1,57 @@
+package com.jwt.demo.jwt;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * RoleMask는 권한 이름(예: ROLE_USER)마다 long의 비트 하나를 배정합니다.
+ * 권한 목록과 @PreAuthorize의 역할 조건을 같은 비트로 바꾸어 두면 권한 검사는 AND 연산 한 번이 됩니다.
+ *
+ * 비트는 처음 본 권한부터 차례로 배정되며 한 번 배정되면 바뀌지 않습니다. 64개를 넘는 권한에는 비트가 없으며(0),
+ * 그런 권한이 필요한 조건은 RoleMaskAuthorizationManager가 SpEL로 검사합니다.
+ */
+public final class RoleMask {
+
+    private static final Map<String, Long> BITS = new ConcurrentHashMap<>();
+
+    private RoleMask() {
+    }
+
+    /**
+     * @return 권한의 비트. 64개의 비트를 모두 배정했으면 0
+     */
+    public static long bit(String authority) {
+        Long bit = BITS.get(authority);
+        if (bit != null) {
+            return bit;
+        }
+        synchronized (BITS) {
+            bit = BITS.get(authority);
+            if (bit != null) {
+                return bit;
+            }
+            if (BITS.size() == Long.SIZE) {
+                return 0L;
+            }
+            bit = 1L << BITS.size();
+            BITS.put(authority, bit);
+            return bit;
+        }
+    }
+
+    /**
+     * @return 권한 목록의 비트를 모두 합친 값. 비트가 없는 권한은 빠집니다.
+     */
+    public static long of(Collection<? extends GrantedAuthority> authorities) {
+        long mask = 0L;
+        for (GrantedAuthority authority : authorities) {
+            if (authority.getAuthority() != null) {
+                mask |= bit(authority.getAuthority());
+            }
+        }
+        return mask;
+    }
+}
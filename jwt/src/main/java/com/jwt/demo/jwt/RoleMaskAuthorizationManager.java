@@ -0,0 +1,101 @@
+package com.jwt.demo.jwt;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+
+/**
+ * RoleMaskAuthorizationManager는 @PreAuthorize의 역할 조건을 RoleMask 비트로 바꾸어 검사합니다.
+ *
+ * hasRole, hasAnyRole, hasAuthority, hasAnyAuthority만으로 된 조건은 메소드마다 처음 한 번 필요한 비트를 계산해 두고,
+ * JwtAuthentication의 roleMask와 AND 연산 한 번으로 결정합니다. SpEL 파싱, 평가 컨텍스트 생성, 권한 목록 순회가 없습니다.
+ *
+ * 다음 경우는 기존 SpEL 검사(delegate)를 그대로 사용하므로 어노테이션은 바꾸지 않아도 됩니다.
+ * - 다른 SpEL 식(isAuthenticated(), #username == authentication.name 등)이나 비트가 없는 권한을 쓰는 조건
+ * - JwtAuthentication이 아닌 인증 객체(로그인 중의 UsernamePasswordAuthenticationToken, 익명 사용자 등)
+ */
+public class RoleMaskAuthorizationManager implements AuthorizationManager<MethodInvocation> {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    // hasAnyRole('USER','ADMIN') 처럼 따옴표로 감싼 값 목록 하나만 받는 식
+    private static final Pattern ROLE_EXPRESSION = Pattern.compile(
+            "^\\s*has(Any)?(Role|Authority)\\(\\s*('[^']+'(?:\\s*,\\s*'[^']+')*)\\s*\\)\\s*$");
+    private static final Pattern QUOTED = Pattern.compile("'([^']+)'");
+
+    // SpEL로 검사해야 하는 메소드 표시
+    private static final long NOT_COMPILED = 0L;
+
+    private final AuthorizationManager<MethodInvocation> delegate;
+    private final Map<Method, Long> requiredMasks = new ConcurrentHashMap<>();
+
+    /**
+     * @param delegate 비트로 바꿀 수 없는 조건을 검사할 SpEL 기반 관리자 (PreAuthorizeAuthorizationManager)
+     */
+    public RoleMaskAuthorizationManager(AuthorizationManager<MethodInvocation> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        long required = requiredMasks.computeIfAbsent(specificMethod(invocation), RoleMaskAuthorizationManager::compile);
+        if (required != NOT_COMPILED && authentication.get() instanceof JwtAuthentication jwtAuthentication) {
+            return (jwtAuthentication.getRoleMask() & required) != 0 ? GRANTED : DENIED;
+        }
+        return delegate.check(authentication, invocation);
+    }
+
+    /**
+     * @return 조건을 만족하는 비트들. 조건이 없거나 비트로 바꿀 수 없으면 NOT_COMPILED
+     */
+    static long compile(Method method) {
+        PreAuthorize preAuthorize = AnnotatedElementUtils.findMergedAnnotation(method, PreAuthorize.class);
+        if (preAuthorize == null) {
+            preAuthorize = AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(), PreAuthorize.class);
+        }
+        return preAuthorize == null ? NOT_COMPILED : compile(preAuthorize.value());
+    }
+
+    static long compile(String expression) {
+        Matcher matcher = ROLE_EXPRESSION.matcher(expression);
+        if (!matcher.matches()) {
+            return NOT_COMPILED;
+        }
+        boolean any = matcher.group(1) != null;
+        boolean role = matcher.group(2).equals("Role");
+        Matcher values = QUOTED.matcher(matcher.group(3));
+        long required = 0L;
+        int count = 0;
+        while (values.find()) {
+            String value = values.group(1);
+            long bit = RoleMask.bit(role && !value.startsWith(ROLE_PREFIX) ? ROLE_PREFIX + value : value);
+            if (bit == 0L) {
+                return NOT_COMPILED;
+            }
+            required |= bit;
+            count++;
+        }
+        // hasRole은 값 하나만 받습니다. 여러 값이면 SpEL이 판단하도록 둡니다.
+        return any || count == 1 ? required : NOT_COMPILED;
+    }
+
+    private static Method specificMethod(MethodInvocation invocation) {
+        Object target = invocation.getThis();
+        return target == null
+                ? invocation.getMethod()
+                : AopUtils.getMostSpecificMethod(invocation.getMethod(), AopUtils.getTargetClass(target));
+    }
+}
@@ -1,5 +1,7 @@
 package com.jwt.demo.jwt;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -9,8 +11,6 @@ import org.springframework.security.config.annotation.web.configuration.WebSecur
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 
@@ -19,8 +19,10 @@ import lombok.RequiredArgsConstructor;
 /**
  * SecurityConfig 클래스는 Spring Security를 통해 애플리케이션 보안을 관리하는 설정 클래스입니다.
  * JWT 인증을 적용하고, 세션 없이 인증을 관리하며, 특정 URL에 접근 허용을 설정합니다.
+ * 서블릿(Tomcat)으로 실행할 때만 사용합니다. 리액티브 배포는 ReactiveSecurityConfig를 사용합니다.
  */
 @Configuration
+@ConditionalOnWebApplication(type = Type.SERVLET)
 @EnableWebSecurity // Spring Security를 활성화합니다.
 @RequiredArgsConstructor // final 필드에 대해 생성자를 자동으로 생성합니다.
 public class SecurityConfig {
@@ -29,15 +31,6 @@ public class SecurityConfig {
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint; // 인증 실패 시 처리할 핸들러
     private final JwtAccessDeniedHandler jwtAccessDeniedHandler; // 인가 실패 시 처리할 핸들러
 
-    /**
-     * 비밀번호를 암호화하기 위한 PasswordEncoder 빈을 생성합니다.
-     * BCryptPasswordEncoder를 사용하여 암호를 해싱합니다.
-     */
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
-
     /**
      * HttpSecurity 설정을 구성하는 메서드입니다.
      * JWT 필터를 추가하고, CSRF 보호를 비활성화하며, 세션을 사용하지 않도록 설정합니다.
@@ -69,6 +62,8 @@ public class SecurityConfig {
                 .requestMatchers(new AntPathRequestMatcher("/api/refresh-token")).permitAll() // 토큰 갱신 API 허용
                 .requestMatchers(new AntPathRequestMatcher("/api/signup")).permitAll() // 회원가입 API 허용
                 .requestMatchers(new AntPathRequestMatcher("/favicon.ico")).permitAll() // 파비콘 허용
+                .requestMatchers(new AntPathRequestMatcher("/api/admin/**")).hasRole("ADMIN") // 관리자 API는 ADMIN 권한 필요
+                .requestMatchers(new AntPathRequestMatcher("/api/introspect")).hasAnyRole("SERVICE", "ADMIN") // 토큰 검사는 리소스 서버(SERVICE)와 관리자만
                 .anyRequest().authenticated() // 그 외의 모든 요청은 인증 요구
         );
 
@@ -0,0 +1,37 @@
+package com.jwt.demo.jwt;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * TokenClaims는 서명 검증을 통과한 JWT에서 꺼낸 클레임 값을 담는 불변 객체입니다.
+ * jjwt의 Claims(Map) 대신 이 서비스가 실제로 사용하는 값만 담습니다.
+ */
+@Getter
+@AllArgsConstructor
+public final class TokenClaims {
+
+    // 토큰의 subject (사용자 이름)
+    private final String subject;
+
+    // 쉼표로 구분된 권한 문자열. 예: "ROLE_USER,ROLE_ADMIN"
+    private final String authorities;
+
+    // 사용자 ID (uid 클레임, 없으면 null)
+    private final Long userId;
+
+    // 토큰 ID (jti 클레임, 없으면 null)
+    private final String tokenId;
+
+    // 만료 시간 (epoch 초)
+    private final long expirationSeconds;
+
+    // 갱신을 권하는 시각 (rat 클레임, epoch 초). 없으면 0
+    private final long refreshAtSeconds;
+
+    // 토큰 종류 (typ 클레임: access 또는 refresh). 클레임이 생기기 전에 발급된 토큰은 null
+    private final String tokenType;
+
+    // 액세스 토큰을 발급한 세션(리프레시 토큰)의 ID (sid 클레임). 세션 없이 발급된 토큰은 null
+    private final String sessionId;
+}
@@ -1,45 +1,65 @@
 package com.jwt.demo.jwt;
 
 import java.security.Key;
+import java.time.Clock;
 import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.util.Arrays;
-import java.util.Collection;
 import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
+import javax.crypto.SecretKey;
+
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import com.jwt.demo.entities.RefreshToken;
+import com.jwt.demo.jwt.TokenValidationFailures.Reason;
+import com.jwt.demo.profiling.TokenCreateEvent;
+import com.jwt.demo.profiling.TokenValidateEvent;
 import com.jwt.demo.repository.RefreshTokenRepository;
+import com.jwt.demo.service.LoginUser;
+import com.jwt.demo.service.SessionDevice;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.MalformedJwtException;
-import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
 
-//import com.jwt.demo.User;
-import org.springframework.security.core.userdetails.User;
-
 @Slf4j // 로깅 기능을 위한 애노테이션
 @Component // Spring Bean으로 등록되어 애플리케이션 전역에서 사용 가능하도록 함
+@ImportRuntimeHints(JjwtRuntimeHints.class) // native image에서 jjwt 구현 클래스를 찾을 수 있도록 힌트를 등록함
 public class TokenProvider implements InitializingBean {
 
     // JWT 토큰에 권한 정보를 저장할 키의 상수값입니다.
     private static final String AUTHORITIES_KEY = "auth";
 
+    // JWT 토큰에 사용자 ID를 저장할 키의 상수값입니다.
+    private static final String USER_ID_KEY = "uid";
+
+    // JWT 토큰에 갱신을 권하는 시각(epoch 초)을 저장할 키의 상수값입니다.
+    private static final String REFRESH_AT_KEY = "rat";
+
+    // JWT 토큰에 토큰 종류를 저장할 키와 값입니다. 액세스 토큰과 리프레시 토큰은 나머지 클레임이 같으므로 이 값으로 구분합니다.
+    private static final String TOKEN_TYPE_KEY = "typ";
+    public static final String ACCESS_TOKEN_TYPE = "access";
+    public static final String REFRESH_TOKEN_TYPE = "refresh";
+
+    // 액세스 토큰에 발급한 세션(리프레시 토큰 행)의 ID를 저장할 키입니다. 재발급할 때 세션이 남아 있는지 확인합니다.
+    private static final String SESSION_ID_KEY = "sid";
+
     // JWT 토큰 서명을 위한 비밀 키 문자열로, application.properties에서 주입받습니다.
     private final String secret;
 
@@ -52,25 +72,86 @@ public class TokenProvider implements InitializingBean {
     // JWT 서명 및 검증에 사용할 Key 객체입니다.
     private Key key;
 
+    // 자체 발급한 HS* 토큰을 jjwt 없이 검증하는 경량 검증기입니다. 판단할 수 없는 토큰은 jjwt로 넘깁니다.
+    private HmacJwtVerifier verifier;
+
+    // 스레드마다 미리 초기화된 Mac으로 토큰을 서명하는 서명기입니다.
+    private HmacJwtSigner signer;
+
     // RefreshToken 정보를 저장하기 위한 JPA Repository로, 의존성 주입됩니다.
     private final RefreshTokenRepository refreshTokenRepository;
 
+    // auth 클레임 문자열을 공유되는 불변 권한 목록으로 바꿔 주는 객체입니다.
+    private final AuthorityInterner authorityInterner = new AuthorityInterner();
+
+    // 검증을 마친 토큰의 인증 객체를 토큰 만료 시까지 요청 간에 재사용하기 위한 캐시입니다.
+    private final Map<String, JwtAuthentication> authenticationCache = new ConcurrentHashMap<>();
+
+    // 인증 객체 캐시의 최대 항목 수입니다. 0이면 캐시를 사용하지 않습니다.
+    private final int authenticationCacheSize;
+
+    // 검증 실패를 이유별로 세고, 로그는 정해진 간격마다 한 번만 남깁니다.
+    private final TokenValidationFailures validationFailures;
+
+    // 만료까지 이 시간(초)이 남으면 액세스 토큰을 갱신할 때입니다. 0이면 rat 클레임을 넣지 않고 재발급하지 않습니다.
+    private final long refreshWindowSeconds;
+
+    // rat을 만료 refreshWindowSeconds 전보다 최대 이만큼(초) 앞당겨 무작위로 정합니다.
+    private final long refreshJitterSeconds;
+
+    // rat이 지난 액세스 토큰의 요청에 새 액세스 토큰을 발급해 주는지 여부입니다.
+    private final boolean reissueEnabled;
+
+    // 기존 액세스 토큰의 jti -> 대신 발급한 액세스 토큰. 같은 토큰의 요청마다 새로 서명하지 않도록 재사용합니다.
+    // 세션 조회는 맵의 잠금 밖에서 하고, 같은 jti의 동시 요청은 먼저 온 요청의 결과(future)를 기다립니다.
+    private final Map<String, CompletableFuture<Renewal>> renewals = new ConcurrentHashMap<>();
+
+    // 가득 찬 renewals를 한 스레드만 정리하도록 합니다.
+    private final Object renewalSweepLock = new Object();
+
+    // 발급과 만료 판단에 사용하는 시계입니다. (ClockConfig, 기본은 UTC 시스템 시간)
+    private final Clock clock;
+
+    // 노드 간 시계 차이를 허용하는 시간(밀리초)입니다. 만료 시간이 이만큼 지나기 전까지는 유효한 것으로 봅니다.
+    private final long clockSkewMillis;
+
     /**
      * 생성자: JWT 관련 설정값들을 주입받아 초기화합니다.
      *
      * @param secret JWT 서명에 사용할 비밀 키 문자열. 이 비밀 키는 서버에서 생성한 JWT의 진위를 검증하는 데 사용됩니다.
      * @param accessTokenValidityInSeconds AccessToken의 유효기간 (초 단위).
      * @param refreshTokenValidityInSeconds RefreshToken의 유효기간 (초 단위).
+     * @param authenticationCacheSize 인증 객체 캐시의 최대 항목 수 (0이면 사용하지 않음).
+     * @param validationFailureLogIntervalSeconds 검증 실패 로그를 이유마다 남기는 최소 간격 (초, 0이면 실패마다).
+     * @param refreshWindowSeconds 만료까지 이 시간(초)이 남으면 갱신을 권합니다 (0이면 rat 클레임을 쓰지 않음).
+     * @param refreshJitterSeconds 갱신 시각(rat)을 무작위로 앞당기는 최대 시간 (초).
+     * @param reissueEnabled rat이 지난 토큰의 요청에 새 액세스 토큰을 발급할지 여부.
+     * @param clock 발급과 만료 판단에 사용할 시계.
+     * @param clockSkewSeconds 만료 판단에서 허용하는 노드 간 시계 차이 (초).
      * @param refreshTokenRepository RefreshToken을 저장하는 JPA Repository.
      */
     public TokenProvider(
             @Value("${jwt.secret}") String secret,
             @Value("${jwt.token-validity-in-seconds}") long accessTokenValidityInSeconds,
             @Value("${jwt.refreshtoken-validity-in-seconds}") long refreshTokenValidityInSeconds,
+            @Value("${jwt.authentication-cache-size:10000}") int authenticationCacheSize,
+            @Value("${jwt.logging.validation-failure-interval-seconds:10}") long validationFailureLogIntervalSeconds,
+            @Value("${jwt.refresh-hint.window-seconds:0}") long refreshWindowSeconds,
+            @Value("${jwt.refresh-hint.jitter-seconds:0}") long refreshJitterSeconds,
+            @Value("${jwt.refresh-hint.reissue:false}") boolean reissueEnabled,
+            Clock clock,
+            @Value("${jwt.clock-skew-seconds:0}") long clockSkewSeconds,
             RefreshTokenRepository refreshTokenRepository) {
         this.secret = secret; // 비밀 키 할당
         this.accessTokenValidityInMilliseconds = accessTokenValidityInSeconds * 1000; // AccessToken 유효시간을 밀리초로 변환하여 할당
         this.refreshTokenValidityInMilliseconds = refreshTokenValidityInSeconds * 1000; // RefreshToken 유효시간을 밀리초로 변환하여 할당
+        this.authenticationCacheSize = authenticationCacheSize; // 인증 객체 캐시 크기 할당
+        this.validationFailures = new TokenValidationFailures(validationFailureLogIntervalSeconds);
+        this.refreshWindowSeconds = refreshWindowSeconds;
+        this.refreshJitterSeconds = refreshJitterSeconds;
+        this.reissueEnabled = reissueEnabled;
+        this.clock = clock;
+        this.clockSkewMillis = clockSkewSeconds * 1000;
         this.refreshTokenRepository = refreshTokenRepository; // Repository 할당
     }
 
@@ -81,7 +162,10 @@ public class TokenProvider implements InitializingBean {
     public void afterPropertiesSet() {
         // Secret 키를 디코딩하여 JWT 서명에 사용할 키 객체를 생성합니다.
         byte[] keyBytes = Decoders.BASE64.decode(secret); 
-        this.key = Keys.hmacShaKeyFor(keyBytes);
+        SecretKey secretKey = Keys.hmacShaKeyFor(keyBytes);
+        this.key = secretKey;
+        this.verifier = new HmacJwtVerifier(secretKey);
+        this.signer = new HmacJwtSigner(secretKey);
     }
 
     /**
@@ -91,38 +175,316 @@ public class TokenProvider implements InitializingBean {
      * @return 생성된 JWT 토큰 (JSON Web Token)
      */
     public String createToken(Authentication authentication, boolean isAccessToken) {
+        return createToken(authentication,
+                authentication instanceof JwtAuthentication jwtAuthentication ? jwtAuthentication.getSessionId() : null,
+                isAccessToken);
+    }
+
+    /**
+     * 세션(리프레시 토큰)에 묶인 JWT 토큰을 생성합니다.
+     * @param authentication 인증 정보를 포함하는 Authentication 객체
+     * @param sessionId 토큰을 발급하는 세션의 ID (sid 클레임). 없으면 null
+     * @param isAccessToken true일 경우 AccessToken을 생성, false일 경우 RefreshToken을 생성
+     * @return 생성된 JWT 토큰 (JSON Web Token)
+     */
+    public String createToken(Authentication authentication, String sessionId, boolean isAccessToken) {
         // 사용자의 권한 정보를 문자열로 변환. 예: "ROLE_USER,ROLE_ADMIN"
         String authorities = authentication.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.joining(","));
 
-        // 현재 시간과 토큰의 만료 시간을 설정합니다.
-        long now = (new Date()).getTime();
-        long expiryDate = isAccessToken ? now + accessTokenValidityInMilliseconds : now + refreshTokenValidityInMilliseconds;
-        Date validity = new Date(expiryDate); // 만료 시간 설정
+        // 로그인 직후(LoginUser)이거나 토큰으로 인증된 경우(JwtAuthentication) 사용자 ID를 함께 저장합니다.
+        Long userId = null;
+        if (authentication instanceof JwtAuthentication jwtAuthentication) {
+            userId = jwtAuthentication.getUserId();
+        } else if (authentication.getPrincipal() instanceof LoginUser loginUser) {
+            userId = loginUser.getUserId();
+        }
+
+        return createToken(authentication.getName(), authorities, userId, sessionId, isAccessToken);
+    }
+
+    /**
+     * 사용자 이름과 권한 문자열로 JWT 토큰을 생성합니다.
+     * 로그인(비밀번호 확인) 없이 토큰을 발급하는 관리자용 일괄 발급에서도 사용합니다.
+     * @param subject 토큰의 subject (사용자 이름)
+     * @param authorities 쉼표로 구분된 권한 문자열. 예: "ROLE_USER,ROLE_ADMIN"
+     * @param isAccessToken true일 경우 AccessToken을 생성, false일 경우 RefreshToken을 생성
+     * @return 생성된 JWT 토큰 (JSON Web Token)
+     */
+    public String createToken(String subject, String authorities, boolean isAccessToken) {
+        return createToken(subject, authorities, null, isAccessToken);
+    }
+
+    /**
+     * 사용자 이름, 권한 문자열, 사용자 ID로 JWT 토큰을 생성합니다.
+     * @param subject 토큰의 subject (사용자 이름)
+     * @param authorities 쉼표로 구분된 권한 문자열. 예: "ROLE_USER,ROLE_ADMIN"
+     * @param userId 사용자 ID (uid 클레임). 알 수 없으면 null
+     * @param isAccessToken true일 경우 AccessToken을 생성, false일 경우 RefreshToken을 생성
+     * @return 생성된 JWT 토큰 (JSON Web Token)
+     */
+    public String createToken(String subject, String authorities, Long userId, boolean isAccessToken) {
+        return createToken(subject, authorities, userId, null, isAccessToken);
+    }
+
+    /**
+     * 사용자 이름, 권한 문자열, 사용자 ID, 세션 ID로 JWT 토큰을 생성합니다.
+     * @param subject 토큰의 subject (사용자 이름)
+     * @param authorities 쉼표로 구분된 권한 문자열. 예: "ROLE_USER,ROLE_ADMIN"
+     * @param userId 사용자 ID (uid 클레임). 알 수 없으면 null
+     * @param sessionId 토큰을 발급하는 세션(리프레시 토큰)의 ID (sid 클레임). 없으면 null
+     * @param isAccessToken true일 경우 AccessToken을 생성, false일 경우 RefreshToken을 생성
+     * @return 생성된 JWT 토큰 (JSON Web Token)
+     */
+    public String createToken(String subject, String authorities, Long userId, String sessionId, boolean isAccessToken) {
+        long now = clock.millis();
+        long validity = isAccessToken ? accessTokenValidityInMilliseconds : refreshTokenValidityInMilliseconds;
+        return sign(subject, authorities, userId, sessionId, isAccessToken, now, now + validity);
+    }
+
+    private String sign(String subject, String authorities, Long userId, String sessionId, boolean isAccessToken,
+                        long now, long expiryDate) {
+        TokenCreateEvent event = new TokenCreateEvent(); // JFR 녹화 중에만 기록됩니다.
+        event.begin();
+
+        // jjwt 빌더와 동일한 형식({"sub", "auth", "uid", "jti", "exp", "rat", "typ", "sid"})의 토큰을 재사용 Mac으로 서명하여 반환합니다.
+        // exp 클레임은 JWT 규격에 따라 초 단위로 저장되며, jti는 같은 초에 발급된 토큰도 서로 다르도록 합니다.
+        long refreshAt = isAccessToken ? refreshAtSeconds(now / 1000, expiryDate / 1000) : 0L;
+        String token = signer.sign(subject, authorities, userId, newTokenId(), expiryDate / 1000, refreshAt,
+                isAccessToken ? ACCESS_TOKEN_TYPE : REFRESH_TOKEN_TYPE, sessionId);
+        event.end();
+        if (event.shouldCommit()) {
+            event.accessToken = isAccessToken;
+            event.commit();
+        }
+        return token;
+    }
+
+    /**
+     * 액세스 토큰의 갱신 시각(rat 클레임)을 정합니다. 만료 refreshWindowSeconds 전에서 최대 refreshJitterSeconds만큼
+     * 무작위로 앞당기므로, 함께 로그인한 클라이언트들도 서로 다른 시각에 갱신하게 됩니다.
+     * @return 갱신 시각 (epoch 초). 사용하지 않으면 0
+     */
+    private long refreshAtSeconds(long nowSeconds, long expirationSeconds) {
+        if (refreshWindowSeconds <= 0) {
+            return 0L;
+        }
+        long jitter = refreshJitterSeconds > 0 ? ThreadLocalRandom.current().nextLong(refreshJitterSeconds + 1) : 0L;
+        return Math.max(nowSeconds, expirationSeconds - refreshWindowSeconds - jitter);
+    }
+
+    /**
+     * 액세스 토큰의 갱신 시각을 반환합니다. 로그인과 토큰 갱신 응답의 헤더(JwtFilter.REFRESH_AT_HEADER)에 사용합니다.
+     * @param accessToken 방금 발급한 액세스 토큰
+     * @return 갱신 시각 (epoch 초). 없으면 0
+     */
+    public long refreshAtSeconds(String accessToken) {
+        JwtAuthentication authentication = authenticate(accessToken); // 곧 이 토큰으로 올 요청을 위해 캐시도 채웁니다.
+        return authentication != null ? authentication.getRefreshAtSeconds() : 0L;
+    }
 
-        // JWT 빌더를 통해 토큰을 생성합니다.
-        return Jwts.builder()
-                .setSubject(authentication.getName()) // 사용자 정보 설정 (토큰의 subject)
-                .claim(AUTHORITIES_KEY, authorities) // 권한 정보를 클레임으로 저장
-                .signWith(key, SignatureAlgorithm.HS512) // 서명 알고리즘과 키 설정
-                .setExpiration(validity) // 만료 시간 설정
-                .compact(); // 최종적으로 토큰을 생성하여 반환
+    /**
+     * 현재 시간 기준으로 renew(authentication, now)를 호출합니다.
+     */
+    public Renewal renew(JwtAuthentication authentication) {
+        return renew(authentication, clock.millis());
+    }
+
+    /**
+     * 현재 시간 기준으로 갱신 시각이 지나 renew를 호출할 때인지 확인합니다. 데이터베이스를 조회하지 않습니다.
+     * 리액티브 배포는 이 값이 true일 때만 renew를 JDBC 스케줄러에서 호출합니다.
+     * @param authentication 요청의 액세스 토큰으로 만든 인증 객체
+     * @return 재발급을 시도할 때이면 true
+     */
+    public boolean isRenewalDue(JwtAuthentication authentication) {
+        return isRenewalDue(authentication, clock.millis());
+    }
+
+    private boolean isRenewalDue(JwtAuthentication authentication, long now) {
+        // 세션(sid)이 없는 토큰(관리자 일괄 발급 등)은 세션 상태를 확인할 수 없으므로 재발급하지 않습니다.
+        if (!reissueEnabled || refreshWindowSeconds <= 0
+                || authentication.getTokenId() == null || authentication.getSessionId() == null) {
+            return false;
+        }
+        long refreshAt = authentication.getRefreshAtSeconds() > 0
+                ? authentication.getRefreshAtSeconds()
+                : authentication.getExpirationSeconds() - refreshWindowSeconds; // rat 클레임이 없는 이전 토큰
+        return now >= refreshAt * 1000;
+    }
+
+    /**
+     * 갱신 시각이 지난 액세스 토큰 대신 사용할 새 액세스 토큰을 발급합니다. JwtFilter가 응답 헤더로 돌려줍니다.
+     * 토큰의 세션(sid 클레임의 리프레시 토큰 행)이 아직 있고 만료되지 않았을 때만 발급하며, 새 토큰의 만료 시간도
+     * 세션의 만료 시간을 넘지 않습니다. 따라서 로그아웃, 세션 취소, 리프레시 토큰 만료 뒤에는 이어지지 않습니다.
+     * 같은 토큰으로 여러 요청이 와도 서명은 한 번만 하고, 기존 토큰이 만료될 때까지 같은 새 토큰을 돌려줍니다.
+     * 기억한 새 토큰을 돌려줄 때에도 세션을 다시 확인하므로, 재발급 뒤에 세션이 취소되면 더 이상 돌려주지 않습니다.
+     * @param authentication 요청의 액세스 토큰으로 만든 인증 객체
+     * @param now 현재 시간 (epoch 밀리초)
+     * @return 새 액세스 토큰. 아직 갱신할 때가 아니거나, 재발급을 사용하지 않거나, 세션이 없거나 만료되었으면 null
+     */
+    public Renewal renew(JwtAuthentication authentication, long now) {
+        if (!isRenewalDue(authentication, now)) {
+            return null;
+        }
+        String tokenId = authentication.getTokenId();
+        CompletableFuture<Renewal> remembered = renewals.get(tokenId);
+        if (remembered == null) {
+            if (renewals.size() >= Math.max(authenticationCacheSize, 1)) {
+                sweepRenewals(now);
+            }
+            CompletableFuture<Renewal> mine = new CompletableFuture<>();
+            remembered = renewals.putIfAbsent(tokenId, mine);
+            if (remembered == null) {
+                // 세션을 방금 확인했으므로 다시 확인하지 않습니다.
+                Renewal renewal = reissue(authentication, now, mine);
+                return renewal.token() != null ? renewal : null;
+            }
+        }
+
+        Renewal renewal = remembered.join(); // 먼저 온 요청이 재발급에 실패했으면 null입니다.
+        if (renewal == null || renewal.token() == null) {
+            return null;
+        }
+        if (!isSessionActive(authentication, now)) {
+            // 재발급 뒤에 세션이 취소되었으면 거절한 결과로 바꿔, 다음 요청부터는 세션을 조회하지 않습니다.
+            renewals.replace(tokenId, remembered, CompletableFuture.completedFuture(
+                    new Renewal(null, 0L, authentication.getExpirationSeconds())));
+            return null;
+        }
+        return renewal;
+    }
+
+    // 세션을 확인하고 새 액세스 토큰을 서명해 future를 완료합니다. 세션이 없으면 거절한 결과(token == null)를 기억합니다.
+    private Renewal reissue(JwtAuthentication authentication, long now, CompletableFuture<Renewal> future) {
+        Renewal renewal;
+        try {
+            Optional<Instant> sessionExpiry = findSessionExpiry(authentication, now);
+            if (sessionExpiry.isEmpty()) {
+                renewal = new Renewal(null, 0L, authentication.getExpirationSeconds());
+            } else {
+                String authorities = authentication.getAuthorities().stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .collect(Collectors.joining(","));
+                long expiryDate = Math.min(now + accessTokenValidityInMilliseconds, sessionExpiry.get().toEpochMilli());
+                String token = sign(authentication.getUsername(), authorities, authentication.getUserId(),
+                        authentication.getSessionId(), true, now, expiryDate);
+                renewal = new Renewal(token, refreshAtSeconds(token), authentication.getExpirationSeconds());
+            }
+        } catch (RuntimeException | Error e) {
+            // 실패는 기억하지 않습니다. 기다리던 요청은 재발급 없이 진행하고, 다음 요청이 다시 시도합니다.
+            renewals.remove(authentication.getTokenId(), future);
+            future.complete(null);
+            throw e;
+        }
+        future.complete(renewal);
+        return renewal;
+    }
+
+    private boolean isSessionActive(JwtAuthentication authentication, long now) {
+        return findSessionExpiry(authentication, now).isPresent();
+    }
+
+    // 토큰의 세션(리프레시 토큰 행)이 있고 만료되지 않았으면 세션의 만료 시간을 반환합니다.
+    private Optional<Instant> findSessionExpiry(JwtAuthentication authentication, long now) {
+        return refreshTokenRepository.findExpiryDateByUsernameAndSessionId(
+                        authentication.getUsername(), authentication.getSessionId())
+                .filter(expiry -> !isExpired(expiry.toEpochMilli(), now));
+    }
+
+    // 기존 토큰이 만료된 항목을 정리하고, 그래도 3/4 이상 차 있으면 비웁니다. (cacheAuthentication과 같은 방식)
+    // 전체를 훑는 정리는 최소 (최대 항목 수 / 4)번의 저장마다 한 번만 일어납니다.
+    private void sweepRenewals(long now) {
+        int maxEntries = Math.max(authenticationCacheSize, 1);
+        synchronized (renewalSweepLock) {
+            if (renewals.size() < maxEntries) {
+                return; // 기다리는 동안 다른 스레드가 정리했습니다.
+            }
+            renewals.values().removeIf(future -> {
+                Renewal renewal = future.getNow(null);
+                return renewal != null && isExpired(renewal.replacedExpirationSeconds() * 1000, now);
+            });
+            if (renewals.size() > maxEntries * 3L / 4) {
+                renewals.clear();
+            }
+        }
+    }
+
+    /**
+     * 재발급한 액세스 토큰입니다.
+     * @param token 새 액세스 토큰. 세션이 없어 재발급을 거절했으면 null
+     * @param refreshAtSeconds 새 토큰의 갱신 시각 (epoch 초)
+     * @param replacedExpirationSeconds 대신하는 기존 토큰의 만료 시간 (epoch 초). 이 시간이 지나면 기억하지 않습니다.
+     */
+    public record Renewal(String token, long refreshAtSeconds, long replacedExpirationSeconds) {
+    }
+
+    /**
+     * 토큰 ID(jti)와 세션 ID를 생성합니다. 보안 난수가 필요한 값이 아니므로 SecureRandom 대신 ThreadLocalRandom을 사용합니다.
+     * (세션 ID는 사용자 이름과 함께 조회하므로 다른 사용자가 추측해도 쓸 수 없습니다.)
+     */
+    public static String newTokenId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new UUID(random.nextLong(), random.nextLong()).toString();
+    }
+
+    /**
+     * 지금 발급하는 RefreshToken의 만료 시간을 반환합니다. (RefreshToken 엔티티의 expiryDate 형식)
+     * @return 만료 시간 (UTC 기준 Instant)
+     */
+    public Instant refreshTokenExpiryDate() {
+        return Instant.ofEpochMilli(clock.millis() + refreshTokenValidityInMilliseconds);
+    }
+
+    /**
+     * 저장된 만료 시간이 허용 오차(jwt.clock-skew-seconds)를 넘겨 지났는지 확인합니다.
+     * 리프레시 토큰 행의 expiryDate처럼 다른 노드가 기록한 만료 시간도 이 메서드로 판단합니다.
+     * @param expiryDate 만료 시간
+     * @return 만료되었으면 true
+     */
+    public boolean isExpired(Instant expiryDate) {
+        return isExpired(expiryDate.toEpochMilli(), clock.millis());
+    }
+
+    /**
+     * 검증한 토큰이 리프레시 토큰인지 판단합니다.
+     * typ 클레임이 없는 (클레임이 생기기 전에 발급된) 토큰은 남은 유효기간이 액세스 토큰의 유효기간보다 길면 리프레시 토큰으로 봅니다.
+     * @param claims 검증을 통과한 토큰의 클레임
+     * @return 리프레시 토큰이면 true
+     */
+    public boolean isRefreshToken(TokenClaims claims) {
+        if (claims.getTokenType() != null) {
+            return REFRESH_TOKEN_TYPE.equals(claims.getTokenType());
+        }
+        return claims.getExpirationSeconds() * 1000 > clock.millis() + accessTokenValidityInMilliseconds + clockSkewMillis;
+    }
+
+    /**
+     * @return 발급과 만료 판단에 사용하는 현재 시간 (epoch 밀리초)
+     */
+    public long currentTimeMillis() {
+        return clock.millis();
+    }
+
+    // 만료 시간(epoch 밀리초)에 허용 오차를 더한 시간도 지났으면 만료입니다. jjwt와 같이 만료 시간과 같은 순간까지는 유효합니다.
+    private boolean isExpired(long expirationMillis, long now) {
+        return now > expirationMillis + clockSkewMillis;
     }
 
     /**
      * RefreshToken을 생성하고 데이터베이스에 저장합니다.
      * @param authentication 인증 정보를 포함하는 Authentication 객체
+     * @param device 세션 목록에 표시할 로그인 기기 정보
+     * @param sessionId 세션 ID. 함께 발급하는 액세스 토큰의 sid 클레임과 같은 값입니다.
      * @return 생성된 RefreshToken 문자열
      */
-    public String createAndPersistRefreshTokenForUser(Authentication authentication) {
+    public String createAndPersistRefreshTokenForUser(Authentication authentication, SessionDevice device,
+                                                      String sessionId) {
         String refreshToken = this.createToken(authentication, false); // RefreshToken 생성
 
-        // 만료 날짜 설정
-        long now = (new Date()).getTime();
-        Date validity = new Date(now + refreshTokenValidityInMilliseconds);
-        Instant instant = validity.toInstant();
-        LocalDateTime expiryDate = instant.atZone(ZoneId.systemDefault()).toLocalDateTime();
+        // 발급 시간과 만료 날짜 설정
+        Instant issuedAt = clock.instant();
+        Instant expiryDate = issuedAt.plusMillis(refreshTokenValidityInMilliseconds);
 
         // RefreshToken 엔티티 생성 및 저장
         String username = authentication.getName();
@@ -130,33 +492,97 @@ public class TokenProvider implements InitializingBean {
                 .username(username)
                 .token(refreshToken)
                 .expiryDate(expiryDate)
+                .issuedAt(issuedAt)
+                .sessionId(sessionId)
+                .device(device.device())
+                .userAgent(device.userAgent())
                 .build();
         refreshTokenRepository.save(refreshTokenEntity);
 
         return refreshToken;
     }
 
+    /**
+     * 토큰을 검증하고 인증 객체를 반환합니다. 요청마다 호출되는 JwtFilter의 경로입니다.
+     * 같은 토큰으로 다시 요청하면 서명 검증 없이 캐시된 불변 인증 객체를 (만료 전까지) 그대로 반환합니다.
+     * 리프레시 토큰(typ=refresh)은 요청 인증에 사용할 수 없습니다.
+     * @param token JWT 토큰
+     * @return 유효한 토큰이면 JwtAuthentication, 그렇지 않으면 null
+     */
+    public JwtAuthentication authenticate(String token) {
+        TokenValidateEvent event = new TokenValidateEvent();
+        event.begin();
+        long now = clock.millis();
+        JwtAuthentication cached = authenticationCache.get(token);
+        if (cached != null) {
+            if (!isExpired(cached.getExpirationSeconds() * 1000, now)) {
+                commit(event, true, true);
+                return cached;
+            }
+            authenticationCache.remove(token); // 만료된 항목은 제거하고 아래에서 다시 검증합니다. (만료 로그 포함)
+        }
+
+        TokenClaims claims = verify(token, now, event);
+        if (claims != null && REFRESH_TOKEN_TYPE.equals(claims.getTokenType())) {
+            claims = failed(Reason.UNSUPPORTED, event);
+        }
+        commit(event, claims != null, false);
+        if (claims == null) {
+            return null;
+        }
+        AuthorityInterner.Authorities authorities = authorityInterner.intern(claims.getAuthorities());
+        JwtAuthentication authentication = new JwtAuthentication(
+                claims.getSubject(),
+                claims.getUserId(),
+                claims.getTokenId(),
+                claims.getExpirationSeconds(),
+                claims.getRefreshAtSeconds(),
+                claims.getSessionId(),
+                authorities.list(),
+                authorities.roleMask());
+        cacheAuthentication(token, authentication, now);
+        return authentication;
+    }
+
+    // 캐시가 가득 차면 만료된 항목을 정리하고, 그래도 가득 차 있으면 비웁니다.
+    private void cacheAuthentication(String token, JwtAuthentication authentication, long now) {
+        if (authenticationCacheSize <= 0) {
+            return;
+        }
+        if (authenticationCache.size() >= authenticationCacheSize) {
+            authenticationCache.values().removeIf(cached -> isExpired(cached.getExpirationSeconds() * 1000, now));
+            if (authenticationCache.size() >= authenticationCacheSize) {
+                authenticationCache.clear();
+            }
+        }
+        authenticationCache.put(token, authentication);
+    }
+
     /**
      * 토큰을 사용해 인증 정보를 반환합니다.
      * @param token JWT 토큰
      * @return Authentication 객체
+     * @throws IllegalArgumentException 토큰이 유효하지 않은 경우
      */
     public Authentication getAuthentication(String token) {
-        // 서명 키를 사용하여 JWT를 파싱하고 클레임을 추출합니다.
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        // 권한 정보 추출
-        Collection<? extends GrantedAuthority> authorities = Arrays.stream(claims.get(AUTHORITIES_KEY).toString().split(","))
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
+        JwtAuthentication authentication = authenticate(token);
+        if (authentication == null) {
+            throw new IllegalArgumentException("유효하지 않은 JWT 토큰입니다.");
+        }
+        return authentication;
+    }
 
-        // 인증 객체 생성
-        User principal = new User(claims.getSubject(), "", authorities);
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+    /**
+     * 토큰을 검증하고 클레임을 반환합니다. 예외를 던지지 않으므로 여러 토큰을 한 번에 검사할 때 사용합니다.
+     * @param token 검증할 토큰
+     * @return 유효한 토큰이면 클레임, 그렇지 않으면 빈 Optional
+     */
+    public Optional<TokenClaims> parseClaims(String token) {
+        TokenValidateEvent event = new TokenValidateEvent();
+        event.begin();
+        TokenClaims claims = verify(token, clock.millis(), event);
+        commit(event, claims != null, false);
+        return Optional.ofNullable(claims);
     }
 
     /**
@@ -165,19 +591,97 @@ public class TokenProvider implements InitializingBean {
      * @return 유효한 토큰이면 true, 그렇지 않으면 false
      */
     public boolean validateToken(String token) {
+        TokenValidateEvent event = new TokenValidateEvent();
+        event.begin();
+        boolean valid = verify(token, clock.millis(), event) != null;
+        commit(event, valid, false);
+        return valid;
+    }
+
+    // 검증 이벤트를 마치고, JFR 녹화 중이면 결과와 함께 기록합니다. 실패 이유는 verify가 outcome에 적어 둡니다.
+    private static void commit(TokenValidateEvent event, boolean valid, boolean cached) {
+        event.end();
+        if (event.shouldCommit()) {
+            if (valid) {
+                event.outcome = "VALID";
+            }
+            event.cached = cached;
+            event.commit();
+        }
+    }
+
+    /**
+     * @return 애플리케이션 시작 이후 이유별 토큰 검증 실패 건수
+     */
+    public Map<Reason, Long> validationFailureCounts() {
+        return validationFailures.snapshot();
+    }
+
+    /**
+     * 토큰의 서명과 만료 시간을 검증하고 클레임을 꺼냅니다.
+     * 자체 발급 형식의 토큰은 빠른 경로에서 판정하고, 그 외의 토큰만 jjwt로 검증합니다.
+     * @param token 검증할 토큰
+     * @param now 현재 시간 (epoch 밀리초)
+     * @param event 실패 이유를 적을 검증 이벤트
+     * @return 유효한 토큰이면 클레임, 그렇지 않으면 null
+     */
+    private TokenClaims verify(String token, long now, TokenValidateEvent event) {
+        // 허용 오차만큼 이전 시각으로 만료를 판정하면 exp + 오차까지 유효합니다.
+        HmacJwtVerifier.Result result = verifier.verify(token, now - clockSkewMillis);
+        switch (result.status) {
+            case VALID:
+                return new TokenClaims(result.subject, result.authorities,
+                        result.userId >= 0 ? result.userId : null, result.tokenId, result.expirationSeconds,
+                        Math.max(result.refreshAtSeconds, 0L), result.tokenType, result.sessionId);
+            case INVALID_SIGNATURE:
+                return failed(Reason.INVALID_SIGNATURE, event);
+            case EXPIRED:
+                return failed(Reason.EXPIRED, event);
+            default:
+                break; // FALLBACK: 아래의 jjwt 검증으로 넘어갑니다.
+        }
+
         try {
             // 서명 키를 사용하여 JWT를 파싱하여 유효성을 검증합니다.
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
-        } catch (io.jsonwebtoken.security.SecurityException | MalformedJwtException e) {
-            log.info("잘못된 JWT 서명입니다.");
+            Claims claims = Jwts.parserBuilder()
+                    .setSigningKey(key)
+                    .setClock(() -> new Date(now))
+                    .setAllowedClockSkewSeconds(clockSkewMillis / 1000)
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody();
+            if (claims.getSubject() == null || claims.getExpiration() == null) {
+                return failed(Reason.MALFORMED, event);
+            }
+            Object authorities = claims.get(AUTHORITIES_KEY);
+            Object userId = claims.get(USER_ID_KEY);
+            Object refreshAt = claims.get(REFRESH_AT_KEY);
+            Object tokenType = claims.get(TOKEN_TYPE_KEY);
+            Object sessionId = claims.get(SESSION_ID_KEY);
+            return new TokenClaims(
+                    claims.getSubject(),
+                    authorities != null ? authorities.toString() : "",
+                    userId instanceof Number number ? number.longValue() : null,
+                    claims.getId(),
+                    claims.getExpiration().getTime() / 1000,
+                    refreshAt instanceof Number number ? number.longValue() : 0L,
+                    tokenType instanceof String type ? type : null,
+                    sessionId instanceof String id ? id : null);
+        } catch (io.jsonwebtoken.security.SecurityException e) {
+            return failed(Reason.INVALID_SIGNATURE, event);
         } catch (ExpiredJwtException e) {
-            log.info("만료된 JWT 토큰입니다.");
+            return failed(Reason.EXPIRED, event);
         } catch (UnsupportedJwtException e) {
-            log.info("지원되지 않는 JWT 토큰입니다.");
-        } catch (IllegalArgumentException e) {
-            log.info("JWT 토큰이 잘못되었습니다.");
+            return failed(Reason.UNSUPPORTED, event);
+        } catch (IllegalArgumentException | JwtException e) { // MalformedJwtException 포함
+            return failed(Reason.MALFORMED, event);
         }
-        return false; // 토큰이 유효하지 않은 경우
     }
-}
\ No newline at end of file
+
+    // 검증 실패를 이유별로 세고 검증 이벤트에 이유를 적습니다.
+    private TokenClaims failed(Reason reason, TokenValidateEvent event) {
+        validationFailures.record(reason);
+        event.outcome = reason.name();
+        return null;
+    }
+}
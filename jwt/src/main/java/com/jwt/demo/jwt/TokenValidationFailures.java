@@ -0,0 +1,87 @@
+package com.jwt.demo.jwt;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * TokenValidationFailures는 토큰 검증 실패를 이유별로 세고, 로그는 이유마다 정해진 간격에 한 번만 남깁니다.
+ * 잘못된 토큰을 대량으로 보내는 요청이 실패마다 로그를 쓰게 만들지 못하도록 하기 위한 것입니다.
+ * 간격 안에 생긴 나머지 실패는 건수로 합쳐 다음 로그에 함께 남깁니다. (간격이 0이면 실패마다 로그를 남깁니다.)
+ */
+@Slf4j
+public class TokenValidationFailures {
+
+    /**
+     * 검증 실패 이유입니다.
+     */
+    public enum Reason {
+        INVALID_SIGNATURE("잘못된 JWT 서명입니다."),
+        EXPIRED("만료된 JWT 토큰입니다."),
+        UNSUPPORTED("지원되지 않는 JWT 토큰입니다."),
+        MALFORMED("JWT 토큰이 잘못되었습니다.");
+
+        private final String message;
+
+        Reason(String message) {
+            this.message = message;
+        }
+    }
+
+    private static final Reason[] REASONS = Reason.values();
+
+    private final long intervalNanos;
+    private final LongAdder[] totals = new LongAdder[REASONS.length];
+    private final LongAdder[] sinceLastLog = new LongAdder[REASONS.length];
+    private final AtomicLong[] nextLogAt = new AtomicLong[REASONS.length];
+
+    /**
+     * @param intervalSeconds 이유마다 로그를 남기는 최소 간격 (초). 0이면 실패마다 로그를 남깁니다.
+     */
+    public TokenValidationFailures(long intervalSeconds) {
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(intervalSeconds);
+        long now = System.nanoTime();
+        for (int i = 0; i < REASONS.length; i++) {
+            totals[i] = new LongAdder();
+            sinceLastLog[i] = new LongAdder();
+            nextLogAt[i] = new AtomicLong(now); // 첫 번째 실패는 바로 로그를 남깁니다.
+        }
+    }
+
+    /**
+     * 검증 실패를 기록합니다. 간격이 지났으면 이 스레드 하나만 로그를 남깁니다.
+     */
+    public void record(Reason reason) {
+        int i = reason.ordinal();
+        totals[i].increment();
+        sinceLastLog[i].increment();
+        if (!log.isInfoEnabled()) {
+            return;
+        }
+        long now = System.nanoTime();
+        long next = nextLogAt[i].get();
+        if (now - next >= 0 && nextLogAt[i].compareAndSet(next, now + intervalNanos)) {
+            long count = sinceLastLog[i].sumThenReset();
+            if (intervalNanos == 0) {
+                log.info(reason.message);
+            } else {
+                log.info("{} (직전 로그 이후 {}건, 누적 {}건)", reason.message, count, totals[i].sum());
+            }
+        }
+    }
+
+    /**
+     * @return 애플리케이션 시작 이후 이유별 누적 실패 건수
+     */
+    public Map<Reason, Long> snapshot() {
+        Map<Reason, Long> counts = new EnumMap<>(Reason.class);
+        for (Reason reason : REASONS) {
+            counts.put(reason, totals[reason.ordinal()].sum());
+        }
+        return counts;
+    }
+}
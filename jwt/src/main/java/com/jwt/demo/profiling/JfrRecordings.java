@@ -0,0 +1,142 @@
+package com.jwt.demo.profiling;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * JfrRecordings는 운영 중인 인스턴스에서 정해진 시간 동안만 JFR(JDK Flight Recorder) 녹화를 실행하고 결과 파일을 돌려줍니다.
+ *
+ * 녹화는 JDK의 default 설정(GC, 스레드, I/O 등 JVM 이벤트)에 인증 이벤트(LoginEvent, PasswordCheckEvent, TokenCreateEvent,
+ * TokenValidateEvent, JwtFilterEvent, RepositoryCallEvent)를 더해 실행합니다. 녹화 중이 아닐 때는 이벤트가 꺼져 있어
+ * 이벤트 객체를 만드는 것 외에는 비용이 없습니다. 한 번에 하나의 녹화만 실행하며, 녹화 시간은 jwt.profiling.max-seconds를 넘지 않습니다.
+ */
+@Slf4j
+@Component
+public class JfrRecordings {
+
+    private static final String NAME = "jwt-auth";
+
+    private static final List<Class<? extends Event>> EVENTS = List.of(
+            LoginEvent.class, PasswordCheckEvent.class, TokenCreateEvent.class,
+            TokenValidateEvent.class, JwtFilterEvent.class, RepositoryCallEvent.class);
+
+    // 녹화 한 번의 최대 시간 (초)
+    private final long maxSeconds;
+
+    // 녹화 파일을 저장하는 디렉터리. 새 녹화를 시작하면 이전 파일을 덮어씁니다.
+    private final Path directory;
+
+    // 마지막으로 시작한 녹화 (this로 동기화)
+    private Recording recording;
+
+    public JfrRecordings(
+            @Value("${jwt.profiling.max-seconds:300}") long maxSeconds,
+            @Value("${jwt.profiling.directory:${java.io.tmpdir}/jwt-recordings}") String directory) {
+        this.maxSeconds = maxSeconds;
+        this.directory = Path.of(directory);
+    }
+
+    /**
+     * 녹화를 시작합니다. 정해진 시간이 지나면 JFR이 녹화를 멈추고 파일에 씁니다.
+     *
+     * @param seconds 녹화 시간 (1 ~ jwt.profiling.max-seconds)
+     * @param thresholdMillis 이보다 짧게 끝난 인증 이벤트는 기록하지 않습니다. (0이면 모두 기록)
+     * @return 시작한 녹화의 상태. 이미 녹화 중이면 빈 Optional
+     */
+    public synchronized Optional<Status> start(long seconds, long thresholdMillis) throws IOException, ParseException {
+        if (recording != null && isActive(recording.getState())) {
+            return Optional.empty();
+        }
+        if (recording != null) {
+            recording.close();
+        }
+        Files.createDirectories(directory);
+
+        Recording started = new Recording(Configuration.getConfiguration("default"));
+        for (Class<? extends Event> type : EVENTS) {
+            started.enable(type).withThreshold(Duration.ofMillis(Math.max(thresholdMillis, 0)));
+        }
+        started.setName(NAME);
+        started.setToDisk(true);
+        started.setDuration(Duration.ofSeconds(Math.min(Math.max(seconds, 1), maxSeconds)));
+        started.setDestination(directory.resolve(NAME + ".jfr"));
+        started.start();
+        recording = started;
+        log.info("JFR 녹화 시작: {}초, 파일 {}", started.getDuration().toSeconds(), started.getDestination());
+        return Optional.of(status(started));
+    }
+
+    /**
+     * 녹화 파일을 돌려줍니다. 녹화 중이면 지금까지 기록한 내용을 별도 파일로 써서 돌려줍니다.
+     *
+     * @return 녹화 파일. 시작한 녹화가 없으면 빈 Optional
+     */
+    public synchronized Optional<Path> dump() throws IOException {
+        if (recording == null) {
+            return Optional.empty();
+        }
+        if (isActive(recording.getState())) {
+            Path snapshot = directory.resolve(NAME + "-snapshot.jfr");
+            recording.dump(snapshot);
+            return Optional.of(snapshot);
+        }
+        Path destination = recording.getDestination();
+        return destination != null && Files.exists(destination) ? Optional.of(destination) : Optional.empty();
+    }
+
+    /**
+     * @return 마지막으로 시작한 녹화의 상태. 없으면 빈 Optional
+     */
+    public synchronized Optional<Status> status() {
+        return Optional.ofNullable(recording).map(JfrRecordings::status);
+    }
+
+    /**
+     * 녹화 중이면 멈추고(지금까지 기록한 내용은 녹화 파일에 씁니다) 녹화를 닫습니다. 애플리케이션이 종료될 때도 호출됩니다.
+     */
+    @PreDestroy
+    public synchronized void close() {
+        if (recording == null) {
+            return;
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+        }
+        recording.close();
+        recording = null;
+    }
+
+    private static boolean isActive(RecordingState state) {
+        return state == RecordingState.NEW || state == RecordingState.DELAYED || state == RecordingState.RUNNING;
+    }
+
+    private static Status status(Recording recording) {
+        Instant startedAt = recording.getStartTime();
+        return new Status(recording.getName(), recording.getState().name(), startedAt,
+                startedAt != null ? startedAt.plus(recording.getDuration()) : null);
+    }
+
+    /**
+     * 녹화 상태입니다.
+     *
+     * @param state RUNNING이면 녹화 중, STOPPED나 CLOSED이면 끝났고 파일을 받을 수 있습니다.
+     */
+    public record Status(String name, String state, Instant startedAt, Instant endsAt) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.jwt.demo.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JwtFilter가 요청의 토큰을 인증하는 데 걸린 시간입니다. 뒤의 필터와 컨트롤러 처리 시간은 포함하지 않습니다.
+ */
+@Name("com.jwt.demo.JwtFilter")
+@Label("JWT Filter")
+@Category({"JWT Demo", "Token"})
+@StackTrace(false)
+public class JwtFilterEvent extends jdk.jfr.Event {
+
+    @Label("Outcome")
+    @Description("authenticated, rejected 또는 no_token")
+    public String outcome;
+
+    @Label("Renewed")
+    @Description("갱신 시각이 지나 새 액세스 토큰을 함께 보냈는지 여부")
+    public boolean renewed;
+}
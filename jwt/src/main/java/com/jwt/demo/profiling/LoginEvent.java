@@ -0,0 +1,23 @@
+package com.jwt.demo.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 로그인 한 번(AuthenticationService.makeTokens)의 전체 시간입니다.
+ * 같은 스레드의 PasswordCheck, RepositoryCall, TokenCreate 이벤트가 이 구간 안에 기록되므로 어느 단계가 느렸는지 나눠 볼 수 있습니다.
+ */
+@Name("com.jwt.demo.Login")
+@Label("Login")
+@Category({"JWT Demo", "Authentication"})
+@Description("아이디/비밀번호 확인과 토큰 발급")
+@StackTrace(false)
+public class LoginEvent extends jdk.jfr.Event {
+
+    @Label("Outcome")
+    @Description("success, bad_credentials 또는 예외 클래스 이름")
+    public String outcome;
+}
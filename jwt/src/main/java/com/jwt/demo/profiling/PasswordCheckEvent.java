@@ -0,0 +1,21 @@
+package com.jwt.demo.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 비밀번호 해시 확인(BCrypt) 한 번의 시간입니다.
+ */
+@Name("com.jwt.demo.PasswordCheck")
+@Label("Password Check")
+@Category({"JWT Demo", "Authentication"})
+@StackTrace(false)
+public class PasswordCheckEvent extends jdk.jfr.Event {
+
+    @Label("Matched")
+    @Description("비밀번호가 맞았는지 여부")
+    public boolean matched;
+}
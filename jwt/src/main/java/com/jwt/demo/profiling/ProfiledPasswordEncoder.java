@@ -0,0 +1,39 @@
+package com.jwt.demo.profiling;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * ProfiledPasswordEncoder는 비밀번호 확인마다 PasswordCheckEvent를 기록하는 PasswordEncoder입니다.
+ * 로그인 지연이 BCrypt 때문인지 사용자 조회 때문인지 나눠 볼 수 있도록 matches만 기록하고, 나머지는 그대로 위임합니다.
+ */
+public class ProfiledPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    public ProfiledPasswordEncoder(PasswordEncoder delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        PasswordCheckEvent event = new PasswordCheckEvent();
+        event.begin();
+        boolean matched = delegate.matches(rawPassword, encodedPassword);
+        event.end();
+        if (event.shouldCommit()) {
+            event.matched = matched;
+            event.commit();
+        }
+        return matched;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
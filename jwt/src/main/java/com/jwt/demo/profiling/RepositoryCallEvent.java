@@ -0,0 +1,27 @@
+package com.jwt.demo.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * UserRepository, RefreshTokenRepository 메서드 호출 한 번의 시간입니다. 샤드 라우팅과 트랜잭션 처리를 포함합니다.
+ */
+@Name("com.jwt.demo.RepositoryCall")
+@Label("Repository Call")
+@Category({"JWT Demo", "Database"})
+@StackTrace(false)
+public class RepositoryCallEvent extends jdk.jfr.Event {
+
+    @Label("Repository")
+    public String repository;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Outcome")
+    @Description("ok 또는 예외 클래스 이름")
+    public String outcome;
+}
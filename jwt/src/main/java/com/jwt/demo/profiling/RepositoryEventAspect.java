@@ -0,0 +1,43 @@
+package com.jwt.demo.profiling;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * RepositoryEventAspect는 UserRepository와 RefreshTokenRepository 호출마다 RepositoryCallEvent를 기록합니다.
+ * 가장 바깥에서 실행되므로 샤드 라우팅(ShardRoutingAspect)과 그 안의 별도 트랜잭션 시간까지 포함합니다.
+ * JFR 녹화 중이 아니면 이벤트가 꺼져 있으므로 호출을 그대로 넘깁니다.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RepositoryEventAspect {
+
+    @Around("target(com.jwt.demo.repository.UserRepository) || target(com.jwt.demo.repository.RefreshTokenRepository)")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        RepositoryCallEvent event = new RepositoryCallEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        event.begin();
+        String outcome = "ok";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.repository = joinPoint.getSignature().getDeclaringType().getSimpleName();
+                event.method = joinPoint.getSignature().getName();
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.jwt.demo.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JWT 서명(TokenProvider.createToken) 한 번의 시간입니다.
+ */
+@Name("com.jwt.demo.TokenCreate")
+@Label("Token Create")
+@Category({"JWT Demo", "Token"})
+@StackTrace(false)
+public class TokenCreateEvent extends jdk.jfr.Event {
+
+    @Label("Access Token")
+    public boolean accessToken;
+}
@@ -0,0 +1,25 @@
+package com.jwt.demo.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 토큰 검증(TokenProvider.validateToken, authenticate) 한 번의 시간입니다.
+ */
+@Name("com.jwt.demo.TokenValidate")
+@Label("Token Validate")
+@Category({"JWT Demo", "Token"})
+@StackTrace(false)
+public class TokenValidateEvent extends jdk.jfr.Event {
+
+    @Label("Outcome")
+    @Description("VALID 또는 검증 실패 이유 (TokenValidationFailures.Reason)")
+    public String outcome;
+
+    @Label("Cached")
+    @Description("서명 검증 없이 캐시된 인증 객체를 사용했는지 여부")
+    public boolean cached;
+}
@@ -0,0 +1,56 @@
+package com.jwt.demo.reactive;
+
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import com.jwt.demo.jwt.JwtAuthentication;
+import com.jwt.demo.jwt.JwtFilter;
+import com.jwt.demo.jwt.TokenProvider;
+import com.jwt.demo.util.StartupMetrics;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * JwtWebFilter는 리액티브 배포에서 JwtFilter와 같은 일을 합니다.
+ * Authorization 헤더의 토큰을 TokenProvider로 검증하고, 유효하면 인증 정보를 Reactor Context에 넣습니다.
+ * 갱신 시각이 지난 토큰이면 JwtFilter처럼 새 액세스 토큰을 응답 헤더에 넣습니다.
+ *
+ * 토큰 검증은 HMAC 계산과 인증 객체 캐시 조회뿐이라 막히지 않으므로 이벤트 루프 스레드에서 바로 실행합니다.
+ * 재발급은 세션(리프레시 토큰 행)을 조회하므로 갱신 시각이 지난 토큰일 때만 jdbc 스케줄러에서 실행합니다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class JwtWebFilter implements WebFilter {
+
+    private final TokenProvider tokenProvider;
+    private final ReactiveSchedulers schedulers;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String jwt = JwtFilter.bearerToken(exchange.getRequest().getHeaders().getFirst(JwtFilter.AUTHORIZATION_HEADER));
+        JwtAuthentication authentication = StringUtils.hasText(jwt) ? tokenProvider.authenticate(jwt) : null;
+        if (authentication == null) {
+            log.debug("유효한 JWT 토큰이 없습니다, uri: {}", exchange.getRequest().getPath());
+            return chain.filter(exchange);
+        }
+
+        log.debug("Reactor Context에 '{}' 인증 정보를 저장했습니다, uri: {}", authentication.getName(), exchange.getRequest().getPath());
+        StartupMetrics.recordAuthenticatedRequest();
+        Mono<Void> next = Mono.defer(() -> chain.filter(exchange))
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+        if (!tokenProvider.isRenewalDue(authentication)) {
+            return next;
+        }
+        return schedulers.blocking(() -> tokenProvider.renew(authentication))
+                .doOnNext(renewal -> {
+                    exchange.getResponse().getHeaders().set(JwtFilter.ACCESS_TOKEN_HEADER, renewal.token());
+                    exchange.getResponse().getHeaders().set(JwtFilter.REFRESH_AT_HEADER, Long.toString(renewal.refreshAtSeconds()));
+                })
+                .then(next);
+    }
+}
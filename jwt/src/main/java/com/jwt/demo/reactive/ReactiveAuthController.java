@@ -0,0 +1,192 @@
+package com.jwt.demo.reactive;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.jwt.demo.controller.RefreshTokenRequest;
+import com.jwt.demo.controller.TokenResponse;
+import com.jwt.demo.dto.IntrospectionRequestDto;
+import com.jwt.demo.dto.IntrospectionResultDto;
+import com.jwt.demo.dto.LoginDto;
+import com.jwt.demo.dto.LogoutDto;
+import com.jwt.demo.dto.SessionPageDto;
+import com.jwt.demo.dto.TokenDto;
+import com.jwt.demo.dto.UserDto;
+import com.jwt.demo.entities.User;
+import com.jwt.demo.handler.ErrorBody;
+import com.jwt.demo.jwt.JwtFilter;
+import com.jwt.demo.jwt.TokenProvider;
+import com.jwt.demo.service.AuthenticationService;
+import com.jwt.demo.service.IntrospectionService;
+import com.jwt.demo.service.SessionDevice;
+import com.jwt.demo.service.SessionService;
+import com.jwt.demo.service.UserService;
+
+import jakarta.validation.Valid;
+import reactor.core.publisher.Mono;
+
+/**
+ * ReactiveAuthController는 리액티브 배포에서 게이트웨이가 사용하는 API를 서블릿 배포와 같은 경로와 응답으로 제공합니다.
+ * (로그인, 로그아웃, 토큰 갱신, 회원가입, 내 정보 조회, 내 세션 조회와 로그아웃, 토큰 일괄 검사)
+ *
+ * 토큰 발급과 검사 로직은 서블릿 배포의 서비스(AuthenticationService, IntrospectionService, UserService, SessionService)를 그대로 사용하고,
+ * JPA를 사용하는 호출은 ReactiveSchedulers의 jdbc 스케줄러에서 실행합니다.
+ * 관리자 API(토큰 일괄 발급, 샤드 재배치)는 서블릿 배포에서만 제공합니다.
+ */
+@RestController
+@RequestMapping("/api")
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveAuthController {
+
+    private final ReactiveAuthenticationManager authenticationManager;
+    private final AuthenticationService authenticationService;
+    private final UserService userService;
+    private final IntrospectionService introspectionService;
+    private final SessionService sessionService;
+    private final ReactiveSchedulers schedulers;
+    private final TokenProvider tokenProvider;
+    private final boolean authorizationHeader;
+
+    public ReactiveAuthController(ReactiveAuthenticationManager authenticationManager,
+            AuthenticationService authenticationService,
+            UserService userService,
+            IntrospectionService introspectionService,
+            SessionService sessionService,
+            ReactiveSchedulers schedulers,
+            TokenProvider tokenProvider,
+            @Value("${jwt.login.authorization-header:true}") boolean authorizationHeader) {
+        this.authenticationManager = authenticationManager;
+        this.authenticationService = authenticationService;
+        this.userService = userService;
+        this.introspectionService = introspectionService;
+        this.sessionService = sessionService;
+        this.schedulers = schedulers;
+        this.tokenProvider = tokenProvider;
+        this.authorizationHeader = authorizationHeader;
+    }
+
+    /**
+     * 로그인합니다. 비밀번호 확인은 bcrypt 스케줄러에서, 리프레시 토큰 저장은 jdbc 스케줄러에서 실행됩니다.
+     * @return 엑세스 및 리프레시 토큰을 포함한 응답. 아이디나 비밀번호가 틀리면 401
+     */
+    @PostMapping("/login")
+    @RegisterReflectionForBinding(TokenResponse.class)
+    public Mono<ResponseEntity<?>> login(@Valid @RequestBody LoginDto loginDto,
+            @RequestHeader(value = HttpHeaders.USER_AGENT, required = false) String userAgent) {
+        SessionDevice device = SessionDevice.of(loginDto.getDevice(), userAgent);
+        return authenticationManager
+                .authenticate(new UsernamePasswordAuthenticationToken(loginDto.getUsername(), loginDto.getPassword()))
+                .flatMap(authentication -> schedulers.blocking(() -> authenticationService.issueTokens(authentication, device)))
+                .<ResponseEntity<?>>map(tokens -> {
+                    HttpHeaders httpHeaders = new HttpHeaders();
+                    if (authorizationHeader) {
+                        httpHeaders.add(JwtFilter.AUTHORIZATION_HEADER, "Bearer " + tokens.getAccessToken());
+                    }
+                    addRefreshAtHeader(httpHeaders, tokens.getAccessToken());
+                    return new ResponseEntity<>(tokens, httpHeaders, HttpStatus.OK);
+                })
+                // 로그인 실패는 흔한 경우이므로 예외 처리기를 거치지 않고 바로 401로 바꿉니다.
+                .onErrorResume(AuthenticationException.class, e -> Mono.just(ErrorBody.UNAUTHORIZED.toResponseEntity()));
+    }
+
+    @PostMapping("/logout")
+    public Mono<ResponseEntity<?>> logout(@RequestBody LogoutDto logoutDto) {
+        return schedulers.blocking(() -> authenticationService.logout(logoutDto.getRefreshToken()))
+                .<ResponseEntity<?>>map(deleted -> deleted
+                        ? ResponseEntity.ok("Successfully logged out")
+                        : ErrorBody.INVALID_REFRESH_TOKEN.toResponseEntity());
+    }
+
+    /**
+     * 리프레시 토큰으로 새 엑세스 토큰을 발급합니다. (잘못되었거나 만료된 토큰이면 400)
+     */
+    @PostMapping("/refresh-token")
+    @RegisterReflectionForBinding(TokenDto.class)
+    public Mono<ResponseEntity<?>> refreshToken(@RequestBody RefreshTokenRequest refreshTokenRequest) {
+        return schedulers.blocking(() -> authenticationService.makeNewAccessToken(refreshTokenRequest))
+                .map(result -> switch (result.getStatus()) {
+                    case ISSUED -> {
+                        HttpHeaders httpHeaders = new HttpHeaders();
+                        addRefreshAtHeader(httpHeaders, result.getToken().getToken());
+                        yield ResponseEntity.ok().headers(httpHeaders).body(result.getToken());
+                    }
+                    case EXPIRED -> ErrorBody.REFRESH_TOKEN_EXPIRED.toResponseEntity();
+                    case INVALID -> ErrorBody.INVALID_REFRESH_TOKEN.toResponseEntity();
+                });
+    }
+
+    /**
+     * 회원가입합니다. 비밀번호 해싱과 저장을 한 트랜잭션에서 하므로 jdbc 스케줄러에서 실행합니다.
+     */
+    @PostMapping("/signup")
+    public Mono<ResponseEntity<User>> signup(@Valid @RequestBody UserDto userDto) {
+        return schedulers.blocking(() -> userService.signup(userDto)).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/user")
+    public Mono<ResponseEntity<User>> getMyUserInfo() {
+        return ReactiveSecurityUtil.getCurrentUsername()
+                .flatMap(username -> schedulers.blocking(() -> userService.getUserWithAuthorities(username).orElse(null)))
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.ok().build());
+    }
+
+    @GetMapping("/sessions")
+    public Mono<ResponseEntity<SessionPageDto>> sessions(@RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ReactiveSecurityUtil.getCurrentUsername()
+                .flatMap(username -> schedulers.blocking(() -> sessionService.sessions(username, page, size)))
+                .map(ResponseEntity::ok);
+    }
+
+    @DeleteMapping("/sessions")
+    public Mono<ResponseEntity<Map<String, Integer>>> logoutEverywhere() {
+        return ReactiveSecurityUtil.getCurrentUsername()
+                .flatMap(username -> schedulers.blocking(() -> sessionService.logoutEverywhere(username)))
+                .map(revoked -> ResponseEntity.ok(Map.of("revoked", revoked)));
+    }
+
+    @DeleteMapping("/sessions/{sessionId}")
+    public Mono<ResponseEntity<?>> logoutSession(@PathVariable String sessionId) {
+        return ReactiveSecurityUtil.getCurrentUsername()
+                .flatMap(username -> schedulers.blocking(() -> sessionService.logout(username, sessionId)))
+                .<ResponseEntity<?>>map(deleted -> deleted
+                        ? ResponseEntity.noContent().build()
+                        : ErrorBody.NOT_FOUND.toResponseEntity());
+    }
+
+    // 여러 토큰을 한 번에 검사하고 요청과 같은 순서로 결과를 반환
+    @PostMapping("/introspect")
+    public Mono<ResponseEntity<Map<String, List<IntrospectionResultDto>>>> introspect(
+            @Valid @RequestBody IntrospectionRequestDto requestDto) {
+        return schedulers.blocking(() -> introspectionService.introspect(requestDto.getTokens()))
+                .map(results -> ResponseEntity.ok(Map.of("results", results)));
+    }
+
+    private void addRefreshAtHeader(HttpHeaders httpHeaders, String accessToken) {
+        long refreshAt = tokenProvider.refreshAtSeconds(accessToken);
+        if (refreshAt > 0) {
+            httpHeaders.add(JwtFilter.REFRESH_AT_HEADER, Long.toString(refreshAt));
+        }
+    }
+}
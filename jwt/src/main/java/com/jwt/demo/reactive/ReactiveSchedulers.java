@@ -0,0 +1,64 @@
+package com.jwt.demo.reactive;
+
+import java.util.concurrent.Callable;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.stereotype.Component;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * ReactiveSchedulers는 리액티브 배포에서 이벤트 루프를 막는 작업을 옮겨 실행할 두 개의 제한된 스케줄러를 관리합니다.
+ *
+ * - bcrypt: 로그인 비밀번호 확인. CPU를 오래 쓰므로 스레드 수를 코어 수로 제한합니다.
+ * - jdbc: JPA 리포지토리 호출. 스레드 수를 커넥션 풀 크기에 맞춰, 풀을 기다리며 스레드가 쌓이지 않도록 합니다.
+ *
+ * 두 스케줄러 모두 대기열 크기가 정해져 있어, 가득 차면 작업을 거절(RejectedExecutionException -> 503)합니다.
+ * 이벤트 루프 스레드는 토큰 검증(HMAC, 캐시)처럼 막히지 않는 작업만 합니다.
+ */
+@Component
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveSchedulers implements DisposableBean {
+
+    private final Scheduler bcrypt;
+    private final Scheduler jdbc;
+
+    public ReactiveSchedulers(
+            @Value("${jwt.reactive.bcrypt-threads:0}") int bcryptThreads,
+            @Value("${jwt.reactive.bcrypt-queue-size:1000}") int bcryptQueueSize,
+            @Value("${jwt.reactive.jdbc-threads:10}") int jdbcThreads,
+            @Value("${jwt.reactive.jdbc-queue-size:10000}") int jdbcQueueSize) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        this.bcrypt = Schedulers.newBoundedElastic(bcryptThreads > 0 ? bcryptThreads : cores, bcryptQueueSize, "bcrypt");
+        this.jdbc = Schedulers.newBoundedElastic(jdbcThreads, jdbcQueueSize, "jdbc");
+    }
+
+    public Scheduler bcrypt() {
+        return bcrypt;
+    }
+
+    public Scheduler jdbc() {
+        return jdbc;
+    }
+
+    /**
+     * 막히는 호출(JPA 리포지토리, 트랜잭션 서비스 메서드)을 jdbc 스케줄러에서 실행합니다.
+     * 트랜잭션과 replica/샤드 라우팅은 스레드 로컬을 사용하므로 호출 하나가 한 스레드에서 끝나도록 통째로 넘겨야 합니다.
+     *
+     * @return 호출 결과. 결과가 null이면 빈 Mono
+     */
+    public <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(jdbc);
+    }
+
+    @Override
+    public void destroy() {
+        bcrypt.dispose();
+        jdbc.dispose();
+    }
+}
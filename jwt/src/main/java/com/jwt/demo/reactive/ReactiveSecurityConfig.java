@@ -0,0 +1,92 @@
+package com.jwt.demo.reactive;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+import com.jwt.demo.handler.ErrorBody;
+import com.jwt.demo.jwt.TokenProvider;
+import com.jwt.demo.service.CustomUserDetailsService;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * ReactiveSecurityConfig는 리액티브(WebFlux) 배포의 보안 설정입니다. (spring.main.web-application-type=reactive)
+ * 접근 규칙, 오류 응답, 토큰 검증은 서블릿 배포의 SecurityConfig와 같고 TokenProvider를 함께 사용합니다.
+ *
+ * - JwtWebFilter가 토큰을 검증합니다. 세션과 SecurityContext 저장소는 사용하지 않습니다.
+ * - 로그인은 ReactiveAuthenticationManager가 처리합니다. 사용자 조회는 jdbc 스케줄러에서,
+ *   BCrypt 비밀번호 확인은 bcrypt 스케줄러에서 실행되어 이벤트 루프를 막지 않습니다.
+ */
+@Configuration
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveSecurityConfig {
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, TokenProvider tokenProvider,
+            ReactiveSchedulers schedulers) {
+        http.csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .logout(ServerHttpSecurity.LogoutSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance());
+
+        // 인증, 인가 실패는 서블릿 배포와 같은 JSON 본문으로 응답합니다.
+        http.exceptionHandling(e -> e
+                .authenticationEntryPoint((exchange, ex) -> {
+                    exchange.getResponse().getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, "Bearer"); // RFC 6750
+                    return ErrorBody.UNAUTHORIZED.writeTo(exchange.getResponse());
+                })
+                .accessDeniedHandler((exchange, ex) -> ErrorBody.FORBIDDEN.writeTo(exchange.getResponse())));
+
+        http.authorizeExchange(c -> c
+                .pathMatchers("/api/login", "/api/refresh-token", "/api/signup", "/favicon.ico").permitAll()
+                .pathMatchers("/api/admin/**").hasRole("ADMIN")
+                // 토큰 검사(RFC 7662)는 다른 사용자의 토큰 정보를 알려 주므로 리소스 서버(SERVICE)와 관리자만 호출할 수 있습니다.
+                .pathMatchers("/api/introspect").hasAnyRole("SERVICE", "ADMIN")
+                // 서블릿 배포의 UserController와 같이 권한이 없는 토큰으로는 본인 정보를 조회할 수 없습니다.
+                .pathMatchers(HttpMethod.GET, "/api/user").hasAnyRole("USER", "ADMIN")
+                .anyExchange().authenticated());
+
+        http.addFilterAt(new JwtWebFilter(tokenProvider, schedulers), SecurityWebFiltersOrder.AUTHENTICATION);
+        return http.build();
+    }
+
+    /**
+     * CustomUserDetailsService(JPA)를 jdbc 스케줄러에서 호출합니다. 없는 사용자는 빈 결과로 돌려줍니다.
+     */
+    @Bean
+    public ReactiveUserDetailsService reactiveUserDetailsService(CustomUserDetailsService userDetailsService,
+            ReactiveSchedulers schedulers) {
+        return username -> schedulers.blocking(() -> userDetailsService.loadUserByUsername(username))
+                .onErrorResume(UsernameNotFoundException.class, e -> Mono.empty());
+    }
+
+    /**
+     * 사용자 조회 뒤의 BCrypt 비밀번호 확인을 크기가 제한된 bcrypt 스케줄러에서 실행합니다.
+     * 로그인이 몰려도 BCrypt를 동시에 계산하는 스레드는 코어 수를 넘지 않습니다.
+     */
+    @Bean
+    public ReactiveAuthenticationManager reactiveAuthenticationManager(ReactiveUserDetailsService userDetailsService,
+            PasswordEncoder passwordEncoder, ReactiveSchedulers schedulers) {
+        UserDetailsRepositoryReactiveAuthenticationManager manager =
+                new UserDetailsRepositoryReactiveAuthenticationManager(userDetailsService);
+        manager.setPasswordEncoder(passwordEncoder);
+        manager.setScheduler(schedulers.bcrypt());
+        return manager;
+    }
+}
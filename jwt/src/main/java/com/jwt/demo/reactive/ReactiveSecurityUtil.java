@@ -0,0 +1,35 @@
+package com.jwt.demo.reactive;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+
+import com.jwt.demo.jwt.JwtAuthentication;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * ReactiveSecurityUtil은 리액티브 배포에서 SecurityUtil 대신 사용합니다.
+ * 인증 정보는 스레드 로컬(SecurityContextHolder)이 아니라 Reactor Context에 있으므로 Mono로 꺼냅니다.
+ */
+public final class ReactiveSecurityUtil {
+
+    private ReactiveSecurityUtil() {
+    }
+
+    /**
+     * @return 현재 요청의 인증 정보. 인증되지 않은 요청이면 빈 Mono
+     */
+    public static Mono<Authentication> getCurrentAuthentication() {
+        return ReactiveSecurityContextHolder.getContext().mapNotNull(SecurityContext::getAuthentication);
+    }
+
+    /**
+     * @return 현재 사용자 이름. 인증되지 않은 요청이면 빈 Mono
+     */
+    public static Mono<String> getCurrentUsername() {
+        return getCurrentAuthentication().map(authentication -> authentication instanceof JwtAuthentication jwt
+                ? jwt.getUsername()
+                : authentication.getName());
+    }
+}
@@ -0,0 +1,51 @@
+package com.jwt.demo.reactive;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.embedded.netty.NettyRouteProvider;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorResourceFactory;
+
+import reactor.netty.resources.LoopResources;
+
+/**
+ * ReactiveServerConfig는 리액티브 배포를 Netty 이벤트 루프에서 실행합니다.
+ *
+ * spring-boot-starter-web(Tomcat)도 클래스패스에 있으므로 Spring Boot는 리액티브 애플리케이션도 Tomcat으로 띄웁니다.
+ * 적은 이벤트 루프 스레드로 많은 동시 연결을 처리하려는 것이 리액티브 배포의 목적이므로 Netty 서버 팩토리를 직접 등록합니다.
+ *
+ * jwt.reactive.event-loop-threads: 이벤트 루프 스레드 수. 0이면 Reactor Netty 기본값(코어 수, 최소 4)을 사용합니다.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveServerConfig {
+
+    /**
+     * 이벤트 루프 스레드 수를 지정하면 전역 자원 대신 전용 LoopResources를 사용합니다. 애플리케이션이 끝날 때 함께 정리됩니다.
+     */
+    @Bean
+    public ReactorResourceFactory reactorResourceFactory(@Value("${jwt.reactive.event-loop-threads:0}") int eventLoopThreads) {
+        ReactorResourceFactory resourceFactory = new ReactorResourceFactory();
+        if (eventLoopThreads > 0) {
+            resourceFactory.setUseGlobalResources(false);
+            resourceFactory.setLoopResourcesSupplier(() -> LoopResources.create("jwt-http", eventLoopThreads, true));
+        }
+        return resourceFactory;
+    }
+
+    // Spring Boot의 EmbeddedNetty 설정과 같은 방법으로 만듭니다. (server.* 설정은 WebServerFactoryCustomizer가 적용합니다.)
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(ReactorResourceFactory resourceFactory,
+            ObjectProvider<NettyRouteProvider> routes, ObjectProvider<NettyServerCustomizer> serverCustomizers) {
+        NettyReactiveWebServerFactory serverFactory = new NettyReactiveWebServerFactory();
+        serverFactory.setResourceFactory(resourceFactory);
+        routes.orderedStream().forEach(serverFactory::addRouteProviders);
+        serverFactory.getServerCustomizers().addAll(serverCustomizers.orderedStream().toList());
+        return serverFactory;
+    }
+}
@@ -1,17 +1,124 @@
 package com.jwt.demo.repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import com.jwt.demo.entities.RefreshToken;
+import com.jwt.demo.sharding.ShardKey;
 
 /**
  * RefreshTokenRepository는 JPA를 통해 RefreshToken 엔티티에 대한 CRUD 작업을 제공하는 인터페이스입니다.
  * JpaRepository 인터페이스를 상속받아 기본적인 데이터베이스 연산 메서드를 사용할 수 있습니다.
  * RefreshToken 엔티티는 'token' 필드를 기본 키로 사용하기 때문에, 기본 키 타입을 String으로 지정합니다.
+ *
+ * 샤딩(jwt.sharding.urls)을 사용하면 리프레시 토큰은 사용자와 같은 샤드(username 기준)에 저장됩니다.
+ * 토큰 문자열로 조회할 때는 토큰의 sub 클레임으로 샤드를 고릅니다.
  */
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
 
 	 // RefreshToken 엔티티의 token 필드를 기준으로 RefreshToken 엔티티를 찾는 메서드 선언
-    Optional<RefreshToken> findByToken(String token);
-}
\ No newline at end of file
+    Optional<RefreshToken> findByToken(@ShardKey(ShardKey.Type.TOKEN) String token);
+
+    // 아래 메서드는 샤드 키를 지정하기 위해 JpaRepository의 메서드를 다시 선언한 것입니다.
+    Optional<RefreshToken> findById(@ShardKey(ShardKey.Type.TOKEN) String token);
+
+    List<RefreshToken> findAllById(@ShardKey(ShardKey.Type.TOKEN) Iterable<String> tokens);
+
+    RefreshToken save(@ShardKey RefreshToken refreshToken);
+
+    void delete(@ShardKey RefreshToken refreshToken);
+
+    /**
+     * 리프레시 토큰과 세션을 한 번의 쿼리로 조회합니다. (토큰 일괄 검사)
+     * 세션은 (username, session_id) 쌍으로 찾아야 하므로 호출한 쪽에서 username과 세션 ID가 모두 맞는 행만 사용합니다.
+     * username 조건이 (username, expiry_date) 인덱스를 타므로 session_id에는 인덱스가 없어도 됩니다.
+     *
+     * @param tokens 샤드를 고를 토큰들 (검사하는 리프레시 토큰과 세션이 있는 액세스 토큰, sub 클레임 기준)
+     * @param usernames 세션을 찾을 사용자 이름들 (비어 있으면 안 됩니다.)
+     * @param sessionIds 세션 ID들 (비어 있으면 안 됩니다.)
+     */
+    @Query("select r from RefreshToken r where r.token in :tokens"
+            + " or (r.username in :usernames and r.sessionId in :sessionIds)")
+    List<RefreshToken> findByTokenInOrSession(@ShardKey(ShardKey.Type.TOKEN) @Param("tokens") Collection<String> tokens,
+            @Param("usernames") Collection<String> usernames, @Param("sessionIds") Collection<String> sessionIds);
+
+    /**
+     * 사용자의 만료되지 않은 세션을 만료 시간이 늦은 순서로 조회합니다.
+     * (username, expiry_date) 인덱스의 범위를 거꾸로 읽으며, Slice이므로 전체 건수를 세는 쿼리는 실행하지 않습니다.
+     *
+     * @param username 사용자 이름
+     * @param now 이 시간 이후에 만료되는 세션만 조회합니다.
+     * @param pageable 페이지 번호와 크기
+     */
+    Slice<SessionView> findByUsernameAndExpiryDateAfterOrderByExpiryDateDesc(
+            @ShardKey String username, Instant now, Pageable pageable);
+
+    /**
+     * 사용자의 모든 리프레시 토큰을 한 번의 delete 문으로 삭제합니다. (모든 기기에서 로그아웃)
+     *
+     * @return 삭제한 행 수
+     */
+    @Modifying
+    @Query("delete from RefreshToken r where r.username = :username")
+    int deleteAllByUsername(@ShardKey @Param("username") String username);
+
+    /**
+     * 사용자의 세션 하나를 삭제합니다. 다른 사용자의 세션 ID로는 삭제되지 않습니다.
+     *
+     * @return 삭제한 행 수 (0 또는 1)
+     */
+    @Modifying
+    @Query("delete from RefreshToken r where r.username = :username and r.sessionId = :sessionId")
+    int deleteByUsernameAndSessionId(@ShardKey @Param("username") String username, @Param("sessionId") String sessionId);
+
+    /**
+     * 사용자의 세션 하나의 만료 시간을 조회합니다. 액세스 토큰을 재발급하기 전에 세션이 남아 있는지 확인할 때 사용합니다.
+     *
+     * @return 세션의 만료 시간. 로그아웃, 취소되었거나 다른 사용자의 세션이면 빈 Optional
+     */
+    @Query("select r.expiryDate from RefreshToken r where r.username = :username and r.sessionId = :sessionId")
+    Optional<Instant> findExpiryDateByUsernameAndSessionId(@ShardKey @Param("username") String username,
+            @Param("sessionId") String sessionId);
+
+    /**
+     * 사용자의 리프레시 토큰을 만료 시간이 늦은 순서로 읽어 앞의 offset개를 건너뛴 나머지(가장 오래된 토큰들)를 조회합니다.
+     * (username, expiry_date) 인덱스를 거꾸로 읽으므로 사용자의 전체 토큰 수가 아니라 offset + limit개만 읽습니다.
+     *
+     * @param username 사용자 이름
+     * @param keep 결과에서 제외할 토큰 (방금 발급한 토큰)
+     * @param offset 남겨 둘 최근 토큰 수
+     * @param limit 최대 조회 수
+     */
+    @Query(value = "select token from refresh_token where username = :username and token <> :keep"
+            + " order by expiry_date desc limit :limit offset :offset", nativeQuery = true)
+    List<String> findTokensBeyondNewest(@ShardKey @Param("username") String username, @Param("keep") String keep,
+            @Param("offset") int offset, @Param("limit") int limit);
+
+    /**
+     * 사용자의 리프레시 토큰 중 주어진 토큰들을 한 번의 delete 문으로 삭제합니다.
+     *
+     * @return 삭제한 행 수
+     */
+    @Modifying
+    @Query("delete from RefreshToken r where r.username = :username and r.token in :tokens")
+    int deleteByUsernameAndTokenIn(@ShardKey @Param("username") String username, @Param("tokens") Collection<String> tokens);
+
+    /**
+     * 세션 목록에 필요한 열만 읽는 projection입니다. 토큰 값은 읽지 않습니다.
+     */
+    interface SessionView {
+        String getSessionId();
+        String getDevice();
+        String getUserAgent();
+        Instant getIssuedAt();
+        Instant getExpiryDate();
+    }
+}
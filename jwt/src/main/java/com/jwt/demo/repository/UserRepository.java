@@ -1,13 +1,23 @@
 package com.jwt.demo.repository;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import com.jwt.demo.entities.User;
+import com.jwt.demo.sharding.ShardKey;
 
 /**
  * UserRepository는 User 엔티티에 대한 데이터베이스 상호작용을 위한 인터페이스입니다.
  * JpaRepository<User, Long>을 상속하여 기본적인 CRUD 작업 메서드를 자동으로 제공합니다.
+ *
+ * 샤딩(jwt.sharding.urls)을 사용하면 @ShardKey가 붙은 파라미터의 username으로 샤드를 고릅니다.
+ * user_id는 샤드마다 따로 생성되어 샤드 간에 겹칠 수 있고 리샤딩하면 바뀌므로, findById처럼 샤드 키가 없는 메서드는
+ * 기본 샤드(0번)만 조회합니다. 샤딩을 사용하면 사용자는 username으로만 찾습니다.
  */
 public interface UserRepository extends JpaRepository<User, Long> {
 
@@ -25,7 +35,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @param user 저장할 User 객체
      * @return 저장된 User 객체
      */
-    User save(User user);
+    User save(@ShardKey User user);
 
     /**
      * 사용자 이름을 기반으로, 권한 정보와 함께 User 객체를 조회하는 메서드입니다.
@@ -33,12 +43,23 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @param username 조회할 사용자의 이름
      * @return Optional로 감싸진 User 객체, 권한 정보 포함
      */
-    Optional<User> findOneWithAuthoritiesByUsername(String username);
+    @EntityGraph(attributePaths = "authorities") // OSIV 없이도 권한을 한 번의 조인 쿼리로 함께 가져옵니다.
+    Optional<User> findOneWithAuthoritiesByUsername(@ShardKey String username);
+
+    /**
+     * 주어진 사용자 이름 중 활성화된 사용자의 이름만 한 번의 쿼리로 조회합니다.
+     * 토큰 일괄 검사(introspection)에서 사용자별 조회를 반복하지 않기 위해 사용합니다.
+     * 
+     * @param usernames 조회할 사용자 이름 목록
+     * @return 활성화된 사용자 이름 집합
+     */
+    @Query("select u.username from User u where u.username in :usernames and u.activated = true")
+    Set<String> findActiveUsernames(@ShardKey @Param("usernames") Collection<String> usernames);
 
     /**
      * User 엔티티를 삭제하는 메서드입니다.
      * 
      * @param user 삭제할 User 객체
      */
-    void delete(User user);
+    void delete(@ShardKey User user);
 }
\ No newline at end of file
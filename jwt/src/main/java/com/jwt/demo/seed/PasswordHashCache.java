@@ -0,0 +1,168 @@
+package com.jwt.demo.seed;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Pattern;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * PasswordHashCache는 시드 비밀번호의 BCrypt 해시를 재사용합니다.
+ *
+ * - 해시는 비밀번호의 SHA-256 값을 키로 보관하므로, 같은 비밀번호를 쓰는 시드 사용자는 해시를 한 번만 계산합니다.
+ *   (같은 비밀번호의 시드 사용자는 같은 salt의 해시를 공유합니다. 시드 계정에만 사용해야 합니다.)
+ * - 캐시에 없는 비밀번호는 별도의 ForkJoinPool에서 병렬로 해싱합니다. 공용 풀을 쓰는 요청 처리와 경쟁하지 않습니다.
+ * - 파일 경로를 주면 기동할 때 읽고 새 해시가 생기면 다시 씁니다. 다음 기동부터는 BCrypt를 전혀 계산하지 않습니다.
+ * - $2a$/$2b$/$2y$로 시작하는 값은 이미 해싱된 것으로 보고 그대로 사용합니다.
+ */
+@Slf4j
+public class PasswordHashCache {
+
+    private static final Pattern BCRYPT = Pattern.compile("^\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}$");
+
+    private final PasswordEncoder passwordEncoder;
+    private final Path file; // null이면 메모리에만 보관합니다.
+    private final int parallelism;
+    private final Map<String, String> hashes = new ConcurrentHashMap<>();
+
+    /**
+     * @param passwordEncoder 캐시에 없는 비밀번호를 해싱할 인코더
+     * @param file 캐시 파일. null이면 파일에 저장하지 않습니다.
+     * @param parallelism 해싱 스레드 수
+     */
+    public PasswordHashCache(PasswordEncoder passwordEncoder, Path file, int parallelism) {
+        this.passwordEncoder = passwordEncoder;
+        this.file = file;
+        this.parallelism = Math.max(1, parallelism);
+        load();
+    }
+
+    public static boolean isEncoded(String password) {
+        return BCRYPT.matcher(password).matches();
+    }
+
+    public int size() {
+        return hashes.size();
+    }
+
+    /**
+     * 주어진 비밀번호들의 해시를 돌려줍니다. 캐시에 없는 비밀번호만 병렬로 해싱하고, 새로 해싱한 것이 있으면 파일에 저장합니다.
+     *
+     * @return 평문 비밀번호 -> 해시
+     */
+    public Map<String, String> encodeAll(Collection<String> passwords) {
+        Map<String, String> result = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        for (String password : passwords) {
+            if (isEncoded(password)) {
+                result.put(password, password);
+                continue;
+            }
+            String cached = hashes.get(digest(password));
+            if (cached != null) {
+                result.put(password, cached);
+            } else {
+                missing.add(password);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        long started = System.nanoTime();
+        encodeInParallel(List.copyOf(missing));
+        for (String password : missing) {
+            result.put(password, hashes.get(digest(password)));
+        }
+        log.info("시드 비밀번호 {}개를 해싱했습니다. (스레드 {}, {} ms)",
+                missing.size(), parallelism, (System.nanoTime() - started) / 1_000_000);
+        store();
+        return result;
+    }
+
+    private void encodeInParallel(List<String> passwords) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> passwords.parallelStream()
+                    .forEach(password -> hashes.put(digest(password), passwordEncoder.encode(password))))
+                    .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("시드 비밀번호 해싱이 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("시드 비밀번호를 해싱하지 못했습니다.", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void load() {
+        if (file == null || !Files.isRegularFile(file)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            // 캐시는 없어도 되므로 읽지 못하면 처음부터 해싱합니다.
+            log.warn("해시 캐시 파일을 읽지 못했습니다: {}", file, e);
+            return;
+        }
+        properties.forEach((key, value) -> {
+            if (isEncoded(value.toString())) {
+                hashes.put(key.toString(), value.toString());
+            }
+        });
+        log.debug("해시 캐시 {}건을 읽었습니다: {}", hashes.size(), file);
+    }
+
+    private void store() {
+        if (file == null) {
+            return;
+        }
+        Properties properties = new Properties();
+        properties.putAll(hashes);
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            // 기동 중에 중단되어도 캐시 파일이 반쯤 쓰인 상태로 남지 않도록 임시 파일을 쓴 뒤 바꿉니다.
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                properties.store(writer, "SHA-256(password) = BCrypt hash");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // 다음 기동에서 다시 해싱할 뿐이므로 시드 적재는 계속합니다.
+            log.warn("해시 캐시 파일을 쓰지 못했습니다: {}", file, e);
+        }
+    }
+
+    private static String digest(String password) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(password.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
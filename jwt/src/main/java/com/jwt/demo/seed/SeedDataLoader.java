@@ -0,0 +1,222 @@
+package com.jwt.demo.seed;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.jwt.demo.sharding.ShardContext;
+import com.jwt.demo.sharding.ShardResolver;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * SeedDataLoader는 시드 파일(jwt.seed.fixtures)의 사용자를 애플리케이션이 준비된 뒤(ApplicationReadyEvent)에 저장합니다.
+ * 스테이징처럼 수천 명의 시드 계정이 필요한 환경에서도 두 번째 기동부터는 시드 수와 거의 관계없이 빨리 끝나도록 합니다.
+ *
+ * - 시드를 CHUNK_SIZE 단위로 나누어, 청크마다 이미 있는 username을 한 번의 쿼리로 찾고 없는 사용자만 처리합니다.
+ *   이미 있는 사용자는 해싱도, 쓰기도 하지 않으므로 실행 중에 바뀐 비밀번호나 권한을 덮어쓰지 않습니다.
+ * - 새 사용자의 비밀번호는 PasswordHashCache로 해싱합니다. (캐시 파일, 같은 비밀번호 재사용, 병렬 해싱)
+ * - 사용자와 권한은 청크마다 하나의 트랜잭션에서 JDBC 배치 insert로 저장합니다.
+ *   여러 인스턴스가 동시에 기동해도 실패하지 않도록 insert는 on duplicate key update로 중복을 무시합니다.
+ *   해싱은 트랜잭션을 열기 전에 끝내므로, BCrypt를 계산하는 동안 커넥션과 트랜잭션을 붙잡고 있지 않습니다.
+ * - 샤딩을 사용하면 사용자의 샤드별로 나누어 저장하고, 리샤딩 중에는 이전 샤드에 남아 있는 사용자도 이미 있는 것으로 봅니다.
+ *
+ * jwt.seed.enabled=false 이면 아무것도 하지 않습니다. (prod 프로필의 기본값)
+ */
+@Slf4j
+@Component
+public class SeedDataLoader {
+
+    // 한 번에 조회하고 저장하는 사용자 수
+    private static final int CHUNK_SIZE = 1_000;
+
+    private static final String INSERT_USER =
+            "insert into users (username, password, nickname, activated) values (?, ?, ?, ?)"
+                    + " on duplicate key update username = username";
+    private static final String INSERT_AUTHORITY =
+            "insert into authority (authority_name) values (?) on duplicate key update authority_name = authority_name";
+    private static final String INSERT_USER_AUTHORITY =
+            "insert into user_authority (user_id, authority_name) values (?, ?)"
+                    + " on duplicate key update authority_name = authority_name";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final ObjectProvider<ShardResolver> shardResolver; // 샤딩을 사용하지 않으면 비어 있습니다.
+    private final PasswordHashCache hashCache;
+    private final boolean enabled;
+    private final Resource fixtures;
+
+    public SeedDataLoader(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ObjectProvider<ShardResolver> shardResolver,
+            PasswordEncoder passwordEncoder,
+            @Value("${jwt.seed.enabled:true}") boolean enabled,
+            @Value("${jwt.seed.fixtures:classpath:seed/users.csv}") Resource fixtures,
+            @Value("${jwt.seed.hash-cache-file:}") String hashCacheFile,
+            @Value("${jwt.seed.hash-parallelism:0}") int hashParallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.shardResolver = shardResolver;
+        this.enabled = enabled;
+        this.fixtures = fixtures;
+        this.hashCache = new PasswordHashCache(passwordEncoder,
+                hashCacheFile.isBlank() ? null : Path.of(hashCacheFile),
+                hashParallelism > 0 ? hashParallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        if (!fixtures.exists()) {
+            log.warn("시드 파일이 없어 시드 사용자를 저장하지 않습니다: {}", fixtures.getDescription());
+            return;
+        }
+        seed(fixtures);
+    }
+
+    /**
+     * 시드 파일의 사용자 중 아직 없는 사용자만 저장합니다. 여러 번 호출해도 결과는 같습니다.
+     *
+     * @return 시드 파일의 사용자 수와 새로 저장한 사용자 수
+     */
+    public SeedResult seed(Resource resource) throws IOException {
+        long started = System.nanoTime();
+        List<SeedFixture> all = SeedFixture.readAll(resource);
+        int inserted = 0;
+
+        ShardResolver resolver = shardResolver.getIfAvailable();
+        for (int from = 0; from < all.size(); from += CHUNK_SIZE) {
+            List<SeedFixture> chunk = all.subList(from, Math.min(from + CHUNK_SIZE, all.size()));
+            if (resolver == null) {
+                inserted += seedChunk(chunk);
+                continue;
+            }
+            Map<Integer, List<SeedFixture>> byShard = chunk.stream()
+                    .collect(Collectors.groupingBy(fixture -> resolver.shardFor(fixture.username())));
+            for (Map.Entry<Integer, List<SeedFixture>> entry : byShard.entrySet()) {
+                List<SeedFixture> absent = withoutPreviousShardUsers(resolver, entry.getValue());
+                inserted += ShardContext.on(entry.getKey(), () -> seedChunk(absent));
+            }
+        }
+
+        SeedResult result = new SeedResult(all.size(), inserted);
+        log.info("시드 사용자 적재 완료: {} (사용자 {}, 새로 저장 {}, {} ms)", resource.getDescription(),
+                result.fixtures(), result.inserted(), (System.nanoTime() - started) / 1_000_000);
+        return result;
+    }
+
+    /**
+     * 현재 데이터소스(샤드)에 없는 사용자만 저장합니다.
+     * 없는 사용자를 찾고 비밀번호를 해싱한 뒤, insert만 하나의 트랜잭션에서 실행합니다.
+     * 그 사이에 다른 인스턴스가 같은 사용자를 저장해도 insert가 중복을 무시합니다.
+     *
+     * @return 새로 저장한 사용자 수
+     */
+    private int seedChunk(List<SeedFixture> chunk) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        Set<String> existing = existingUsernames(chunk.stream().map(SeedFixture::username).toList());
+        List<SeedFixture> absent = chunk.stream()
+                .filter(fixture -> !existing.contains(fixture.username()))
+                .toList();
+        if (absent.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, String> hashes = hashCache.encodeAll(absent.stream().map(SeedFixture::password).toList());
+        return transaction.execute(status -> {
+            jdbcTemplate.batchUpdate(INSERT_USER, absent, absent.size(), (ps, fixture) -> {
+                ps.setString(1, fixture.username());
+                ps.setString(2, hashes.get(fixture.password()));
+                ps.setString(3, fixture.nickname());
+                ps.setBoolean(4, true);
+            });
+
+            Set<String> authorityNames = new LinkedHashSet<>();
+            absent.forEach(fixture -> authorityNames.addAll(fixture.authorities()));
+            jdbcTemplate.batchUpdate(INSERT_AUTHORITY, new ArrayList<>(authorityNames), authorityNames.size(),
+                    (ps, authority) -> ps.setString(1, authority));
+
+            Map<String, Long> userIds = userIds(absent.stream().map(SeedFixture::username).toList());
+            List<Object[]> userAuthorities = new ArrayList<>();
+            for (SeedFixture fixture : absent) {
+                for (String authority : fixture.authorities()) {
+                    userAuthorities.add(new Object[] {userIds.get(fixture.username()), authority});
+                }
+            }
+            jdbcTemplate.batchUpdate(INSERT_USER_AUTHORITY, userAuthorities);
+            return absent.size();
+        });
+    }
+
+    /**
+     * 리샤딩 중이면 이전 샤드에 아직 남아 있는 사용자를 뺍니다. 새 샤드에 중복으로 만들지 않기 위해서입니다.
+     */
+    private List<SeedFixture> withoutPreviousShardUsers(ShardResolver resolver, List<SeedFixture> fixtures) {
+        if (!resolver.isResharding()) {
+            return fixtures;
+        }
+        Map<Integer, List<String>> byPreviousShard = new HashMap<>();
+        for (SeedFixture fixture : fixtures) {
+            int previous = resolver.previousShardFor(fixture.username());
+            if (previous >= 0) {
+                byPreviousShard.computeIfAbsent(previous, shard -> new ArrayList<>()).add(fixture.username());
+            }
+        }
+        Set<String> moved = new HashSet<>();
+        byPreviousShard.forEach((shard, usernames) ->
+                moved.addAll(ShardContext.on(shard, () -> existingUsernames(usernames))));
+        return moved.isEmpty()
+                ? fixtures
+                : fixtures.stream().filter(fixture -> !moved.contains(fixture.username())).toList();
+    }
+
+    private Set<String> existingUsernames(List<String> usernames) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "select username from users where username in (" + placeholders(usernames.size()) + ")",
+                String.class, usernames.toArray()));
+    }
+
+    private Map<String, Long> userIds(List<String> usernames) {
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query("select user_id, username from users where username in (" + placeholders(usernames.size()) + ")",
+                rs -> {
+                    ids.put(rs.getString(2), rs.getLong(1));
+                }, usernames.toArray());
+        return ids;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    /**
+     * @param fixtures 시드 파일의 사용자 수 (중복 제외)
+     * @param inserted 새로 저장한 사용자 수
+     */
+    public record SeedResult(int fixtures, int inserted) {
+    }
+}
@@ -0,0 +1,69 @@
+package com.jwt.demo.seed;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * 시드 파일의 한 줄(사용자 한 명)입니다.
+ *
+ * 파일 형식은 한 줄에 username,password,nickname,authorities 이며 authorities는 | 로 구분합니다.
+ * 빈 줄과 #으로 시작하는 줄은 무시합니다. 값에 쉼표를 쓸 수 없습니다.
+ *
+ * @param username 사용자 이름 (중복되면 처음 나온 줄을 사용합니다.)
+ * @param password 평문 비밀번호 또는 이미 해싱된 BCrypt 값
+ * @param nickname 닉네임
+ * @param authorities 권한 이름 목록
+ */
+public record SeedFixture(String username, String password, String nickname, List<String> authorities) {
+
+    /**
+     * 시드 파일을 읽습니다. 같은 username이 여러 번 나오면 처음 나온 줄만 사용합니다.
+     *
+     * @throws IllegalArgumentException 형식이 맞지 않는 줄이 있는 경우
+     */
+    public static List<SeedFixture> readAll(Resource resource) throws IOException {
+        Map<String, SeedFixture> fixtures = new LinkedHashMap<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                SeedFixture fixture = parse(line, resource.getDescription(), lineNumber);
+                fixtures.putIfAbsent(fixture.username(), fixture);
+            }
+        }
+        return new ArrayList<>(fixtures.values());
+    }
+
+    private static SeedFixture parse(String line, String source, int lineNumber) {
+        String[] columns = line.split(",", -1);
+        if (columns.length != 4) {
+            throw new IllegalArgumentException(source + " " + lineNumber + "번째 줄: 열이 4개여야 합니다.");
+        }
+        String username = columns[0].strip();
+        String password = columns[1].strip();
+        if (username.isEmpty() || password.isEmpty()) {
+            throw new IllegalArgumentException(source + " " + lineNumber + "번째 줄: username과 password는 비울 수 없습니다.");
+        }
+        List<String> authorities = new ArrayList<>();
+        for (String authority : columns[3].split("\\|")) {
+            if (!authority.isBlank()) {
+                authorities.add(authority.strip());
+            }
+        }
+        return new SeedFixture(username, password, columns[2].strip(), List.copyOf(authorities));
+    }
+}
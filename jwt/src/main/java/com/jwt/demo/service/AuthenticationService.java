@@ -1,25 +1,32 @@
 package com.jwt.demo.service;
 
-import java.time.LocalDateTime;
 import java.util.Optional;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.jwt.demo.controller.RefreshTokenRequest;
 import com.jwt.demo.controller.TokenResponse;
+import com.jwt.demo.datasource.RecentWrites;
+import com.jwt.demo.datasource.ReplicaRouting;
 import com.jwt.demo.dto.LoginDto;
 import com.jwt.demo.dto.TokenDto;
 import com.jwt.demo.entities.RefreshToken;
+import com.jwt.demo.jwt.TokenClaims;
 import com.jwt.demo.jwt.TokenProvider;
+import com.jwt.demo.profiling.LoginEvent;
 import com.jwt.demo.repository.RefreshTokenRepository;
+import com.jwt.demo.util.LogRedaction;
 
 /**
  * AuthenticationService 클래스는 JWT를 이용한 인증 처리를 수행하는 서비스입니다.
@@ -31,87 +38,161 @@ import com.jwt.demo.repository.RefreshTokenRepository;
 public class AuthenticationService {
 	
     private final TokenProvider tokenProvider;  // JWT 토큰을 생성하고 유효성을 검사하는 클래스
-    private final AuthenticationManagerBuilder authenticationManagerBuilder;  // Spring Security의 인증 관리자 빌더
+    // Spring Security의 인증 관리자 빌더. 서블릿 보안 설정(@EnableWebSecurity)에만 있으며 리액티브 배포에서는 비어 있습니다.
+    private final ObjectProvider<AuthenticationManagerBuilder> authenticationManagerBuilder;
+    private final RefreshSingleFlight refreshSingleFlight;  // 같은 리프레시 토큰의 동시 갱신 요청을 합침
+    private final RefreshTokenQuota refreshTokenQuota;  // 사용자당 리프레시 토큰 수 제한
+    private final PlatformTransactionManager transactionManager;
 
     @Autowired
     private RefreshTokenRepository refreshTokenRepository;  // 리프레시 토큰을 저장하는 저장소
+
+    @Autowired
+    private RecentWrites recentWrites;  // 방금 저장한 리프레시 토큰을 primary에서 읽도록 기록
 	
     /**
      * 로그인 요청을 받아서 액세스 토큰과 리프레시 토큰을 생성합니다.
      * 
-     * @param loginDto 사용자 인증 정보 (username, password)
-     * @return 생성된 액세스 토큰과 리프레시 토큰을 담은 TokenResponse 객체
+     * @param loginDto 사용자 인증 정보 (username, password, 선택적인 기기 이름)
+     * @param userAgent 로그인 요청의 User-Agent 헤더 (세션 목록에 표시)
+     * @return 생성된 액세스 토큰과 리프레시 토큰을 담은 TokenResponse 객체. 아이디나 비밀번호가 틀리면 빈 Optional
      */
-	public Optional<TokenResponse> makeTokens(LoginDto loginDto) {
-		log.info("makeTokens");
-
-        // 사용자 이름과 비밀번호로 인증 토큰 생성
-        UsernamePasswordAuthenticationToken authenticationToken =
-                new UsernamePasswordAuthenticationToken(loginDto.getUsername(), loginDto.getPassword());
-
-        // 인증 수행
-        Authentication authentication = authenticationManagerBuilder.getObject().authenticate(authenticationToken);
-        log.info("username=" + authentication.getName());
-
-        // 인증된 사용자 정보를 SecurityContext에 저장
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-
-        // 액세스 토큰 생성
-        String accessToken = tokenProvider.createToken(authentication, true);
+	public Optional<TokenResponse> makeTokens(LoginDto loginDto, String userAgent) {
+        // JFR 녹화 중이면 비밀번호 확인, 사용자 조회, 토큰 서명과 저장을 포함한 로그인 전체 시간을 남깁니다.
+        LoginEvent event = new LoginEvent();
+        event.begin();
+        String outcome = "success";
+        try {
+            // 사용자 이름과 비밀번호로 인증 토큰 생성
+            UsernamePasswordAuthenticationToken authenticationToken =
+                    new UsernamePasswordAuthenticationToken(loginDto.getUsername(), loginDto.getPassword());
+
+            // 인증 수행. 인증 실패는 흔한 경우이므로 예외를 밖으로 던지지 않고 빈 결과로 돌려줍니다.
+            Authentication authentication;
+            try {
+                authentication = authenticationManagerBuilder.getObject().getObject().authenticate(authenticationToken);
+            } catch (AuthenticationException e) {
+                log.debug("로그인 실패: {}", e.getClass().getSimpleName());
+                outcome = "bad_credentials";
+                return Optional.empty();
+            }
+            log.debug("로그인 성공: username={}", authentication.getName());
+
+            // 인증된 사용자 정보를 SecurityContext에 저장
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+
+            // TokenResponse 객체를 Optional로 반환
+            return Optional.of(issueTokens(authentication, SessionDevice.of(loginDto.getDevice(), userAgent)));
+        } catch (RuntimeException e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+	}
 
-        // 리프레시 토큰 생성 및 데이터베이스에 저장
-        String refreshToken = tokenProvider.createAndPersistRefreshTokenForUser(authentication);
+    /**
+     * 인증된 사용자에게 액세스 토큰과 리프레시 토큰을 발급하고 리프레시 토큰을 저장합니다.
+     * 사용자의 리프레시 토큰이 jwt.refresh.max-tokens-per-user개를 넘으면 가장 오래된 토큰(세션)부터 삭제합니다.
+     * 리액티브 배포에서는 ReactiveAuthenticationManager로 인증한 뒤 JDBC 스케줄러에서 호출합니다.
+     *
+     * @param authentication 인증된 사용자
+     * @param device 로그인한 기기 정보
+     * @return 액세스 토큰과 리프레시 토큰
+     */
+    public TokenResponse issueTokens(Authentication authentication, SessionDevice device) {
+        // 액세스 토큰 생성. 리프레시 토큰 행의 세션 ID(sid)를 담아 두어 재발급할 때 세션이 남아 있는지 확인합니다.
+        String sessionId = TokenProvider.newTokenId();
+        String accessToken = tokenProvider.createToken(authentication, sessionId, true);
+
+        // 리프레시 토큰 생성 및 데이터베이스에 저장. 한도를 넘은 오래된 토큰은 같은 트랜잭션에서 삭제합니다.
+        String refreshToken = new TransactionTemplate(transactionManager).execute(status -> {
+            String issued = tokenProvider.createAndPersistRefreshTokenForUser(authentication, device, sessionId);
+            refreshTokenQuota.afterIssue(authentication.getName(), issued);
+            return issued;
+        });
+        recentWrites.record(refreshToken);
+        recentWrites.record(sessionId); // 로그인 직후 액세스 토큰을 검사(세션 확인)할 때도 primary에서 읽습니다.
 
         // 토큰 응답 객체 생성
-        TokenResponse tokenResponse = new TokenResponse(accessToken, refreshToken);
+        return new TokenResponse(accessToken, refreshToken);
+    }
 
-        // TokenResponse 객체를 Optional로 반환
-        return Optional.ofNullable(tokenResponse);
-	}
+    /**
+     * 리프레시 토큰을 삭제합니다.
+     *
+     * @param refreshTokenValue 삭제할 리프레시 토큰
+     * @return 토큰이 있어 삭제했으면 true, 없는 토큰이면 false
+     */
+    public boolean logout(String refreshTokenValue) {
+        // 곧바로 삭제할 토큰이고 로그인 직후일 수 있으므로 replica가 아닌 primary에서 조회합니다.
+        Optional<RefreshToken> refreshToken = ReplicaRouting.onPrimary(
+                () -> refreshTokenRepository.findByToken(refreshTokenValue));
+        refreshToken.ifPresent(refreshTokenRepository::delete); // DB에서 토큰 삭제
+        refreshSingleFlight.forget(refreshTokenValue); // 갱신 결과를 재사용하는 grace 시간 중이라도 더 이상 돌려주지 않습니다.
+        return refreshToken.isPresent();
+    }
 
     /**
      * 유효한 리프레시 토큰을 사용하여 새 액세스 토큰을 생성합니다.
+     * 액세스 토큰의 사용자, 권한, 사용자 ID는 리프레시 토큰의 클레임에서 가져오므로, 액세스 토큰이 이미 만료되어
+     * 인증 정보 없이 들어온 요청도 갱신할 수 있습니다. 같은 리프레시 토큰으로 동시에 들어온 요청은 RefreshSingleFlight가
+     * 한 번의 조회와 서명으로 합쳐 같은 액세스 토큰을 돌려줍니다.
      * 
      * @param refreshTokenRequest 사용자로부터 받은 리프레시 토큰 요청
-     * @param authentication 현재 인증 정보
-     * @return 새로 발급된 액세스 토큰을 포함한 TokenDto 객체
+     * @return 새로 발급된 액세스 토큰을 포함한 결과. 잘못되었거나 만료된 토큰이면 미리 만들어 둔 실패 결과
      */
-	@Transactional
-	public Optional<TokenDto> makeNewAccessToken(RefreshTokenRequest refreshTokenRequest,
-    		Authentication authentication) {
+	public RefreshResult makeNewAccessToken(RefreshTokenRequest refreshTokenRequest) {
 		String refreshTokenValue = refreshTokenRequest.getRefreshToken();		
     	
-    	log.info("refreshToken from user. token value=" + refreshTokenValue);
-    	
-        // 데이터베이스에서 리프레시 토큰 조회
-        RefreshToken validRefreshToken = 
-        		refreshTokenRepository.findById(refreshTokenValue)
-                .orElseThrow(() -> new IllegalStateException("Invalid refresh token"));
+    	log.debug("리프레시 토큰으로 엑세스 토큰 발급 요청: token={}", LogRedaction.token(refreshTokenValue));
+    	if (refreshTokenValue == null) {
+    		return RefreshResult.INVALID;
+    	}
+    	// 기다리는 요청이 트랜잭션(DB 연결)을 잡고 있지 않도록 트랜잭션은 실제로 계산하는 요청에서만 시작합니다.
+    	return refreshSingleFlight.execute(refreshTokenValue,
+    			() -> new TransactionTemplate(transactionManager).execute(status -> refresh(refreshTokenValue)));
+	}
 
-        TokenDto tokenDto = null;
+	private RefreshResult refresh(String refreshTokenValue) {
+        // 데이터베이스에서 리프레시 토큰 조회
+        Optional<RefreshToken> found = refreshTokenRepository.findById(refreshTokenValue);
+        if (found.isEmpty()) {
+            return RefreshResult.INVALID;
+        }
+        RefreshToken validRefreshToken = found.get();
 
-        // 리프레시 토큰이 만료된 경우 삭제하고 null 반환
+        // 리프레시 토큰이 만료된 경우 삭제
         if (isTokenExpired(validRefreshToken)) {
             refreshTokenRepository.delete(validRefreshToken);
-            return Optional.ofNullable(tokenDto);
+            return RefreshResult.EXPIRED;
         }
+
+        // 서명이 맞고 저장된 사용자와 같은 토큰만 사용합니다.
+        Optional<TokenClaims> claims = tokenProvider.parseClaims(refreshTokenValue)
+                .filter(c -> c.getSubject().equals(validRefreshToken.getUsername()));
+        if (claims.isEmpty()) {
+            return RefreshResult.INVALID;
+        }
+
+        // 새로운 액세스 토큰 생성. 리프레시 토큰의 세션에 묶습니다.
+        String accessToken = tokenProvider.createToken(claims.get().getSubject(), claims.get().getAuthorities(),
+                claims.get().getUserId(), validRefreshToken.getSessionId(), true);
         
-        log.info("refreshToken from database. token value=" + validRefreshToken.getToken());
-        
-        // 새로운 액세스 토큰 생성
-        String accessToken = tokenProvider.createToken(authentication, true);
-        
-        tokenDto = new TokenDto(accessToken);
-        return Optional.ofNullable(tokenDto);
+        return RefreshResult.issued(new TokenDto(accessToken));
 	}
 
     /**
-     * 리프레시 토큰의 만료 여부를 확인합니다.
+     * 리프레시 토큰의 만료 여부를 확인합니다. 노드 간 시계 차이(jwt.clock-skew-seconds)만큼은 만료로 보지 않습니다.
      * 
      * @param refreshToken 확인할 리프레시 토큰
      * @return 만료되었으면 true, 그렇지 않으면 false
      */
 	public boolean isTokenExpired(RefreshToken refreshToken) {
-        return refreshToken.getExpiryDate().isBefore(LocalDateTime.now());
+        return tokenProvider.isExpired(refreshToken.getExpiryDate());
     }
 }
\ No newline at end of file
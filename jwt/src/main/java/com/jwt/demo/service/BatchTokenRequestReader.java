@@ -0,0 +1,157 @@
+package com.jwt.demo.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.jwt.demo.dto.BatchSubjectDto;
+
+import jakarta.validation.Validator;
+
+/**
+ * BatchTokenRequestReader는 토큰 일괄 발급 요청 본문을 JsonParser로 읽으면서 발급 대상을 청크 단위로 꺼내 줍니다.
+ * 요청 전체를 객체로 바인딩하지 않으므로 10만 건을 요청해도 메모리에는 한 청크의 대상만 올라갑니다.
+ *
+ * 요청 형식: {"includeRefreshToken":false,"subjects":[{"username":..,"roles":[..]}, ...]}
+ * 대상 목록을 읽기 시작하면 발급 방식을 바꿀 수 없으므로 includeRefreshToken은 subjects보다 앞에 있어야 합니다.
+ * 생성할 때 첫 청크까지 미리 읽어 두므로, 응답을 쓰기 전에 형식 오류를 400으로 돌려줄 수 있습니다.
+ * 형식이 잘못되었거나 대상이 검증에 실패하면 ResponseStatusException(400)을 던집니다.
+ */
+public final class BatchTokenRequestReader implements Closeable {
+
+    private final JsonParser parser;
+    private final ObjectReader subjectReader;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int maxSubjects;
+
+    private boolean includeRefreshToken;
+    private List<BatchSubjectDto> prefetched; // 생성할 때 미리 읽은 첫 청크
+    private boolean finished;                 // subjects 배열을 끝까지 읽었는지 여부
+    private int read;
+
+    BatchTokenRequestReader(JsonParser parser, ObjectReader subjectReader, Validator validator,
+            int chunkSize, int maxSubjects) throws IOException {
+        this.parser = parser;
+        this.subjectReader = subjectReader;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.maxSubjects = maxSubjects;
+        try {
+            readHeader();
+            this.prefetched = readChunk();
+        } catch (IOException | RuntimeException e) {
+            parser.close();
+            throw e;
+        }
+    }
+
+    public boolean isIncludeRefreshToken() {
+        return includeRefreshToken;
+    }
+
+    /**
+     * 다음 청크의 발급 대상을 읽습니다.
+     *
+     * @return 최대 청크 크기만큼의 발급 대상, 더 읽을 대상이 없으면 빈 목록
+     * @throws IOException 요청 본문을 읽지 못한 경우
+     */
+    public List<BatchSubjectDto> nextChunk() throws IOException {
+        if (prefetched != null) {
+            List<BatchSubjectDto> chunk = prefetched;
+            prefetched = null;
+            return chunk;
+        }
+        return readChunk();
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    // subjects 배열이 시작될 때까지 읽습니다.
+    private void readHeader() throws IOException {
+        try {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw badRequest("요청 본문이 JSON 객체가 아닙니다.");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("subjects".equals(field)) {
+                    if (value != JsonToken.START_ARRAY) {
+                        throw badRequest("subjects가 배열이 아닙니다.");
+                    }
+                    return;
+                }
+                if ("includeRefreshToken".equals(field)) {
+                    if (!value.isBoolean()) {
+                        throw badRequest("includeRefreshToken이 boolean이 아닙니다.");
+                    }
+                    includeRefreshToken = value == JsonToken.VALUE_TRUE;
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            throw badRequest("subjects가 없습니다.");
+        } catch (JsonProcessingException e) {
+            throw badRequest("요청 본문을 해석할 수 없습니다: " + e.getOriginalMessage());
+        }
+    }
+
+    private List<BatchSubjectDto> readChunk() throws IOException {
+        List<BatchSubjectDto> chunk = new ArrayList<>();
+        try {
+            while (!finished && chunk.size() < chunkSize) {
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.END_ARRAY) {
+                    readTrailer();
+                    break;
+                }
+                if (token != JsonToken.START_OBJECT) {
+                    throw badRequest("발급 대상 " + (read + 1) + "번째가 객체가 아닙니다.");
+                }
+                if (++read > maxSubjects) {
+                    throw badRequest("발급 대상은 최대 " + maxSubjects + "명입니다.");
+                }
+                BatchSubjectDto subject = subjectReader.readValue(parser);
+                if (!validator.validate(subject).isEmpty()) {
+                    throw badRequest("발급 대상 " + read + "번째가 올바르지 않습니다.");
+                }
+                chunk.add(subject);
+            }
+        } catch (JsonProcessingException e) {
+            throw badRequest("요청 본문을 해석할 수 없습니다: " + e.getOriginalMessage());
+        }
+        return chunk;
+    }
+
+    // subjects 배열 뒤의 나머지 필드를 읽습니다.
+    private void readTrailer() throws IOException {
+        finished = true;
+        if (read == 0) {
+            throw badRequest("subjects가 비어 있습니다.");
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            if ("includeRefreshToken".equals(field) || "subjects".equals(field)) {
+                throw badRequest(field + "이(가) subjects 배열 뒤에 있습니다.");
+            }
+            parser.nextToken();
+            parser.skipChildren();
+        }
+    }
+
+    private static ResponseStatusException badRequest(String reason) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, reason);
+    }
+}
@@ -0,0 +1,177 @@
+package com.jwt.demo.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jwt.demo.dto.BatchSubjectDto;
+import com.jwt.demo.jwt.TokenProvider;
+import com.jwt.demo.sharding.ShardContext;
+import com.jwt.demo.sharding.ShardResolver;
+
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * BatchTokenService는 게이트웨이와 통합 테스트를 위해 여러 사용자의 토큰을 한 번에 발급하는 서비스입니다.
+ * 로그인(BCrypt 확인) 없이 관리자가 지정한 subject와 권한으로 토큰을 서명합니다.
+ *
+ * 요청 본문을 BatchTokenRequestReader로 고정 크기 청크씩 읽어 청크마다 여러 코어에서 병렬로 서명하고,
+ * 리프레시 토큰은 청크마다 하나의 JDBC 배치 insert로 저장한 뒤 결과를 바로 응답 스트림에 씁니다.
+ * 따라서 요청도 발급 결과도 메모리에 쌓이지 않으며, 10만 건을 발급해도 사용하는 메모리는 청크 크기에만 비례합니다.
+ * 샤딩을 사용하면 청크를 사용자 샤드별로 나누어 샤드마다 배치 insert를 실행합니다.
+ * 사용자당 리프레시 토큰 한도(RefreshTokenQuota)는 적용하지 않습니다. 부하 테스트처럼 한 사용자에게 많은 토큰을
+ * 발급하는 용도이며, 사용자마다 한도 조회를 하면 10만 건 발급이 그만큼의 쿼리가 되기 때문입니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BatchTokenService {
+
+    // 한 번에 서명하고 저장하고 응답에 쓰는 단위
+    private static final int CHUNK_SIZE = 1_000;
+
+    // 한 요청에서 발급할 수 있는 최대 대상 수
+    private static final int MAX_SUBJECTS = 100_000;
+
+    private static final String INSERT_REFRESH_TOKEN =
+            "insert into refresh_token (token, username, expiry_date, issued_at, session_id) values (?, ?, ?, ?, ?)";
+
+    private final TokenProvider tokenProvider;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ObjectProvider<ShardResolver> shardResolver; // 샤딩을 사용하지 않으면 비어 있습니다.
+
+    /**
+     * 요청 본문을 스트리밍으로 읽기 시작합니다. 첫 청크까지 읽고 검증하므로
+     * 대상이 CHUNK_SIZE 이하인 요청은 응답을 쓰기 전에 모든 형식 오류가 드러납니다.
+     *
+     * @param body 요청 본문
+     * @return 발급 대상을 청크 단위로 읽는 reader (issueTokens가 끝나면 닫아야 합니다.)
+     * @throws ResponseStatusException 요청 형식이 잘못되었거나 첫 청크의 대상이 검증에 실패한 경우 (400)
+     * @throws IOException 요청 본문을 읽지 못한 경우
+     */
+    public BatchTokenRequestReader openRequest(InputStream body) throws IOException {
+        return new BatchTokenRequestReader(objectMapper.getFactory().createParser(body),
+                objectMapper.readerFor(BatchSubjectDto.class), validator, CHUNK_SIZE, MAX_SUBJECTS);
+    }
+
+    /**
+     * 요청된 모든 대상에 대해 토큰을 발급하고 결과를 JSON으로 스트리밍합니다.
+     * 응답 형식: {"tokens":[{"username":..,"accessToken":..,"refreshToken":..}, ...],"count":N}
+     *
+     * 응답을 쓰기 시작한 뒤 뒤쪽 청크에서 형식 오류가 나오면 상태 코드를 바꿀 수 없으므로,
+     * 그때까지 발급한 토큰과 count 뒤에 "error":"bad_request"를 붙여 응답을 끝냅니다.
+     *
+     * @param request 발급 대상을 읽는 reader
+     * @param out 응답 스트림
+     * @throws IOException 요청 본문을 읽거나 응답을 쓰지 못한 경우
+     */
+    public void issueTokens(BatchTokenRequestReader request, OutputStream out) throws IOException {
+        boolean includeRefreshToken = request.isIncludeRefreshToken();
+        long started = System.nanoTime();
+        int count = 0;
+        boolean rejected = false;
+
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("tokens");
+
+            try {
+                List<BatchSubjectDto> chunk;
+                while (!(chunk = request.nextChunk()).isEmpty()) {
+                    // 청크 안에서는 공용 ForkJoinPool을 통해 여러 코어에서 병렬로 서명합니다. (순서는 유지됩니다.)
+                    List<IssuedToken> issued = chunk.parallelStream()
+                            .map(subject -> issue(subject, includeRefreshToken))
+                            .toList();
+
+                    // 리프레시 토큰은 청크 단위의 배치 insert 한 번으로 저장합니다.
+                    if (includeRefreshToken) {
+                        Instant issuedAt = Instant.ofEpochMilli(tokenProvider.currentTimeMillis());
+                        persistRefreshTokens(issued, issuedAt, tokenProvider.refreshTokenExpiryDate());
+                    }
+
+                    for (IssuedToken token : issued) {
+                        json.writeStartObject();
+                        json.writeStringField("username", token.username());
+                        json.writeStringField("accessToken", token.accessToken());
+                        if (token.refreshToken() != null) {
+                            json.writeStringField("refreshToken", token.refreshToken());
+                        }
+                        json.writeEndObject();
+                    }
+                    count += issued.size();
+                    json.flush(); // 청크마다 클라이언트로 내보내 버퍼가 커지지 않도록 합니다.
+                }
+            } catch (ResponseStatusException e) {
+                log.warn("일괄 토큰 발급 요청의 뒤쪽 청크가 올바르지 않아 중단합니다: issued={}, reason={}", count, e.getReason());
+                rejected = true;
+            }
+
+            json.writeEndArray();
+            json.writeNumberField("count", count);
+            if (rejected) {
+                json.writeStringField("error", "bad_request");
+            }
+            json.writeEndObject();
+        }
+
+        log.info("일괄 토큰 발급 완료: count={}, refreshToken={}, elapsedMs={}",
+                count, includeRefreshToken, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private IssuedToken issue(BatchSubjectDto subject, boolean includeRefreshToken) {
+        String authorities = subject.getRoles().stream()
+                .map(role -> role.startsWith("ROLE_") ? role : "ROLE_" + role)
+                .collect(Collectors.joining(","));
+        String accessToken = tokenProvider.createToken(subject.getUsername(), authorities, true);
+        String refreshToken = includeRefreshToken
+                ? tokenProvider.createToken(subject.getUsername(), authorities, false)
+                : null;
+        return new IssuedToken(subject.getUsername(), accessToken, refreshToken);
+    }
+
+    private void persistRefreshTokens(List<IssuedToken> issued, Instant issuedAt, Instant expiryDate) {
+        // JPA(hibernate.jdbc.time_zone=UTC)와 같이 UTC 기준의 날짜/시간으로 저장합니다.
+        LocalDateTime issuedAtUtc = LocalDateTime.ofInstant(issuedAt, ZoneOffset.UTC);
+        LocalDateTime expiryUtc = LocalDateTime.ofInstant(expiryDate, ZoneOffset.UTC);
+        ShardResolver resolver = shardResolver.getIfAvailable();
+        if (resolver == null) {
+            insertRefreshTokens(issued, issuedAtUtc, expiryUtc);
+            return;
+        }
+        Map<Integer, List<IssuedToken>> byShard = issued.stream()
+                .collect(Collectors.groupingBy(token -> resolver.shardFor(token.username())));
+        byShard.forEach((shard, tokens) -> ShardContext.run(shard, () -> insertRefreshTokens(tokens, issuedAtUtc, expiryUtc)));
+    }
+
+    // 기기 정보(device, user_agent)는 없으므로 비워 둡니다.
+    private void insertRefreshTokens(List<IssuedToken> issued, LocalDateTime issuedAt, LocalDateTime expiry) {
+        jdbcTemplate.batchUpdate(INSERT_REFRESH_TOKEN, issued, issued.size(), (ps, token) -> {
+            ps.setString(1, token.refreshToken());
+            ps.setString(2, token.username());
+            ps.setObject(3, expiry);
+            ps.setObject(4, issuedAt);
+            ps.setString(5, TokenProvider.newTokenId());
+        });
+    }
+
+    // 한 사용자에게 발급된 토큰 묶음
+    private record IssuedToken(String username, String accessToken, String refreshToken) {
+    }
+}
@@ -1,8 +1,10 @@
 package com.jwt.demo.service;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -12,8 +14,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.core.GrantedAuthority;
 
+import com.jwt.demo.datasource.RecentWrites;
+import com.jwt.demo.datasource.ReplicaRouting;
 import com.jwt.demo.entities.User;
 import com.jwt.demo.repository.UserRepository;
+import com.jwt.demo.sharding.ShardResolver;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,8 +30,11 @@ import lombok.extern.slf4j.Slf4j;
 @Service("userDetailsService")
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final RecentWrites recentWrites;
+    private final ObjectProvider<ShardResolver> shardResolver; // 샤딩(jwt.sharding.urls)을 사용할 때만 있습니다.
 
     /**
      * 주어진 사용자 이름(username)을 기반으로 UserDetails 객체를 반환합니다.
@@ -36,16 +44,16 @@ public class CustomUserDetailsService implements UserDetailsService {
      * @throws UsernameNotFoundException 사용자 정보를 찾을 수 없을 때 발생하는 예외
      */
     @Override
-    @Transactional
+    @Transactional(readOnly = true) // 읽기 전용이므로 replica가 설정되어 있으면 replica에서 조회합니다.
     public UserDetails loadUserByUsername(final String username) {
-        log.info("+loadUserByname");
-        
         // 사용자 이름으로 사용자 정보를 조회하고, 없을 시 예외를 발생시킵니다.
-        UserDetails userDetails = userRepository.findOneWithAuthoritiesByUsername(username)
+        // 방금 가입한 사용자는 replica에 아직 없을 수 있으므로 primary에서 조회합니다.
+        Optional<User> found = recentWrites.isRecent(username)
+                ? ReplicaRouting.onPrimary(() -> userRepository.findOneWithAuthoritiesByUsername(username))
+                : userRepository.findOneWithAuthoritiesByUsername(username);
+        UserDetails userDetails = found
                 .map(user -> createUser(username, user))
                 .orElseThrow(() -> new UsernameNotFoundException(username + " -> 데이터베이스에서 찾을 수 없습니다."));
-        
-        log.info("-loadUserByname");
         return userDetails;
     }
 
@@ -57,26 +65,19 @@ public class CustomUserDetailsService implements UserDetailsService {
      * @return UserDetails 변환된 사용자 인증 정보 객체
      */
     private org.springframework.security.core.userdetails.User createUser(String username, User user) {
-        // 사용자가 활성화되어 있지 않으면 예외를 발생시킵니다.
-        if (!user.isActivated()) {
-            throw new RuntimeException(username + " -> 활성화되어 있지 않습니다.");
-        }
-        
-        log.info("createUser: username=" + username);
+        log.debug("로그인 사용자 조회: username={}, 권한 {}개", username, user.getAuthorities().size());
 
         // 사용자의 권한을 GrantedAuthority 형태로 변환합니다.
         List<GrantedAuthority> grantedAuthorities = user.getAuthorities().stream()
                 .map(authority -> new SimpleGrantedAuthority(authority.getAuthorityName()))
                 .collect(Collectors.toList());
 
-        // UserDetails 객체를 생성합니다.
-        org.springframework.security.core.userdetails.User uds = 
-        		(org.springframework.security.core.userdetails.User) org.springframework.security.core.userdetails.
-        		User.withUsername(username)
-        		    .password(user.getPassword())
-        		    .authorities(grantedAuthorities)
-        		    .build();
-        log.info("-createUser");
+        // UserDetails 객체를 생성합니다. 토큰의 uid 클레임에 넣을 수 있도록 사용자 ID를 함께 담습니다.
+        // 샤딩을 사용하면 user_id가 샤드마다 따로 생성되어 겹칠 수 있고 리샤딩으로 바뀌므로, 사용자 식별자로 내보내지 않습니다.
+        // 활성화되어 있지 않은 사용자는 Spring Security의 사전 검사에서 DisabledException으로 거부됩니다.
+        Long userId = shardResolver.getIfAvailable() == null ? user.getUserId() : null;
+        LoginUser uds = new LoginUser(userId, username, user.getPassword(), user.isActivated(), grantedAuthorities);
         return uds;
     }
-}
\ No newline at end of file
+
+}
@@ -0,0 +1,95 @@
+package com.jwt.demo.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.jwt.demo.dto.IntrospectionResultDto;
+
+/**
+ * IntrospectionCache는 토큰 검사 결과를 짧은 시간 동안 보관하는 캐시입니다.
+ * 다운스트림 서비스는 같은 토큰을 짧은 간격으로 반복해서 검사하므로, 서명 검증과 데이터베이스 조회를 건너뛸 수 있습니다.
+ * 결과는 최대 TTL 동안만, 그리고 활성 토큰은 토큰 자체의 만료 시간을 넘지 않도록 보관합니다.
+ * 로그아웃 등으로 상태가 바뀌어도 TTL 동안은 이전 결과가 반환될 수 있으므로 TTL은 수 초 수준으로 유지합니다.
+ *
+ * 가득 차면 만료된 항목을 정리하고, 그래도 3/4 이상 차 있으면 모두 비웁니다. (TokenProvider의 인증 객체 캐시와 같은 방식)
+ * 따라서 전체를 훑는 정리는 최소 maxEntries/4번의 저장마다 한 번만 일어나, 가득 찬 상태를 유지해도 저장 비용이 커지지 않습니다.
+ */
+@Component
+public class IntrospectionCache {
+
+    private final long ttlMillis;  // 결과를 보관할 최대 시간 (밀리초)
+    private final int maxEntries;  // 보관할 최대 항목 수
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    // 여러 요청이 동시에 가득 찬 캐시를 정리하지 않도록 정리는 한 스레드만 합니다.
+    private final Object sweepLock = new Object();
+
+    public IntrospectionCache(
+            @Value("${jwt.introspection.cache-ttl-seconds:5}") long ttlSeconds,
+            @Value("${jwt.introspection.cache-max-entries:100000}") int maxEntries) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * 아직 유효한 캐시 결과를 반환합니다.
+     * @param token 검사할 토큰
+     * @param nowMillis 현재 시간 (epoch 밀리초)
+     * @return 캐시된 결과 또는 null
+     */
+    public IntrospectionResultDto get(String token, long nowMillis) {
+        Entry entry = entries.get(token);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis <= nowMillis) {
+            entries.remove(token, entry);
+            return null;
+        }
+        return entry.result;
+    }
+
+    /**
+     * 검사 결과를 보관합니다. 최대 항목 수에 이르면 먼저 캐시를 정리합니다.
+     * @param token 검사한 토큰
+     * @param result 검사 결과
+     * @param nowMillis 현재 시간 (epoch 밀리초)
+     */
+    public void put(String token, IntrospectionResultDto result, long nowMillis) {
+        if (ttlMillis <= 0) {
+            return;
+        }
+        long expiresAt = nowMillis + ttlMillis;
+        if (result.isActive() && result.getExp() != null) {
+            expiresAt = Math.min(expiresAt, result.getExp() * 1000);
+        }
+        if (entries.size() >= maxEntries) {
+            sweep(nowMillis);
+        }
+        entries.put(token, new Entry(result, expiresAt));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // 만료된 항목을 정리하고, 그래도 3/4 이상 차 있으면 비웁니다.
+    private void sweep(long nowMillis) {
+        synchronized (sweepLock) {
+            if (entries.size() < maxEntries) {
+                return; // 기다리는 동안 다른 스레드가 정리했습니다.
+            }
+            entries.values().removeIf(entry -> entry.expiresAtMillis <= nowMillis);
+            if (entries.size() > maxEntries * 3L / 4) {
+                entries.clear();
+            }
+        }
+    }
+
+    private record Entry(IntrospectionResultDto result, long expiresAtMillis) {
+    }
+}
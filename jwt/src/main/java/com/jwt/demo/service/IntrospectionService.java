@@ -0,0 +1,152 @@
+package com.jwt.demo.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.jwt.demo.datasource.RecentWrites;
+import com.jwt.demo.datasource.ReplicaRouting;
+import com.jwt.demo.dto.IntrospectionResultDto;
+import com.jwt.demo.entities.RefreshToken;
+import com.jwt.demo.jwt.TokenClaims;
+import com.jwt.demo.jwt.TokenProvider;
+import com.jwt.demo.repository.RefreshTokenRepository;
+import com.jwt.demo.repository.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * IntrospectionService는 HS512 서명을 직접 검증할 수 없는 다운스트림 서비스를 위해
+ * 여러 토큰의 유효성을 한 번에 검사하는 서비스입니다. (RFC 7662 형식)
+ *
+ * 1. 짧은 TTL의 캐시에서 먼저 결과를 찾고, (서명 검증을 통과한 토큰의 결과만 캐시합니다.)
+ * 2. 나머지 토큰은 TokenProvider로 여러 코어에서 병렬로 서명과 만료를 검증한 뒤,
+ * 3. 사용자 활성화 여부와 리프레시 토큰 상태를 각각 한 번의 IN 쿼리로 확인합니다.
+ *
+ * 토큰 종류는 typ 클레임으로 판단합니다. (TokenProvider.isRefreshToken)
+ * 리프레시 토큰은 refresh_token 테이블에 있고 데이터베이스의 만료 시간이 지나지 않았을 때만 활성으로 보고하므로,
+ * 로그아웃, 세션 취소, 사용자당 한도로 삭제된 리프레시 토큰은 서명이 유효해도 비활성입니다.
+ * 세션 ID(sid 클레임)가 있는 액세스 토큰도 그 세션의 리프레시 토큰 행이 남아 있고 만료되지 않았을 때만 활성이므로,
+ * 로그아웃이나 세션 취소 뒤의 액세스 토큰은 exp 전이라도 비활성입니다. (세션은 리프레시 토큰과 같은 쿼리로 조회합니다.)
+ * 비활성화된 사용자의 토큰은 모두 비활성으로 판정합니다.
+ */
+@Service
+@RequiredArgsConstructor
+public class IntrospectionService {
+
+    private final TokenProvider tokenProvider;
+    private final UserRepository userRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final IntrospectionCache introspectionCache;
+    private final RecentWrites recentWrites;
+
+    /**
+     * 주어진 토큰들을 검사합니다.
+     * @param tokens 검사할 토큰 목록
+     * @return 요청과 같은 순서의 검사 결과 목록
+     */
+    @Transactional(readOnly = true)
+    public List<IntrospectionResultDto> introspect(List<String> tokens) {
+        long now = tokenProvider.currentTimeMillis();
+        int size = tokens.size();
+        IntrospectionResultDto[] results = new IntrospectionResultDto[size];
+
+        // 1. 캐시에 있는 결과는 그대로 사용합니다.
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            results[i] = introspectionCache.get(tokens.get(i), now);
+            if (results[i] == null) {
+                pending.add(i);
+            }
+        }
+        if (pending.isEmpty()) {
+            return Arrays.asList(results);
+        }
+
+        // 2. 서명과 만료 시간을 병렬로 검증합니다. 각 스레드는 서로 다른 인덱스에만 씁니다.
+        TokenClaims[] claims = new TokenClaims[size];
+        pending.parallelStream().forEach(i -> claims[i] = tokenProvider.parseClaims(tokens.get(i)).orElse(null));
+
+        // 3. 검증을 통과한 토큰의 사용자와 리프레시 토큰, 세션 상태를 IN 쿼리로 한 번에 확인합니다.
+        Set<String> usernames = new HashSet<>();
+        Set<String> verifiedTokens = new HashSet<>();  // 리프레시 토큰과 세션이 있는 액세스 토큰 (샤드를 고르는 데도 사용)
+        Set<String> sessionUsernames = new HashSet<>();
+        Set<String> sessionIds = new HashSet<>();
+        boolean[] refreshTokens = new boolean[size];
+        for (int i : pending) {
+            if (claims[i] != null) {
+                usernames.add(claims[i].getSubject());
+                refreshTokens[i] = tokenProvider.isRefreshToken(claims[i]);
+                if (refreshTokens[i]) {
+                    verifiedTokens.add(tokens.get(i));
+                } else if (claims[i].getSessionId() != null) {
+                    verifiedTokens.add(tokens.get(i));
+                    sessionUsernames.add(claims[i].getSubject());
+                    sessionIds.add(claims[i].getSessionId());
+                }
+            }
+        }
+        // 방금 발급된 리프레시 토큰(세션)이 섞여 있으면 replica에 아직 없을 수 있으므로 primary에서 조회합니다.
+        Supplier<Set<String>> findActiveUsernames =
+                () -> usernames.isEmpty() ? Set.of() : userRepository.findActiveUsernames(usernames);
+        Supplier<List<RefreshToken>> findRefreshTokens = () -> verifiedTokens.isEmpty() ? List.of()
+                : sessionIds.isEmpty() ? refreshTokenRepository.findAllById(verifiedTokens)
+                : refreshTokenRepository.findByTokenInOrSession(verifiedTokens, sessionUsernames, sessionIds);
+        boolean readFromPrimary = recentWrites.anyRecent(verifiedTokens) || recentWrites.anyRecent(sessionIds);
+        Set<String> activeUsernames = readFromPrimary
+                ? ReplicaRouting.onPrimary(findActiveUsernames) : findActiveUsernames.get();
+        Map<String, RefreshToken> storedRefreshTokens = new HashMap<>();
+        Map<String, RefreshToken> storedSessions = new HashMap<>();
+        for (RefreshToken refreshToken : readFromPrimary
+                ? ReplicaRouting.onPrimary(findRefreshTokens) : findRefreshTokens.get()) {
+            storedRefreshTokens.put(refreshToken.getToken(), refreshToken);
+            if (refreshToken.getSessionId() != null) {
+                storedSessions.put(sessionKey(refreshToken.getUsername(), refreshToken.getSessionId()), refreshToken);
+            }
+        }
+
+        // 4. 결과를 조합하고 캐시에 저장합니다.
+        for (int i : pending) {
+            String token = tokens.get(i);
+            TokenClaims tokenClaims = claims[i];
+            IntrospectionResultDto result = IntrospectionResultDto.INACTIVE;
+            if (tokenClaims != null && activeUsernames.contains(tokenClaims.getSubject())) {
+                // 리프레시 토큰은 그 행이, 세션이 있는 액세스 토큰은 세션의 행이 남아 있어야 합니다.
+                RefreshToken stored = refreshTokens[i] ? storedRefreshTokens.get(token)
+                        : tokenClaims.getSessionId() != null
+                                ? storedSessions.get(sessionKey(tokenClaims.getSubject(), tokenClaims.getSessionId()))
+                                : null;
+                boolean active = !refreshTokens[i] && tokenClaims.getSessionId() == null
+                        || stored != null && !tokenProvider.isExpired(stored.getExpiryDate());
+                if (active) {
+                    result = IntrospectionResultDto.builder()
+                            .active(true)
+                            .sub(tokenClaims.getSubject())
+                            .scope(tokenClaims.getAuthorities())
+                            .exp(tokenClaims.getExpirationSeconds())
+                            .tokenType(refreshTokens[i] ? "refresh_token" : "access_token")
+                            .build();
+                }
+            }
+            results[i] = result;
+            // 서명이나 형식 검증에 실패한 토큰은 캐시하지 않습니다. 아무 문자열로 캐시를 채울 수 없게 합니다.
+            if (tokenClaims != null) {
+                introspectionCache.put(token, result, now);
+            }
+        }
+
+        return Arrays.asList(results);
+    }
+
+    private static String sessionKey(String username, String sessionId) {
+        return username + '\n' + sessionId;
+    }
+}
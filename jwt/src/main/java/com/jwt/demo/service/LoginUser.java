@@ -0,0 +1,27 @@
+package com.jwt.demo.service;
+
+import java.util.Collection;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import lombok.Getter;
+
+/**
+ * LoginUser는 로그인 시 CustomUserDetailsService가 반환하는 UserDetails입니다.
+ * Spring Security의 User에 사용자 ID를 추가로 담아, 발급하는 토큰의 uid 클레임에 넣을 수 있도록 합니다.
+ */
+@Getter
+public class LoginUser extends User {
+
+    private static final long serialVersionUID = 1L;
+
+    // users 테이블의 user_id
+    private final Long userId;
+
+    public LoginUser(Long userId, String username, String password, boolean enabled,
+            Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, enabled, true, true, true, authorities);
+        this.userId = userId;
+    }
+}
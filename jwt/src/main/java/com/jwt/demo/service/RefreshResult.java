@@ -0,0 +1,34 @@
+package com.jwt.demo.service;
+
+import com.jwt.demo.dto.TokenDto;
+
+import lombok.Getter;
+
+/**
+ * RefreshResult는 리프레시 토큰으로 엑세스 토큰을 발급한 결과입니다.
+ * 잘못되었거나 만료된 리프레시 토큰은 흔한 경우이므로 예외 대신 미리 만들어 둔 결과 객체로 돌려줍니다.
+ */
+@Getter
+public final class RefreshResult {
+
+    public enum Status {
+        ISSUED,  // 새 엑세스 토큰 발급
+        INVALID, // 저장되어 있지 않은 리프레시 토큰이거나 인증 정보가 없음
+        EXPIRED  // 만료된 리프레시 토큰 (저장소에서 삭제됨)
+    }
+
+    public static final RefreshResult INVALID = new RefreshResult(Status.INVALID, null);
+    public static final RefreshResult EXPIRED = new RefreshResult(Status.EXPIRED, null);
+
+    private final Status status;
+    private final TokenDto token; // ISSUED일 때만 값이 있습니다.
+
+    private RefreshResult(Status status, TokenDto token) {
+        this.status = status;
+        this.token = token;
+    }
+
+    public static RefreshResult issued(TokenDto token) {
+        return new RefreshResult(Status.ISSUED, token);
+    }
+}
@@ -0,0 +1,196 @@
+package com.jwt.demo.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * RefreshSingleFlight는 같은 리프레시 토큰으로 동시에 들어온 갱신 요청을 한 번의 계산으로 합칩니다.
+ * 여러 탭이나 앱 인스턴스가 같은 순간에 /api/refresh-token을 보내면, 먼저 온 요청 하나만 DB 조회와 서명을 하고
+ * 나머지는 그 결과(같은 액세스 토큰)를 기다려 받습니다.
+ *
+ * - 키는 리프레시 토큰의 SHA-256입니다. 토큰 원문은 메모리에 남기지 않습니다.
+ * - 계산이 끝난 뒤에도 grace 시간(jwt.refresh.coalesce-grace-ms) 동안은 조금 늦게 도착한 중복 요청에 같은 결과를 돌려줍니다.
+ * - 끝난 계산은 끝난 순서대로 큐에 넣고, 요청마다 큐의 앞에서 grace가 지난 항목만 지웁니다.
+ *   끝난 순서가 곧 grace가 지나는 순서이므로 맵 전체를 훑지 않으며, 항목 하나는 한 번만 지웁니다.
+ * - 항목 수는 jwt.refresh.coalesce-max-entries로 제한합니다. 가득 차 있으면 합치지 않고 바로 계산합니다.
+ * - 계산 중 예외가 나면 기다리던 요청도 같은 예외를 받고, 항목은 바로 지워 다음 요청이 다시 계산합니다.
+ * - 로그아웃한 토큰은 forget으로 지워 grace 시간 중에도 새 액세스 토큰을 받지 못하게 합니다.
+ */
+@Component
+public class RefreshSingleFlight {
+
+    private final long graceNanos;
+    private final int maxEntries;
+
+    // 리프레시 토큰의 SHA-256 -> 진행 중이거나 grace 시간 안에 끝난 계산
+    private final Map<String, Flight> flights = new ConcurrentHashMap<>();
+
+    // 끝난 계산을 끝난 순서대로 보관합니다. 앞에서부터 grace가 지난 항목을 flights에서 지웁니다.
+    private final Queue<Flight> completed = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder computed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * @param graceMillis 계산이 끝난 뒤 결과를 재사용하는 시간 (밀리초)
+     * @param maxEntries 기억하는 최대 항목 수. 0이면 합치지 않습니다.
+     */
+    public RefreshSingleFlight(
+            @Value("${jwt.refresh.coalesce-grace-ms:2000}") long graceMillis,
+            @Value("${jwt.refresh.coalesce-max-entries:10000}") int maxEntries) {
+        this.graceNanos = TimeUnit.MILLISECONDS.toNanos(graceMillis);
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * 같은 리프레시 토큰의 계산이 진행 중이거나 grace 시간 안에 끝났으면 그 결과를, 아니면 직접 계산한 결과를 반환합니다.
+     *
+     * @param refreshToken 리프레시 토큰
+     * @param computation 결과를 계산하는 작업 (DB 조회와 서명)
+     */
+    public RefreshResult execute(String refreshToken, Supplier<RefreshResult> computation) {
+        if (maxEntries <= 0) {
+            computed.increment();
+            return computation.get();
+        }
+        String key = digest(refreshToken);
+        long now = System.nanoTime();
+        evictExpired(now);
+        Flight existing = flights.get(key);
+        if (existing != null && existing.isReusable(now, graceNanos)) {
+            coalesced.increment();
+            return existing.await();
+        }
+        if (flights.size() >= maxEntries) {
+            computed.increment();
+            return computation.get();
+        }
+
+        Flight mine = new Flight(key);
+        Flight winner = flights.compute(key,
+                (k, current) -> current != null && current.isReusable(now, graceNanos) ? current : mine);
+        if (winner != mine) {
+            coalesced.increment();
+            return winner.await();
+        }
+
+        computed.increment();
+        try {
+            RefreshResult result = computation.get();
+            mine.complete(result);
+            completed.add(mine);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flights.remove(key, mine);
+            mine.fail(e);
+            throw e;
+        }
+    }
+
+    // 큐의 앞에서부터 grace가 지난 계산을 지웁니다. 앞의 항목이 아직 재사용 가능하면 뒤의 항목도 그렇습니다.
+    private void evictExpired(long now) {
+        Flight oldest;
+        while ((oldest = completed.peek()) != null && !oldest.isReusable(now, graceNanos)) {
+            if (completed.remove(oldest)) { // 다른 스레드가 먼저 지웠으면 false입니다.
+                flights.remove(oldest.key, oldest);
+            }
+        }
+    }
+
+    /**
+     * @return 기억하고 있는 항목 수
+     */
+    public int size() {
+        return flights.size();
+    }
+
+    /**
+     * 리프레시 토큰의 결과를 더 이상 재사용하지 않습니다. (로그아웃)
+     */
+    public void forget(String refreshToken) {
+        if (maxEntries > 0 && !flights.isEmpty()) {
+            flights.remove(digest(refreshToken));
+        }
+    }
+
+    /**
+     * @return 직접 계산한 요청 수
+     */
+    public long computedCount() {
+        return computed.sum();
+    }
+
+    /**
+     * @return 다른 요청의 결과를 받은 요청 수
+     */
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    private static String digest(String refreshToken) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(refreshToken.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 하나의 계산과 그 결과입니다.
+     */
+    private static final class Flight {
+
+        private final String key;
+        private final CompletableFuture<RefreshResult> result = new CompletableFuture<>();
+        private volatile long completedAt;
+
+        Flight(String key) {
+            this.key = key;
+        }
+
+        void complete(RefreshResult value) {
+            completedAt = System.nanoTime();
+            result.complete(value);
+        }
+
+        void fail(Throwable e) {
+            result.completeExceptionally(e);
+        }
+
+        boolean isReusable(long now, long graceNanos) {
+            if (!result.isDone()) {
+                return true;
+            }
+            return !result.isCompletedExceptionally() && now - completedAt <= graceNanos;
+        }
+
+        RefreshResult await() {
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.jwt.demo.service;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.jwt.demo.repository.RefreshTokenRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * RefreshTokenQuota는 사용자마다 저장되는 리프레시 토큰 수를 jwt.refresh.max-tokens-per-user개로 제한합니다.
+ * 로그인할 때마다 행이 늘어나므로, 한도를 넘으면 가장 오래된(만료가 가까운) 토큰부터 같은 트랜잭션에서 삭제합니다.
+ *
+ * 토큰 수를 메모리에 세어 두지 않고 로그인마다 DB에서 한도 뒤의 토큰을 찾으므로, 여러 인스턴스가 같은 사용자를 발급하거나
+ * 트랜잭션이 롤백되어도 한도가 어긋나지 않습니다. 조회는 (username, expiry_date) 인덱스를 한도만큼만 읽습니다.
+ * 서로 다른 인스턴스에서 같은 사용자가 동시에 로그인하면 서로의 새 행을 보지 못해 잠시 한도를 넘을 수 있으며, 다음 로그인에서 맞춰집니다.
+ */
+@Slf4j
+@Component
+public class RefreshTokenQuota {
+
+    // 한 번의 로그인에서 삭제하는 최대 토큰 수. 한도를 새로 낮춘 경우에도 로그인 한 번이 오래 걸리지 않도록 제한합니다.
+    private static final int MAX_EVICTIONS_PER_LOGIN = 100;
+
+    // 사용자당 최대 리프레시 토큰 수 (0이면 제한하지 않음)
+    private final int maxTokensPerUser;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    private final LongAdder evicted = new LongAdder();
+
+    public RefreshTokenQuota(
+            @Value("${jwt.refresh.max-tokens-per-user:0}") int maxTokensPerUser,
+            RefreshTokenRepository refreshTokenRepository) {
+        this.maxTokensPerUser = maxTokensPerUser;
+        this.refreshTokenRepository = refreshTokenRepository;
+    }
+
+    /**
+     * 새 리프레시 토큰을 저장한 직후, 같은 트랜잭션에서 호출합니다. 한도를 넘은 만큼 오래된 토큰을 삭제합니다.
+     * 삭제할 토큰은 (username, expiry_date) 인덱스를 최근 순서로 읽어 한도 뒤에 있는 행만 고르므로, 사용자의 토큰 수와 관계없이
+     * 한도와 삭제 수만큼의 인덱스 항목만 읽습니다.
+     *
+     * @param username 토큰을 발급한 사용자
+     * @param issuedToken 방금 저장한 리프레시 토큰. 만료 시간이 같은 토큰이 있어도 이 토큰은 삭제하지 않습니다.
+     * @return 삭제한 토큰 수
+     */
+    public int afterIssue(String username, String issuedToken) {
+        if (maxTokensPerUser <= 0) {
+            return 0;
+        }
+        // 방금 저장한 토큰을 빼고 최근 (한도 - 1)개 뒤에 있는 토큰이 삭제 대상입니다.
+        List<String> excess = refreshTokenRepository.findTokensBeyondNewest(
+                username, issuedToken, maxTokensPerUser - 1, MAX_EVICTIONS_PER_LOGIN);
+        if (excess.isEmpty()) {
+            return 0;
+        }
+        int deleted = refreshTokenRepository.deleteByUsernameAndTokenIn(username, excess);
+        evicted.add(deleted);
+        log.debug("리프레시 토큰 한도 초과로 오래된 토큰 삭제: username={}, deleted={}", username, deleted);
+        return deleted;
+    }
+
+    /**
+     * @return 한도를 넘어 삭제한 리프레시 토큰 수
+     */
+    public long evictedCount() {
+        return evicted.sum();
+    }
+}
@@ -0,0 +1,32 @@
+package com.jwt.demo.service;
+
+/**
+ * 로그인한 기기 정보입니다. 리프레시 토큰 행에 함께 저장되어 세션 목록에 표시됩니다.
+ *
+ * @param device 클라이언트가 알려 준 기기 이름 (없으면 null)
+ * @param userAgent 로그인 요청의 User-Agent (없으면 null)
+ */
+public record SessionDevice(String device, String userAgent) {
+
+    // 기기 정보 없이 발급하는 경우 (관리자 일괄 발급 등)
+    public static final SessionDevice UNKNOWN = new SessionDevice(null, null);
+
+    // RefreshToken 엔티티의 열 길이
+    private static final int DEVICE_LENGTH = 100;
+    private static final int USER_AGENT_LENGTH = 255;
+
+    /**
+     * 빈 값은 null로 바꾸고 열 길이보다 긴 값은 잘라서 만듭니다.
+     */
+    public static SessionDevice of(String device, String userAgent) {
+        return new SessionDevice(truncate(device, DEVICE_LENGTH), truncate(userAgent, USER_AGENT_LENGTH));
+    }
+
+    private static String truncate(String value, int length) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String stripped = value.strip();
+        return stripped.length() <= length ? stripped : stripped.substring(0, length);
+    }
+}
@@ -0,0 +1,76 @@
+package com.jwt.demo.service;
+
+import java.time.Instant;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.jwt.demo.dto.SessionDto;
+import com.jwt.demo.dto.SessionPageDto;
+import com.jwt.demo.jwt.TokenProvider;
+import com.jwt.demo.repository.RefreshTokenRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * SessionService는 사용자가 자신의 로그인 세션(저장된 리프레시 토큰)을 조회하고 로그아웃하는 기능을 제공합니다.
+ *
+ * 세션을 로그아웃하면 그 리프레시 토큰으로는 더 이상 액세스 토큰을 갱신할 수 없습니다.
+ * 이미 발급된 액세스 토큰은 만료될 때까지 유효하며, 같은 토큰의 갱신 결과는 jwt.refresh.coalesce-grace-ms 동안 재사용될 수 있습니다.
+ */
+@Service
+@RequiredArgsConstructor
+public class SessionService {
+
+    // 한 페이지의 최대 세션 수
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TokenProvider tokenProvider;
+
+    /**
+     * 사용자의 만료되지 않은 세션을 만료 시간이 늦은(최근에 로그인한) 순서로 한 페이지 조회합니다.
+     * 조회는 replica에서 실행되므로 방금 로그인한 세션은 복제 지연만큼 늦게 보일 수 있습니다.
+     *
+     * @param username 사용자 이름
+     * @param page 0부터 시작하는 페이지 번호
+     * @param size 페이지 크기 (1 ~ MAX_PAGE_SIZE)
+     */
+    @Transactional(readOnly = true)
+    public SessionPageDto sessions(String username, int page, int size) {
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+        Instant now = Instant.ofEpochMilli(tokenProvider.currentTimeMillis());
+        Slice<SessionDto> sessions = refreshTokenRepository
+                .findByUsernameAndExpiryDateAfterOrderByExpiryDateDesc(username, now, pageRequest)
+                .map(session -> SessionDto.builder()
+                        .sessionId(session.getSessionId())
+                        .device(session.getDevice())
+                        .userAgent(session.getUserAgent())
+                        .issuedAt(session.getIssuedAt())
+                        .expiresAt(session.getExpiryDate())
+                        .build());
+        return new SessionPageDto(sessions.getContent(), sessions.getNumber(), sessions.getSize(), sessions.hasNext());
+    }
+
+    /**
+     * 사용자의 세션 하나를 로그아웃합니다.
+     *
+     * @return 사용자의 세션이 있어 삭제했으면 true
+     */
+    @Transactional
+    public boolean logout(String username, String sessionId) {
+        return refreshTokenRepository.deleteByUsernameAndSessionId(username, sessionId) > 0;
+    }
+
+    /**
+     * 사용자의 모든 세션을 로그아웃합니다. 세션 수와 관계없이 delete 문 하나로 처리합니다.
+     *
+     * @return 로그아웃한 세션 수
+     */
+    @Transactional
+    public int logoutEverywhere(String username) {
+        return refreshTokenRepository.deleteAllByUsername(username);
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.jwt.demo.datasource.RecentWrites;
 import com.jwt.demo.dto.UserDto;
 import com.jwt.demo.entities.Authority;
 import com.jwt.demo.entities.User;
@@ -23,6 +24,7 @@ import lombok.RequiredArgsConstructor;
 public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final RecentWrites recentWrites;
 
     /**
      * 새로운 사용자를 등록하는 메서드입니다.
@@ -52,7 +54,9 @@ public class UserService {
                 .activated(true) // 사용자 활성화 상태
                 .build();
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        recentWrites.record(saved.getUsername()); // 가입 직후 로그인은 primary에서 사용자를 조회합니다.
+        return saved;
     }
 
     /**
@@ -0,0 +1,52 @@
+package com.jwt.demo.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * ShardContext는 현재 스레드에서 사용할 샤드 번호를 담아 두는 도우미입니다.
+ * ShardRoutingDataSource가 연결을 얻을 때 이 값을 보고 샤드를 고릅니다.
+ * 값이 없으면 기본 샤드(0번)를 사용합니다.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * 주어진 샤드에서 작업을 실행합니다. 이미 다른 샤드가 지정되어 있었다면 끝난 뒤 되돌립니다.
+     * 트랜잭션 안에서는 이미 연결을 얻은 뒤라면 샤드가 바뀌지 않으므로, 샤드마다 별도 트랜잭션에서 호출해야 합니다.
+     *
+     * @param shard 샤드 번호
+     * @param work 실행할 작업
+     * @return 작업 결과
+     */
+    public static <T> T on(int shard, Supplier<T> work) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public static void run(int shard, Runnable work) {
+        on(shard, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * @return 현재 스레드에 지정된 샤드 번호. 지정되지 않았으면 null
+     */
+    public static Integer current() {
+        return CURRENT.get();
+    }
+}
@@ -0,0 +1,107 @@
+package com.jwt.demo.sharding;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.StringUtils;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * ShardDataSourceConfig는 jwt.sharding.urls가 설정된 경우 username 기준 샤드 라우팅을 구성합니다.
+ * 설정하지 않으면 Spring Boot의 기본 DataSource(spring.datasource.*) 하나만 사용합니다.
+ *
+ * URL 목록의 순서가 샤드 번호이며, 샤드를 늘릴 때는 목록 끝에 추가하고 jwt.sharding.previous-shard-count에
+ * 이전 샤드 수를 설정한 뒤 리샤딩 도구(POST /api/admin/shards/rebalance)를 실행합니다.
+ * 각 샤드 풀은 spring.datasource.hikari.* 설정에 URL만 바꾼 Hikari 풀입니다.
+ * replica 라우팅(jwt.replica.urls)과는 함께 사용할 수 없습니다.
+ * (AOT/native 빌드에서는 조건이 빌드 시점에 결정되므로 빌드할 때도 jwt.sharding.urls를 설정해야 합니다.)
+ */
+@Configuration
+@ConditionalOnProperty(name = "jwt.sharding.urls")
+public class ShardDataSourceConfig {
+
+    public ShardDataSourceConfig(@Value("${jwt.replica.urls:}") String replicaUrls) {
+        if (StringUtils.hasText(replicaUrls)) {
+            throw new IllegalStateException("jwt.sharding.urls와 jwt.replica.urls는 함께 설정할 수 없습니다.");
+        }
+    }
+
+    @Bean
+    public ShardResolver shardResolver(
+            @Value("${jwt.sharding.urls}") String[] urls,
+            @Value("${jwt.sharding.previous-shard-count:0}") int previousShardCount,
+            @Value("${jwt.sharding.virtual-nodes:160}") int virtualNodes) {
+        return new ShardResolver(urls.length, previousShardCount, virtualNodes);
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariConfig shardPoolConfig() {
+        return new HikariConfig();
+    }
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(
+            HikariConfig shardPoolConfig,
+            @Value("${jwt.sharding.urls}") String[] urls,
+            @Value("${jwt.sharding.username:${spring.datasource.username:}}") String username,
+            @Value("${jwt.sharding.password:${spring.datasource.password:}}") String password,
+            @Value("${jwt.sharding.driver-class-name:${spring.datasource.driver-class-name:}}") String driverClassName) {
+        List<DataSource> shards = new ArrayList<>();
+        for (int i = 0; i < urls.length; i++) {
+            HikariConfig config = new HikariConfig();
+            shardPoolConfig.copyStateTo(config);
+            config.setPoolName("shard-" + i);
+            config.setJdbcUrl(urls[i].trim());
+            config.setUsername(username);
+            config.setPassword(password);
+            if (StringUtils.hasText(driverClassName)) {
+                config.setDriverClassName(driverClassName);
+            }
+            shards.add(new HikariDataSource(config));
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    /**
+     * JPA와 JdbcTemplate이 사용하는 DataSource입니다.
+     * 리포지토리 호출에서 정한 샤드로 연결을 얻을 수 있도록 첫 쿼리 시점까지 연결 획득을 미룹니다.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    @Bean
+    public ShardRoutingAspect shardRoutingAspect(ShardResolver shardResolver, PlatformTransactionManager transactionManager) {
+        return new ShardRoutingAspect(shardResolver, transactionManager);
+    }
+
+    @Bean
+    public ShardSchemaInitializer shardSchemaInitializer(
+            ShardRoutingDataSource shardRoutingDataSource,
+            EntityManagerFactory entityManagerFactory,
+            @Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto) {
+        return new ShardSchemaInitializer(shardRoutingDataSource, entityManagerFactory, ddlAuto);
+    }
+
+    @Bean
+    public ShardRebalancer shardRebalancer(ShardRoutingDataSource shardRoutingDataSource, ShardResolver shardResolver) {
+        return new ShardRebalancer(shardRoutingDataSource, shardResolver);
+    }
+}
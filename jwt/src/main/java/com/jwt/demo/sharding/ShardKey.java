@@ -0,0 +1,31 @@
+package com.jwt.demo.sharding;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * ShardKey는 리포지토리 메서드의 어떤 파라미터로 샤드를 고를지 표시하는 애노테이션입니다.
+ * 파라미터가 컬렉션이면 원소마다 샤드를 계산해 샤드별로 나누어 실행하고 결과를 합칩니다.
+ *
+ * ShardKey가 없는 메서드(findAll 등)는 기본 샤드(0번)에서 실행됩니다.
+ */
+@Documented
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ShardKey {
+
+    /**
+     * 파라미터 값에서 username을 얻는 방법입니다.
+     */
+    Type value() default Type.USERNAME;
+
+    enum Type {
+        /** username 문자열, 또는 username을 가진 User/RefreshToken 엔티티 */
+        USERNAME,
+        /** 리프레시 토큰 문자열. 토큰의 sub 클레임(username)으로 샤드를 고릅니다. 서명은 검사하지 않습니다. */
+        TOKEN
+    }
+}
@@ -0,0 +1,216 @@
+package com.jwt.demo.sharding;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ShardRebalancer는 샤드 수를 바꾼 뒤 현재 링과 다른 샤드에 남아 있는 사용자와 리프레시 토큰을 옮기는 온라인 리샤딩 도구입니다.
+ *
+ * 각 샤드를 기본 키 순서로 batchSize개씩 읽고(keyset 페이지), 옮겨야 하는 행을 대상 샤드별로 모아 JDBC 배치로 복사한 뒤 원래 샤드에서 삭제합니다.
+ * 복사가 삭제보다 먼저 끝나고 조회는 새 샤드에서 찾지 못하면 이전 샤드를 찾으므로(ShardRoutingAspect) 서비스를 멈추지 않고 실행할 수 있습니다.
+ * 중간에 실패해도 다시 실행하면 이어서 옮기며, 이미 옮겨진 행은 건너뜁니다.
+ *
+ * 사용자는 대상 샤드에서 새 user_id를 받습니다. 그래서 샤딩을 사용하는 동안에는 토큰에 uid 클레임을 넣지 않습니다.
+ * 모든 샤드에서 옮길 행이 없으면 jwt.sharding.previous-shard-count 설정을 제거해도 됩니다.
+ */
+@Slf4j
+public class ShardRebalancer {
+
+    private static final String SELECT_USERS =
+            "select user_id, username, password, nickname, activated from users where user_id > ? order by user_id limit ?";
+    private static final String SELECT_USER_ID = "select user_id from users where username = ?";
+    private static final String INSERT_USER =
+            "insert into users (username, password, nickname, activated) values (?, ?, ?, ?)";
+    private static final String SELECT_AUTHORITIES =
+            "select user_id, authority_name from user_authority where user_id in (:ids)";
+    private static final String DELETE_AUTHORITIES = "delete from user_authority where user_id in (:ids)";
+    private static final String INSERT_AUTHORITY = "insert into user_authority (user_id, authority_name) values (?, ?)";
+    private static final String DELETE_USERS = "delete from users where user_id in (:ids)";
+
+    private static final String SELECT_TOKENS =
+            "select token, username, expiry_date, issued_at, session_id, device, user_agent from refresh_token"
+                    + " where token > ? order by token limit ?";
+    private static final String DELETE_TOKENS = "delete from refresh_token where token in (:tokens)";
+    private static final String INSERT_TOKEN = "insert into refresh_token"
+            + " (token, username, expiry_date, issued_at, session_id, device, user_agent) values (?, ?, ?, ?, ?, ?, ?)";
+
+    private final ShardResolver resolver;
+    private final NamedParameterJdbcTemplate[] jdbcTemplates;
+    private final TransactionTemplate[] transactions;
+
+    public ShardRebalancer(ShardRoutingDataSource shards, ShardResolver resolver) {
+        this.resolver = resolver;
+        int count = shards.getShardCount();
+        this.jdbcTemplates = new NamedParameterJdbcTemplate[count];
+        this.transactions = new TransactionTemplate[count];
+        for (int i = 0; i < count; i++) {
+            jdbcTemplates[i] = new NamedParameterJdbcTemplate(shards.getShard(i));
+            transactions[i] = new TransactionTemplate(new DataSourceTransactionManager(shards.getShard(i)));
+        }
+    }
+
+    /**
+     * 모든 샤드를 한 번 훑으며 잘못된 샤드에 있는 사용자와 리프레시 토큰을 옮깁니다.
+     * 동시에 두 번 실행되지 않도록 동기화합니다.
+     *
+     * @param batchSize 한 번에 읽고 옮기는 행 수
+     * @return 읽은 행 수와 옮긴 행 수
+     */
+    public synchronized Result rebalance(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize는 1 이상이어야 합니다.");
+        }
+        long started = System.nanoTime();
+        int scannedUsers = 0;
+        int movedUsers = 0;
+        int scannedTokens = 0;
+        int movedTokens = 0;
+
+        for (int source = 0; source < jdbcTemplates.length; source++) {
+            JdbcTemplate jdbcTemplate = jdbcTemplates[source].getJdbcTemplate();
+
+            // 1. 사용자와 권한
+            long lastUserId = 0;
+            List<UserRow> users;
+            do {
+                users = jdbcTemplate.query(SELECT_USERS, (rs, i) -> new UserRow(rs.getLong("user_id"),
+                        rs.getString("username"), rs.getString("password"), rs.getString("nickname"),
+                        rs.getBoolean("activated")), lastUserId, batchSize);
+                if (users.isEmpty()) {
+                    break;
+                }
+                lastUserId = users.get(users.size() - 1).userId();
+                scannedUsers += users.size();
+                for (Map.Entry<Integer, List<UserRow>> move : misplaced(source, users, UserRow::username).entrySet()) {
+                    moveUsers(source, move.getKey(), move.getValue());
+                    movedUsers += move.getValue().size();
+                }
+            } while (users.size() == batchSize);
+
+            // 2. 리프레시 토큰 (사용자 행이 없는 subject로 발급된 토큰도 있으므로 따로 훑습니다.)
+            String lastToken = "";
+            List<TokenRow> tokens;
+            do {
+                tokens = jdbcTemplate.query(SELECT_TOKENS, (rs, i) -> new TokenRow(rs.getString("token"),
+                        rs.getString("username"), rs.getObject("expiry_date"), rs.getObject("issued_at"),
+                        rs.getString("session_id"), rs.getString("device"), rs.getString("user_agent")),
+                        lastToken, batchSize);
+                if (tokens.isEmpty()) {
+                    break;
+                }
+                lastToken = tokens.get(tokens.size() - 1).token();
+                scannedTokens += tokens.size();
+                for (Map.Entry<Integer, List<TokenRow>> move : misplaced(source, tokens, TokenRow::username).entrySet()) {
+                    moveTokens(source, move.getKey(), move.getValue());
+                    movedTokens += move.getValue().size();
+                }
+            } while (tokens.size() == batchSize);
+        }
+
+        Result result = new Result(scannedUsers, movedUsers, scannedTokens, movedTokens);
+        log.info("리샤딩 완료: {} ({} ms)", result, (System.nanoTime() - started) / 1_000_000);
+        return result;
+    }
+
+    private <T> Map<Integer, List<T>> misplaced(int source, List<T> rows, Function<T, String> username) {
+        Map<Integer, List<T>> targets = new TreeMap<>();
+        for (T row : rows) {
+            String name = username.apply(row);
+            int target = name == null ? 0 : resolver.shardFor(name);
+            if (target != source) {
+                targets.computeIfAbsent(target, t -> new ArrayList<>()).add(row);
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * 사용자와 권한을 대상 샤드에 복사한 뒤 원래 샤드에서 삭제합니다.
+     * 대상 샤드에 같은 username이 이미 있으면(이전 실행에서 복사된 경우) 그 행을 사용합니다.
+     */
+    private void moveUsers(int source, int target, List<UserRow> users) {
+        List<Long> sourceIds = users.stream().map(UserRow::userId).toList();
+        List<Map<String, Object>> authorities = jdbcTemplates[source]
+                .queryForList(SELECT_AUTHORITIES, Map.of("ids", sourceIds));
+
+        transactions[target].executeWithoutResult(status -> {
+            JdbcTemplate jdbcTemplate = jdbcTemplates[target].getJdbcTemplate();
+            Map<Long, Long> targetIds = new HashMap<>();
+            for (UserRow user : users) {
+                List<Long> existing = jdbcTemplate.queryForList(SELECT_USER_ID, Long.class, user.username());
+                targetIds.put(user.userId(), existing.isEmpty() ? insertUser(jdbcTemplate, user) : existing.get(0));
+            }
+            jdbcTemplates[target].update(DELETE_AUTHORITIES, Map.of("ids", targetIds.values()));
+            if (!authorities.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_AUTHORITY, authorities, authorities.size(), (ps, row) -> {
+                    ps.setLong(1, targetIds.get(((Number) row.get("user_id")).longValue()));
+                    ps.setString(2, (String) row.get("authority_name"));
+                });
+            }
+        });
+
+        transactions[source].executeWithoutResult(status -> {
+            jdbcTemplates[source].update(DELETE_AUTHORITIES, Map.of("ids", sourceIds));
+            jdbcTemplates[source].update(DELETE_USERS, Map.of("ids", sourceIds));
+        });
+    }
+
+    private static long insertUser(JdbcTemplate jdbcTemplate, UserRow user) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_USER, new String[] {"user_id"});
+            ps.setString(1, user.username());
+            ps.setString(2, user.password());
+            ps.setString(3, user.nickname());
+            ps.setBoolean(4, user.activated());
+            return ps;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    private void moveTokens(int source, int target, List<TokenRow> tokens) {
+        List<String> values = tokens.stream().map(TokenRow::token).toList();
+        transactions[target].executeWithoutResult(status -> {
+            jdbcTemplates[target].update(DELETE_TOKENS, Map.of("tokens", values));
+            jdbcTemplates[target].getJdbcTemplate().batchUpdate(INSERT_TOKEN, tokens, tokens.size(), (ps, row) -> {
+                ps.setString(1, row.token());
+                ps.setString(2, row.username());
+                ps.setObject(3, row.expiryDate());
+                ps.setObject(4, row.issuedAt());
+                ps.setString(5, row.sessionId());
+                ps.setString(6, row.device());
+                ps.setString(7, row.userAgent());
+            });
+        });
+        transactions[source].executeWithoutResult(
+                status -> jdbcTemplates[source].update(DELETE_TOKENS, Map.of("tokens", values)));
+    }
+
+    /**
+     * 리샤딩 결과입니다.
+     */
+    public record Result(int scannedUsers, int movedUsers, int scannedRefreshTokens, int movedRefreshTokens) {
+    }
+
+    private record UserRow(long userId, String username, String password, String nickname, boolean activated) {
+    }
+
+    // 날짜/시간 열은 변환하지 않고 읽은 값 그대로 복사합니다. (UTC 기준 값이 유지됩니다.)
+    private record TokenRow(String token, String username, Object expiryDate, Object issuedAt,
+            String sessionId, String device, String userAgent) {
+    }
+}
@@ -0,0 +1,118 @@
+package com.jwt.demo.sharding;
+
+import java.util.Arrays;
+
+/**
+ * ShardResolver는 username의 일관된 해시(consistent hash)로 샤드 번호를 계산합니다.
+ *
+ * 샤드마다 가상 노드(virtual node)를 여러 개 링 위에 두고, username의 해시보다 크거나 같은 첫 번째 노드의 샤드를 고릅니다.
+ * 샤드를 N개에서 N+1개로 늘리면 약 1/(N+1)의 사용자만 새 샤드로 옮겨지고 나머지는 그대로 남습니다.
+ * 해시는 JVM이나 실행 환경과 관계없이 항상 같은 값을 돌려주어야 하므로 String.hashCode 대신 FNV-1a 64비트 해시를 사용합니다.
+ *
+ * 리샤딩 중에는 이전 샤드 수로 만든 링(previous)도 함께 유지하여, 아직 옮겨지지 않은 사용자를 이전 위치에서 찾을 수 있게 합니다.
+ */
+public class ShardResolver {
+
+    private final Ring current;
+    private final Ring previous; // 리샤딩 중이 아니면 null
+
+    /**
+     * @param shardCount 샤드 수
+     * @param previousShardCount 리샤딩 전의 샤드 수. 리샤딩 중이 아니면 0 또는 shardCount와 같은 값
+     * @param virtualNodes 샤드 하나당 링 위에 두는 가상 노드 수
+     */
+    public ShardResolver(int shardCount, int previousShardCount, int virtualNodes) {
+        if (shardCount < 1 || virtualNodes < 1) {
+            throw new IllegalArgumentException("샤드 수와 가상 노드 수는 1 이상이어야 합니다.");
+        }
+        if (previousShardCount < 0 || previousShardCount > shardCount) {
+            throw new IllegalArgumentException("이전 샤드 수는 0 이상, 현재 샤드 수 이하여야 합니다: " + previousShardCount);
+        }
+        this.current = new Ring(shardCount, virtualNodes);
+        this.previous = previousShardCount == 0 || previousShardCount == shardCount
+                ? null
+                : new Ring(previousShardCount, virtualNodes);
+    }
+
+    /**
+     * @return username이 저장되어야 하는 샤드 번호
+     */
+    public int shardFor(String username) {
+        return current.lookup(hash(username));
+    }
+
+    /**
+     * 리샤딩 중 아직 옮겨지지 않은 사용자가 남아 있을 수 있는 이전 샤드 번호입니다.
+     *
+     * @return 이전 링에서의 샤드 번호. 리샤딩 중이 아니거나 현재 샤드와 같으면 -1
+     */
+    public int previousShardFor(String username) {
+        if (previous == null) {
+            return -1;
+        }
+        long hash = hash(username);
+        int old = previous.lookup(hash);
+        return old == current.lookup(hash) ? -1 : old;
+    }
+
+    public int getShardCount() {
+        return current.shardCount;
+    }
+
+    public boolean isResharding() {
+        return previous != null;
+    }
+
+    /**
+     * FNV-1a 64비트 해시에 MurmurHash3의 finalizer를 더해 짧고 비슷한 문자열도 링 위에 고르게 흩어지게 합니다.
+     */
+    static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * 가상 노드의 위치(points)를 정렬해 두고 이진 탐색으로 찾는 해시 링입니다.
+     */
+    private static final class Ring {
+        final int shardCount;
+        final long[] points;
+        final int[] owners;
+
+        Ring(int shardCount, int virtualNodes) {
+            this.shardCount = shardCount;
+            int size = shardCount * virtualNodes;
+            long[][] nodes = new long[size][];
+            for (int shard = 0, n = 0; shard < shardCount; shard++) {
+                for (int v = 0; v < virtualNodes; v++, n++) {
+                    nodes[n] = new long[] {hash("shard-" + shard + "#" + v), shard};
+                }
+            }
+            Arrays.sort(nodes, (a, b) -> Long.compare(a[0], b[0]));
+
+            this.points = new long[size];
+            this.owners = new int[size];
+            for (int i = 0; i < size; i++) {
+                points[i] = nodes[i][0];
+                owners[i] = (int) nodes[i][1];
+            }
+        }
+
+        int lookup(long hash) {
+            int index = Arrays.binarySearch(points, hash);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            return owners[index == points.length ? 0 : index];
+        }
+    }
+}
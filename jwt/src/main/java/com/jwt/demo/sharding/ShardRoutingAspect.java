@@ -0,0 +1,299 @@
+package com.jwt.demo.sharding;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jwt.demo.entities.RefreshToken;
+import com.jwt.demo.entities.User;
+
+/**
+ * ShardRoutingAspect는 UserRepository와 RefreshTokenRepository 호출을 username의 샤드로 보냅니다.
+ * 리포지토리 메서드에서 @ShardKey가 붙은 파라미터로 샤드를 계산하고, ShardContext에 지정한 뒤 실행합니다.
+ *
+ * - 컬렉션 파라미터는 샤드별로 나누어 실행한 뒤 결과를 합칩니다. (Set은 합집합, List는 이어 붙이기)
+ * - 트랜잭션은 첫 번째로 사용한 샤드의 연결에 묶이므로, 같은 트랜잭션에서 다른 샤드가 필요하면 별도 트랜잭션(REQUIRES_NEW)에서 실행합니다.
+ * - 리샤딩 중에는 새 샤드에서 찾지 못한 조회를 이전 샤드에서 한 번 더 찾고, 삭제는 두 샤드 모두에서 실행합니다.
+ * - 이미 ShardContext가 지정된 호출(리샤딩 도구 등)은 그대로 실행합니다.
+ */
+@Aspect
+public class ShardRoutingAspect {
+
+    private static final String REPOSITORY_PACKAGE = "com.jwt.demo.repository";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    // 현재 트랜잭션이 묶인 샤드를 기록하는 트랜잭션 리소스 키
+    private final Object boundShardKey = new Object();
+
+    private final ShardResolver resolver;
+    private final PlatformTransactionManager transactionManager;
+    private final Map<Method, KeyParameter> keyParameters = new ConcurrentHashMap<>();
+
+    public ShardRoutingAspect(ShardResolver resolver, PlatformTransactionManager transactionManager) {
+        this.resolver = resolver;
+        this.transactionManager = transactionManager;
+    }
+
+    @Around("target(com.jwt.demo.repository.UserRepository) || target(com.jwt.demo.repository.RefreshTokenRepository)")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (ShardContext.current() != null) {
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        KeyParameter key = keyParameters.computeIfAbsent(method, m -> KeyParameter.find(m, joinPoint.getTarget()));
+        if (key == KeyParameter.NONE) {
+            return joinPoint.proceed(); // 샤드 키가 없는 메서드는 기본 샤드에서 실행합니다.
+        }
+
+        Object[] args = joinPoint.getArgs();
+        Object value = args[key.index];
+        if (value instanceof Iterable<?> values) {
+            return fanOut(joinPoint, args, key, values, isRead(method));
+        }
+
+        String username = usernameOf(value, key.type);
+        if (username == null) {
+            return joinPoint.proceed();
+        }
+        Object result = proceedOn(resolver.shardFor(username), joinPoint, args);
+
+        int previous = resolver.previousShardFor(username);
+        if (previous >= 0) {
+            if (method.getName().startsWith("delete")) {
+                proceedOn(previous, joinPoint, args);
+            } else if (isRead(method) && isEmpty(result)) {
+                result = proceedOn(previous, joinPoint, args);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 컬렉션 파라미터를 샤드별로 나누어 실행하고 결과를 합칩니다.
+     * 리샤딩 중인 조회는 아직 옮겨지지 않은 값을 찾기 위해 이전 샤드에도 함께 묻습니다.
+     */
+    private Object fanOut(ProceedingJoinPoint joinPoint, Object[] args, KeyParameter key, Iterable<?> values,
+            boolean read) throws Throwable {
+        Map<Integer, List<Object>> groups = new TreeMap<>();
+        for (Object value : values) {
+            String username = usernameOf(value, key.type);
+            int shard = username == null ? 0 : resolver.shardFor(username);
+            groups.computeIfAbsent(shard, s -> new ArrayList<>()).add(value);
+            int previous = username == null || !read ? -1 : resolver.previousShardFor(username);
+            if (previous >= 0) {
+                groups.computeIfAbsent(previous, s -> new ArrayList<>()).add(value);
+            }
+        }
+        if (groups.isEmpty()) {
+            return joinPoint.proceed();
+        }
+
+        Object merged = null;
+        for (Map.Entry<Integer, List<Object>> group : groups.entrySet()) {
+            Object[] groupArgs = args.clone();
+            groupArgs[key.index] = group.getValue();
+            merged = merge(merged, proceedOn(group.getKey(), joinPoint, groupArgs));
+        }
+        return merged;
+    }
+
+    /**
+     * 주어진 샤드에서 리포지토리 메서드를 실행합니다.
+     * 진행 중인 트랜잭션이 이미 다른 샤드에 묶여 있으면 별도 트랜잭션에서 실행합니다.
+     */
+    private Object proceedOn(int shard, ProceedingJoinPoint joinPoint, Object[] args) throws Throwable {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return proceed(shard, joinPoint, args);
+        }
+
+        Integer bound = (Integer) TransactionSynchronizationManager.getResource(boundShardKey);
+        if (bound == null) {
+            TransactionSynchronizationManager.bindResource(boundShardKey, shard);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(boundShardKey);
+                }
+            });
+            return proceed(shard, joinPoint, args);
+        }
+        if (bound == shard) {
+            return proceed(shard, joinPoint, args);
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transaction.setReadOnly(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+        try {
+            return transaction.execute(status -> {
+                try {
+                    return proceed(shard, joinPoint, args);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new CheckedFailure(e);
+                }
+            });
+        } catch (CheckedFailure e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Object proceed(int shard, ProceedingJoinPoint joinPoint, Object[] args) throws Throwable {
+        try {
+            return ShardContext.on(shard, () -> {
+                try {
+                    return joinPoint.proceed(args);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new CheckedFailure(e);
+                }
+            });
+        } catch (CheckedFailure e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Object merge(Object merged, Object result) {
+        if (merged == null) {
+            return result;
+        }
+        if (result == null) {
+            return merged;
+        }
+        if (merged instanceof Set<?> set && result instanceof Collection<?> more) {
+            Set<Object> union = new LinkedHashSet<>(set);
+            union.addAll(more);
+            return union;
+        }
+        if (merged instanceof Collection<?> list && result instanceof Collection<?> more) {
+            List<Object> all = new ArrayList<>(list);
+            all.addAll(more);
+            return all;
+        }
+        throw new IllegalStateException("샤드별 결과를 합칠 수 없는 반환 타입입니다: " + merged.getClass().getName());
+    }
+
+    private static boolean isRead(Method method) {
+        String name = method.getName();
+        return name.startsWith("find") || name.startsWith("get") || name.startsWith("exists") || name.startsWith("read");
+    }
+
+    private static boolean isEmpty(Object result) {
+        return result == null
+                || result instanceof Optional<?> optional && optional.isEmpty()
+                || result instanceof Collection<?> collection && collection.isEmpty()
+                || Boolean.FALSE.equals(result);
+    }
+
+    static String usernameOf(Object value, ShardKey.Type type) {
+        if (value instanceof String text) {
+            return type == ShardKey.Type.TOKEN ? subjectOf(text) : text;
+        }
+        if (value instanceof User user) {
+            return user.getUsername();
+        }
+        if (value instanceof RefreshToken refreshToken) {
+            return refreshToken.getUsername();
+        }
+        return null;
+    }
+
+    /**
+     * 토큰의 payload에서 sub 클레임을 꺼냅니다. 샤드를 고르는 데만 쓰므로 서명은 검사하지 않습니다.
+     * (위조된 토큰은 어느 샤드에서도 찾을 수 없으므로 결과에 영향이 없습니다.)
+     *
+     * @return sub 클레임. 토큰 형식이 올바르지 않으면 null
+     */
+    static String subjectOf(String token) {
+        int first = token.indexOf('.');
+        int second = first < 0 ? -1 : token.indexOf('.', first + 1);
+        if (second < 0) {
+            return null;
+        }
+        try {
+            byte[] payload = Base64.getUrlDecoder().decode(token.substring(first + 1, second));
+            JsonNode subject = OBJECT_MAPPER.readTree(new String(payload, StandardCharsets.UTF_8)).get("sub");
+            return subject != null && subject.isTextual() ? subject.asText() : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * 리포지토리 메서드에서 @ShardKey가 붙은 파라미터의 위치와 종류입니다.
+     */
+    private record KeyParameter(int index, ShardKey.Type type) {
+
+        static final KeyParameter NONE = new KeyParameter(-1, null);
+
+        /**
+         * 호출된 메서드에 @ShardKey가 없으면(예: CrudRepository 타입으로 호출된 경우)
+         * 리포지토리 인터페이스에서 이름과 파라미터 수가 같고 @ShardKey가 선언된 메서드를 찾습니다.
+         */
+        static KeyParameter find(Method method, Object repository) {
+            KeyParameter key = fromAnnotations(method);
+            if (key != NONE) {
+                return key;
+            }
+            for (Class<?> type : repository.getClass().getInterfaces()) {
+                if (!type.getPackageName().equals(REPOSITORY_PACKAGE)) {
+                    continue;
+                }
+                for (Method declared : type.getDeclaredMethods()) {
+                    if (declared.getName().equals(method.getName())
+                            && declared.getParameterCount() == method.getParameterCount()) {
+                        key = fromAnnotations(declared);
+                        if (key != NONE) {
+                            return key;
+                        }
+                    }
+                }
+            }
+            return NONE;
+        }
+
+        private static KeyParameter fromAnnotations(Method method) {
+            Annotation[][] annotations = method.getParameterAnnotations();
+            for (int i = 0; i < annotations.length; i++) {
+                for (Annotation annotation : annotations[i]) {
+                    if (annotation instanceof ShardKey shardKey) {
+                        return new KeyParameter(i, shardKey.value());
+                    }
+                }
+            }
+            return NONE;
+        }
+    }
+
+    // 람다 안에서 발생한 checked 예외를 그대로 다시 던지기 위한 래퍼
+    private static final class CheckedFailure extends RuntimeException {
+        CheckedFailure(Throwable cause) {
+            super(null, cause, false, false);
+        }
+    }
+}
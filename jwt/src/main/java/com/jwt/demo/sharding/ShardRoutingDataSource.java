@@ -0,0 +1,53 @@
+package com.jwt.demo.sharding;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * ShardRoutingDataSource는 ShardContext에 지정된 샤드의 DataSource로 연결을 보냅니다.
+ * 지정되지 않은 경우 0번 샤드를 사용합니다.
+ *
+ * 트랜잭션은 시작할 때 연결을 얻으므로, 첫 리포지토리 호출에서 정한 샤드를 따르도록
+ * 반드시 LazyConnectionDataSourceProxy로 감싸 첫 번째 쿼리 시점에 연결을 얻도록 해야 합니다.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final List<DataSource> shards;
+
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("샤드가 하나 이상 필요합니다.");
+        }
+        this.shards = List.copyOf(shards);
+
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = ShardContext.current();
+        return shard == null ? 0 : shard;
+    }
+
+    /**
+     * 라우팅을 거치지 않는 샤드별 DataSource입니다. 스키마 생성과 리샤딩 도구가 사용합니다.
+     */
+    public DataSource getShard(int shard) {
+        return shards.get(shard);
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+}
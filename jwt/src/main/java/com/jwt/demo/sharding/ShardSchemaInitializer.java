@@ -0,0 +1,57 @@
+package com.jwt.demo.sharding;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ShardSchemaInitializer는 개발/테스트 환경(spring.jpa.hibernate.ddl-auto가 create 또는 create-drop)에서
+ * 0번이 아닌 샤드에도 엔티티 스키마를 만들고, 0번 샤드의 authority 행을 복사합니다.
+ *
+ * Hibernate의 스키마 생성과 data.sql은 기본 샤드(0번)에만 적용되기 때문입니다.
+ * 운영 환경(ddl-auto: none)에서는 아무 것도 하지 않으며, 각 샤드의 스키마와 authority 행은 미리 준비되어 있어야 합니다.
+ */
+@Slf4j
+public class ShardSchemaInitializer implements SmartInitializingSingleton {
+
+    private final ShardRoutingDataSource shards;
+    private final EntityManagerFactory entityManagerFactory;
+    private final String ddlAuto;
+
+    public ShardSchemaInitializer(ShardRoutingDataSource shards, EntityManagerFactory entityManagerFactory, String ddlAuto) {
+        this.shards = shards;
+        this.entityManagerFactory = entityManagerFactory;
+        this.ddlAuto = ddlAuto;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!"create".equals(ddlAuto) && !"create-drop".equals(ddlAuto)) {
+            return;
+        }
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        List<String> authorities = new JdbcTemplate(shards.getShard(0))
+                .queryForList("select authority_name from authority", String.class);
+
+        for (int shard = 1; shard < shards.getShardCount(); shard++) {
+            ShardContext.run(shard, () -> {
+                sessionFactory.getSchemaManager().dropMappedObjects(true);
+                sessionFactory.getSchemaManager().exportMappedObjects(true);
+            });
+
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(shards.getShard(shard));
+            List<String> existing = jdbcTemplate.queryForList("select authority_name from authority", String.class);
+            for (String authority : authorities) {
+                if (!existing.contains(authority)) {
+                    jdbcTemplate.update("insert into authority (authority_name) values (?)", authority);
+                }
+            }
+            log.info("샤드 {}의 스키마를 생성했습니다. (authority {}건)", shard, authorities.size());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.jwt.demo.util;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * CachedClock은 현재 시간을 데몬 스레드가 resolution 간격으로 읽어 두고, 요청 스레드는 그 값을 volatile 읽기로 가져가는 Clock입니다.
+ * 토큰 발급/검증처럼 요청마다 현재 시간이 필요하지만 초 단위 정밀도면 충분한 경로에서 시간 조회 비용을 없앱니다.
+ *
+ * - 돌려주는 시간은 실제 시간보다 최대 resolution만큼 늦을 수 있습니다. (앞서지는 않습니다.)
+ * - 기반 Clock이 뒤로 가더라도(NTP 보정 등) 돌려주는 값은 줄어들지 않습니다.
+ * - 사용이 끝나면 close로 갱신 스레드를 멈춥니다. (빈으로 등록하면 컨텍스트 종료 시 자동으로 호출됩니다.)
+ */
+public final class CachedClock extends Clock implements AutoCloseable {
+
+    private final Ticker ticker;
+    private final ZoneId zone;
+
+    /**
+     * @param source 실제 시간을 읽을 Clock
+     * @param resolution 시간을 다시 읽는 간격
+     */
+    public CachedClock(Clock source, Duration resolution) {
+        this(new Ticker(source, resolution), source.getZone());
+    }
+
+    private CachedClock(Ticker ticker, ZoneId zone) {
+        this.ticker = ticker;
+        this.zone = zone;
+    }
+
+    @Override
+    public long millis() {
+        return ticker.millis;
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(ticker.millis);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return zone.equals(this.zone) ? this : new CachedClock(ticker, zone);
+    }
+
+    @Override
+    public void close() {
+        ticker.stop();
+    }
+
+    /**
+     * 시간을 읽어 두는 스레드입니다. 시간대만 다른 CachedClock끼리 공유합니다.
+     */
+    private static final class Ticker implements Runnable {
+
+        private final Clock source;
+        private final long resolutionNanos;
+        private final Thread thread;
+        private volatile long millis;
+        private volatile boolean running = true;
+
+        Ticker(Clock source, Duration resolution) {
+            if (resolution.isNegative() || resolution.isZero()) {
+                throw new IllegalArgumentException("resolution은 0보다 커야 합니다: " + resolution);
+            }
+            this.source = source;
+            this.resolutionNanos = resolution.toNanos();
+            this.millis = source.millis();
+            this.thread = new Thread(this, "cached-clock");
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                LockSupport.parkNanos(resolutionNanos);
+                long now = source.millis();
+                if (now > millis) {
+                    millis = now;
+                }
+            }
+        }
+
+        void stop() {
+            running = false;
+            LockSupport.unpark(thread);
+        }
+    }
+}
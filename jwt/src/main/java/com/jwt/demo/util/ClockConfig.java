@@ -0,0 +1,27 @@
+package com.jwt.demo.util;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * ClockConfig는 토큰 만료 판단에 사용하는 Clock 빈을 만듭니다. 모든 노드가 UTC 기준의 같은 규칙으로 만료를 판단하도록
+ * 시간이 필요한 곳은 System.currentTimeMillis()나 LocalDateTime.now() 대신 이 Clock을 주입받습니다.
+ * 테스트에서는 @Primary Clock 빈으로 바꿔 시계가 어긋난 노드를 흉내 낼 수 있습니다.
+ */
+@Configuration
+public class ClockConfig {
+
+    /**
+     * @param cacheResolutionMillis 0보다 크면 현재 시간을 이 간격(밀리초)으로 읽어 두는 CachedClock을 사용합니다.
+     *                              0이면 요청마다 시스템 시간을 읽습니다.
+     */
+    @Bean
+    public Clock clock(@Value("${jwt.clock.cache-resolution-ms:0}") long cacheResolutionMillis) {
+        Clock system = Clock.systemUTC();
+        return cacheResolutionMillis > 0 ? new CachedClock(system, Duration.ofMillis(cacheResolutionMillis)) : system;
+    }
+}
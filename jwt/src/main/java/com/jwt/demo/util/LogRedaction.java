@@ -0,0 +1,41 @@
+package com.jwt.demo.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * LogRedaction은 토큰 같은 비밀 값을 로그에 그대로 남기지 않도록 가려 줍니다.
+ * 반환하는 객체는 로그가 실제로 출력될 때(toString) 한 번만 계산하므로, 파라미터 메시지에 그대로 넘길 수 있습니다.
+ *
+ *   log.debug("리프레시 토큰: {}", LogRedaction.token(refreshToken)); // -> 리프레시 토큰: sha256:1a2b3c4d(len=180)
+ */
+public final class LogRedaction {
+
+    // 인스턴스 생성 방지를 위한 private 생성자
+    private LogRedaction() {}
+
+    /**
+     * 토큰을 SHA-256 앞 8자리와 길이로 바꿉니다. 같은 토큰은 같은 값이 되므로 로그끼리 비교할 수는 있습니다.
+     */
+    public static Object token(String token) {
+        return new Object() {
+            @Override
+            public String toString() {
+                if (token == null) {
+                    return "null";
+                }
+                return "sha256:" + HexFormat.of().formatHex(sha256(token), 0, 4) + "(len=" + token.length() + ")";
+            }
+        };
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -8,6 +8,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import com.jwt.demo.jwt.JwtAuthentication;
+
 /**
  * SecurityUtil은 현재 인증된 사용자의 이름을 가져오는 유틸리티 클래스입니다.
  * SecurityContextHolder에서 인증 정보를 추출하여 사용자의 이름을 반환합니다.
@@ -37,6 +39,11 @@ public class SecurityUtil {
             return Optional.empty();
         }
 
+        // JWT로 인증된 요청은 타입이 있는 인증 객체에서 바로 사용자 이름을 꺼냅니다.
+        if (authentication instanceof JwtAuthentication jwtAuthentication) {
+            return Optional.of(jwtAuthentication.getUsername());
+        }
+
         // 사용자 이름을 담을 변수
         String username = null;
         
@@ -0,0 +1,45 @@
+package com.jwt.demo.util;
+
+import java.lang.management.ManagementFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * StartupMetrics는 JVM 시작부터 첫 번째 인증된 요청이 처리될 때까지의 시간(time-to-first-authenticated-request)을 기록합니다.
+ * 새 노드가 실제로 트래픽을 처리할 수 있게 되는 시점은 "Started ... in N seconds" 로그보다 늦기 때문에,
+ * 기동 시간 개선(lazy-init, AOT, CDS)의 효과는 이 값으로 비교합니다.
+ */
+public class StartupMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupMetrics.class);
+
+    // 첫 번째 인증된 요청까지의 시간 (밀리초). 아직 없으면 -1
+    private static volatile long firstAuthenticatedRequestMillis = -1;
+
+    // 인스턴스 생성 방지를 위한 private 생성자
+    private StartupMetrics() {}
+
+    /**
+     * 인증된 요청이 처리될 때마다 호출됩니다. 첫 번째 호출에서만 시간을 기록하고 로그를 남깁니다.
+     */
+    public static void recordAuthenticatedRequest() {
+        if (firstAuthenticatedRequestMillis >= 0) {
+            return;
+        }
+        synchronized (StartupMetrics.class) {
+            if (firstAuthenticatedRequestMillis >= 0) {
+                return;
+            }
+            firstAuthenticatedRequestMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        }
+        logger.info("첫 번째 인증된 요청까지 걸린 시간 (JVM 시작 기준): {} ms", firstAuthenticatedRequestMillis);
+    }
+
+    /**
+     * @return 첫 번째 인증된 요청까지의 시간 (밀리초). 아직 인증된 요청이 없으면 -1
+     */
+    public static long getFirstAuthenticatedRequestMillis() {
+        return firstAuthenticatedRequestMillis;
+    }
+}
@@ -1,7 +1,2 @@
-insert into users (USER_ID, USERNAME, PASSWORD, NICKNAME, ACTIVATED) values (1, 'admin', '$2a$08$lDnHPz7eUkSi6ao14Twuau08mzhWrL4kyZGGU5xfiGALO/Vxd5DOi', 'admin', 1);
-
 insert into AUTHORITY (AUTHORITY_NAME) values ('ROLE_USER');
 insert into AUTHORITY (AUTHORITY_NAME) values ('ROLE_ADMIN');
-
-insert into USER_AUTHORITY (USER_ID, AUTHORITY_NAME) values (1, 'ROLE_USER');
-insert into USER_AUTHORITY (USER_ID, AUTHORITY_NAME) values (1, 'ROLE_ADMIN');
\ No newline at end of file
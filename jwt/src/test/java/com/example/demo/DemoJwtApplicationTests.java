@@ -1,13 +0,0 @@
-package com.example.demo;
-
-import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
-
-@SpringBootTest
-class DemoJwtApplicationTests {
-
-	@Test
-	void contextLoads() {
-	}
-
-}
@@ -0,0 +1,19 @@
+package com.jwt.demo;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * 내장 H2로 애플리케이션 컨텍스트가 뜨는지 확인합니다.
+ * 데이터 크기에 따른 로그인/갱신/로그아웃/조회 지연 시간은 perf 패키지의 성능 테스트(mvn -Pperf test)에서 측정합니다.
+ */
+@SpringBootTest
+@ActiveProfiles("embedded")
+class DemoJwtApplicationTests {
+
+	@Test
+	void contextLoads() {
+	}
+
+}
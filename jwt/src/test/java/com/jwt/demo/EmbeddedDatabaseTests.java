@@ -0,0 +1,288 @@
+package com.jwt.demo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jwt.demo.jwt.TokenProvider;
+
+/**
+ * 내장 H2 데이터베이스로 애플리케이션 전체를 띄워 로그인과 인증된 요청을 확인합니다.
+ * native image에서도 같은 테스트가 실행됩니다. (mvn -PnativeTest test)
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+class EmbeddedDatabaseTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TokenProvider tokenProvider;
+
+    @Test
+    void loginAndCallAuthenticatedEndpoint() throws Exception {
+        String response = mockMvc.perform(post("/api/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"admin@example.com\",\"password\":\"12345\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Authorization", startsWith("Bearer ")))
+                .andExpect(header().exists("X-Refresh-At"))
+                .andReturn().getResponse().getContentAsString();
+        JsonNode tokens = objectMapper.readTree(response);
+
+        mockMvc.perform(get("/api/user")
+                        .header("Authorization", "Bearer " + tokens.get("accessToken").asText()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("admin@example.com"));
+    }
+
+    @Test
+    void rejectsRequestWithoutToken() throws Exception {
+        mockMvc.perform(get("/api/user"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string("WWW-Authenticate", "Bearer"))
+                .andExpect(content().json("{\"error\":\"unauthorized\"}", true));
+    }
+
+    @Test
+    void rejectsWrongPasswordWithoutEchoingMessage() throws Exception {
+        mockMvc.perform(post("/api/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"admin@example.com\",\"password\":\"wrong\"}"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(content().json("{\"error\":\"unauthorized\"}", true));
+        mockMvc.perform(post("/api/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"nobody@example.com\",\"password\":\"12345\"}"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(content().json("{\"error\":\"unauthorized\"}", true));
+    }
+
+    @Test
+    void forbidsAdminApiForUserRole() throws Exception {
+        JsonNode tokens = login("intheeast0305@gmail.com");
+        mockMvc.perform(post("/api/admin/tokens/batch")
+                        .header("Authorization", "Bearer " + tokens.get("accessToken").asText())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"subjects\":[]}"))
+                .andExpect(status().isForbidden())
+                .andExpect(content().json("{\"error\":\"forbidden\"}", true));
+    }
+
+    @Test
+    void appliesPreAuthorizeToUserLookup() throws Exception {
+        mockMvc.perform(get("/api/user/admin@example.com")
+                        .header("Authorization", "Bearer " + login("intheeast0305@gmail.com").get("accessToken").asText()))
+                .andExpect(status().isForbidden())
+                .andExpect(content().json("{\"error\":\"forbidden\"}", true));
+        mockMvc.perform(get("/api/user/intheeast0305@gmail.com")
+                        .header("Authorization", "Bearer " + login("admin@example.com").get("accessToken").asText()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("intheeast0305@gmail.com"));
+    }
+
+    @Test
+    void refreshesWithoutAccessToken() throws Exception {
+        JsonNode tokens = login("intheeast0305@gmail.com");
+        String response = mockMvc.perform(post("/api/refresh-token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"" + tokens.get("refreshToken").asText() + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(get("/api/user")
+                        .header("Authorization", "Bearer " + objectMapper.readTree(response).get("token").asText()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("intheeast0305@gmail.com"));
+    }
+
+    @Test
+    void storesRefreshTokenExpiryInUtc() throws Exception {
+        String refreshToken = login("admin@example.com").get("refreshToken").asText();
+        LocalDateTime stored = jdbcTemplate.queryForObject(
+                "select expiry_date from refresh_token where token = ?", LocalDateTime.class, refreshToken);
+
+        // 테이블에는 서버 시간대와 관계없이 토큰의 exp 클레임과 같은 시각이 UTC 날짜/시간으로 저장됩니다.
+        Instant expiration = Instant.ofEpochSecond(tokenProvider.parseClaims(refreshToken).orElseThrow().getExpirationSeconds());
+        assertThat(Duration.between(expiration, stored.toInstant(ZoneOffset.UTC)).abs()).isLessThan(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void listsAndRevokesSessions() throws Exception {
+        mockMvc.perform(post("/api/signup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"sessions@example.com\",\"password\":\"12345\",\"nickname\":\"sessions\"}"))
+                .andExpect(status().isOk());
+        JsonNode laptop = login("sessions@example.com", "laptop", "Mozilla/5.0 (X11; Linux x86_64)");
+        JsonNode phone = login("sessions@example.com", "phone", "Mozilla/5.0 (iPhone)");
+        String accessToken = "Bearer " + laptop.get("accessToken").asText();
+
+        mockMvc.perform(get("/api/sessions").param("size", "1").header("Authorization", accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sessions.length()").value(1))
+                .andExpect(jsonPath("$.hasNext").value(true));
+        String response = mockMvc.perform(get("/api/sessions").header("Authorization", accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sessions.length()").value(2))
+                .andExpect(jsonPath("$.sessions[*].refreshToken").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+        String phoneSessionId = null;
+        for (JsonNode session : objectMapper.readTree(response).get("sessions")) {
+            if ("phone".equals(session.get("device").asText())) {
+                assertThat(session.get("userAgent").asText()).isEqualTo("Mozilla/5.0 (iPhone)");
+                phoneSessionId = session.get("sessionId").asText();
+            }
+        }
+        assertThat(phoneSessionId).isNotNull();
+
+        mockMvc.perform(delete("/api/sessions/" + phoneSessionId).header("Authorization", accessToken))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/sessions/" + phoneSessionId).header("Authorization", accessToken))
+                .andExpect(status().isNotFound());
+        refresh(phone.get("refreshToken").asText()).andExpect(status().isBadRequest());
+
+        // 모든 기기에서 로그아웃하면 남은 세션의 리프레시 토큰도 더 이상 사용할 수 없습니다.
+        mockMvc.perform(delete("/api/sessions").header("Authorization", accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.revoked").value(1));
+        refresh(laptop.get("refreshToken").asText()).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void evictsOldestRefreshTokensBeyondQuota() throws Exception {
+        mockMvc.perform(post("/api/signup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"quota@example.com\",\"password\":\"12345\",\"nickname\":\"quota\"}"))
+                .andExpect(status().isOk());
+        int quota = 10; // application.yml의 jwt.refresh.max-tokens-per-user
+        String oldest = login("quota@example.com").get("refreshToken").asText();
+        String second = login("quota@example.com").get("refreshToken").asText();
+        String newest = null;
+        for (int i = 0; i < quota - 1; i++) {
+            newest = login("quota@example.com").get("refreshToken").asText();
+        }
+
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from refresh_token where username = ?", Integer.class, "quota@example.com"))
+                .isEqualTo(quota);
+        refresh(oldest).andExpect(status().isBadRequest());
+        refresh(second).andExpect(status().isOk());
+        refresh(newest).andExpect(status().isOk());
+    }
+
+    @Test
+    void trimsTokensAlreadyBeyondQuotaOnNextLogin() throws Exception {
+        mockMvc.perform(post("/api/signup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"overquota@example.com\",\"password\":\"12345\",\"nickname\":\"overquota\"}"))
+                .andExpect(status().isOk());
+        int quota = 10; // application.yml의 jwt.refresh.max-tokens-per-user
+        String first = login("overquota@example.com").get("refreshToken").asText();
+
+        // 다른 인스턴스가 저장한 것처럼 한도보다 많은 행을 직접 넣습니다. 모두 방금 로그인한 토큰보다 먼저 만료됩니다.
+        Instant now = Instant.now();
+        for (int i = 0; i < quota + 5; i++) {
+            jdbcTemplate.update("insert into refresh_token (token, username, expiry_date, issued_at, session_id)"
+                    + " values (?, ?, ?, ?, ?)", "other-node-" + i, "overquota@example.com",
+                    now.plusSeconds(60 + i), now, "other-node-session-" + i);
+        }
+
+        String newest = login("overquota@example.com").get("refreshToken").asText();
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from refresh_token where username = ?", Integer.class, "overquota@example.com"))
+                .isEqualTo(quota);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from refresh_token where token in (?, ?)", Integer.class, first, newest))
+                .isEqualTo(2);
+    }
+
+    @Test
+    void rejectsUnknownRefreshToken() throws Exception {
+        JsonNode tokens = login("admin@example.com");
+        mockMvc.perform(post("/api/refresh-token")
+                        .header("Authorization", "Bearer " + tokens.get("accessToken").asText())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"unknown\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json("{\"error\":\"invalid_refresh_token\"}"));
+    }
+
+    @Test
+    void rejectsLogoutWithUnknownRefreshTokenWithJsonBody() throws Exception {
+        JsonNode tokens = login("admin@example.com");
+        mockMvc.perform(post("/api/logout")
+                        .header("Authorization", "Bearer " + tokens.get("accessToken").asText())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"unknown\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json("{\"error\":\"invalid_refresh_token\"}", true));
+    }
+
+    @Test
+    void rejectsExpiredRefreshTokenWithJsonBody() throws Exception {
+        String refreshToken = login("admin@example.com").get("refreshToken").asText();
+        jdbcTemplate.update("update refresh_token set expiry_date = ? where token = ?",
+                Instant.parse("2000-01-01T00:00:00Z"), refreshToken);
+
+        refresh(refreshToken)
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json("{\"error\":\"refresh_token_expired\"}"));
+    }
+
+    private JsonNode login(String username, String device, String userAgent) throws Exception {
+        String response = mockMvc.perform(post("/api/login")
+                        .header(HttpHeaders.USER_AGENT, userAgent)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"12345\",\"device\":\"" + device + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+
+    private ResultActions refresh(String refreshToken) throws Exception {
+        return mockMvc.perform(post("/api/refresh-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\":\"" + refreshToken + "\"}"));
+    }
+
+    private JsonNode login(String username) throws Exception {
+        String response = mockMvc.perform(post("/api/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"12345\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+}
@@ -0,0 +1,69 @@
+package com.jwt.demo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.hibernate.engine.jdbc.spi.SqlStatementLogger;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * 운영(prod) 프로필의 영속성 설정을 확인합니다.
+ * 요청 처리 경로에서 SQL 로그가 만들어지지 않고, OSIV가 꺼져 있으며, 풀/드라이버 설정이 적용되는지 검사합니다.
+ * (DB는 embedded 프로필의 H2를 사용합니다.)
+ */
+@SpringBootTest
+@ActiveProfiles({"prod", "embedded"})
+class PersistenceProfileTests {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void sqlLoggingIsOff() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        SqlStatementLogger sqlLogger = sessionFactory.getJdbcServices().getSqlStatementLogger();
+
+        assertThat(sqlLogger.isLogToStdout()).as("show_sql").isFalse();
+        assertThat(sqlLogger.isFormat()).as("format_sql").isFalse();
+        assertThat(sessionFactory.getSessionFactoryOptions().isCommentsEnabled()).as("use_sql_comments").isFalse();
+        assertThat(LoggerFactory.getLogger("org.hibernate.SQL").isDebugEnabled()).as("org.hibernate.SQL").isFalse();
+        assertThat(LoggerFactory.getLogger("org.hibernate.orm.jdbc.bind").isTraceEnabled()).as("bind parameters").isFalse();
+    }
+
+    @Test
+    void openSessionInViewIsOff() {
+        assertThat(context.getBeanNamesForType(OpenEntityManagerInViewInterceptor.class)).isEmpty();
+    }
+
+    @Test
+    void connectionPoolIsTuned() throws SQLException {
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+
+        assertThat(hikari.getMaximumPoolSize()).isEqualTo(hikari.getMinimumIdle());
+        assertThat(hikari.getConnectionTimeout()).isEqualTo(2000);
+        assertThat(hikari.getDataSourceProperties())
+                .containsEntry("cachePrepStmts", "true")
+                .containsEntry("useServerPrepStmts", "true")
+                .containsEntry("rewriteBatchedStatements", "true");
+    }
+}
@@ -0,0 +1,109 @@
+package com.jwt.demo.benchmark;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import com.jwt.demo.jwt.JwtAuthentication;
+import com.jwt.demo.jwt.TokenProvider;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+
+/**
+ * 서명이 틀린 토큰을 계속 보내는 요청에서 검증 실패 로그가 요청 처리 시간에 얼마나 더해지는지 비교하는 JMH 벤치마크입니다.
+ * - appender: sync(요청 스레드가 파일에 직접 씀) / async(AsyncAppender, neverBlock)
+ * - failureLogIntervalSeconds: 0(실패마다 로그, 기존 동작) / 10(이유마다 10초에 한 번, 건수 합산)
+ *
+ * 실행: mvn -Pbenchmark test -Dbenchmark.include=AuthLogging
+ * 로그는 target/benchmark/auth-logging.log 에 씁니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class AuthLoggingBenchmark {
+
+    @Param({"sync", "async"})
+    public String appender;
+
+    @Param({"0", "10"})
+    public long failureLogIntervalSeconds;
+
+    private LoggerContext loggerContext;
+    private TokenProvider tokenProvider;
+    private String forgedToken;
+
+    @Setup
+    public void setUp() {
+        loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        loggerContext.reset();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p [%t] %logger{39} : %m%n");
+        encoder.start();
+
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(loggerContext);
+        file.setFile("target/benchmark/auth-logging.log");
+        file.setAppend(false);
+        file.setEncoder(encoder);
+        file.start();
+
+        Appender<ILoggingEvent> target = file;
+        if (appender.equals("async")) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(loggerContext);
+            async.setQueueSize(8192);
+            async.setNeverBlock(true);
+            async.addAppender(file);
+            async.start();
+            target = async;
+        }
+        Logger root = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(target);
+
+        tokenProvider = new TokenProvider(TokenIssuanceBenchmark.SECRET, 1800, 604800, 0, failureLogIntervalSeconds, 0, 0, false, Clock.systemUTC(), 0, null);
+        tokenProvider.afterPropertiesSet();
+        String token = tokenProvider.createToken("user@example.com", "ROLE_USER", 1L, true);
+        // 서명의 첫 글자를 바꿔 형식은 맞지만 서명이 틀린 토큰을 만듭니다.
+        int signature = token.lastIndexOf('.') + 1;
+        forgedToken = token.substring(0, signature) + (token.charAt(signature) == 'A' ? 'B' : 'A')
+                + token.substring(signature + 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        loggerContext.stop();
+    }
+
+    @Benchmark
+    public JwtAuthentication rejectForgedToken() {
+        return tokenProvider.authenticate(forgedToken);
+    }
+}
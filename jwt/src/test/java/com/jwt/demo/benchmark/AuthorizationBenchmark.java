@@ -0,0 +1,79 @@
+package com.jwt.demo.benchmark;
+
+import java.lang.reflect.Method;
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import com.jwt.demo.jwt.RoleMaskAuthorizationManager;
+import com.jwt.demo.jwt.TokenProvider;
+
+/**
+ * @PreAuthorize("hasAnyRole('USER','ADMIN')") 검사 한 번의 비용을 비교하는 JMH 벤치마크입니다.
+ * - mode: spel(PreAuthorizeAuthorizationManager, 매번 SpEL 평가) / compiled(RoleMaskAuthorizationManager, 비트 AND)
+ * - authorities: 토큰의 권한. 마지막 값은 조건을 만족하지 못해 거절되는 경우입니다.
+ *
+ * 실행: mvn -Pbenchmark test -Dbenchmark.include=Authorization
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class AuthorizationBenchmark {
+
+    @Param({"spel", "compiled"})
+    public String mode;
+
+    @Param({"ROLE_USER", "ROLE_SCOPE_A,ROLE_SCOPE_B,ROLE_SCOPE_C,ROLE_ADMIN", "ROLE_GUEST"})
+    public String authorities;
+
+    private AuthorizationManager<MethodInvocation> manager;
+    private Authentication authentication;
+    private MethodInvocation invocation;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        PreAuthorizeAuthorizationManager spel = new PreAuthorizeAuthorizationManager();
+        manager = mode.equals("compiled") ? new RoleMaskAuthorizationManager(spel) : spel;
+
+        TokenProvider tokenProvider = new TokenProvider(TokenIssuanceBenchmark.SECRET, 1800, 604800, 0, 10, 0, 0, false, Clock.systemUTC(), 0, null);
+        tokenProvider.afterPropertiesSet();
+        authentication = tokenProvider.authenticate(tokenProvider.createToken("user@example.com", authorities, 1L, true));
+
+        Method method = Endpoint.class.getMethod("getMyUserInfo");
+        invocation = new SimpleMethodInvocation(new Endpoint(), method);
+    }
+
+    @Benchmark
+    public boolean check() {
+        return manager.check(() -> authentication, invocation).isGranted();
+    }
+
+    public static class Endpoint {
+
+        @PreAuthorize("hasAnyRole('USER','ADMIN')")
+        public void getMyUserInfo() {
+        }
+    }
+}
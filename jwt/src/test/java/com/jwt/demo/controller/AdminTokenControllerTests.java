@@ -0,0 +1,131 @@
+package com.jwt.demo.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 토큰 일괄 발급이 요청 본문을 청크 단위로 읽으면서 발급하는지 확인합니다.
+ * 첫 청크(1,000건)의 형식 오류는 400으로, 응답을 쓰기 시작한 뒤의 오류는 응답 끝의 error 필드로 알립니다.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+class AdminTokenControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void issuesTokensAcrossChunks() throws Exception {
+        MvcResult result = batch("{\"includeRefreshToken\":true,\"subjects\":" + subjects("chunked-", 1_500, -1) + "}")
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(1_500))
+                .andExpect(jsonPath("$.tokens.length()").value(1_500))
+                .andExpect(jsonPath("$.tokens[1499].username").value("chunked-1499"))
+                .andExpect(jsonPath("$.tokens[1499].refreshToken").exists())
+                .andExpect(jsonPath("$.error").doesNotExist());
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from refresh_token where username like 'chunked-%'", Integer.class)).isEqualTo(1_500);
+    }
+
+    @Test
+    void rejectsInvalidFirstChunkBeforeStreaming() throws Exception {
+        batch("{\"subjects\":" + subjects("invalid-", 10, 5) + "}")
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json("{\"error\":\"bad_request\"}", true));
+        batch("{\"subjects\":[]}")
+                .andExpect(status().isBadRequest());
+        batch("{\"includeRefreshToken\":false}")
+                .andExpect(status().isBadRequest());
+        batch("{\"subjects\":[{\"username\":\"broken\"")
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void rejectsRolesThatWouldChangeTheAuthClaim() throws Exception {
+        // 빈 권한은 "ROLE_"이, 쉼표가 든 권한은 auth 클레임에서 여러 권한이 됩니다.
+        for (String role : new String[] {"", " ", "USER,ADMIN", "ROLE USER"}) {
+            batch("{\"subjects\":[{\"username\":\"role-check\",\"roles\":[\"" + role + "\"]}]}")
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().json("{\"error\":\"bad_request\"}", true));
+        }
+    }
+
+    @Test
+    void rejectsIncludeRefreshTokenAfterSubjects() throws Exception {
+        // 대상 목록을 읽은 뒤에는 리프레시 토큰 발급 여부를 바꿀 수 없습니다.
+        batch("{\"subjects\":" + subjects("late-", 3, -1) + ",\"includeRefreshToken\":true}")
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json("{\"error\":\"bad_request\"}", true));
+    }
+
+    @Test
+    void endsStreamWithErrorWhenLaterChunkIsInvalid() throws Exception {
+        MvcResult result = batch("{\"subjects\":" + subjects("partial-", 1_200, 1_100) + "}")
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(1_000))
+                .andExpect(jsonPath("$.tokens.length()").value(1_000))
+                .andExpect(jsonPath("$.error").value("bad_request"));
+    }
+
+    // invalidIndex 번째 대상의 username을 너무 짧게 만듭니다. (음수이면 모두 올바른 대상)
+    private static String subjects(String prefix, int count, int invalidIndex) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            String username = i == invalidIndex ? "x" : prefix + i;
+            json.append("{\"username\":\"").append(username).append("\",\"roles\":[\"USER\"]}");
+        }
+        return json.append(']').toString();
+    }
+
+    private ResultActions batch(String body) throws Exception {
+        return mockMvc.perform(post("/api/admin/tokens/batch")
+                .header("Authorization", "Bearer " + adminAccessToken())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+    }
+
+    private String adminAccessToken() throws Exception {
+        String response = mockMvc.perform(post("/api/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"admin@example.com\",\"password\":\"12345\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("accessToken").asText();
+    }
+}
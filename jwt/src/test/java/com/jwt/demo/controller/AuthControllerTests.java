@@ -0,0 +1,37 @@
+package com.jwt.demo.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * jwt.login.authorization-header=false 이면 로그인 응답에 본문의 엑세스 토큰만 있고 Authorization 헤더는 없어야 합니다.
+ */
+@SpringBootTest(properties = "jwt.login.authorization-header=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+class AuthControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void loginWithoutDuplicatedAuthorizationHeader() throws Exception {
+        mockMvc.perform(post("/api/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"admin@example.com\",\"password\":\"12345\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Authorization"))
+                .andExpect(jsonPath("$.accessToken").isNotEmpty())
+                .andExpect(jsonPath("$.refreshToken").isNotEmpty());
+    }
+}
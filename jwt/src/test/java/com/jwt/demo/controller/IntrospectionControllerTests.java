@@ -0,0 +1,189 @@
+package com.jwt.demo.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Timestamp;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jwt.demo.jwt.TokenProvider;
+import com.jwt.demo.service.IntrospectionCache;
+
+/**
+ * 토큰 일괄 검사는 SERVICE 또는 ADMIN 권한이 필요하며, typ 클레임으로 액세스 토큰과 리프레시 토큰을 구분하고,
+ * 저장된 행이 없거나 만료된 리프레시 토큰과 세션이 취소된 액세스 토큰을 비활성으로 보고하는지 확인합니다.
+ * 검사 결과는 짧은 시간 캐시되므로 테스트마다 새로 발급한 토큰만 검사합니다. 서명을 검증할 수 없는 토큰은 캐시하지 않습니다.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+class IntrospectionControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IntrospectionCache introspectionCache;
+
+    @Autowired
+    private TokenProvider tokenProvider;
+
+    @Test
+    void reportsLiveAccessToken() throws Exception {
+        JsonNode tokens = login();
+        introspect(tokens, tokens.get("accessToken").asText())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].active").value(true))
+                .andExpect(jsonPath("$.results[0].token_type").value("access_token"))
+                .andExpect(jsonPath("$.results[0].sub").value("admin@example.com"));
+    }
+
+    @Test
+    void reportsRevokedRefreshTokenAsInactive() throws Exception {
+        JsonNode tokens = login();
+        String refreshToken = tokens.get("refreshToken").asText();
+        logout(tokens, refreshToken);
+
+        // 서명과 exp는 여전히 유효하지만 저장된 행이 없으므로 액세스 토큰으로 보고해서는 안 됩니다.
+        introspect(tokens, refreshToken)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].active").value(false))
+                .andExpect(jsonPath("$.results[0].token_type").doesNotExist());
+    }
+
+    @Test
+    void reportsAccessTokenOfRevokedSessionAsInactive() throws Exception {
+        JsonNode caller = login();
+        JsonNode loggedOut = login();
+        JsonNode revoked = login();
+        logout(loggedOut, loggedOut.get("refreshToken").asText());
+        mockMvc.perform(delete("/api/sessions/" + sessionId(revoked))
+                        .header("Authorization", "Bearer " + revoked.get("accessToken").asText()))
+                .andExpect(status().isNoContent());
+
+        // 액세스 토큰의 서명과 exp는 유효하지만 세션(sid)의 리프레시 토큰 행이 없습니다.
+        introspect(caller,
+                loggedOut.get("accessToken").asText(),
+                revoked.get("accessToken").asText(),
+                caller.get("accessToken").asText())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].active").value(false))
+                .andExpect(jsonPath("$.results[1].active").value(false))
+                .andExpect(jsonPath("$.results[2].active").value(true));
+    }
+
+    @Test
+    void reportsExpiredRefreshTokenAsInactive() throws Exception {
+        JsonNode tokens = login();
+        String refreshToken = tokens.get("refreshToken").asText();
+        jdbcTemplate.update("update refresh_token set expiry_date = ? where token = ?",
+                Timestamp.valueOf("2000-01-01 00:00:00"), refreshToken);
+
+        introspect(tokens, refreshToken)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].active").value(false));
+    }
+
+    @Test
+    void reportsMixedBatchInRequestOrder() throws Exception {
+        JsonNode tokens = login();
+        JsonNode revoked = login();
+        logout(revoked, revoked.get("refreshToken").asText());
+
+        introspect(tokens,
+                tokens.get("refreshToken").asText(),
+                revoked.get("refreshToken").asText(),
+                tokens.get("accessToken").asText(),
+                "not-a-token")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.length()").value(4))
+                .andExpect(jsonPath("$.results[0].active").value(true))
+                .andExpect(jsonPath("$.results[0].token_type").value("refresh_token"))
+                .andExpect(jsonPath("$.results[1].active").value(false))
+                .andExpect(jsonPath("$.results[2].active").value(true))
+                .andExpect(jsonPath("$.results[2].token_type").value("access_token"))
+                .andExpect(jsonPath("$.results[3].active").value(false));
+    }
+
+    @Test
+    void doesNotCacheUnverifiableTokens() throws Exception {
+        JsonNode tokens = login();
+        int cached = introspectionCache.size();
+        introspect(tokens, "garbage-1", "garbage-2", "garbage-3")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].active").value(false));
+        assertEquals(cached, introspectionCache.size());
+    }
+
+    @Test
+    void forbidsIntrospectionForUserRole() throws Exception {
+        String response = mockMvc.perform(post("/api/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"intheeast0305@gmail.com\",\"password\":\"12345\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode user = objectMapper.readTree(response);
+
+        introspect(user, user.get("accessToken").asText())
+                .andExpect(status().isForbidden())
+                .andExpect(content().json("{\"error\":\"forbidden\"}", true));
+    }
+
+    @Test
+    void rejectsRefreshTokenAsBearerToken() throws Exception {
+        mockMvc.perform(get("/api/user")
+                        .header("Authorization", "Bearer " + login().get("refreshToken").asText()))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private String sessionId(JsonNode tokens) {
+        return tokenProvider.parseClaims(tokens.get("accessToken").asText()).orElseThrow().getSessionId();
+    }
+
+    private void logout(JsonNode caller, String refreshToken) throws Exception {
+        mockMvc.perform(post("/api/logout")
+                        .header("Authorization", "Bearer " + caller.get("accessToken").asText())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"" + refreshToken + "\"}"))
+                .andExpect(status().isOk());
+    }
+
+    private ResultActions introspect(JsonNode caller, String... tokens) throws Exception {
+        return mockMvc.perform(post("/api/introspect")
+                .header("Authorization", "Bearer " + caller.get("accessToken").asText())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("tokens", tokens))));
+    }
+
+    private JsonNode login() throws Exception {
+        String response = mockMvc.perform(post("/api/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"admin@example.com\",\"password\":\"12345\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+}
@@ -0,0 +1,99 @@
+package com.jwt.demo.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 서로 다른 내장 H2 데이터베이스 두 개를 primary와 replica로 두고 라우팅 결과를 확인합니다.
+ * 각 데이터베이스의 marker 테이블에는 자신의 이름이 들어 있습니다.
+ */
+class ReplicaRoutingDataSourceTests {
+
+    private final AtomicReference<Long> replicaLag = new AtomicReference<>(0L);
+    private final ReplicaLagMonitor lagMonitor =
+            new ReplicaLagMonitor(List.of(database("replica")), 5, 0, replica -> replicaLag.get());
+    private final DataSource dataSource =
+            new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(database("primary"), lagMonitor));
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    private final DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+
+    @AfterEach
+    void closeMonitor() {
+        lagMonitor.close();
+    }
+
+    @Test
+    void writeTransactionsUsePrimary() {
+        lagMonitor.check();
+        assertThat(readMarker(false)).isEqualTo("primary");
+    }
+
+    @Test
+    void readOnlyTransactionsUseHealthyReplica() {
+        lagMonitor.check();
+        assertThat(readMarker(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void fallsBackToPrimaryWhenReplicaLags() {
+        replicaLag.set(10L);
+        lagMonitor.check();
+        assertThat(readMarker(true)).isEqualTo("primary");
+
+        replicaLag.set(null); // 복제 중단
+        lagMonitor.check();
+        assertThat(readMarker(true)).isEqualTo("primary");
+
+        replicaLag.set(1L);
+        lagMonitor.check();
+        assertThat(readMarker(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void usesPrimaryBeforeFirstLagCheck() {
+        assertThat(readMarker(true)).isEqualTo("primary");
+    }
+
+    @Test
+    void readYourWritesForcesPrimary() {
+        lagMonitor.check();
+        RecentWrites recentWrites = new RecentWrites(10);
+        recentWrites.record("refresh-token");
+
+        String marker = recentWrites.isRecent("refresh-token")
+                ? ReplicaRouting.onPrimary(() -> readMarker(true))
+                : readMarker(true);
+
+        assertThat(marker).isEqualTo("primary");
+        assertThat(recentWrites.anyRecent(List.of("other-token"))).isFalse();
+        assertThat(readMarker(true)).isEqualTo("replica");
+    }
+
+    private String readMarker(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> jdbcTemplate.queryForObject("select name from marker", String.class));
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table if not exists marker (name varchar(20))");
+        jdbcTemplate.update("delete from marker");
+        jdbcTemplate.update("insert into marker (name) values (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,61 @@
+package com.jwt.demo.jwt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Date;
+import java.util.Random;
+
+import javax.crypto.SecretKey;
+
+import org.junit.jupiter.api.Test;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * HmacJwtSigner가 만든 토큰이 jjwt 빌더가 만든 토큰과 바이트 단위로 같은지 확인합니다.
+ */
+class HmacJwtSignerTests {
+
+    private static final String SECRET = "a2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbQ==";
+
+    private final SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+    private final HmacJwtSigner signer = new HmacJwtSigner(key);
+    private final Random random = new Random(42L);
+
+    @Test
+    void signedTokensMatchJjwtByteForByte() {
+        String alphabet = "abcXYZ019@._-\"\\/\t\n\u0001한글é☃";
+        for (int i = 0; i < 5_000; i++) {
+            StringBuilder subject = new StringBuilder();
+            int length = random.nextInt(40);
+            for (int j = 0; j < length; j++) {
+                subject.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String authorities = random.nextBoolean() ? "ROLE_USER" : "ROLE_USER,ROLE_ADMIN";
+            long expSeconds = random.nextInt(Integer.MAX_VALUE);
+            Long userId = random.nextBoolean() ? (long) random.nextInt(1_000_000) : null;
+            String tokenId = random.nextBoolean() ? Long.toHexString(random.nextLong()) : null;
+            Long refreshAt = random.nextBoolean() ? expSeconds - random.nextInt(60) : null;
+            String tokenType = random.nextBoolean() ? (random.nextBoolean() ? "access" : "refresh") : null;
+            String sessionId = random.nextBoolean() ? Long.toHexString(random.nextLong()) : null;
+
+            String expected = Jwts.builder()
+                    .setSubject(subject.toString())
+                    .claim("auth", authorities)
+                    .claim("uid", userId)
+                    .setId(tokenId)
+                    .signWith(key, SignatureAlgorithm.HS512)
+                    .setExpiration(new Date(expSeconds * 1000L))
+                    .claim("rat", refreshAt)
+                    .claim("typ", tokenType)
+                    .claim("sid", sessionId)
+                    .compact();
+
+            assertEquals(expected, signer.sign(subject.toString(), authorities, userId, tokenId, expSeconds,
+                    refreshAt != null ? refreshAt : 0L, tokenType, sessionId));
+        }
+    }
+}
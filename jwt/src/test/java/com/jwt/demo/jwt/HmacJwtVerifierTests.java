@@ -0,0 +1,271 @@
+package com.jwt.demo.jwt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+
+import org.junit.jupiter.api.Test;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * HmacJwtVerifier와 jjwt 파서의 판정을 무작위 토큰으로 비교하는 차분(differential) 퍼즈 테스트입니다.
+ * 빠른 경로가 FALLBACK이 아닌 판정을 내린 경우, 그 판정은 항상 jjwt의 판정과 같아야 합니다.
+ */
+class HmacJwtVerifierTests {
+
+    private static final String SECRET = "a2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbQ==";
+    private static final long NOW = 1_700_000_000_000L;
+
+    private final SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+    private final SecretKey otherKey = Keys.hmacShaKeyFor(new byte[64]);
+    private final HmacJwtVerifier verifier = new HmacJwtVerifier(key);
+    private final Random random = new Random(20241019L);
+
+    @Test
+    void issuedTokensTakeTheFastPath() {
+        for (int i = 0; i < 2_000; i++) {
+            long exp = NOW / 1000 + random.nextInt(7200) - 3600;
+            String token = issue(randomSubject(), randomAuthorities(), exp, SignatureAlgorithm.HS512, key);
+
+            HmacJwtVerifier.Result result = verifier.verify(token, NOW);
+            assertTrue(result.status != HmacJwtVerifier.Status.FALLBACK, token);
+            assertSameVerdict(token, result);
+        }
+    }
+
+    @Test
+    void mutatedTokensAgreeWithJjwt() {
+        for (int i = 0; i < 20_000; i++) {
+            long exp = NOW / 1000 + random.nextInt(7200) - 3600;
+            String token = issue(randomSubject(), randomAuthorities(), exp, SignatureAlgorithm.HS512, key);
+            String mutated = mutate(token);
+            assertSameVerdict(mutated, verifier.verify(mutated, NOW));
+        }
+    }
+
+    @Test
+    void craftedPayloadsAgreeWithJjwt() {
+        for (int i = 0; i < 20_000; i++) {
+            String token = sign(randomPayload(), random.nextInt(10) == 0 ? otherKey : key);
+            assertSameVerdict(token, verifier.verify(token, NOW));
+        }
+    }
+
+    @Test
+    void otherAlgorithmsAndKeysAgreeWithJjwt() {
+        SignatureAlgorithm[] algorithms = {SignatureAlgorithm.HS256, SignatureAlgorithm.HS384, SignatureAlgorithm.HS512};
+        for (int i = 0; i < 2_000; i++) {
+            SignatureAlgorithm algorithm = algorithms[random.nextInt(algorithms.length)];
+            SecretKey signingKey = random.nextBoolean() ? key : otherKey;
+            String token = issue(randomSubject(), randomAuthorities(), NOW / 1000 + 60, algorithm, signingKey);
+            assertSameVerdict(token, verifier.verify(token, NOW));
+        }
+    }
+
+    private void assertSameVerdict(String token, HmacJwtVerifier.Result result) {
+        if (result.status == HmacJwtVerifier.Status.FALLBACK) {
+            return;
+        }
+        try {
+            Claims claims = Jwts.parserBuilder()
+                    .setSigningKey(key)
+                    .setClock(() -> new Date(NOW))
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody();
+            assertEquals(HmacJwtVerifier.Status.VALID, result.status, token);
+            assertEquals(claims.getSubject(), result.subject, token);
+            assertEquals(claims.get("auth"), result.authorities, token);
+            assertEquals(claims.getExpiration().getTime(), result.expirationSeconds * 1000L, token);
+            Object userId = claims.get("uid");
+            assertEquals(userId == null ? -1L : ((Number) userId).longValue(), result.userId, token);
+            assertEquals(claims.getId(), result.tokenId, token);
+            Object refreshAt = claims.get("rat");
+            assertEquals(refreshAt == null ? -1L : ((Number) refreshAt).longValue(), result.refreshAtSeconds, token);
+            assertEquals(claims.get("typ"), result.tokenType, token);
+            assertEquals(claims.get("sid"), result.sessionId, token);
+        } catch (ExpiredJwtException e) {
+            assertEquals(HmacJwtVerifier.Status.EXPIRED, result.status, token);
+        } catch (io.jsonwebtoken.security.SecurityException | MalformedJwtException e) {
+            assertEquals(HmacJwtVerifier.Status.INVALID_SIGNATURE, result.status, token);
+        } catch (RuntimeException e) {
+            throw new AssertionError("jjwt는 " + e + " 를 던졌지만 빠른 경로는 " + result.status + " 로 판정했습니다: " + token, e);
+        }
+    }
+
+    private String issue(String subject, String authorities, long expSeconds, SignatureAlgorithm algorithm, SecretKey signingKey) {
+        return Jwts.builder()
+                .setSubject(subject)
+                .claim("auth", authorities)
+                .claim("uid", random.nextBoolean() ? (long) random.nextInt(1_000_000) : null)
+                .setId(random.nextBoolean() ? Long.toHexString(random.nextLong()) : null)
+                .signWith(signingKey, algorithm)
+                .setExpiration(new Date(expSeconds * 1000L))
+                .claim("rat", random.nextBoolean() ? expSeconds - random.nextInt(60) : null)
+                .claim("typ", random.nextBoolean() ? (random.nextBoolean() ? "access" : "refresh") : null)
+                .claim("sid", random.nextBoolean() ? Long.toHexString(random.nextLong()) : null)
+                .compact();
+    }
+
+    private String sign(String payload, SecretKey signingKey) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String signingInput = encoder.encodeToString("{\"alg\":\"HS512\"}".getBytes(StandardCharsets.UTF_8))
+                + "." + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        try {
+            Mac mac = Mac.getInstance("HmacSHA512");
+            mac.init(signingKey);
+            return signingInput + "." + encoder.encodeToString(mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String mutate(String token) {
+        StringBuilder sb = new StringBuilder(token);
+        int edits = 1 + random.nextInt(3);
+        for (int i = 0; i < edits && sb.length() > 0; i++) {
+            int at = random.nextInt(sb.length());
+            switch (random.nextInt(7)) {
+                case 0 -> sb.setCharAt(at, randomChar());
+                case 1 -> sb.insert(at, randomChar());
+                case 2 -> sb.deleteCharAt(at);
+                case 3 -> sb.setLength(at);
+                case 4 -> sb.insert(at, '.');
+                case 5 -> sb.append(randomChar());
+                default -> sb.insert(at, ' ');
+            }
+        }
+        return sb.toString();
+    }
+
+    private char randomChar() {
+        String chars = "ABCxyz019-_+/=.é☃ ";
+        return chars.charAt(random.nextInt(chars.length()));
+    }
+
+    private String randomPayload() {
+        List<String> members = new ArrayList<>();
+        if (random.nextInt(10) > 0) {
+            members.add(quote("sub") + ":" + randomString());
+        }
+        if (random.nextInt(10) > 0) {
+            members.add(quote("auth") + ":" + randomString());
+        }
+        if (random.nextInt(10) > 0) {
+            members.add(quote("exp") + ":" + randomNumber());
+        }
+        if (random.nextBoolean()) {
+            members.add(quote("uid") + ":" + (random.nextInt(5) == 0 ? randomNumber() : Integer.toString(random.nextInt(1_000_000))));
+        }
+        if (random.nextBoolean()) {
+            members.add(quote("jti") + ":" + randomString());
+        }
+        if (random.nextBoolean()) {
+            members.add(quote("rat") + ":" + randomNumber());
+        }
+        if (random.nextBoolean()) {
+            members.add(quote("typ") + ":" + (random.nextInt(5) == 0 ? randomString() : quote("refresh")));
+        }
+        if (random.nextBoolean()) {
+            members.add(quote("sid") + ":" + randomString());
+        }
+        int extras = random.nextInt(4) == 0 ? 1 + random.nextInt(2) : 0;
+        String[] extraMembers = {
+                quote("sub") + ":" + randomString(),
+                quote("exp") + ":" + randomNumber(),
+                quote("iat") + ":" + randomNumber(),
+                quote("nbf") + ":" + (NOW / 1000 + 100),
+                quote("x") + ":{\"y\":1}",
+                quote("auth") + ":[\"ROLE_USER\"]",
+                quote("su\\u0062") + ":" + quote("escaped"),
+                quote("exp") + ":" + quote("soon"),
+                quote("sub") + ":null",
+                quote("uid") + ":" + quote("42"),
+                quote("jti") + ":" + randomString(),
+                quote("rat") + ":" + randomNumber(),
+                quote("rat") + ":" + quote("later"),
+                quote("typ") + ":" + quote("access"),
+                quote("typ") + ":1",
+                quote("sid") + ":" + randomString(),
+        };
+        for (int i = 0; i < extras; i++) {
+            members.add(random.nextInt(members.size() + 1), extraMembers[random.nextInt(extraMembers.length)]);
+        }
+
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < members.size(); i++) {
+            if (i > 0) {
+                sb.append(random.nextInt(8) == 0 ? " , " : ",");
+            }
+            sb.append(random.nextInt(8) == 0 ? "\n" : "").append(members.get(i));
+        }
+        sb.append("}");
+
+        return switch (random.nextInt(20)) {
+            case 0 -> " " + sb;
+            case 1 -> sb + " ";
+            case 2 -> sb + ",";
+            case 3 -> sb.substring(0, Math.max(1, sb.length() - 2)) + "}";
+            case 4 -> "[" + sb + "]";
+            case 5 -> "not json";
+            case 6 -> "";
+            default -> sb.toString();
+        };
+    }
+
+    private String randomString() {
+        return switch (random.nextInt(12)) {
+            case 0 -> quote("tab\\tbed");
+            case 1 -> quote("été");
+            case 2 -> quote("");
+            case 3 -> "123";
+            case 4 -> quote("quote\\\"d");
+            default -> quote(random.nextBoolean() ? randomSubject() : randomAuthorities());
+        };
+    }
+
+    private String randomNumber() {
+        long base = NOW / 1000 + random.nextInt(7200) - 3600;
+        return switch (random.nextInt(10)) {
+            case 0 -> base + ".5";
+            case 1 -> "0" + base;
+            case 2 -> "-" + base;
+            case 3 -> "1e10";
+            case 4 -> "0";
+            case 5 -> "99999999999999999999";
+            default -> Long.toString(base);
+        };
+    }
+
+    private String randomSubject() {
+        return "user" + random.nextInt(100_000) + "@example.com";
+    }
+
+    private String randomAuthorities() {
+        return switch (random.nextInt(3)) {
+            case 0 -> "ROLE_USER";
+            case 1 -> "ROLE_ADMIN";
+            default -> "ROLE_USER,ROLE_ADMIN";
+        };
+    }
+
+    private static String quote(String s) {
+        return "\"" + s + "\"";
+    }
+}
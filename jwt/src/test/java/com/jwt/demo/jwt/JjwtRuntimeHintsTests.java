@@ -0,0 +1,39 @@
+package com.jwt.demo.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+/**
+ * JjwtRuntimeHints가 jjwt의 리플렉션/ServiceLoader 경로에 필요한 힌트를 모두 등록하는지 확인합니다.
+ */
+class JjwtRuntimeHintsTests {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    JjwtRuntimeHintsTests() {
+        new JjwtRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registersImplementationTypesLoadedByName() throws ClassNotFoundException {
+        for (String type : new String[] {"io.jsonwebtoken.impl.DefaultJwtBuilder", "io.jsonwebtoken.impl.DefaultJwtParserBuilder"}) {
+            Class.forName(type); // 클래스 이름이 실제 jjwt-impl과 일치하는지 확인
+            assertThat(RuntimeHintsPredicates.reflection().onType(TypeReference.of(type))
+                    .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)).accepts(hints);
+        }
+    }
+
+    @Test
+    void registersServiceLoaderProviders() throws ClassNotFoundException {
+        Class.forName("io.jsonwebtoken.jackson.io.JacksonSerializer");
+        assertThat(RuntimeHintsPredicates.reflection().onType(TypeReference.of("io.jsonwebtoken.jackson.io.JacksonDeserializer"))
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("META-INF/services/io.jsonwebtoken.io.Serializer")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("META-INF/services/io.jsonwebtoken.CompressionCodec")).accepts(hints);
+    }
+}
@@ -0,0 +1,117 @@
+package com.jwt.demo.jwt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import com.jwt.demo.util.MutableClock;
+
+/**
+ * 토큰의 클레임으로 만든 JwtAuthentication의 값과, 요청 간에 인증 객체를 재사용하는 캐시가 토큰 만료까지만 쓰이는지 확인합니다.
+ */
+class JwtAuthenticationTests {
+
+    private static final String SECRET = "a2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbQ==";
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    private final MutableClock clock = new MutableClock(NOW);
+
+    @Test
+    void buildsImmutableAuthenticationFromClaims() {
+        TokenProvider tokenProvider = tokenProvider(100);
+        JwtAuthentication authentication = tokenProvider.authenticate(
+                tokenProvider.createToken("user@example.com", "ROLE_USER,ROLE_ADMIN", 42L, "session-1", true));
+
+        assertEquals("user@example.com", authentication.getName());
+        assertEquals("user@example.com", authentication.getUsername());
+        assertEquals(42L, authentication.getUserId());
+        assertEquals("session-1", authentication.getSessionId());
+        assertNotNull(authentication.getTokenId());
+        assertEquals(NOW / 1000 + 60, authentication.getExpirationSeconds());
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN")),
+                authentication.getAuthorities());
+        assertEquals(RoleMask.of(List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN"))),
+                authentication.getRoleMask());
+        assertSame(authentication, authentication.getPrincipal());
+        assertNull(authentication.getCredentials()); // 토큰 원문은 들고 다니지 않습니다.
+        assertTrue(authentication.isAuthenticated());
+        assertThrows(IllegalArgumentException.class, () -> authentication.setAuthenticated(false));
+        @SuppressWarnings("unchecked")
+        List<GrantedAuthority> authorities = (List<GrantedAuthority>) authentication.getAuthorities();
+        assertThrows(UnsupportedOperationException.class, () -> authorities.add(new SimpleGrantedAuthority("ROLE_X")));
+    }
+
+    @Test
+    void omitsUserIdAndSessionWhenTokenHasNone() {
+        TokenProvider tokenProvider = tokenProvider(100);
+        JwtAuthentication authentication = tokenProvider.authenticate(
+                tokenProvider.createToken("batch@example.com", "", true));
+
+        assertNull(authentication.getUserId());
+        assertNull(authentication.getSessionId());
+        assertTrue(authentication.getAuthorities().isEmpty());
+    }
+
+    @Test
+    void sharesAuthorityListBetweenTokensWithSameClaim() {
+        TokenProvider tokenProvider = tokenProvider(100);
+        JwtAuthentication first = tokenProvider.authenticate(tokenProvider.createToken("a@example.com", "ROLE_USER", 1L, true));
+        JwtAuthentication second = tokenProvider.authenticate(tokenProvider.createToken("b@example.com", "ROLE_USER", 2L, true));
+
+        assertSame(first.getAuthorities(), second.getAuthorities());
+    }
+
+    @Test
+    void reusesCachedAuthenticationUntilTokenExpires() {
+        TokenProvider tokenProvider = tokenProvider(100);
+        String token = tokenProvider.createToken("user@example.com", "ROLE_USER", 1L, true);
+        JwtAuthentication authentication = tokenProvider.authenticate(token);
+
+        assertSame(authentication, tokenProvider.authenticate(token));
+        clock.set((NOW / 1000 + 60) * 1000); // exp와 같은 순간까지는 유효합니다.
+        assertSame(authentication, tokenProvider.authenticate(token));
+
+        // 만료된 뒤에는 캐시된 객체를 돌려주지 않고 다시 검증해 거절합니다.
+        clock.set((NOW / 1000 + 60) * 1000 + 1);
+        assertNull(tokenProvider.authenticate(token));
+        assertEquals(1L, tokenProvider.validationFailureCounts().get(TokenValidationFailures.Reason.EXPIRED));
+    }
+
+    @Test
+    void verifiesEveryRequestWhenCacheIsDisabled() {
+        TokenProvider tokenProvider = tokenProvider(0);
+        String token = tokenProvider.createToken("user@example.com", "ROLE_USER", 1L, true);
+
+        JwtAuthentication first = tokenProvider.authenticate(token);
+        JwtAuthentication second = tokenProvider.authenticate(token);
+        assertNotSame(first, second);
+        assertEquals(first.getTokenId(), second.getTokenId());
+    }
+
+    @Test
+    void keepsAcceptingTokensWhenCacheIsFull() {
+        TokenProvider tokenProvider = tokenProvider(2);
+        for (int i = 0; i < 10; i++) {
+            String token = tokenProvider.createToken("user" + i + "@example.com", "ROLE_USER", (long) i, true);
+            assertEquals("user" + i + "@example.com", tokenProvider.authenticate(token).getName());
+            assertNotNull(tokenProvider.authenticate(token));
+        }
+    }
+
+    private TokenProvider tokenProvider(int authenticationCacheSize) {
+        TokenProvider tokenProvider = new TokenProvider(SECRET, 60, 600, authenticationCacheSize, 0, 0, 0, false, clock, 0, null);
+        tokenProvider.afterPropertiesSet();
+        return tokenProvider;
+    }
+}
@@ -0,0 +1,91 @@
+package com.jwt.demo.jwt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+/**
+ * 역할 조건을 비트로 검사한 결과가 SpEL로 검사한 결과와 같은지 확인합니다.
+ */
+class RoleMaskAuthorizationManagerTests {
+
+    private final PreAuthorizeAuthorizationManager spel = new PreAuthorizeAuthorizationManager();
+    private final RoleMaskAuthorizationManager compiled = new RoleMaskAuthorizationManager(spel);
+
+    @Test
+    void agreesWithSpelForRoleExpressions() throws Exception {
+        List<List<String>> authoritySets = List.of(
+                List.of(), List.of("ROLE_USER"), List.of("ROLE_ADMIN"), List.of("ROLE_USER", "ROLE_ADMIN"), List.of("SCOPE_read"));
+        for (String name : List.of("userOrAdmin", "admin", "adminRole", "readScope", "userOrReadScope")) {
+            Method method = Endpoints.class.getMethod(name);
+            assertNotEquals(0L, RoleMaskAuthorizationManager.compile(method), name);
+            for (List<String> authorities : authoritySets) {
+                Authentication authentication = jwtAuthentication(authorities);
+                assertEquals(decide(spel, authentication, method), decide(compiled, authentication, method),
+                        name + " " + authorities);
+            }
+        }
+    }
+
+    @Test
+    void fallsBackToSpelForOtherExpressionsAndAuthentications() throws Exception {
+        Method authenticated = Endpoints.class.getMethod("authenticated");
+        assertEquals(0L, RoleMaskAuthorizationManager.compile(authenticated));
+        assertEquals(true, decide(compiled, jwtAuthentication(List.of()), authenticated));
+
+        Method admin = Endpoints.class.getMethod("admin");
+        Authentication password = UsernamePasswordAuthenticationToken.authenticated(
+                "admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        assertEquals(true, decide(compiled, password, admin));
+    }
+
+    private static boolean decide(AuthorizationManager<MethodInvocation> manager,
+                                  Authentication authentication, Method method) {
+        return manager.check(() -> authentication, new SimpleMethodInvocation(new Endpoints(), method)).isGranted();
+    }
+
+    private static JwtAuthentication jwtAuthentication(List<String> names) {
+        List<GrantedAuthority> authorities = names.stream().<GrantedAuthority>map(SimpleGrantedAuthority::new).toList();
+        return new JwtAuthentication("user@example.com", 1L, null, Long.MAX_VALUE, 0L, null, authorities, RoleMask.of(authorities));
+    }
+
+    static class Endpoints {
+
+        @PreAuthorize("hasAnyRole('USER','ADMIN')")
+        public void userOrAdmin() {
+        }
+
+        @PreAuthorize("hasRole('ADMIN')")
+        public void admin() {
+        }
+
+        @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+        public void adminRole() {
+        }
+
+        @PreAuthorize("hasAuthority('SCOPE_read')")
+        public void readScope() {
+        }
+
+        @PreAuthorize("hasAnyAuthority('ROLE_USER', 'SCOPE_read')")
+        public void userOrReadScope() {
+        }
+
+        @PreAuthorize("isAuthenticated()")
+        public void authenticated() {
+        }
+    }
+}
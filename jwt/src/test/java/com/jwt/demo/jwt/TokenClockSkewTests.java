@@ -0,0 +1,105 @@
+package com.jwt.demo.jwt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+
+import com.jwt.demo.jwt.TokenValidationFailures.Reason;
+import com.jwt.demo.util.MutableClock;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * 시계가 서로 어긋난 노드가 허용 오차(clock-skew) 안에서 토큰과 리프레시 토큰의 만료를 같게 판단하는지 확인합니다.
+ * 발급 노드와 검증 노드는 같은 비밀 키를 쓰고 시계만 다른 TokenProvider로 흉내 냅니다.
+ */
+class TokenClockSkewTests {
+
+    private static final String SECRET = "a2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbQ==";
+
+    private static final long ISSUED_AT = 1_700_000_000_000L;
+
+    @Test
+    void acceptsTokenFromNodeWithSlowerClockWithinSkew() {
+        MutableClock issuerClock = new MutableClock(ISSUED_AT);
+        MutableClock verifierClock = new MutableClock(ISSUED_AT);
+        TokenProvider issuer = tokenProvider(issuerClock, 0);
+        TokenProvider verifier = tokenProvider(verifierClock, 5);
+
+        String token = issuer.createToken("user@example.com", "ROLE_USER", 1L, true);
+        long expirationMillis = (ISSUED_AT / 1000 + 60) * 1000;
+
+        // 검증 노드의 시계가 4초 빠르면, 발급 노드 기준으로 아직 유효한 토큰이 이미 만료된 것처럼 보입니다.
+        verifierClock.set(expirationMillis + 4_000);
+        assertNotNull(verifier.authenticate(token));
+        verifierClock.set(expirationMillis + 5_000);
+        assertNotNull(verifier.authenticate(token)); // 캐시된 인증 객체도 같은 기준으로 판단합니다.
+
+        verifierClock.set(expirationMillis + 5_001);
+        assertNull(verifier.authenticate(token));
+        assertFalse(verifier.validateToken(token));
+        assertTrue(verifier.validationFailureCounts().get(Reason.EXPIRED) >= 1);
+    }
+
+    @Test
+    void rejectsExpiredTokenWithoutSkew() {
+        MutableClock clock = new MutableClock(ISSUED_AT);
+        TokenProvider tokenProvider = tokenProvider(clock, 0);
+        String token = tokenProvider.createToken("user@example.com", "ROLE_USER", 1L, true);
+        long expirationSeconds = tokenProvider.authenticate(token).getExpirationSeconds();
+
+        clock.set(expirationSeconds * 1000);
+        assertTrue(tokenProvider.validateToken(token)); // jjwt와 같이 exp와 같은 순간까지는 유효합니다.
+        clock.set(expirationSeconds * 1000 + 1);
+        assertNull(tokenProvider.authenticate(token));
+    }
+
+    @Test
+    void appliesSkewToTokensVerifiedByJjwt() {
+        MutableClock clock = new MutableClock(ISSUED_AT);
+        TokenProvider tokenProvider = tokenProvider(clock, 5);
+        // typ 헤더가 있으면 경량 검증기가 판단하지 않고 jjwt로 넘깁니다.
+        String token = Jwts.builder()
+                .setHeaderParam("typ", "JWT")
+                .setSubject("user@example.com")
+                .claim("auth", "ROLE_USER")
+                .setExpiration(new Date(ISSUED_AT))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .compact();
+
+        clock.set(ISSUED_AT + 4_000);
+        assertTrue(tokenProvider.parseClaims(token).isPresent());
+        clock.set(ISSUED_AT + 6_000);
+        assertTrue(tokenProvider.parseClaims(token).isEmpty());
+    }
+
+    @Test
+    void refreshTokenExpiryIsJudgedInUtcWithSkew() {
+        MutableClock clock = new MutableClock(ISSUED_AT);
+        TokenProvider tokenProvider = tokenProvider(clock, 5);
+
+        Instant expiryDate = tokenProvider.refreshTokenExpiryDate();
+        assertEquals(Instant.ofEpochMilli(ISSUED_AT).plusSeconds(600), expiryDate);
+
+        // 다른 노드가 기록한 만료 시간도 시간대와 관계없이 같은 시각으로 비교합니다.
+        clock.set(expiryDate.toEpochMilli() + 5_000);
+        assertFalse(tokenProvider.isExpired(expiryDate));
+        clock.set(expiryDate.toEpochMilli() + 5_001);
+        assertTrue(tokenProvider.isExpired(expiryDate));
+    }
+
+    private static TokenProvider tokenProvider(MutableClock clock, long clockSkewSeconds) {
+        TokenProvider tokenProvider = new TokenProvider(SECRET, 60, 600, 100, 0, 0, 0, false, clock, clockSkewSeconds, null);
+        tokenProvider.afterPropertiesSet();
+        return tokenProvider;
+    }
+}
@@ -0,0 +1,171 @@
+package com.jwt.demo.jwt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.jwt.demo.repository.RefreshTokenRepository;
+
+/**
+ * 액세스 토큰의 갱신 시각(rat)이 범위 안에서 흩어지고, 갱신 시각이 지난 토큰만 한 번 재발급되는지 확인합니다.
+ * 재발급은 토큰의 세션(sid)이 남아 있을 때만, 세션의 만료 시간을 넘지 않게 합니다.
+ * 기억한 새 토큰도 세션이 취소된 뒤에는 돌려주지 않습니다.
+ */
+class TokenRefreshHintTests {
+
+    private static final String SECRET = "a2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbQ==";
+    private static final String USERNAME = "user@example.com";
+
+    private final RefreshTokenRepository refreshTokenRepository = mock(RefreshTokenRepository.class);
+    private final TokenProvider tokenProvider = tokenProvider(true, 100);
+
+    @Test
+    void accessTokensCarryRandomizedRefreshAt() {
+        Set<Long> offsets = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            JwtAuthentication authentication = tokenProvider.authenticate(
+                    tokenProvider.createToken(USERNAME, "ROLE_USER", 1L, true));
+            long offset = authentication.getExpirationSeconds() - authentication.getRefreshAtSeconds();
+            assertTrue(offset >= 60 && offset <= 360, "offset=" + offset);
+            offsets.add(offset);
+        }
+        assertTrue(offsets.size() > 10, "갱신 시각이 흩어져야 합니다: " + offsets);
+
+        TokenClaims refresh = tokenProvider.parseClaims(
+                tokenProvider.createToken(USERNAME, "ROLE_USER", 1L, false)).orElseThrow();
+        assertEquals(0L, refresh.getRefreshAtSeconds());
+    }
+
+    @Test
+    void renewsOnceAfterRefreshAt() {
+        session("session-1", Instant.now().plusSeconds(86400));
+        JwtAuthentication authentication = tokenProvider.authenticate(
+                tokenProvider.createToken(USERNAME, "ROLE_USER,ROLE_ADMIN", 7L, "session-1", true));
+        long refreshAtMillis = authentication.getRefreshAtSeconds() * 1000;
+
+        assertNull(tokenProvider.renew(authentication, refreshAtMillis - 1));
+        TokenProvider.Renewal renewal = tokenProvider.renew(authentication, refreshAtMillis);
+        assertNotNull(renewal);
+        assertSame(renewal, tokenProvider.renew(authentication, refreshAtMillis + 1000));
+        // 서명은 한 번만 하지만, 기억한 토큰을 돌려줄 때마다 세션이 남아 있는지 다시 확인합니다.
+        verify(refreshTokenRepository, times(2)).findExpiryDateByUsernameAndSessionId(USERNAME, "session-1");
+
+        JwtAuthentication renewed = tokenProvider.authenticate(renewal.token());
+        assertEquals(USERNAME, renewed.getName());
+        assertEquals(7L, renewed.getUserId());
+        assertEquals("session-1", renewed.getSessionId());
+        assertEquals(authentication.getAuthorities(), renewed.getAuthorities());
+        assertNotEquals(authentication.getTokenId(), renewed.getTokenId());
+        assertEquals(renewed.getRefreshAtSeconds(), renewal.refreshAtSeconds());
+    }
+
+    @Test
+    void doesNotRenewWithoutSession() {
+        JwtAuthentication authentication = tokenProvider.authenticate(
+                tokenProvider.createToken(USERNAME, "ROLE_USER", 1L, true));
+        assertNull(tokenProvider.renew(authentication, authentication.getExpirationSeconds() * 1000));
+    }
+
+    @Test
+    void doesNotRenewRevokedSession() {
+        JwtAuthentication authentication = tokenProvider.authenticate(
+                tokenProvider.createToken(USERNAME, "ROLE_USER", 1L, "revoked", true));
+        when(refreshTokenRepository.findExpiryDateByUsernameAndSessionId(USERNAME, "revoked")).thenReturn(Optional.empty());
+
+        long now = authentication.getExpirationSeconds() * 1000;
+        assertNull(tokenProvider.renew(authentication, now));
+        assertNull(tokenProvider.renew(authentication, now + 1));
+        // 거절한 결과도 기억하므로 같은 토큰의 다음 요청은 세션을 다시 조회하지 않습니다.
+        verify(refreshTokenRepository, times(1)).findExpiryDateByUsernameAndSessionId(USERNAME, "revoked");
+    }
+
+    @Test
+    void doesNotRenewPastSessionExpiry() {
+        JwtAuthentication expired = tokenProvider.authenticate(
+                tokenProvider.createToken(USERNAME, "ROLE_USER", 1L, "expired", true));
+        long now = expired.getRefreshAtSeconds() * 1000;
+        session("expired", Instant.ofEpochMilli(now - 1000));
+        assertNull(tokenProvider.renew(expired, now));
+
+        // 세션이 곧 만료되면 새 토큰의 만료 시간도 세션의 만료 시간을 넘지 않습니다.
+        JwtAuthentication expiring = tokenProvider.authenticate(
+                tokenProvider.createToken(USERNAME, "ROLE_USER", 1L, "expiring", true));
+        now = expiring.getRefreshAtSeconds() * 1000;
+        Instant sessionExpiry = Instant.ofEpochSecond(now / 1000 + 30);
+        session("expiring", sessionExpiry);
+        TokenProvider.Renewal renewal = tokenProvider.renew(expiring, now);
+        assertNotNull(renewal);
+        assertEquals(sessionExpiry.getEpochSecond(),
+                tokenProvider.parseClaims(renewal.token()).orElseThrow().getExpirationSeconds());
+    }
+
+    @Test
+    void stopsReturningRememberedRenewalAfterSessionIsRevoked() {
+        session("session-2", Instant.now().plusSeconds(86400));
+        JwtAuthentication authentication = tokenProvider.authenticate(
+                tokenProvider.createToken(USERNAME, "ROLE_USER", 1L, "session-2", true));
+        long now = authentication.getRefreshAtSeconds() * 1000;
+        assertNotNull(tokenProvider.renew(authentication, now));
+
+        // 로그아웃 또는 세션 취소로 리프레시 토큰 행이 지워졌습니다.
+        when(refreshTokenRepository.findExpiryDateByUsernameAndSessionId(USERNAME, "session-2")).thenReturn(Optional.empty());
+        assertNull(tokenProvider.renew(authentication, now + 1000));
+        assertNull(tokenProvider.renew(authentication, now + 2000));
+        // 거절로 바꾼 뒤에는 세션을 다시 조회하지 않습니다.
+        verify(refreshTokenRepository, times(2)).findExpiryDateByUsernameAndSessionId(USERNAME, "session-2");
+    }
+
+    @Test
+    void clearsRenewalsWhenFullOfLiveEntries() {
+        TokenProvider small = tokenProvider(true, 1);
+        session("a", Instant.now().plusSeconds(86400));
+        session("b", Instant.now().plusSeconds(86400));
+        JwtAuthentication first = small.authenticate(small.createToken(USERNAME, "ROLE_USER", 1L, "a", true));
+        JwtAuthentication second = small.authenticate(small.createToken(USERNAME, "ROLE_USER", 1L, "b", true));
+        long now = Math.max(first.getRefreshAtSeconds(), second.getRefreshAtSeconds()) * 1000;
+
+        TokenProvider.Renewal renewal = small.renew(first, now);
+        assertNotNull(renewal);
+        // 가득 차 있어도 거절하지 않고, 비운 뒤 새 항목을 기억합니다.
+        TokenProvider.Renewal secondRenewal = small.renew(second, now);
+        assertNotNull(secondRenewal);
+        assertSame(secondRenewal, small.renew(second, now));
+        // 비우면서 잊은 토큰은 다시 재발급합니다. (세션의 만료 시간을 넘지 않는 새 토큰)
+        assertNotNull(small.renew(first, now));
+    }
+
+    @Test
+    void doesNotRenewWhenReissueIsDisabled() {
+        TokenProvider withoutReissue = tokenProvider(false, 100);
+        JwtAuthentication authentication = withoutReissue.authenticate(
+                withoutReissue.createToken(USERNAME, "ROLE_USER", 1L, "session-1", true));
+        assertTrue(authentication.getRefreshAtSeconds() > 0);
+        assertNull(withoutReissue.renew(authentication, authentication.getExpirationSeconds() * 1000));
+    }
+
+    private void session(String sessionId, Instant expiry) {
+        when(refreshTokenRepository.findExpiryDateByUsernameAndSessionId(USERNAME, sessionId)).thenReturn(Optional.of(expiry));
+    }
+
+    private TokenProvider tokenProvider(boolean reissue, int cacheSize) {
+        TokenProvider tokenProvider = new TokenProvider(SECRET, 1800, 604800, cacheSize, 0, 60, 300, reissue,
+                Clock.systemUTC(), 0, refreshTokenRepository);
+        tokenProvider.afterPropertiesSet();
+        return tokenProvider;
+    }
+}
@@ -0,0 +1,59 @@
+package com.jwt.demo.jwt;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 갱신 시각이 지난 액세스 토큰의 요청에 X-Access-Token으로 새 토큰을 돌려주고,
+ * 세션을 취소한 뒤에는 같은 토큰으로 요청해도 새 토큰을 돌려주지 않는지 확인합니다.
+ * 갱신 구간을 토큰 유효기간보다 길게 두어 발급 직후부터 갱신 시각이 지난 토큰을 만듭니다.
+ */
+@SpringBootTest(properties = {
+        "jwt.refresh-hint.reissue=true",
+        "jwt.refresh-hint.window-seconds=3600",
+        "jwt.refresh-hint.jitter-seconds=0"})
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+class TokenReissueTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void stopsReissuingAfterSessionsAreRevoked() throws Exception {
+        String response = mockMvc.perform(post("/api/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"intheeast0305@gmail.com\",\"password\":\"12345\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String accessToken = objectMapper.readTree(response).get("accessToken").asText();
+
+        mockMvc.perform(get("/api/user").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(JwtFilter.ACCESS_TOKEN_HEADER));
+
+        mockMvc.perform(delete("/api/sessions").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk());
+
+        // 기존 토큰은 만료될 때까지 유효하지만, 세션이 없으므로 기억해 둔 새 토큰도 돌려주지 않습니다.
+        mockMvc.perform(get("/api/user").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(JwtFilter.ACCESS_TOKEN_HEADER));
+    }
+}
@@ -0,0 +1,55 @@
+package com.jwt.demo.jwt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Clock;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.jwt.demo.jwt.TokenValidationFailures.Reason;
+
+/**
+ * 검증 실패 로그를 간격마다 한 번만 남기더라도, 실패 건수는 이유별로 빠짐없이 세어지는지 확인합니다.
+ */
+class TokenValidationFailuresTests {
+
+    private static final String SECRET = "a2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbQ==";
+
+    @Test
+    void countsEveryFailureByReason() throws InterruptedException {
+        TokenValidationFailures failures = new TokenValidationFailures(3600);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    failures.record(i % 10 == 0 ? Reason.EXPIRED : Reason.INVALID_SIGNATURE);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Map<Reason, Long> counts = failures.snapshot();
+        assertEquals(36_000L, counts.get(Reason.INVALID_SIGNATURE));
+        assertEquals(4_000L, counts.get(Reason.EXPIRED));
+        assertEquals(0L, counts.get(Reason.MALFORMED));
+    }
+
+    @Test
+    void tokenProviderRecordsRejectedTokens() {
+        TokenProvider tokenProvider = new TokenProvider(SECRET, 1800, 604800, 0, 10, 0, 0, false, Clock.systemUTC(), 0, null);
+        tokenProvider.afterPropertiesSet();
+        String token = tokenProvider.createToken("user@example.com", "ROLE_USER", true);
+        String forged = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertNull(tokenProvider.authenticate(forged));
+        assertNull(tokenProvider.authenticate("not-a-jwt"));
+        Map<Reason, Long> counts = tokenProvider.validationFailureCounts();
+        assertEquals(1L, counts.get(Reason.INVALID_SIGNATURE));
+        assertEquals(1L, counts.get(Reason.MALFORMED));
+    }
+}
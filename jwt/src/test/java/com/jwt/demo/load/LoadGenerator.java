@@ -0,0 +1,433 @@
+package com.jwt.demo.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jwt.demo.DemoJwtApplication;
+import com.jwt.demo.jwt.JwtFilter;
+
+/**
+ * LoadGenerator는 인증 API(/api/login, /api/refresh-token, /api/logout, /api/user, /api/signup)에
+ * 정해진 비율로 요청을 섞어 보내는 개방형(open-loop) 부하 생성기입니다.
+ *
+ * 요청은 응답을 기다리지 않고 rate에 맞춘 예정 시각마다 보냅니다. 지연 시간은 실제로 보낸 시각이 아니라 예정 시각부터 측정하므로,
+ * 서버가 느려져 생성기가 밀리더라도 그동안 기다린 시간이 빠지지 않습니다(coordinated omission 보정).
+ * 비교를 위해 실제로 보낸 시각부터 잰 서비스 시간도 함께 기록합니다.
+ *
+ * 실행: mvn -Pload test -Dload.args="rate=300 duration=60 mix=login:10,refresh:15,logout:5,user:65,signup:5"
+ * mix에 invalid를 넣으면 서명이 잘못된 토큰으로 /api/user를 호출하는 공격성 요청을 섞습니다. (401이 정상 응답)
+ * 옵션 (key=value):
+ * - target: 대상 서버 주소. 생략하면 내장 H2(embedded 프로필)로 애플리케이션을 같은 JVM에서 띄웁니다.
+ *   같은 JVM에서는 생성기와 서버가 CPU를 나누어 쓰므로, 정확한 비교가 필요하면 서버를 따로 띄우고 target을 지정합니다.
+ * - rate: 초당 요청 수 (기본 200), duration / warmup: 측정 / 예열 시간(초, 기본 30 / 10)
+ * - users: 시작 전에 가입시켜 둘 사용자 수 (기본 50), mix: 작업별 가중치
+ * - report-dir: 결과 JSON 디렉터리 (기본 target/load), label: 보고서 이름 (기본 git 커밋 해시)
+ * - baseline: 비교할 이전 보고서 JSON 경로. 지정하면 작업별 변화를 출력합니다.
+ * - http: 1.1(기본) 또는 2. 2이면 h2c로 연결하며, 내장 서버도 server.http2.enabled=true로 띄웁니다.
+ * - stack: servlet(기본, Tomcat) 또는 reactive(WebFlux, Netty). 내장 서버를 띄울 때만 사용합니다.
+ */
+public final class LoadGenerator {
+
+    static final String PASSWORD = "load-password";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    // 형식은 맞지만 서명이 틀린 토큰 ({"alg":"HS512"}.{"sub":"attacker","exp":4102444800}.임의의 서명)
+    private static final String FORGED_TOKEN = "eyJhbGciOiJIUzUxMiJ9.eyJzdWIiOiJhdHRhY2tlciIsImV4cCI6NDEwMjQ0NDgwMH0."
+            + "c2lnbmF0dXJlLXRoYXQtZG9lcy1ub3QtbWF0Y2gtdGhlLXNlcnZlci1zZWNyZXQtYXQtYWxsLWF0LWFsbC1hdC1hbGwtYXQtYWxs";
+
+    private final Map<String, String> options;
+    private final URI target;
+    private final HttpClient httpClient;
+    private final String runId = Long.toHexString(ThreadLocalRandom.current().nextLong() & 0xffffffL);
+
+    // 로그인에 사용할 사용자와, 로그인해서 얻은 토큰 묶음(빈 칸은 null)
+    private final List<String> usernames = new CopyOnWriteArrayList<>();
+    private final AtomicReferenceArray<Session> sessions;
+    private final AtomicInteger signups = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile LoadReport report;
+
+    LoadGenerator(Map<String, String> options, URI target) {
+        this.options = options;
+        this.target = target;
+        this.sessions = new AtomicReferenceArray<>(Math.max(intOption("users", 50), 1));
+        this.httpClient = HttpClient.newBuilder()
+                .version(http2(options) ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        ConfigurableApplicationContext application = null;
+        String target = options.get("target");
+        if (target == null) {
+            application = startApplication(http2(options), reactive(options));
+            target = "http://localhost:" + application.getEnvironment().getProperty("local.server.port");
+        }
+
+        int exitCode;
+        try {
+            exitCode = new LoadGenerator(options, URI.create(target)).run();
+        } finally {
+            if (application != null) {
+                application.close();
+            }
+        }
+        System.exit(exitCode);
+    }
+
+    /**
+     * 예열, 측정, 보고서 저장을 차례로 실행합니다.
+     *
+     * @return 종료 코드. 측정 구간에 성공한 요청이 하나도 없으면 1
+     */
+    int run() throws Exception {
+        int rate = intOption("rate", 200);
+        int duration = intOption("duration", 30);
+        int warmup = intOption("warmup", 10);
+        Map<Operation, Integer> mix = Operation.parseMix(options.getOrDefault("mix",
+                "login:10,refresh:15,logout:5,user:65,signup:5"));
+
+        seedUsers(intOption("users", 50));
+        System.out.printf("부하 생성: %s, %d req/s, 예열 %ds, 측정 %ds, mix=%s%n", target, rate, warmup, duration, mix);
+
+        report = new LoadReport();
+        drive(rate, warmup, mix);
+        report = new LoadReport(); // 예열 구간의 기록은 버립니다. 늦게 끝난 예열 요청은 이전 보고서에 기록됩니다.
+        long measured = drive(rate, duration, mix);
+        awaitInFlight();
+        LoadReport report = this.report;
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("rate", rate);
+        config.put("durationSeconds", duration);
+        config.put("warmupSeconds", warmup);
+        config.put("http", http2(options) ? "2" : "1.1");
+        config.put("stack", reactive(options) ? "reactive" : "servlet");
+        config.put("mix", mix.entrySet().stream()
+                .collect(LinkedHashMap::new, (m, e) -> m.put(e.getKey().key, e.getValue()), Map::putAll));
+        String label = options.getOrDefault("label", gitRevision());
+        Path reportDir = Path.of(options.getOrDefault("report-dir", "target/load"));
+        Path written = report.write(reportDir, label, target.toString(), config, measured);
+        System.out.println(report.summary());
+        System.out.println("보고서: " + written.toAbsolutePath());
+
+        String baseline = options.get("baseline");
+        if (baseline != null) {
+            System.out.println(LoadReport.compare(OBJECT_MAPPER.readTree(Path.of(baseline).toFile()),
+                    OBJECT_MAPPER.readTree(written.toFile())));
+        }
+        return report.successCount() > 0 ? 0 : 1;
+    }
+
+    /**
+     * seconds 동안 rate에 맞춰 요청을 보냅니다. i번째 요청의 예정 시각은 start + i / rate 입니다.
+     *
+     * @return 실제로 걸린 시간(나노초)
+     */
+    private long drive(int rate, int seconds, Map<Operation, Integer> mix) {
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long total = (long) rate * seconds;
+        SplittableRandom random = new SplittableRandom();
+        long start = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long intended = start + i * interval;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            } else {
+                report.recordSchedulerLag(-wait); // 생성기가 밀린 경우에도 예정 시각 기준으로 측정합니다.
+            }
+            dispatch(Operation.pick(mix, random), intended);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void dispatch(Operation operation, long intended) {
+        int slot = ThreadLocalRandom.current().nextInt(sessions.length());
+        Session session = null;
+        if (operation.needsSession()) {
+            // 로그아웃은 토큰을 칸에서 꺼내고, 갱신과 조회는 칸에 둔 채로 함께 사용합니다.
+            session = operation == Operation.LOGOUT ? sessions.getAndSet(slot, null) : sessions.get(slot);
+            if (session == null) {
+                operation = Operation.LOGIN; // 사용할 수 있는 토큰이 없으면 로그인으로 대신합니다.
+            }
+        }
+
+        HttpRequest request = request(operation, session);
+        Operation executed = operation;
+        Session used = session;
+        LoadReport current = report;
+        current.recordInFlight(inFlight.incrementAndGet());
+        long sent = System.nanoTime();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, failure) -> {
+            long now = System.nanoTime();
+            inFlight.decrementAndGet();
+            int status = failure == null ? response.statusCode() : -1;
+            current.record(executed, now - intended, now - sent, status);
+            if (failure == null) {
+                current.recordVersion(response.version());
+            }
+            afterResponse(executed, slot, status, failure == null ? response.body() : null);
+            if (failure == null && used != null) {
+                // 서버가 갱신 시각이 지난 토큰 대신 새 액세스 토큰을 보내 주면 클라이언트처럼 바꿔 씁니다.
+                response.headers().firstValue(JwtFilter.ACCESS_TOKEN_HEADER).ifPresent(renewed ->
+                        sessions.compareAndSet(slot, used, new Session(renewed, used.refreshToken())));
+            }
+        });
+    }
+
+    private HttpRequest request(Operation operation, Session session) {
+        return switch (operation) {
+            case LOGIN -> post("/api/login", null, json("username", randomUsername(), "password", PASSWORD));
+            case SIGNUP -> {
+                String username = "load-" + runId + "-" + signups.incrementAndGet() + "@example.com";
+                yield post("/api/signup", null, json("username", username, "password", PASSWORD, "nickname", "load"));
+            }
+            case REFRESH -> post("/api/refresh-token", session.accessToken(), json("refreshToken", session.refreshToken()));
+            case LOGOUT -> post("/api/logout", session.accessToken(), json("refreshToken", session.refreshToken()));
+            case USER -> get("/api/user", session.accessToken());
+            case INVALID -> get("/api/user", FORGED_TOKEN);
+        };
+    }
+
+    /**
+     * 응답에 따라 사용자와 토큰 풀을 갱신합니다.
+     * 로그인으로 얻은 토큰은 slot 칸에 넣고(기존 토큰은 버립니다), 로그아웃한 토큰은 다시 사용하지 않습니다.
+     */
+    private void afterResponse(Operation operation, int slot, int status, String body) {
+        boolean ok = status >= 200 && status < 300;
+        switch (operation) {
+            case LOGIN -> {
+                JsonNode tokens = ok ? readTree(body) : null;
+                if (tokens != null && tokens.hasNonNull("accessToken") && tokens.hasNonNull("refreshToken")) {
+                    sessions.set(slot, new Session(tokens.get("accessToken").asText(), tokens.get("refreshToken").asText()));
+                }
+            }
+            case SIGNUP -> {
+                JsonNode user = ok ? readTree(body) : null;
+                if (user != null && user.hasNonNull("username")) {
+                    usernames.add(user.get("username").asText());
+                }
+            }
+            case REFRESH, USER, LOGOUT, INVALID -> {
+                // 갱신과 조회에 사용한 토큰은 칸에 그대로 남아 있습니다.
+            }
+        }
+    }
+
+    /**
+     * 측정 전에 로그인할 사용자를 가입시키고, 사용자마다 한 번씩 로그인해 토큰 풀을 채웁니다.
+     */
+    private void seedUsers(int count) throws IOException, InterruptedException {
+        for (int i = 0; i < count; i++) {
+            String username = "load-" + runId + "-seed" + i + "@example.com";
+            HttpResponse<String> signup = httpClient.send(
+                    post("/api/signup", null, json("username", username, "password", PASSWORD, "nickname", "load")),
+                    HttpResponse.BodyHandlers.ofString());
+            if (signup.statusCode() != 200) {
+                throw new IllegalStateException("사용자를 가입시키지 못했습니다: " + signup.statusCode() + " " + signup.body());
+            }
+            usernames.add(username);
+
+            HttpResponse<String> login = httpClient.send(
+                    post("/api/login", null, json("username", username, "password", PASSWORD)),
+                    HttpResponse.BodyHandlers.ofString());
+            afterResponse(Operation.LOGIN, i % sessions.length(), login.statusCode(), login.body());
+        }
+    }
+
+    private void awaitInFlight() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private HttpRequest post(String path, String accessToken, String body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(target.resolve(path))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (accessToken != null) {
+            builder.header("Authorization", "Bearer " + accessToken);
+        }
+        return builder.build();
+    }
+
+    private HttpRequest get(String path, String accessToken) {
+        return HttpRequest.newBuilder(target.resolve(path))
+                .header("Authorization", "Bearer " + accessToken)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private String randomUsername() {
+        return usernames.get(ThreadLocalRandom.current().nextInt(usernames.size()));
+    }
+
+    private int intOption(String name, int defaultValue) {
+        String value = options.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    private static String json(String... keyValues) {
+        Map<String, String> body = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            body.put(keyValues[i], keyValues[i + 1]);
+        }
+        try {
+            return OBJECT_MAPPER.writeValueAsString(body);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static JsonNode readTree(String body) {
+        try {
+            return body == null ? null : OBJECT_MAPPER.readTree(body);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("옵션은 key=value 형식이어야 합니다: " + arg);
+            }
+            options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+
+    /**
+     * 내장 H2로 애플리케이션을 띄웁니다. 요청마다 남는 로그가 측정을 방해하지 않도록 로그 수준을 낮춥니다.
+     */
+    private static ConfigurableApplicationContext startApplication(boolean http2, boolean reactive) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        // application.yml보다 우선하도록 명령행 인자로 전달합니다.
+        return new SpringApplicationBuilder(DemoJwtApplication.class)
+                .profiles("embedded")
+                .run("--server.port=0",
+                        "--server.http2.enabled=" + http2,
+                        "--spring.main.web-application-type=" + (reactive ? "reactive" : "servlet"),
+                        "--jwt.token-validity-in-seconds=3600",
+                        "--spring.jpa.properties.hibernate.format_sql=false",
+                        "--spring.jpa.properties.hibernate.use_sql_comments=false",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.com.jwt.demo=WARN");
+    }
+
+    private static boolean reactive(Map<String, String> options) {
+        String stack = options.getOrDefault("stack", "servlet");
+        if (!stack.equals("servlet") && !stack.equals("reactive")) {
+            throw new IllegalArgumentException("stack은 servlet 또는 reactive 이어야 합니다: " + stack);
+        }
+        return stack.equals("reactive");
+    }
+
+    private static boolean http2(Map<String, String> options) {
+        String http = options.getOrDefault("http", "1.1");
+        if (!http.equals("1.1") && !http.equals("2")) {
+            throw new IllegalArgumentException("http는 1.1 또는 2 이어야 합니다: " + http);
+        }
+        return http.equals("2");
+    }
+
+    private static String gitRevision() {
+        try {
+            Process process = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true).start();
+            String revision = new String(process.getInputStream().readAllBytes()).trim();
+            return process.waitFor() == 0 && !revision.isEmpty() ? revision : "local";
+        } catch (IOException | InterruptedException e) {
+            return "local";
+        }
+    }
+
+    /**
+     * 부하 생성기가 보내는 요청의 종류입니다.
+     */
+    enum Operation {
+        LOGIN("login"), REFRESH("refresh"), LOGOUT("logout"), USER("user"), SIGNUP("signup"), INVALID("invalid");
+
+        final String key;
+
+        Operation(String key) {
+            this.key = key;
+        }
+
+        boolean needsSession() {
+            return this == REFRESH || this == LOGOUT || this == USER;
+        }
+
+        /**
+         * 이 작업에서 정상으로 보는 응답인지 확인합니다. invalid는 401, 나머지는 2xx입니다.
+         */
+        boolean isExpected(int status) {
+            return this == INVALID ? status == 401 : status >= 200 && status < 300;
+        }
+
+        static Map<Operation, Integer> parseMix(String mix) {
+            Map<Operation, Integer> weights = new LinkedHashMap<>();
+            for (String entry : mix.split(",")) {
+                String[] parts = entry.trim().split(":");
+                Operation operation = null;
+                for (Operation candidate : values()) {
+                    if (candidate.key.equals(parts[0])) {
+                        operation = candidate;
+                    }
+                }
+                if (operation == null || parts.length != 2) {
+                    throw new IllegalArgumentException("mix 항목은 login|refresh|logout|user|signup|invalid:가중치 형식이어야 합니다: " + entry);
+                }
+                weights.put(operation, Integer.parseInt(parts[1]));
+            }
+            return weights;
+        }
+
+        static Operation pick(Map<Operation, Integer> mix, SplittableRandom random) {
+            int total = 0;
+            for (int weight : mix.values()) {
+                total += weight;
+            }
+            int r = random.nextInt(total);
+            for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+                r -= entry.getValue();
+                if (r < 0) {
+                    return entry.getKey();
+                }
+            }
+            throw new IllegalStateException();
+        }
+    }
+
+    private record Session(String accessToken, String refreshToken) {
+    }
+}
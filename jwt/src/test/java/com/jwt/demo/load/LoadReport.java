@@ -0,0 +1,227 @@
+package com.jwt.demo.load;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.jwt.demo.load.LoadGenerator.Operation;
+
+/**
+ * LoadReport는 작업별 지연 시간을 HdrHistogram으로 기록하고 JSON 보고서로 저장합니다.
+ *
+ * - responseTime: 예정 시각부터 응답까지 (coordinated omission 보정값, 비교에 사용하는 값)
+ * - serviceTime: 실제로 보낸 시각부터 응답까지
+ *
+ * 보고서에는 백분위수와 함께 압축된 히스토그램(base64)을 넣어 두어, 나중에 다른 백분위수를 다시 계산하거나 여러 실행을 합칠 수 있습니다.
+ * 보고서 형식을 바꿀 때는 compare가 이전 보고서도 읽을 수 있도록 필드를 추가만 합니다.
+ */
+final class LoadReport {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(2);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+    private final LongAccumulator maxSchedulerLag = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator maxInFlight = new LongAccumulator(Math::max, 0);
+    private final Map<HttpClient.Version, LongAdder> responsesByVersion = new ConcurrentHashMap<>();
+
+    LoadReport() {
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new Stats());
+        }
+    }
+
+    void record(Operation operation, long responseNanos, long serviceNanos, int status) {
+        Stats s = stats.get(operation);
+        s.responseTime.recordValue(Math.min(responseNanos, HIGHEST_TRACKABLE_NANOS));
+        s.serviceTime.recordValue(Math.min(serviceNanos, HIGHEST_TRACKABLE_NANOS));
+        if (operation.isExpected(status)) {
+            s.success.incrementAndGet();
+        } else {
+            s.errors.computeIfAbsent(status < 0 ? "io" : Integer.toString(status), k -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    void recordSchedulerLag(long nanos) {
+        maxSchedulerLag.accumulate(nanos);
+    }
+
+    /**
+     * 응답의 HTTP 버전을 셉니다. http=2로 실행했을 때 h2c 업그레이드가 실제로 이루어졌는지 확인하는 데 사용합니다.
+     */
+    void recordVersion(HttpClient.Version version) {
+        responsesByVersion.computeIfAbsent(version, k -> new LongAdder()).increment();
+    }
+
+    void recordInFlight(int count) {
+        maxInFlight.accumulate(count);
+    }
+
+    long successCount() {
+        return stats.values().stream().mapToLong(s -> s.success.get()).sum();
+    }
+
+    /**
+     * 보고서를 reportDir/load-{label}-{시각}.json 과 reportDir/latest.json 에 저장합니다.
+     *
+     * @return 저장한 보고서 경로
+     */
+    Path write(Path reportDir, String label, String target, Map<String, Object> config, long elapsedNanos)
+            throws IOException {
+        Map<String, Object> root = new LinkedHashMap<>();
+        Instant now = Instant.now();
+        root.put("label", label);
+        root.put("timestamp", now.toString());
+        root.put("target", target);
+        root.put("config", config);
+        root.put("elapsedSeconds", elapsedNanos / 1e9);
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+        long totalErrors = 0;
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            Stats s = entry.getValue();
+            // 시간 초과로 늦게 끝나는 요청이 계속 기록될 수 있으므로 복사본으로 계산합니다.
+            Histogram responseTime = s.responseTime.copy();
+            if (responseTime.getTotalCount() == 0) {
+                continue;
+            }
+            total.add(responseTime);
+            long errors = s.errors.values().stream().mapToLong(AtomicLong::get).sum();
+            totalErrors += errors;
+
+            Map<String, Object> operation = new LinkedHashMap<>();
+            operation.put("count", responseTime.getTotalCount());
+            operation.put("errors", errors);
+            Map<String, Long> errorsByStatus = new TreeMap<>();
+            s.errors.forEach((status, count) -> errorsByStatus.put(status, count.get()));
+            operation.put("errorsByStatus", errorsByStatus);
+            operation.put("throughput", responseTime.getTotalCount() / (elapsedNanos / 1e9));
+            operation.put("responseTimeMs", percentiles(responseTime));
+            operation.put("serviceTimeMs", percentiles(s.serviceTime.copy()));
+            operation.put("responseTimeHistogram", encode(responseTime));
+            operations.put(entry.getKey().key, operation);
+        }
+        root.put("operations", operations);
+
+        Map<String, Object> all = new LinkedHashMap<>();
+        all.put("count", total.getTotalCount());
+        all.put("errors", totalErrors);
+        all.put("throughput", total.getTotalCount() / (elapsedNanos / 1e9));
+        all.put("responseTimeMs", percentiles(total));
+        root.put("total", all);
+
+        Map<String, Object> generator = new LinkedHashMap<>();
+        generator.put("maxSchedulerLagMs", maxSchedulerLag.get() / 1e6);
+        generator.put("maxInFlight", maxInFlight.get());
+        Map<String, Long> versions = new TreeMap<>();
+        responsesByVersion.forEach((version, count) -> versions.put(version.name(), count.sum()));
+        generator.put("responsesByVersion", versions);
+        root.put("generator", generator);
+
+        Files.createDirectories(reportDir);
+        String safeLabel = label.replaceAll("[^A-Za-z0-9._-]", "_");
+        Path file = reportDir.resolve("load-" + safeLabel + "-" + now.toEpochMilli() + ".json");
+        OBJECT_MAPPER.writeValue(file.toFile(), root);
+        Files.copy(file, reportDir.resolve("latest.json"), StandardCopyOption.REPLACE_EXISTING);
+        return file;
+    }
+
+    String summary() {
+        StringBuilder sb = new StringBuilder(String.format("%-8s %8s %7s %10s %10s %10s %10s%n",
+                "op", "count", "errors", "p50(ms)", "p99(ms)", "p99.9(ms)", "max(ms)"));
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            Histogram h = entry.getValue().responseTime.copy();
+            if (h.getTotalCount() == 0) {
+                continue;
+            }
+            long errors = entry.getValue().errors.values().stream().mapToLong(AtomicLong::get).sum();
+            sb.append(String.format("%-8s %8d %7d %10.2f %10.2f %10.2f %10.2f%n", entry.getKey().key, h.getTotalCount(),
+                    errors, ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(99)),
+                    ms(h.getValueAtPercentile(99.9)), ms(h.getMaxValue())));
+        }
+        sb.append(String.format("생성기: 최대 지연 %.2f ms, 최대 동시 요청 %d, 응답 버전 %s",
+                maxSchedulerLag.get() / 1e6, maxInFlight.get(), responsesByVersion));
+        return sb.toString();
+    }
+
+    /**
+     * 두 보고서의 작업별 p50, p99, 처리량, 오류 수를 나란히 보여 줍니다.
+     */
+    static String compare(JsonNode baseline, JsonNode current) {
+        StringBuilder sb = new StringBuilder(String.format("비교: %s -> %s%n", baseline.path("label").asText(),
+                current.path("label").asText()));
+        sb.append(String.format("%-8s %22s %22s %20s %12s%n", "op", "p50(ms)", "p99(ms)", "throughput", "errors"));
+        Iterator<Map.Entry<String, JsonNode>> fields = current.path("operations").fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode before = baseline.path("operations").path(field.getKey());
+            JsonNode after = field.getValue();
+            sb.append(String.format("%-8s %22s %22s %20s %12s%n", field.getKey(),
+                    change(before.path("responseTimeMs").path("p50"), after.path("responseTimeMs").path("p50")),
+                    change(before.path("responseTimeMs").path("p99"), after.path("responseTimeMs").path("p99")),
+                    change(before.path("throughput"), after.path("throughput")),
+                    before.path("errors").asLong() + " -> " + after.path("errors").asLong()));
+        }
+        return sb.toString();
+    }
+
+    private static String change(JsonNode before, JsonNode after) {
+        if (before.isMissingNode() || before.asDouble() == 0) {
+            return String.format("- -> %.2f", after.asDouble());
+        }
+        double percent = (after.asDouble() - before.asDouble()) / before.asDouble() * 100;
+        return String.format("%.2f -> %.2f (%+.1f%%)", before.asDouble(), after.asDouble(), percent);
+    }
+
+    private static Map<String, Double> percentiles(Histogram histogram) {
+        Map<String, Double> values = new LinkedHashMap<>();
+        for (double percentile : PERCENTILES) {
+            values.put("p" + (percentile == (long) percentile ? Long.toString((long) percentile) : Double.toString(percentile)),
+                    ms(histogram.getValueAtPercentile(percentile)));
+        }
+        values.put("max", ms(histogram.getMaxValue()));
+        values.put("mean", histogram.getMean() / 1e6);
+        return values;
+    }
+
+    private static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static final class Stats {
+        final Histogram responseTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+        final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+        final AtomicLong success = new AtomicLong();
+        final Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+    }
+}
@@ -0,0 +1,169 @@
+package com.jwt.demo.perf;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 데이터가 늘어날 때 로그인, 토큰 갱신, 로그아웃, 내 정보 조회, 세션 목록 조회의 지연 시간 분포가 어떻게 변하는지 측정합니다.
+ * DemoJwtApplicationTests(컨텍스트 기동 확인)를 확장한 성능 테스트 모음이며, 기본 빌드에서는 실행되지 않습니다.
+ *
+ * 실행: mvn -Pperf test  (단계별 사용자 수와 표본 수: -Dperf.sizes=10000,100000,1000000 -Dperf.samples=200)
+ * 결과: target/perf/auth-latency.csv (단계, 작업, 표본 수, p50/p90/p99/p99.9/max 마이크로초)
+ *
+ * MockMvc로 서블릿 필터 체인부터 DB까지 한 스레드에서 호출하므로 네트워크와 동시성의 영향은 포함되지 않습니다.
+ * 로그인은 BCrypt 검증이 대부분을 차지하므로 데이터 크기의 영향은 나머지 작업에서 더 잘 드러납니다.
+ */
+@Slf4j
+@Tag("perf")
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("perf")
+class AuthenticationLatencyPerfTests {
+
+    private static final String[] OPERATIONS = {"login", "refresh", "logout", "profile", "sessions"};
+    private static final int WARMUP_SAMPLES = 50;
+    private static final int TOKEN_POOL_SIZE = 32;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${perf.sizes}")
+    private int[] sizes;
+
+    @Value("${perf.samples}")
+    private int samples;
+
+    @Value("${perf.refresh-tokens-per-user}")
+    private int refreshTokensPerUser;
+
+    @Value("${perf.report:target/perf/auth-latency.csv}")
+    private Path report;
+
+    private final SplittableRandom random = new SplittableRandom(36);
+
+    @Test
+    void measuresLatencyAsDatasetGrows() throws Exception {
+        PerfDatasetGenerator generator = new PerfDatasetGenerator(jdbcTemplate,
+                passwordEncoder.encode(PerfDatasetGenerator.PASSWORD), refreshTokensPerUser, 36);
+        Files.createDirectories(report.toAbsolutePath().getParent());
+
+        try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(report))) {
+            csv.println("users,refresh_tokens,operation,samples,p50_us,p90_us,p99_us,p999_us,max_us");
+            for (int size : sizes) {
+                generator.grow(size);
+                measure(generator.size(), WARMUP_SAMPLES); // JIT과 캐시를 데우는 단계는 기록하지 않습니다.
+                Map<String, LatencyRecorder> recorders = measure(generator.size(), samples);
+
+                long refreshTokens = jdbcTemplate.queryForObject("select count(*) from refresh_token", Long.class);
+                for (Map.Entry<String, LatencyRecorder> entry : recorders.entrySet()) {
+                    LatencyRecorder recorder = entry.getValue();
+                    assertThat(recorder.count()).isEqualTo(samples);
+                    csv.printf("%d,%d,%s,%d,%d,%d,%d,%d,%d%n", size, refreshTokens, entry.getKey(), recorder.count(),
+                            recorder.percentileMicros(50), recorder.percentileMicros(90), recorder.percentileMicros(99),
+                            recorder.percentileMicros(99.9), recorder.percentileMicros(100));
+                    log.info("[perf] users={} refreshTokens={} {}: p50={}us p99={}us max={}us", size, refreshTokens,
+                            entry.getKey(), recorder.percentileMicros(50), recorder.percentileMicros(99),
+                            recorder.percentileMicros(100));
+                }
+                csv.flush();
+            }
+        }
+        log.info("[perf] 결과를 {}에 저장했습니다.", report.toAbsolutePath());
+    }
+
+    /**
+     * 작업마다 표본을 count개씩 측정합니다.
+     * - login/logout: 무작위 사용자로 로그인한 뒤 그 토큰으로 로그아웃합니다.
+     * - refresh/profile: 미리 로그인해 둔 사용자들의 토큰을 번갈아 사용합니다.
+     */
+    private Map<String, LatencyRecorder> measure(int users, int count) throws Exception {
+        Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+        for (String operation : OPERATIONS) {
+            recorders.put(operation, new LatencyRecorder());
+        }
+
+        List<JsonNode> pool = new ArrayList<>();
+        for (int i = 0; i < TOKEN_POOL_SIZE; i++) {
+            pool.add(login(users, null));
+        }
+
+        for (int i = 0; i < count; i++) {
+            JsonNode tokens = login(users, recorders.get("login"));
+            perform(recorders.get("logout"), post("/api/logout")
+                    .header("Authorization", "Bearer " + tokens.get("accessToken").asText())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"refreshToken\":\"" + tokens.get("refreshToken").asText() + "\"}"));
+
+            JsonNode pooled = pool.get(i % pool.size());
+            perform(recorders.get("refresh"), post("/api/refresh-token")
+                    .header("Authorization", "Bearer " + pooled.get("accessToken").asText())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"refreshToken\":\"" + pooled.get("refreshToken").asText() + "\"}"));
+            perform(recorders.get("profile"), get("/api/user")
+                    .header("Authorization", "Bearer " + pooled.get("accessToken").asText()));
+            perform(recorders.get("sessions"), get("/api/sessions")
+                    .header("Authorization", "Bearer " + pooled.get("accessToken").asText()));
+        }
+        return recorders;
+    }
+
+    private JsonNode login(int users, LatencyRecorder recorder) throws Exception {
+        String username = PerfDatasetGenerator.username(random.nextInt(users));
+        MockHttpServletResponse response = perform(recorder, post("/api/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + username + "\",\"password\":\"" + PerfDatasetGenerator.PASSWORD + "\"}"));
+        return objectMapper.readTree(response.getContentAsString());
+    }
+
+    private MockHttpServletResponse perform(LatencyRecorder recorder, RequestBuilder request) throws Exception {
+        long started = System.nanoTime();
+        MockHttpServletResponse response = mockMvc.perform(request).andReturn().getResponse();
+        long elapsed = System.nanoTime() - started;
+        if (response.getStatus() != 200) {
+            throw new IOException("성능 측정 요청이 실패했습니다: " + response.getStatus() + " " + response.getContentAsString());
+        }
+        if (recorder != null) {
+            recorder.record(elapsed);
+        }
+        return response;
+    }
+}
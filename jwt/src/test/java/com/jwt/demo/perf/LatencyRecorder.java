@@ -0,0 +1,38 @@
+package com.jwt.demo.perf;
+
+import java.util.Arrays;
+
+/**
+ * LatencyRecorder는 측정한 지연 시간(나노초)을 모두 보관했다가 백분위수를 계산하는 단순한 기록기입니다.
+ * 성능 테스트의 표본 수(수백~수만 개)에서는 정렬 한 번으로 정확한 값을 얻을 수 있습니다.
+ */
+final class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int count;
+
+    void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    int count() {
+        return count;
+    }
+
+    /**
+     * @param percentile 0 ~ 100
+     * @return 해당 백분위수의 지연 시간(마이크로초)
+     */
+    long percentileMicros(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))] / 1_000;
+    }
+}
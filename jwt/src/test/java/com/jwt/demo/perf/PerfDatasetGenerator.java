@@ -0,0 +1,120 @@
+package com.jwt.demo.perf;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * PerfDatasetGenerator는 성능 테스트용 사용자, 권한, 리프레시 토큰을 JDBC 배치 insert로 대량 생성합니다.
+ *
+ * - 사용자: perf{번호}@example.com. user_id는 시드 데이터와 겹치지 않도록 FIRST_USER_ID부터 사용합니다.
+ *   BCrypt 해싱은 사용자마다 하면 수백만 건에서 몇 시간이 걸리므로 모든 사용자가 같은 해시(비밀번호 PASSWORD)를 공유합니다.
+ * - 권한: 모든 사용자에게 ROLE_USER, 50명 중 한 명에게 ROLE_ADMIN, 추가로 ROLE_PERF_0~7 중 1~2개를 부여합니다.
+ * - 리프레시 토큰: 사용자마다 refreshTokensPerUser개. 실제 토큰과 비슷한 길이의 무작위 문자열이며 약 30%는 만료된 상태입니다.
+ *
+ * grow를 여러 번 호출하면 이미 만든 사용자 뒤에 이어서 생성하므로 데이터를 단계적으로 늘리며 측정할 수 있습니다.
+ * 생성 결과는 seed가 같으면 항상 같습니다.
+ */
+@Slf4j
+final class PerfDatasetGenerator {
+
+    static final String PASSWORD = "12345";
+    static final long FIRST_USER_ID = 1_000_000L;
+
+    private static final int BATCH_SIZE = 5_000;
+    private static final int EXTRA_AUTHORITIES = 8;
+    private static final int TOKEN_LENGTH = 300; // uid, jti 클레임을 포함한 HS512 토큰의 길이와 비슷합니다.
+    private static final char[] BASE64URL =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String passwordHash;
+    private final int refreshTokensPerUser;
+    private final SplittableRandom random;
+    private int users;
+
+    PerfDatasetGenerator(JdbcTemplate jdbcTemplate, String passwordHash, int refreshTokensPerUser, long seed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordHash = passwordHash;
+        this.refreshTokensPerUser = refreshTokensPerUser;
+        this.random = new SplittableRandom(seed);
+        for (int i = 0; i < EXTRA_AUTHORITIES; i++) {
+            jdbcTemplate.update("insert into authority (authority_name) values (?)", "ROLE_PERF_" + i);
+        }
+    }
+
+    static String username(int index) {
+        return "perf" + index + "@example.com";
+    }
+
+    int size() {
+        return users;
+    }
+
+    /**
+     * 생성한 사용자 수가 targetUsers가 될 때까지 이어서 생성합니다.
+     */
+    void grow(int targetUsers) {
+        long started = System.nanoTime();
+        int from = users;
+        while (users < targetUsers) {
+            int batchEnd = Math.min(targetUsers, users + BATCH_SIZE);
+            insertBatch(users, batchEnd);
+            users = batchEnd;
+        }
+        log.info("성능 테스트 데이터 생성: 사용자 {} -> {}, 리프레시 토큰 {}건 ({} ms)", from, users,
+                (long) users * refreshTokensPerUser, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void insertBatch(int from, int to) {
+        List<Object[]> userRows = new ArrayList<>(to - from);
+        List<Object[]> authorityRows = new ArrayList<>((to - from) * 3);
+        List<Object[]> tokenRows = new ArrayList<>((to - from) * refreshTokensPerUser);
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC); // 만료 시간은 UTC 기준으로 저장합니다.
+
+        for (int i = from; i < to; i++) {
+            long userId = FIRST_USER_ID + i;
+            String username = username(i);
+            userRows.add(new Object[] {userId, username, passwordHash, "perf" + i, true});
+
+            authorityRows.add(new Object[] {userId, "ROLE_USER"});
+            if (i % 50 == 0) {
+                authorityRows.add(new Object[] {userId, "ROLE_ADMIN"});
+            }
+            int first = random.nextInt(EXTRA_AUTHORITIES);
+            authorityRows.add(new Object[] {userId, "ROLE_PERF_" + first});
+            if (random.nextBoolean()) {
+                authorityRows.add(new Object[] {userId, "ROLE_PERF_" + (first + 1) % EXTRA_AUTHORITIES});
+            }
+
+            for (int t = 0; t < refreshTokensPerUser; t++) {
+                boolean expired = random.nextInt(10) < 3;
+                LocalDateTime expiry = expired
+                        ? now.minusSeconds(1 + random.nextInt(7 * 24 * 3600))
+                        : now.plusSeconds(1 + random.nextInt(7 * 24 * 3600));
+                tokenRows.add(new Object[] {randomToken(), username, expiry});
+            }
+        }
+
+        jdbcTemplate.batchUpdate(
+                "insert into users (user_id, username, password, nickname, activated) values (?, ?, ?, ?, ?)", userRows);
+        jdbcTemplate.batchUpdate("insert into user_authority (user_id, authority_name) values (?, ?)", authorityRows);
+        if (!tokenRows.isEmpty()) {
+            jdbcTemplate.batchUpdate("insert into refresh_token (token, username, expiry_date) values (?, ?, ?)", tokenRows);
+        }
+    }
+
+    private String randomToken() {
+        char[] token = new char[TOKEN_LENGTH];
+        for (int i = 0; i < token.length; i++) {
+            token[i] = BASE64URL[random.nextInt(BASE64URL.length)];
+        }
+        return new String(token);
+    }
+}
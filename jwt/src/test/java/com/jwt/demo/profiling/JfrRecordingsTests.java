@@ -0,0 +1,123 @@
+package com.jwt.demo.profiling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * 관리자 API로 JFR 녹화를 시작하고, 녹화 중의 로그인과 인증된 요청이 인증 이벤트로 기록되는지 확인합니다.
+ * native image는 JFR 모니터링 옵션 없이 빌드하므로 JVM에서만 실행합니다.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+@DisabledInNativeImage
+class JfrRecordingsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JfrRecordings jfrRecordings;
+
+    // 녹화는 컨텍스트를 공유하는 다른 테스트에서도 계속 돌지 않도록 테스트마다 멈춥니다.
+    @AfterEach
+    void closeRecording() {
+        jfrRecordings.close();
+    }
+
+    @Test
+    void recordsAuthEventsWhileProfiling() throws Exception {
+        String adminToken = "Bearer " + login();
+        mockMvc.perform(post("/api/admin/profiling/recording").param("seconds", "30").header("Authorization", adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("RUNNING"));
+        mockMvc.perform(post("/api/admin/profiling/recording").header("Authorization", adminToken))
+                .andExpect(status().isConflict());
+
+        String accessToken = login();
+        mockMvc.perform(get("/api/user").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk());
+        byte[] recording = mockMvc.perform(get("/api/admin/profiling/recording").header("Authorization", adminToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        Path file = Files.createTempFile("jwt-auth", ".jfr");
+        try {
+            Files.write(file, recording);
+            Map<String, List<RecordedEvent>> events = RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().startsWith("com.jwt.demo."))
+                    .collect(Collectors.groupingBy(event -> event.getEventType().getName()));
+            assertThat(events.get("com.jwt.demo.Login")).anyMatch(event -> "success".equals(event.getString("outcome")));
+            assertThat(events.get("com.jwt.demo.PasswordCheck")).anyMatch(event -> event.getBoolean("matched"));
+            assertThat(events.get("com.jwt.demo.RepositoryCall"))
+                    .anyMatch(event -> "findOneWithAuthoritiesByUsername".equals(event.getString("method")))
+                    .anyMatch(event -> "save".equals(event.getString("method")));
+            assertThat(events.get("com.jwt.demo.TokenCreate")).anyMatch(event -> event.getBoolean("accessToken"));
+            assertThat(events.get("com.jwt.demo.TokenValidate")).anyMatch(event -> "VALID".equals(event.getString("outcome")));
+            assertThat(events.get("com.jwt.demo.JwtFilter")).anyMatch(event -> "authenticated".equals(event.getString("outcome")));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void closeStopsRunningRecordingAndWritesFile() throws Exception {
+        // jwt.profiling.directory의 기본값. JFR은 녹화를 시작할 때 빈 파일을 만들고 멈출 때 내용을 씁니다.
+        Path destination = Path.of(System.getProperty("java.io.tmpdir"), "jwt-recordings", "jwt-auth.jfr");
+        Files.deleteIfExists(destination);
+        assertThat(jfrRecordings.start(30, 0)).hasValueSatisfying(status -> assertThat(status.state()).isEqualTo("RUNNING"));
+
+        jfrRecordings.close();
+        assertThat(jfrRecordings.status()).isEmpty();
+        assertThat(Files.size(destination)).isPositive();
+        assertThat(jfrRecordings.start(1, 0)).isPresent(); // 닫은 뒤에는 새 녹화를 시작할 수 있습니다.
+    }
+
+    @Test
+    void forbidsRecordingForUserRole() throws Exception {
+        String response = mockMvc.perform(post("/api/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"intheeast0305@gmail.com\",\"password\":\"12345\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(post("/api/admin/profiling/recording")
+                        .header("Authorization", "Bearer " + objectMapper.readTree(response).get("accessToken").asText()))
+                .andExpect(status().isForbidden());
+    }
+
+    private String login() throws Exception {
+        String response = mockMvc.perform(post("/api/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"admin@example.com\",\"password\":\"12345\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("accessToken").asText();
+    }
+}
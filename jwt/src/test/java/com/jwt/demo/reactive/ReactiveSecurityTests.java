@@ -0,0 +1,149 @@
+package com.jwt.demo.reactive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.jwt.demo.controller.AuthController;
+import com.jwt.demo.jwt.TokenProvider;
+
+/**
+ * 애플리케이션을 리액티브(WebFlux)로 띄워 서블릿 배포와 같은 경로, 상태 코드, 오류 본문으로 응답하는지 확인합니다.
+ */
+@SpringBootTest(properties = "spring.main.web-application-type=reactive")
+@AutoConfigureWebTestClient
+@ActiveProfiles("embedded")
+class ReactiveSecurityTests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private TokenProvider tokenProvider;
+
+    @Test
+    void loginAndCallAuthenticatedEndpoint() {
+        assertThat(applicationContext.getBeanNamesForType(AuthController.class)).isEmpty();
+
+        JsonNode tokens = login("admin@example.com");
+        webTestClient.get().uri("/api/user")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokens.get("accessToken").asText())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.username").isEqualTo("admin@example.com");
+
+        webTestClient.get().uri("/api/sessions")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokens.get("accessToken").asText())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.sessions[0].sessionId").isNotEmpty();
+
+        webTestClient.post().uri("/api/refresh-token")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokens.get("accessToken").asText())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"refreshToken\":\"" + tokens.get("refreshToken").asText() + "\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.token").isNotEmpty();
+    }
+
+    @Test
+    void rejectsMissingTokenAndWrongPasswordWithJsonBody() {
+        webTestClient.get().uri("/api/user")
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectHeader().valueEquals(HttpHeaders.WWW_AUTHENTICATE, "Bearer")
+                .expectBody().json("{\"error\":\"unauthorized\"}");
+
+        webTestClient.post().uri("/api/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"username\":\"admin@example.com\",\"password\":\"wrong\"}")
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectBody().json("{\"error\":\"unauthorized\"}");
+
+        webTestClient.post().uri("/api/refresh-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"refreshToken\":\"unknown\"}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().json("{\"error\":\"invalid_refresh_token\"}");
+
+        // 로그아웃도 재발급과 같은 JSON 본문으로 실패를 알립니다.
+        JsonNode tokens = login("admin@example.com");
+        webTestClient.post().uri("/api/logout")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokens.get("accessToken").asText())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"refreshToken\":\"unknown\"}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().json("{\"error\":\"invalid_refresh_token\"}");
+    }
+
+    @Test
+    void userRoleCannotCallAdminApi() {
+        JsonNode tokens = login("intheeast0305@gmail.com");
+        webTestClient.post().uri("/api/admin/tokens/batch")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokens.get("accessToken").asText())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"subjects\":[]}")
+                .exchange()
+                .expectStatus().isForbidden()
+                .expectBody().json("{\"error\":\"forbidden\"}");
+    }
+
+    @Test
+    void userRoleCannotIntrospectTokens() {
+        JsonNode tokens = login("intheeast0305@gmail.com");
+        webTestClient.post().uri("/api/introspect")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokens.get("accessToken").asText())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"tokens\":[\"" + tokens.get("accessToken").asText() + "\"]}")
+                .exchange()
+                .expectStatus().isForbidden()
+                .expectBody().json("{\"error\":\"forbidden\"}");
+
+        String serviceToken = tokenProvider.createToken("svc-gateway", "ROLE_SERVICE", true);
+        webTestClient.post().uri("/api/introspect")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + serviceToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"tokens\":[\"" + tokens.get("accessToken").asText() + "\"]}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.results[0].active").isEqualTo(true);
+    }
+
+    @Test
+    void tokenWithoutRoleCannotReadUserInfo() {
+        String token = tokenProvider.createToken("admin@example.com", "", 1L, true);
+        webTestClient.get().uri("/api/user")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isForbidden()
+                .expectBody().json("{\"error\":\"forbidden\"}");
+    }
+
+    private JsonNode login(String username) {
+        return webTestClient.post().uri("/api/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"username\":\"" + username + "\",\"password\":\"12345\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.AUTHORIZATION)
+                .expectBody(JsonNode.class)
+                .returnResult()
+                .getResponseBody();
+    }
+}
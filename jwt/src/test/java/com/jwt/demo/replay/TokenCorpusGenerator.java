@@ -0,0 +1,212 @@
+package com.jwt.demo.replay;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SplittableRandom;
+
+import com.jwt.demo.jwt.TokenProvider;
+import com.jwt.demo.util.MutableClock;
+
+/**
+ * TokenCorpusGenerator는 TokenReplay로 재생할 합성 토큰 파일을 만듭니다. 한 줄에 "Bearer &lt;token&gt;" 하나씩 씁니다.
+ *
+ * - 사용자: users명. 권한은 성능 테스트 데이터(PerfDatasetGenerator)와 같이 모두 ROLE_USER, 50명 중 한 명은 ROLE_ADMIN,
+ *   모두 ROLE_PERF_0~7 중 1~2개를 가집니다.
+ * - 요청: 사용자는 Zipf 분포(지수 zipf, 기본 1.1)로 고르므로 소수의 사용자가 요청의 대부분을 보냅니다.
+ *   사용자마다 액세스 토큰 하나를 만료 전까지 재사용하므로, 같은 토큰이 여러 줄에 나타납니다. (filter 경로의 인증 객체 캐시)
+ * - 유효한 토큰은 유효기간 안의 임의 시각에 발급된 것으로 만들고, 실패 토큰은 mix의 비율로 섞습니다.
+ *   expired: 만료 후 최대 1시간 지난 토큰, signature: 다른 키로 서명, malformed: 서명 부분이 잘린 토큰,
+ *   unsupported: 서명 없는 토큰({"alg":"none"})
+ *
+ * 첫 줄에는 생성 기준 시각(# now=epoch 초)을 적어 두며, TokenReplay는 now 옵션이 없으면 이 시각으로 만료를 판단합니다.
+ * 같은 seed로 만들면 무작위로 정하는 jti와 갱신 시각(rat) 클레임을 빼고 같은 토큰 분포가 만들어집니다.
+ */
+final class TokenCorpusGenerator {
+
+    private static final int EXTRA_AUTHORITIES = 8;
+
+    // 서명 검증에 실패하도록 다른 키로 서명할 때 사용하는 비밀 키 (HS512에 충분한 길이)
+    private static final String FOREIGN_SECRET = Base64.getEncoder().encodeToString(
+            "replay-foreign-secret-that-the-server-does-not-know-replay-foreign-secret".getBytes(StandardCharsets.UTF_8));
+
+    /**
+     * 합성 토큰의 종류입니다.
+     */
+    enum Kind {
+        VALID("valid"), EXPIRED("expired"), SIGNATURE("signature"), MALFORMED("malformed"), UNSUPPORTED("unsupported");
+
+        final String key;
+
+        Kind(String key) {
+            this.key = key;
+        }
+    }
+
+    private final Map<String, String> options;
+    private final Properties jwtProperties;
+
+    TokenCorpusGenerator(Map<String, String> options, Properties jwtProperties) {
+        this.options = options;
+        this.jwtProperties = jwtProperties;
+    }
+
+    /**
+     * @return 종료 코드
+     */
+    int run() throws IOException {
+        Path out = Path.of(options.getOrDefault("out", "target/replay/tokens.txt"));
+        int count = Integer.parseInt(options.getOrDefault("count", "100000"));
+        int users = Math.max(Integer.parseInt(options.getOrDefault("users", "10000")), 1);
+        double zipf = Double.parseDouble(options.getOrDefault("zipf", "1.1"));
+        Map<Kind, Integer> mix = parseMix(options.getOrDefault("mix",
+                "valid:92,expired:5,signature:1,malformed:1,unsupported:1"));
+        SplittableRandom random = new SplittableRandom(Long.parseLong(options.getOrDefault("seed", "42")));
+
+        long accessValiditySeconds = Long.parseLong(jwtProperties.getProperty("jwt.token-validity-in-seconds"));
+        long clockSkewSeconds = Long.parseLong(jwtProperties.getProperty("jwt.clock-skew-seconds", "0"));
+        long nowSeconds = System.currentTimeMillis() / 1000;
+        MutableClock clock = new MutableClock(nowSeconds * 1000);
+        TokenProvider tokenProvider = TokenReplay.tokenProvider(jwtProperties.getProperty("jwt.secret"), jwtProperties, clock);
+        TokenProvider foreign = TokenReplay.tokenProvider(FOREIGN_SECRET, jwtProperties, clock);
+
+        String[] authorities = new String[users];
+        for (int i = 0; i < users; i++) {
+            StringBuilder auth = new StringBuilder("ROLE_USER");
+            if (i % 50 == 0) {
+                auth.append(",ROLE_ADMIN");
+            }
+            int first = random.nextInt(EXTRA_AUTHORITIES);
+            auth.append(",ROLE_PERF_").append(first);
+            if (random.nextBoolean()) {
+                auth.append(",ROLE_PERF_").append((first + 1) % EXTRA_AUTHORITIES);
+            }
+            authorities[i] = auth.toString();
+        }
+        double[] cumulative = zipfCumulative(users, zipf);
+
+        // 사용자마다 지금 사용 중인 (유효한) 액세스 토큰. 처음 요청할 때 만듭니다.
+        String[] current = new String[users];
+        Map<Kind, Integer> written = new EnumMap<>(Kind.class);
+        Files.createDirectories(out.toAbsolutePath().getParent());
+        try (BufferedWriter writer = Files.newBufferedWriter(out)) {
+            writer.write("# now=" + nowSeconds + " users=" + users + " zipf=" + zipf + " mix=" + mix);
+            writer.newLine();
+            for (int line = 0; line < count; line++) {
+                int user = pickUser(cumulative, random);
+                String username = "replay" + user + "@example.com";
+                Kind kind = pick(mix, random);
+                String token = switch (kind) {
+                    case VALID -> {
+                        if (current[user] == null) {
+                            clock.set((nowSeconds - random.nextLong(Math.max(accessValiditySeconds, 1))) * 1000);
+                            current[user] = tokenProvider.createToken(username, authorities[user], (long) user + 1, true);
+                        }
+                        yield current[user];
+                    }
+                    case EXPIRED -> {
+                        clock.set((nowSeconds - accessValiditySeconds - clockSkewSeconds - 1 - random.nextLong(3600)) * 1000);
+                        yield tokenProvider.createToken(username, authorities[user], (long) user + 1, true);
+                    }
+                    case SIGNATURE -> {
+                        clock.set(nowSeconds * 1000);
+                        yield foreign.createToken(username, authorities[user], (long) user + 1, true);
+                    }
+                    case MALFORMED -> {
+                        clock.set(nowSeconds * 1000);
+                        String valid = tokenProvider.createToken(username, authorities[user], (long) user + 1, true);
+                        yield valid.substring(0, valid.lastIndexOf('.'));
+                    }
+                    case UNSUPPORTED -> unsigned(username, authorities[user], nowSeconds + accessValiditySeconds);
+                };
+                writer.write("Bearer ");
+                writer.write(token);
+                writer.newLine();
+                written.merge(kind, 1, Integer::sum);
+            }
+        }
+        System.out.printf("토큰 %d개 생성: %s%n  종류별: %s%n  재생할 때 만료는 now=%d 기준으로 판단합니다.%n",
+                count, out.toAbsolutePath(), written, nowSeconds);
+        return 0;
+    }
+
+    private static String unsigned(String username, String authorities, long expirationSeconds) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String header = encoder.encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8));
+        String payload = encoder.encodeToString(("{\"sub\":\"" + username + "\",\"auth\":\"" + authorities
+                + "\",\"exp\":" + expirationSeconds + "}").getBytes(StandardCharsets.UTF_8));
+        return header + "." + payload + ".";
+    }
+
+    /**
+     * 순위가 r(1부터)인 사용자를 1 / r^exponent에 비례하는 확률로 고르기 위한 누적 분포입니다.
+     */
+    private static double[] zipfCumulative(int users, double exponent) {
+        double[] cumulative = new double[users];
+        double sum = 0;
+        for (int i = 0; i < users; i++) {
+            sum += 1 / Math.pow(i + 1, exponent);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < users; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int pickUser(double[] cumulative, SplittableRandom random) {
+        double r = random.nextDouble();
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] < r) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    static Map<Kind, Integer> parseMix(String mix) {
+        Map<Kind, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            Kind kind = null;
+            for (Kind candidate : Kind.values()) {
+                if (candidate.key.equals(parts[0])) {
+                    kind = candidate;
+                }
+            }
+            if (kind == null || parts.length != 2) {
+                throw new IllegalArgumentException(
+                        "mix 항목은 valid|expired|signature|malformed|unsupported:가중치 형식이어야 합니다: " + entry);
+            }
+            weights.put(kind, Integer.parseInt(parts[1]));
+        }
+        return weights;
+    }
+
+    private static Kind pick(Map<Kind, Integer> mix, SplittableRandom random) {
+        int total = 0;
+        for (int weight : mix.values()) {
+            total += weight;
+        }
+        int r = random.nextInt(total);
+        for (Map.Entry<Kind, Integer> entry : mix.entrySet()) {
+            r -= entry.getValue();
+            if (r < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException();
+    }
+}
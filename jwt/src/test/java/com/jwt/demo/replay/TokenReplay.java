@@ -0,0 +1,348 @@
+package com.jwt.demo.replay;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.jwt.demo.jwt.JwtFilter;
+import com.jwt.demo.jwt.TokenProvider;
+import com.jwt.demo.jwt.TokenValidationFailures.Reason;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import jakarta.servlet.FilterChain;
+
+/**
+ * TokenReplay는 수집한 Authorization 헤더 파일을 서버 없이 TokenProvider나 JwtFilter로 다시 검증해
+ * 실패 이유별 건수와 지연 시간 백분위수를 보고하는 명령행 도구입니다. 운영에서 느려진 요청을 재현하거나,
+ * 코드 변경 전후의 토큰 검증 비용을 같은 입력으로 비교할 때 사용합니다.
+ *
+ * 실행: mvn -Preplay test -Dreplay.args="file=captured.txt concurrency=8 iterations=5"
+ * 합성 토큰 파일 생성: mvn -Preplay test -Dreplay.args="mode=generate count=100000" (TokenCorpusGenerator 참고)
+ *
+ * 입력 파일은 한 줄에 하나씩 "Authorization: Bearer &lt;token&gt;", "Bearer &lt;token&gt;" 또는 토큰만 적습니다.
+ * 빈 줄과 #으로 시작하는 줄은 건너뛰고, Bearer 토큰이 아닌 헤더(Basic 등)는 missing으로 셉니다.
+ * 옵션 (key=value):
+ * - mode: replay(기본) 또는 generate
+ * - file: 재생할 파일 (기본 target/replay/tokens.txt)
+ * - path: validate(기본, TokenProvider.validateToken) 또는 filter(JwtFilter. 인증 객체 캐시와 액세스 토큰 재발급 포함)
+ * - concurrency: 스레드 수 (기본 코어 수), iterations: 측정할 반복 횟수 (기본 1), warmup: 측정 전 반복 횟수 (기본 1)
+ * - now: 만료를 판단할 시각(epoch 초). 생략하면 파일 첫 줄의 "# now=" 값, 그것도 없으면 현재 시간
+ * - secret: 서명 키(Base64). 생략하면 application.yml의 jwt.secret. 운영 토큰을 재생하려면 운영 키가 필요합니다.
+ * - report-dir, label: 결과 JSON 디렉터리와 이름 (기본 target/replay, git 커밋 해시)
+ *
+ * 만료 판단의 허용 오차 등 나머지 설정은 application.yml의 jwt.* 값을 그대로 사용합니다.
+ */
+public final class TokenReplay {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private final Map<String, String> options;
+    private final Properties jwtProperties;
+
+    TokenReplay(Map<String, String> options, Properties jwtProperties) {
+        this.options = options;
+        this.jwtProperties = jwtProperties;
+    }
+
+    public static void main(String[] args) throws Exception {
+        // 검증 실패와 인증 로그가 측정을 방해하지 않도록 로그 수준을 낮춥니다.
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        Map<String, String> options = parse(args);
+        Properties jwtProperties = jwtProperties();
+        if (options.containsKey("secret")) {
+            jwtProperties.setProperty("jwt.secret", options.get("secret"));
+        }
+        int exitCode = "generate".equals(options.get("mode"))
+                ? new TokenCorpusGenerator(options, jwtProperties).run()
+                : new TokenReplay(options, jwtProperties).run();
+        System.exit(exitCode);
+    }
+
+    /**
+     * 예열, 측정, 보고서 저장을 차례로 실행합니다.
+     *
+     * @return 종료 코드. 재생할 토큰이 없으면 1
+     */
+    int run() throws Exception {
+        Path file = Path.of(options.getOrDefault("file", "target/replay/tokens.txt"));
+        List<String> lines = Files.readAllLines(file);
+        String[] tokens = tokens(lines);
+        if (tokens.length == 0) {
+            System.out.println("재생할 토큰이 없습니다: " + file.toAbsolutePath());
+            return 1;
+        }
+
+        boolean filter = "filter".equals(options.getOrDefault("path", "validate"));
+        int concurrency = Math.max(intOption("concurrency", Runtime.getRuntime().availableProcessors()), 1);
+        int iterations = Math.max(intOption("iterations", 1), 1);
+        int warmup = Math.max(intOption("warmup", 1), 0);
+        long nowSeconds = options.containsKey("now") ? Long.parseLong(options.get("now")) : capturedAt(lines);
+        Clock clock = nowSeconds > 0
+                ? Clock.fixed(Instant.ofEpochSecond(nowSeconds), ZoneOffset.UTC)
+                : Clock.systemUTC();
+        TokenProvider tokenProvider = tokenProvider(jwtProperties.getProperty("jwt.secret"), jwtProperties, clock);
+        JwtFilter jwtFilter = new JwtFilter(tokenProvider);
+        System.out.printf("토큰 재생: %s, %d줄, path=%s, 스레드 %d, 예열 %d회, 측정 %d회, now=%s%n",
+                file, tokens.length, filter ? "filter" : "validate", concurrency, warmup, iterations,
+                nowSeconds > 0 ? nowSeconds : "현재 시간");
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            replay(executor, concurrency, tokens, warmup, filter, tokenProvider, jwtFilter);
+            Map<Reason, Long> before = tokenProvider.validationFailureCounts();
+            long start = System.nanoTime();
+            Result result = replay(executor, concurrency, tokens, iterations, filter, tokenProvider, jwtFilter);
+            long elapsed = System.nanoTime() - start;
+            Map<Reason, Long> after = tokenProvider.validationFailureCounts();
+
+            Map<String, Long> outcomes = new LinkedHashMap<>();
+            outcomes.put("valid", result.valid);
+            for (Reason reason : Reason.values()) {
+                outcomes.put(reason.name(), after.get(reason) - before.get(reason));
+            }
+            outcomes.put("missing", result.missing);
+
+            Map<String, Object> config = new LinkedHashMap<>();
+            config.put("file", file.toString());
+            config.put("path", filter ? "filter" : "validate");
+            config.put("tokens", tokens.length);
+            config.put("concurrency", concurrency);
+            config.put("iterations", iterations);
+            config.put("warmup", warmup);
+            config.put("now", nowSeconds > 0 ? nowSeconds : null);
+            Path written = write(config, outcomes, result.latency, elapsed);
+
+            long total = result.latency.getTotalCount();
+            System.out.printf("처리량: %.0f 건/초 (%d건, %.2f초)%n", total * 1e9 / elapsed, total, elapsed / 1e9);
+            System.out.println("결과: " + outcomes);
+            StringBuilder latency = new StringBuilder("지연 시간(ns):");
+            for (double percentile : PERCENTILES) {
+                latency.append(String.format(Locale.ROOT, " p%s=%d", trim(percentile),
+                        result.latency.getValueAtPercentile(percentile)));
+            }
+            System.out.println(latency.append(" max=").append(result.latency.getMaxValue()));
+            System.out.println("보고서: " + written.toAbsolutePath());
+            return 0;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 모든 스레드가 준비된 뒤 동시에 시작합니다. 스레드 t는 t, t + concurrency, ... 번째 줄을 차례로 검증합니다.
+     * 지연 시간은 스레드마다 따로 기록하고 끝난 뒤 합칩니다.
+     */
+    private static Result replay(ExecutorService executor, int concurrency, String[] tokens, int iterations,
+            boolean filter, TokenProvider tokenProvider, JwtFilter jwtFilter) throws Exception {
+        Result result = new Result();
+        if (iterations == 0) {
+            return result;
+        }
+        LongAdder valid = new LongAdder();
+        LongAdder missing = new LongAdder();
+        CountDownLatch ready = new CountDownLatch(concurrency);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Histogram>> futures = new ArrayList<>();
+        for (int t = 0; t < concurrency; t++) {
+            int first = t;
+            futures.add(executor.submit(() -> {
+                Histogram histogram = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+                ready.countDown();
+                go.await();
+                for (int iteration = 0; iteration < iterations; iteration++) {
+                    for (int i = first; i < tokens.length; i += concurrency) {
+                        String token = tokens[i];
+                        if (token == null && !filter) {
+                            missing.increment();
+                            continue;
+                        }
+                        long started = System.nanoTime();
+                        boolean ok = filter ? filter(jwtFilter, token) : tokenProvider.validateToken(token);
+                        histogram.recordValue(Math.min(System.nanoTime() - started, HIGHEST_TRACKABLE_NANOS));
+                        if (ok) {
+                            valid.increment();
+                        } else if (token == null) {
+                            missing.increment();
+                        }
+                    }
+                }
+                return histogram;
+            }));
+        }
+        ready.await();
+        go.countDown();
+        for (Future<Histogram> future : futures) {
+            result.latency.add(future.get());
+        }
+        result.valid = valid.sum();
+        result.missing = missing.sum();
+        return result;
+    }
+
+    /**
+     * 요청 하나를 JwtFilter에 통과시키고, 인증 정보가 SecurityContext에 저장되었는지 확인합니다.
+     */
+    private static boolean filter(JwtFilter jwtFilter, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/user");
+        if (token != null) {
+            request.addHeader(JwtFilter.AUTHORIZATION_HEADER, "Bearer " + token);
+        }
+        try {
+            jwtFilter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+            return SecurityContextHolder.getContext().getAuthentication() != null;
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    /**
+     * 파일의 각 줄에서 토큰을 꺼냅니다. Bearer 토큰이 아닌 헤더는 null로 둡니다.
+     */
+    static String[] tokens(List<String> lines) {
+        List<String> tokens = new ArrayList<>();
+        for (String line : lines) {
+            String value = line.strip();
+            if (value.isEmpty() || value.startsWith("#")) {
+                continue;
+            }
+            if (value.regionMatches(true, 0, JwtFilter.AUTHORIZATION_HEADER + ":", 0, JwtFilter.AUTHORIZATION_HEADER.length() + 1)) {
+                value = value.substring(JwtFilter.AUTHORIZATION_HEADER.length() + 1).strip();
+            }
+            tokens.add(value.indexOf(' ') < 0 ? value : JwtFilter.bearerToken(value));
+        }
+        return tokens.toArray(String[]::new);
+    }
+
+    /**
+     * TokenCorpusGenerator가 첫 줄에 적어 둔 생성 기준 시각을 읽습니다.
+     *
+     * @return epoch 초. 없으면 0
+     */
+    static long capturedAt(List<String> lines) {
+        if (!lines.isEmpty() && lines.get(0).startsWith("# now=")) {
+            String value = lines.get(0).substring("# now=".length());
+            int end = value.indexOf(' ');
+            return Long.parseLong(end < 0 ? value : value.substring(0, end));
+        }
+        return 0;
+    }
+
+    /**
+     * application.yml의 jwt.* 설정으로 저장소 없이 토큰 검증에만 쓰는 TokenProvider를 만듭니다.
+     */
+    static TokenProvider tokenProvider(String secret, Properties jwtProperties, Clock clock) {
+        TokenProvider tokenProvider = new TokenProvider(secret,
+                Long.parseLong(jwtProperties.getProperty("jwt.token-validity-in-seconds")),
+                Long.parseLong(jwtProperties.getProperty("jwt.refreshtoken-validity-in-seconds")),
+                Integer.parseInt(jwtProperties.getProperty("jwt.authentication-cache-size", "10000")),
+                Long.parseLong(jwtProperties.getProperty("jwt.logging.validation-failure-interval-seconds", "10")),
+                Long.parseLong(jwtProperties.getProperty("jwt.refresh-hint.window-seconds", "0")),
+                Long.parseLong(jwtProperties.getProperty("jwt.refresh-hint.jitter-seconds", "0")),
+                Boolean.parseBoolean(jwtProperties.getProperty("jwt.refresh-hint.reissue", "false")),
+                clock,
+                Long.parseLong(jwtProperties.getProperty("jwt.clock-skew-seconds", "0")),
+                null);
+        tokenProvider.afterPropertiesSet();
+        return tokenProvider;
+    }
+
+    private static Properties jwtProperties() {
+        YamlPropertiesFactoryBean yaml = new YamlPropertiesFactoryBean();
+        yaml.setResources(new ClassPathResource("application.yml"));
+        return yaml.getObject();
+    }
+
+    private Path write(Map<String, Object> config, Map<String, Long> outcomes, Histogram latency, long elapsedNanos)
+            throws IOException {
+        Map<String, Object> percentiles = new LinkedHashMap<>();
+        for (double percentile : PERCENTILES) {
+            percentiles.put("p" + trim(percentile), latency.getValueAtPercentile(percentile));
+        }
+        percentiles.put("max", latency.getMaxValue());
+        percentiles.put("mean", Math.round(latency.getMean()));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        String label = options.getOrDefault("label", gitRevision());
+        report.put("label", label);
+        report.put("timestamp", Instant.now().toString());
+        report.put("config", config);
+        report.put("count", latency.getTotalCount());
+        report.put("throughputPerSecond", Math.round(latency.getTotalCount() * 1e9 / elapsedNanos));
+        report.put("outcomes", outcomes);
+        report.put("latencyNanos", percentiles);
+
+        Path dir = Path.of(options.getOrDefault("report-dir", "target/replay"));
+        Files.createDirectories(dir);
+        Path path = dir.resolve("replay-" + label + ".json");
+        OBJECT_MAPPER.writeValue(path.toFile(), report);
+        return path;
+    }
+
+    private int intOption(String name, int defaultValue) {
+        String value = options.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    private static String trim(double percentile) {
+        return percentile == Math.rint(percentile) ? Long.toString((long) percentile) : Double.toString(percentile);
+    }
+
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("옵션은 key=value 형식이어야 합니다: " + arg);
+            }
+            options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+
+    private static String gitRevision() {
+        try {
+            Process process = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true).start();
+            String revision = new String(process.getInputStream().readAllBytes()).trim();
+            return process.waitFor() == 0 && !revision.isEmpty() ? revision : "local";
+        } catch (IOException | InterruptedException e) {
+            return "local";
+        }
+    }
+
+    private static final class Result {
+        final Histogram latency = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+        long valid;
+        long missing;
+    }
+}
@@ -0,0 +1,51 @@
+package com.jwt.demo.replay;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * TokenReplay가 캡처 파일의 여러 줄 형식에서 토큰을 꺼내고, 생성 기준 시각과 옵션을 읽는지 확인합니다.
+ */
+class TokenReplayTests {
+
+    @Test
+    void extractsTokensFromEachLineFormat() {
+        String[] tokens = TokenReplay.tokens(List.of(
+                "# now=1700000000 users=10 zipf=1.1 mix=valid:1",
+                "Authorization: Bearer header-token",
+                "authorization:Bearer lower-case-header",
+                "Bearer bearer-token",
+                "  bare-token  ",
+                "",
+                "# 주석",
+                "Authorization: Basic dXNlcjpwYXNz",
+                "Basic dXNlcjpwYXNz"));
+
+        // Bearer가 아닌 헤더는 토큰 없는 요청(missing)으로 세도록 null로 둡니다.
+        assertArrayEquals(new String[] {"header-token", "lower-case-header", "bearer-token", "bare-token", null, null},
+                tokens);
+    }
+
+    @Test
+    void readsCapturedAtFromFirstLineOnly() {
+        assertEquals(1700000000L, TokenReplay.capturedAt(List.of("# now=1700000000 users=10 zipf=1.1", "token")));
+        assertEquals(1700000000L, TokenReplay.capturedAt(List.of("# now=1700000000")));
+        assertEquals(0L, TokenReplay.capturedAt(List.of("token", "# now=1700000000")));
+        assertEquals(0L, TokenReplay.capturedAt(List.of("# 주석")));
+        assertEquals(0L, TokenReplay.capturedAt(List.of()));
+    }
+
+    @Test
+    void parsesKeyValueOptions() {
+        assertEquals(Map.of("file", "target/corpus.txt", "path", "filter", "mix", "valid:1,expired:2"),
+                TokenReplay.parse(new String[] {"file=target/corpus.txt", "path=filter", "mix=valid:1,expired:2"}));
+        assertThrows(IllegalArgumentException.class, () -> TokenReplay.parse(new String[] {"concurrency"}));
+        assertThrows(IllegalArgumentException.class, () -> TokenReplay.parse(new String[] {"=4"}));
+    }
+}
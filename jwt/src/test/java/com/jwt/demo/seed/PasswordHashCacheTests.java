@@ -0,0 +1,62 @@
+package com.jwt.demo.seed;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * 같은 비밀번호는 한 번만 해싱하고, 캐시 파일이 있으면 다음 기동에서 BCrypt를 다시 계산하지 않는지 확인합니다.
+ */
+class PasswordHashCacheTests {
+
+    private final AtomicInteger encoded = new AtomicInteger();
+    private final BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(4);
+    private final PasswordEncoder countingEncoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            encoded.incrementAndGet();
+            return bcrypt.encode(rawPassword);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return bcrypt.matches(rawPassword, encodedPassword);
+        }
+    };
+
+    @Test
+    void encodesEachDistinctPasswordOnce(@TempDir Path dir) {
+        Path file = dir.resolve("hashes.properties");
+        PasswordHashCache cache = new PasswordHashCache(countingEncoder, file, 4);
+
+        Map<String, String> hashes = cache.encodeAll(List.of("a", "b", "a", "c", "b"));
+        assertEquals(3, encoded.get());
+        assertTrue(bcrypt.matches("a", hashes.get("a")));
+        assertTrue(bcrypt.matches("c", hashes.get("c")));
+
+        // 다음 기동: 파일에서 읽은 해시를 사용하고 새 비밀번호만 해싱합니다.
+        PasswordHashCache reloaded = new PasswordHashCache(countingEncoder, file, 4);
+        Map<String, String> again = reloaded.encodeAll(List.of("a", "b", "c", "d"));
+        assertEquals(4, encoded.get());
+        assertEquals(hashes.get("b"), again.get("b"));
+        assertTrue(bcrypt.matches("d", again.get("d")));
+    }
+
+    @Test
+    void keepsPreEncodedPasswords() {
+        String hash = bcrypt.encode("secret");
+        PasswordHashCache cache = new PasswordHashCache(countingEncoder, null, 1);
+
+        assertEquals(hash, cache.encodeAll(List.of(hash)).get(hash));
+        assertEquals(0, encoded.get());
+    }
+}
@@ -0,0 +1,149 @@
+package com.jwt.demo.seed;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+
+import com.jwt.demo.sharding.ShardResolver;
+
+/**
+ * 시드 적재를 여러 번 실행해도 사용자가 중복되지 않고, 이미 있는 사용자는 건너뛰는지 확인합니다.
+ * 비밀번호 해싱은 트랜잭션 밖에서 끝내고, 트랜잭션은 insert에만 여는지도 확인합니다.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+class SeedDataLoaderTests {
+
+    @Autowired
+    private SeedDataLoader seedDataLoader;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectProvider<ShardResolver> shardResolver;
+
+    @Test
+    void defaultFixturesAreLoadedOnlyOnce() throws Exception {
+        // 기동할 때 이미 적재되었으므로 다시 실행하면 새로 저장하는 사용자가 없습니다.
+        SeedDataLoader.SeedResult result = seedDataLoader.seed(new ClassPathResource("seed/users.csv"));
+
+        assertEquals(3, result.fixtures());
+        assertEquals(0, result.inserted());
+        assertEquals(1, countUsers("admin@example.com"));
+    }
+
+    @Test
+    void loadsNewFixturesInBatchesAndSkipsThemNextTime() throws Exception {
+        StringBuilder csv = new StringBuilder("# username,password,nickname,authorities\n");
+        for (int i = 0; i < 1_500; i++) {
+            csv.append("seed").append(i).append("@example.com,pw").append(i % 2)
+                    .append(",seed").append(i).append(i % 100 == 0 ? ",ROLE_USER|ROLE_ADMIN\n" : ",ROLE_USER\n");
+        }
+        ByteArrayResource fixtures = new ByteArrayResource(csv.toString().getBytes(StandardCharsets.UTF_8), "seed fixtures");
+
+        assertEquals(1_500, seedDataLoader.seed(fixtures).inserted());
+        assertEquals(0, seedDataLoader.seed(fixtures).inserted());
+
+        assertEquals(1, countUsers("seed1499@example.com"));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "select count(*) from user_authority ua join users u on u.user_id = ua.user_id where u.username = ?",
+                Integer.class, "seed100@example.com"));
+        mockMvc.perform(post("/api/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"seed7@example.com\",\"password\":\"pw1\"}"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void hashesPasswordsBeforeOpeningTransaction() throws Exception {
+        // 해싱은 별도의 스레드에서 실행되므로 트랜잭션이 열려 있는지는 트랜잭션 매니저를 감싸서 확인합니다.
+        AtomicBoolean inTransaction = new AtomicBoolean();
+        AtomicInteger hashedInTransaction = new AtomicInteger();
+        AtomicInteger transactions = new AtomicInteger();
+        PlatformTransactionManager tracking = new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                transactions.incrementAndGet();
+                inTransaction.set(true);
+                return transactionManager.getTransaction(definition);
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+                inTransaction.set(false);
+                transactionManager.commit(status);
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+                inTransaction.set(false);
+                transactionManager.rollback(status);
+            }
+        };
+        PasswordEncoder encoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                if (inTransaction.get()) {
+                    hashedInTransaction.incrementAndGet();
+                }
+                return passwordEncoder.encode(rawPassword);
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return passwordEncoder.matches(rawPassword, encodedPassword);
+            }
+        };
+        SeedDataLoader loader = new SeedDataLoader(jdbcTemplate, tracking, shardResolver, encoder,
+                true, new ClassPathResource("seed/users.csv"), "", 2);
+
+        String csv = "hashed1@example.com,pw-a,hashed1,ROLE_USER\nhashed2@example.com,pw-b,hashed2,ROLE_USER\n";
+        ByteArrayResource fixtures = new ByteArrayResource(csv.getBytes(StandardCharsets.UTF_8), "hash fixtures");
+
+        assertEquals(2, loader.seed(fixtures).inserted());
+        assertEquals(0, hashedInTransaction.get());
+        assertEquals(1, transactions.get());
+        assertFalse(inTransaction.get());
+
+        // 모두 이미 있는 사용자이면 트랜잭션을 열지 않습니다.
+        assertEquals(0, loader.seed(fixtures).inserted());
+        assertEquals(1, transactions.get());
+        assertEquals(1, countUsers("hashed2@example.com"));
+    }
+
+    private int countUsers(String username) {
+        return jdbcTemplate.queryForObject("select count(*) from users where username = ?", Integer.class, username);
+    }
+}
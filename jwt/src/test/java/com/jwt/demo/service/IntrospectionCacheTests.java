@@ -0,0 +1,55 @@
+package com.jwt.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+import com.jwt.demo.dto.IntrospectionResultDto;
+
+/**
+ * 가득 찬 검사 캐시가 저장할 때마다 전체를 훑지 않고, 정리한 뒤에는 다시 저장을 받는지 확인합니다.
+ */
+class IntrospectionCacheTests {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Test
+    void clearsWhenFullOfLiveEntries() {
+        IntrospectionCache cache = new IntrospectionCache(5, 8);
+        for (int i = 0; i < 8; i++) {
+            cache.put("live-" + i, IntrospectionResultDto.INACTIVE, NOW);
+        }
+
+        // 만료된 항목이 없으므로 비우고 새 결과를 저장합니다.
+        cache.put("new", IntrospectionResultDto.INACTIVE, NOW);
+        assertEquals(1, cache.size());
+        assertSame(IntrospectionResultDto.INACTIVE, cache.get("new", NOW));
+        assertNull(cache.get("live-0", NOW));
+
+        // 다음 정리는 다시 가득 찰 때까지 일어나지 않습니다.
+        for (int i = 0; i < 7; i++) {
+            cache.put("more-" + i, IntrospectionResultDto.INACTIVE, NOW);
+        }
+        assertEquals(8, cache.size());
+    }
+
+    @Test
+    void keepsLiveEntriesWhenSweepFreesEnoughRoom() {
+        IntrospectionCache cache = new IntrospectionCache(5, 8);
+        for (int i = 0; i < 4; i++) {
+            cache.put("old-" + i, IntrospectionResultDto.INACTIVE, NOW);
+        }
+        for (int i = 0; i < 4; i++) {
+            cache.put("live-" + i, IntrospectionResultDto.INACTIVE, NOW + 3_000);
+        }
+
+        // 앞의 4개가 만료되어 절반만 남으므로 살아 있는 항목은 그대로 둡니다.
+        long later = NOW + 6_000;
+        cache.put("new", IntrospectionResultDto.INACTIVE, later);
+        assertEquals(5, cache.size());
+        assertSame(IntrospectionResultDto.INACTIVE, cache.get("live-3", later));
+        assertNull(cache.get("old-0", later));
+    }
+}
@@ -0,0 +1,124 @@
+package com.jwt.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.jwt.demo.dto.TokenDto;
+
+/**
+ * 같은 리프레시 토큰의 동시 갱신 요청이 한 번의 계산으로 합쳐지는지 확인합니다.
+ * grace가 지난 항목은 맵을 훑지 않고 끝난 순서대로 지워지는지도 확인합니다.
+ */
+class RefreshSingleFlightTests {
+
+    @Test
+    void concurrentDuplicatesShareOneComputation() throws Exception {
+        RefreshSingleFlight singleFlight = new RefreshSingleFlight(60_000, 100);
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<RefreshResult>> results = IntStream.range(0, 8)
+                    .mapToObj(i -> executor.submit(() -> singleFlight.execute("refresh-token", () -> {
+                        computations.incrementAndGet();
+                        await(release);
+                        return RefreshResult.issued(new TokenDto("access-" + computations.get()));
+                    })))
+                    .toList();
+            // 모든 요청이 도착한 뒤에 계산을 끝냅니다.
+            while (singleFlight.computedCount() + singleFlight.coalescedCount() < 8) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            RefreshResult first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<RefreshResult> result : results) {
+                assertSame(first, result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, computations.get());
+            assertEquals(7, singleFlight.coalescedCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void reusesResultOnlyWithinGraceWindow() throws Exception {
+        RefreshSingleFlight singleFlight = new RefreshSingleFlight(50, 100);
+        AtomicInteger computations = new AtomicInteger();
+
+        RefreshResult first = singleFlight.execute("refresh-token", () -> issued(computations));
+        assertSame(first, singleFlight.execute("refresh-token", () -> issued(computations)));
+        Thread.sleep(100);
+        singleFlight.execute("refresh-token", () -> issued(computations));
+        assertEquals(2, computations.get());
+
+        singleFlight.forget("refresh-token");
+        singleFlight.execute("refresh-token", () -> issued(computations));
+        assertEquals(3, computations.get());
+    }
+
+    @Test
+    void failureIsNotReused() {
+        RefreshSingleFlight singleFlight = new RefreshSingleFlight(60_000, 100);
+        AtomicInteger computations = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("refresh-token", () -> {
+            throw new IllegalStateException("db down");
+        }));
+        singleFlight.execute("refresh-token", () -> issued(computations));
+        assertEquals(1, computations.get());
+    }
+
+    @Test
+    void computesDirectlyWhenFull() {
+        RefreshSingleFlight singleFlight = new RefreshSingleFlight(60_000, 1);
+        AtomicInteger computations = new AtomicInteger();
+
+        singleFlight.execute("refresh-token-1", () -> issued(computations));
+        singleFlight.execute("refresh-token-2", () -> issued(computations));
+        singleFlight.execute("refresh-token-2", () -> issued(computations));
+        assertEquals(3, computations.get());
+    }
+
+    @Test
+    void evictsCompletedFlightsOnceGraceHasPassed() throws Exception {
+        RefreshSingleFlight singleFlight = new RefreshSingleFlight(50, 2);
+        AtomicInteger computations = new AtomicInteger();
+
+        singleFlight.execute("refresh-token-1", () -> issued(computations));
+        singleFlight.execute("refresh-token-2", () -> issued(computations));
+        assertEquals(2, singleFlight.size());
+        Thread.sleep(100);
+
+        // grace가 지난 항목은 다음 요청에서 끝난 순서대로 지워지므로, 가득 찬 상태로 남지 않고 다시 합칩니다.
+        RefreshResult third = singleFlight.execute("refresh-token-3", () -> issued(computations));
+        assertEquals(1, singleFlight.size());
+        assertSame(third, singleFlight.execute("refresh-token-3", () -> issued(computations)));
+        assertEquals(3, computations.get());
+    }
+
+    private static RefreshResult issued(AtomicInteger computations) {
+        return RefreshResult.issued(new TokenDto("access-" + computations.incrementAndGet()));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
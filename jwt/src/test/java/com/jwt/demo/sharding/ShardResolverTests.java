@@ -0,0 +1,51 @@
+package com.jwt.demo.sharding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 해시 링의 분포와, 샤드를 늘렸을 때 옮겨지는 사용자 비율을 확인합니다.
+ */
+class ShardResolverTests {
+
+    private static final int USERS = 100_000;
+
+    @Test
+    void spreadsUsersEvenly() {
+        ShardResolver resolver = new ShardResolver(4, 0, 160);
+        int[] counts = new int[4];
+        for (int i = 0; i < USERS; i++) {
+            counts[resolver.shardFor("user" + i + "@example.com")]++;
+        }
+        for (int count : counts) {
+            assertThat(count).isBetween(USERS / 4 * 85 / 100, USERS / 4 * 115 / 100);
+        }
+    }
+
+    @Test
+    void addingShardMovesOnlyItsShare() {
+        ShardResolver before = new ShardResolver(4, 0, 160);
+        ShardResolver after = new ShardResolver(5, 4, 160);
+        int moved = 0;
+        for (int i = 0; i < USERS; i++) {
+            String username = "user" + i + "@example.com";
+            int shard = after.shardFor(username);
+            if (shard != before.shardFor(username)) {
+                moved++;
+                assertThat(shard).isEqualTo(4); // 새 샤드로만 옮겨집니다.
+                assertThat(after.previousShardFor(username)).isEqualTo(before.shardFor(username));
+            } else {
+                assertThat(after.previousShardFor(username)).isEqualTo(-1);
+            }
+        }
+        assertThat(moved).isBetween(USERS / 5 * 80 / 100, USERS / 5 * 120 / 100);
+    }
+
+    @Test
+    void hashIsStable() {
+        // 해시가 바뀌면 기존 사용자를 찾을 수 없게 되므로 값을 고정합니다.
+        assertThat(ShardResolver.hash("admin@example.com")).isEqualTo(-5369826438221125025L);
+        assertThat(ShardResolver.hash("")).isEqualTo(-1166397803181037274L);
+    }
+}
@@ -0,0 +1,192 @@
+package com.jwt.demo.sharding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jwt.demo.dto.UserDto;
+import com.jwt.demo.jwt.TokenProvider;
+import com.jwt.demo.repository.RefreshTokenRepository;
+import com.jwt.demo.repository.UserRepository;
+import com.jwt.demo.service.UserService;
+
+/**
+ * 내장 H2 데이터베이스 세 개를 샤드로 두고, 두 샤드에서 세 샤드로 리샤딩하는 중인 상태로 애플리케이션을 띄웁니다.
+ * 가입과 로그인이 사용자의 샤드에 저장되는지, 이전 링에 남아 있는 사용자를 찾고 옮길 수 있는지 확인합니다.
+ */
+@SpringBootTest(properties = {
+        "jwt.sharding.urls=" + ShardingTests.SHARD_0 + "," + ShardingTests.SHARD_1 + "," + ShardingTests.SHARD_2,
+        "jwt.sharding.previous-shard-count=2"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+class ShardingTests {
+
+    static final String SHARD_0 = "jdbc:h2:mem:shard-0;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    static final String SHARD_1 = "jdbc:h2:mem:shard-1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    static final String SHARD_2 = "jdbc:h2:mem:shard-2;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    // 리샤딩 전(샤드 두 개)의 링
+    private final ShardResolver previousResolver = new ShardResolver(2, 0, 160);
+
+    @Autowired
+    private ShardResolver resolver;
+
+    @Autowired
+    private ShardRoutingDataSource shards;
+
+    @Autowired
+    private ShardRebalancer rebalancer;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private TokenProvider tokenProvider;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void signupStoresUserOnItsShard() {
+        Set<Integer> usedShards = new HashSet<>();
+        List<String> usernames = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            String username = "signup" + i + "@example.com";
+            usernames.add(username);
+            userService.signup(UserDto.builder().username(username).password("12345").nickname("n" + i).build());
+
+            int shard = resolver.shardFor(username);
+            usedShards.add(shard);
+            for (int s = 0; s < shards.getShardCount(); s++) {
+                assertThat(countUsers(s, username)).as("샤드 %d의 %s", s, username).isEqualTo(s == shard ? 1 : 0);
+            }
+            assertThat(userService.getUserWithAuthorities(username))
+                    .hasValueSatisfying(user -> assertThat(user.getAuthorities()).hasSize(1));
+        }
+
+        assertThat(usedShards).hasSizeGreaterThan(1);
+        assertThat(userRepository.findActiveUsernames(usernames)).containsExactlyInAnyOrderElementsOf(usernames);
+    }
+
+    @Test
+    void loginStoresRefreshTokenOnUsersShard() throws Exception {
+        String response = mockMvc.perform(post("/api/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"admin@example.com\",\"password\":\"12345\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String accessToken = objectMapper.readTree(response).get("accessToken").asText();
+        String refreshToken = objectMapper.readTree(response).get("refreshToken").asText();
+
+        int shard = resolver.shardFor("admin@example.com");
+        assertThat(jdbc(shard).queryForObject("select count(*) from refresh_token where token = ?",
+                Integer.class, refreshToken)).isEqualTo(1);
+        // user_id는 샤드 간에 고유하지 않으므로 토큰에 uid를 넣지 않습니다.
+        assertThat(tokenProvider.parseClaims(accessToken).orElseThrow().getUserId()).isNull();
+        assertThat(tokenProvider.parseClaims(refreshToken).orElseThrow().getUserId()).isNull();
+
+        mockMvc.perform(post("/api/logout")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"" + refreshToken + "\"}"))
+                .andExpect(status().isOk());
+        assertThat(refreshTokenRepository.findById(refreshToken)).isEmpty();
+    }
+
+    @Test
+    void findsAndRebalancesUsersLeftOnPreviousShard() {
+        // 1. 리샤딩 전 링의 위치에 사용자와 리프레시 토큰을 직접 저장합니다.
+        List<String> usernames = new ArrayList<>();
+        List<String> tokens = new ArrayList<>();
+        int misplaced = 0;
+        for (int i = 0; i < 40; i++) {
+            String username = "legacy" + i + "@example.com";
+            int shard = previousResolver.shardFor(username);
+            if (shard != resolver.shardFor(username)) {
+                misplaced++;
+            }
+            JdbcTemplate jdbcTemplate = jdbc(shard);
+            jdbcTemplate.update("insert into users (username, password, nickname, activated) values (?, ?, ?, ?)",
+                    username, "{noop}12345", "legacy", true);
+            Long userId = jdbcTemplate.queryForObject("select user_id from users where username = ?", Long.class, username);
+            jdbcTemplate.update("insert into user_authority (user_id, authority_name) values (?, ?)", userId, "ROLE_USER");
+
+            String token = tokenProvider.createToken(username, "ROLE_USER", false);
+            jdbcTemplate.update("insert into refresh_token (token, username, expiry_date) values (?, ?, ?)",
+                    token, username, LocalDateTime.now(ZoneOffset.UTC).plusHours(1));
+            usernames.add(username);
+            tokens.add(token);
+        }
+        assertThat(misplaced).isPositive();
+
+        // 2. 옮기기 전에도 이전 샤드에서 찾을 수 있어야 합니다.
+        assertAllFound(usernames, tokens);
+
+        // 3. 작은 배치로 옮긴 뒤에는 모든 행이 현재 링의 샤드에만 있어야 합니다.
+        ShardRebalancer.Result result = rebalancer.rebalance(7);
+        assertThat(result.movedUsers()).isGreaterThanOrEqualTo(misplaced);
+        assertThat(result.movedRefreshTokens()).isGreaterThanOrEqualTo(misplaced);
+        for (int i = 0; i < usernames.size(); i++) {
+            String username = usernames.get(i);
+            int shard = resolver.shardFor(username);
+            for (int s = 0; s < shards.getShardCount(); s++) {
+                assertThat(countUsers(s, username)).isEqualTo(s == shard ? 1 : 0);
+                assertThat(jdbc(s).queryForObject("select count(*) from refresh_token where token = ?",
+                        Integer.class, tokens.get(i))).isEqualTo(s == shard ? 1 : 0);
+            }
+        }
+        assertAllFound(usernames, tokens);
+
+        // 4. 다시 실행하면 옮길 행이 없습니다.
+        ShardRebalancer.Result again = rebalancer.rebalance(7);
+        assertThat(again.movedUsers()).isZero();
+        assertThat(again.movedRefreshTokens()).isZero();
+    }
+
+    private void assertAllFound(List<String> usernames, List<String> tokens) {
+        for (String username : usernames) {
+            assertThat(userService.getUserWithAuthorities(username))
+                    .hasValueSatisfying(user -> assertThat(user.getAuthorities()).hasSize(1));
+        }
+        for (String token : tokens) {
+            assertThat(refreshTokenRepository.findById(token)).isPresent();
+        }
+        assertThat(userRepository.findActiveUsernames(usernames)).containsExactlyInAnyOrderElementsOf(usernames);
+        assertThat(refreshTokenRepository.findAllById(tokens)).hasSize(tokens.size());
+    }
+
+    private int countUsers(int shard, String username) {
+        return jdbc(shard).queryForObject("select count(*) from users where username = ?", Integer.class, username);
+    }
+
+    private JdbcTemplate jdbc(int shard) {
+        return new JdbcTemplate(shards.getShard(shard));
+    }
+}
@@ -0,0 +1,55 @@
+package com.jwt.demo.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * CachedClock이 기반 시계를 따라가되 뒤로 가지 않고, close 후에는 멈추는지 확인합니다.
+ */
+class CachedClockTests {
+
+    @Test
+    void followsSourceWithoutGoingBackwards() throws InterruptedException {
+        MutableClock source = new MutableClock(1_000L);
+        try (CachedClock clock = new CachedClock(source, Duration.ofMillis(1))) {
+            assertEquals(1_000L, clock.millis());
+
+            source.set(5_000L);
+            awaitMillis(clock, 5_000L);
+            assertEquals(5_000L, clock.instant().toEpochMilli());
+
+            source.set(4_000L); // NTP 보정 등으로 시스템 시간이 뒤로 가도
+            Thread.sleep(50);
+            assertEquals(5_000L, clock.millis());
+        }
+    }
+
+    @Test
+    void stopsTickingAfterClose() throws InterruptedException {
+        MutableClock source = new MutableClock(1_000L);
+        CachedClock clock = new CachedClock(source, Duration.ofMillis(1));
+        clock.close();
+        Thread.sleep(20);
+
+        source.set(2_000L);
+        Thread.sleep(50);
+        assertEquals(1_000L, clock.millis());
+    }
+
+    @Test
+    void rejectsNonPositiveResolution() {
+        assertThrows(IllegalArgumentException.class, () -> new CachedClock(new MutableClock(0L), Duration.ZERO));
+    }
+
+    private static void awaitMillis(CachedClock clock, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (clock.millis() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(expected, clock.millis());
+    }
+}
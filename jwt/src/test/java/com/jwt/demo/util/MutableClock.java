@@ -0,0 +1,81 @@
+package com.jwt.demo.util;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * MutableClock은 테스트에서 시간을 직접 옮길 수 있는 UTC Clock입니다. 시계가 어긋난 노드를 흉내 낼 때 사용합니다.
+ */
+public final class MutableClock extends Clock {
+
+    private volatile long millis;
+
+    public MutableClock(long millis) {
+        this.millis = millis;
+    }
+
+    public void set(long millis) {
+        this.millis = millis;
+    }
+
+    public void advanceSeconds(long seconds) {
+        this.millis += seconds * 1000;
+    }
+
+    @Override
+    public long millis() {
+        return millis;
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(millis);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneOffset.UTC;
+    }
+
+    /**
+     * UTC이면 이 시계를, 다른 시간대이면 이 시계와 같은 시각을 보는 다른 시간대의 시계를 돌려줍니다.
+     * set, advanceSeconds로 옮긴 시각은 돌려준 시계에도 그대로 보입니다.
+     */
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return ZoneOffset.UTC.equals(zone) ? this : new ZonedView(this, zone);
+    }
+
+    private static final class ZonedView extends Clock {
+
+        private final MutableClock source;
+        private final ZoneId zone;
+
+        ZonedView(MutableClock source, ZoneId zone) {
+            this.source = source;
+            this.zone = zone;
+        }
+
+        @Override
+        public long millis() {
+            return source.millis();
+        }
+
+        @Override
+        public Instant instant() {
+            return source.instant();
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return source.withZone(zone);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.jwt.demo.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+
+import com.jwt.demo.jwt.TokenProvider;
+
+/**
+ * SecurityUtil이 JWT 인증 객체에서는 바로, 그 밖의 인증 객체에서는 principal 타입에 따라 사용자 이름을 꺼내는지 확인합니다.
+ */
+class SecurityUtilTests {
+
+    private static final String SECRET = "a2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbXRva2FyaW10b2thcmltdG9rYXJpbQ==";
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readsUsernameFromJwtAuthentication() {
+        TokenProvider tokenProvider = new TokenProvider(SECRET, 60, 600, 100, 0, 0, 0, false, Clock.systemUTC(), 0, null);
+        tokenProvider.afterPropertiesSet();
+        SecurityContextHolder.getContext().setAuthentication(
+                tokenProvider.authenticate(tokenProvider.createToken("user@example.com", "ROLE_USER", 1L, true)));
+
+        assertEquals(Optional.of("user@example.com"), SecurityUtil.getCurrentUsername());
+    }
+
+    @Test
+    void readsUsernameFromOtherPrincipals() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                User.withUsername("details@example.com").password("x").authorities(List.of()).build(), null, List.of()));
+        assertEquals(Optional.of("details@example.com"), SecurityUtil.getCurrentUsername());
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("plain@example.com", null, List.of()));
+        assertEquals(Optional.of("plain@example.com"), SecurityUtil.getCurrentUsername());
+    }
+
+    @Test
+    void returnsEmptyWithoutAuthentication() {
+        assertTrue(SecurityUtil.getCurrentUsername().isEmpty());
+    }
+}